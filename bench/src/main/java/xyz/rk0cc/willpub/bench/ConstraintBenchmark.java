@@ -0,0 +1,70 @@
+package xyz.rk0cc.willpub.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing and matching pub's version constraints with josev.
+ * <br/>
+ * Each invocation handles all generated constraints, which is the work of checking every dependency of a project
+ * once.
+ *
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintBenchmark {
+    @Param({"10", "100", "1000"})
+    public int dependencies;
+
+    private String[] rawConstraints;
+    private String[] rawVersions;
+    private PubSemVerConstraint[] constraints;
+    private SemVer[] versions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(dependencies);
+        rawConstraints = new String[dependencies];
+        rawVersions = new String[dependencies];
+        constraints = new PubSemVerConstraint[dependencies];
+        versions = new SemVer[dependencies];
+
+        for (int i = 0; i < dependencies; i++) {
+            rawConstraints[i] = SyntheticProject.randomConstraint(random);
+            rawVersions[i] = SyntheticProject.randomVersion(random);
+            constraints[i] = PubSemVerConstraint.parse(rawConstraints[i]);
+            versions[i] = SemVer.tryParse(rawVersions[i]);
+        }
+    }
+
+    @Benchmark
+    public void parseConstraints(Blackhole bh) {
+        for (String raw : rawConstraints) bh.consume(PubSemVerConstraint.parse(raw));
+    }
+
+    @Benchmark
+    public void parseVersions(Blackhole bh) {
+        for (String raw : rawVersions) bh.consume(SemVer.tryParse(raw));
+    }
+
+    @Benchmark
+    public void matchParsed(Blackhole bh) {
+        for (int i = 0; i < dependencies; i++) bh.consume(constraints[i].isInRange(versions[i]));
+    }
+
+    @Benchmark
+    public void parseAndMatch(Blackhole bh) {
+        for (int i = 0; i < dependencies; i++)
+            bh.consume(PubSemVerConstraint.parse(rawConstraints[i]).isInRange(SemVer.tryParse(rawVersions[i])));
+    }
+}
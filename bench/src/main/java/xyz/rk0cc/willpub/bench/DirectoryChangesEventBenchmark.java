@@ -0,0 +1,117 @@
+package xyz.rk0cc.willpub.bench;
+
+import javafx.event.Event;
+import javafx.scene.Group;
+import org.openjdk.jmh.annotations.*;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.ui.event.DirectoryChangesEvent;
+import xyz.rk0cc.willpub.ui.event.DirectoryChangesEventHandler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static xyz.rk0cc.willpub.ui.event.DirectoryChangesEvent.*;
+
+/**
+ * Benchmarks of dispatching {@link DirectoryChangesEvent} to {@link DirectoryChangesEventHandler}.
+ * <br/>
+ * It measures calling handler directly and firing through JavaFX event dispatch chain of a nested scene graph, which
+ * is the path of events fired by <code>CurrentDirectoryPath</code>. Nodes are never shown, therefore software
+ * rendering pipeline is forced that it runs on machine without GPU.
+ *
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dprism.order=sw")
+public class DirectoryChangesEventBenchmark {
+    /**
+     * Handler which only counts invocations.
+     */
+    private static final class CountingHandler extends DirectoryChangesEventHandler {
+        long count = 0L;
+
+        @Override
+        public void onLoading(@Nonnull File loadingDir, @Nonnull DartProjectLoadStage stage) {
+            count++;
+        }
+
+        @Override
+        public void onApplied(@Nonnull File newDir) {
+            count++;
+        }
+
+        @Override
+        public void onFailed(@Nonnull String invalidDirPath, @Nullable Throwable throwable) {
+            count++;
+        }
+
+        @Override
+        public void onReset() {
+            count++;
+        }
+    }
+
+    @Param({"10", "100", "1000"})
+    public int dependencies;
+
+    /**
+     * Number of ancestors between target and root, which event bubbles through.
+     */
+    @Param({"1", "16"})
+    public int depth;
+
+    private Path projectDir;
+    private CountingHandler handler;
+    private Group target;
+    private DirectoryChangesLoadingEvent loadingEvent;
+    private DirectoryChangesAppliedEvent appliedEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        projectDir = SyntheticProject.create(dependencies);
+        final DartProject project = DartProjectLoader.loadProject(projectDir.toFile());
+
+        handler = new CountingHandler();
+        loadingEvent = new DirectoryChangesLoadingEvent(projectDir.toFile(), DartProjectLoadStage.READING_PUBSPEC);
+        appliedEvent = new DirectoryChangesAppliedEvent(projectDir.toFile(), project);
+
+        // Handler attached at root that every event travels whole chain
+        final Group root = new Group();
+        root.addEventHandler(DIRECTORY_CHANGES_EVENT_TYPE, handler);
+        Group parent = root;
+        for (int i = 0; i < depth; i++) {
+            final Group child = new Group();
+            parent.getChildren().add(child);
+            parent = child;
+        }
+        target = parent;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        SyntheticProject.delete(projectDir);
+    }
+
+    @Benchmark
+    public long handleDirectly() {
+        handler.handle(loadingEvent);
+        handler.handle(appliedEvent);
+        return handler.count;
+    }
+
+    @Benchmark
+    public long fireThroughSceneGraph() {
+        Event.fireEvent(target, loadingEvent);
+        Event.fireEvent(target, appliedEvent);
+        return handler.count;
+    }
+}
@@ -0,0 +1,74 @@
+package xyz.rk0cc.willpub.bench;
+
+import org.openjdk.jmh.annotations.*;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.project.ProjectModelCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of loading {@link DartProject} end to end, from validating directory to parsing all project files.
+ * <br/>
+ * It compares loading without cache, loading from warm {@link ProjectModelCache} and reloading after
+ * <code>pubspec.lock</code> changed only.
+ *
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectLoadBenchmark {
+    private static final Set<ProjectFile> LOCK_CHANGED = EnumSet.of(ProjectFile.PUBSPEC_LOCK);
+
+    @Param({"10", "100", "1000"})
+    public int dependencies;
+
+    private Path projectDir;
+    private File projectFile;
+    private Path cacheDir;
+    private ProjectModelCache cache;
+    private DartProject loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        projectDir = SyntheticProject.create(dependencies);
+        projectFile = projectDir.toFile();
+        cacheDir = Files.createTempDirectory("willpub-bench-cache-");
+        cache = new ProjectModelCache(cacheDir, ProjectModelCache.DEFAULT_MAX_BYTES);
+
+        // Warm cache entry
+        loaded = DartProjectLoader.loadProject(projectFile, stage -> {}, cache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticProject.delete(projectDir);
+        SyntheticProject.delete(cacheDir);
+    }
+
+    @Benchmark
+    public DartProject loadUncached() throws Exception {
+        return DartProjectLoader.loadProject(projectFile);
+    }
+
+    @Benchmark
+    public DartProject loadCached() throws Exception {
+        return DartProjectLoader.loadProject(projectFile, stage -> {}, cache);
+    }
+
+    @Benchmark
+    public DartProject reloadLockOnly() throws IOException {
+        return DartProjectLoader.reloadProject(loaded, LOCK_CHANGED);
+    }
+}
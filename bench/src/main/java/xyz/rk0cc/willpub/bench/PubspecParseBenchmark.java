@@ -0,0 +1,88 @@
+package xyz.rk0cc.willpub.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.openjdk.jmh.annotations.*;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.project.lock.LockReadOption;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfigReader;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLockReader;
+import xyz.rk0cc.willpub.pubspec.PubspecManager;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing <code>pubspec.yaml</code>, <code>pubspec.lock</code> and <code>package_config.json</code>.
+ * <br/>
+ * Jackson's tree model of the same files are measured as baseline, which shows the overhead of jpubspec's binding
+ * and the gain of streaming lock reader.
+ *
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PubspecParseBenchmark {
+    private static final YAMLMapper YAML_MAPPER = new YAMLMapper();
+
+    @Param({"10", "100", "1000"})
+    public int dependencies;
+
+    private Path projectDir;
+    private Path packageConfig;
+    private byte[] pubspecBytes;
+    private byte[] lockBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        projectDir = SyntheticProject.create(dependencies);
+        packageConfig = ProjectFile.PACKAGE_CONFIG.resolve(projectDir);
+        pubspecBytes = Files.readAllBytes(ProjectFile.PUBSPEC_YAML.resolve(projectDir));
+        lockBytes = Files.readAllBytes(ProjectFile.PUBSPEC_LOCK.resolve(projectDir));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticProject.delete(projectDir);
+    }
+
+    @Benchmark
+    public Pubspec pubspecJPubspec() throws IOException {
+        return new PubspecManager(projectDir).loadPubspec();
+    }
+
+    @Benchmark
+    public JsonNode pubspecJacksonTree() throws IOException {
+        return YAML_MAPPER.readTree(pubspecBytes);
+    }
+
+    @Benchmark
+    public PubspecLock lockStreaming() throws IOException {
+        return PubspecLockReader.read(new ByteArrayInputStream(lockBytes), LockReadOption.ALL);
+    }
+
+    @Benchmark
+    public PubspecLock lockPackagesOnly() throws IOException {
+        return PubspecLockReader.read(new ByteArrayInputStream(lockBytes), LockReadOption.PACKAGES_ONLY);
+    }
+
+    @Benchmark
+    public JsonNode lockJacksonTree() throws IOException {
+        return YAML_MAPPER.readTree(lockBytes);
+    }
+
+    @Benchmark
+    public PackageConfig packageConfigStreaming() throws IOException {
+        return PackageConfigReader.read(packageConfig);
+    }
+}
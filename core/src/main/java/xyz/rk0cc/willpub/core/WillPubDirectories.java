@@ -0,0 +1,110 @@
+package xyz.rk0cc.willpub.core;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Locating directories which Will Pub stores its own data in current user's home.
+ *
+ * @since 1.0.0
+ */
+public final class WillPubDirectories {
+    /**
+     * Name of directory under platform's application data directory.
+     */
+    private static final String APP_DIR_NAME = "willpub";
+
+    /**
+     * System property to override base directory of Will Pub's data.
+     */
+    public static final String BASE_DIR_PROPERTY = "willpub.dir";
+
+    private WillPubDirectories() {}
+
+    /**
+     * Determine current OS is Windows.
+     *
+     * @return <code>true</code> if running on Windows.
+     */
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+    }
+
+    /**
+     * Determine current OS is macOS.
+     *
+     * @return <code>true</code> if running on macOS.
+     */
+    private static boolean isMacOS() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("mac");
+    }
+
+    /**
+     * Resolve directory from environment variable or fallback to user home.
+     *
+     * @param env Name of environment variable.
+     * @param fallback Relative path from user home if variable is undefined.
+     *
+     * @return Resolved {@link Path}.
+     */
+    @Nonnull
+    private static Path fromEnvOrHome(@Nonnull String env, @Nonnull String fallback) {
+        final String value = System.getenv(env);
+        return value == null || value.isBlank()
+                ? Path.of(System.getProperty("user.home"), fallback)
+                : Path.of(value);
+    }
+
+    /**
+     * Get directory for storing configuration and session.
+     * <br/>
+     * It uses <code>%APPDATA%\willpub</code> on Windows, <code>~/Library/Application Support/willpub</code> on
+     * macOS and <code>$XDG_CONFIG_HOME/willpub</code> for others.
+     *
+     * @return {@link Path} of configuration directory, which may not be existed yet.
+     */
+    @Nonnull
+    public static Path configDirectory() {
+        final String override = System.getProperty(BASE_DIR_PROPERTY);
+        if (override != null) return Path.of(override, "config");
+
+        if (isWindows()) return fromEnvOrHome("APPDATA", "AppData/Roaming").resolve(APP_DIR_NAME);
+        if (isMacOS()) return Path.of(System.getProperty("user.home"), "Library", "Application Support", APP_DIR_NAME);
+        return fromEnvOrHome("XDG_CONFIG_HOME", ".config").resolve(APP_DIR_NAME);
+    }
+
+    /**
+     * Get directory for storing cache which can be deleted safely.
+     * <br/>
+     * It uses <code>%LOCALAPPDATA%\willpub\cache</code> on Windows, <code>~/Library/Caches/willpub</code> on macOS
+     * and <code>$XDG_CACHE_HOME/willpub</code> for others.
+     *
+     * @return {@link Path} of cache directory, which may not be existed yet.
+     */
+    @Nonnull
+    public static Path cacheDirectory() {
+        final String override = System.getProperty(BASE_DIR_PROPERTY);
+        if (override != null) return Path.of(override, "cache");
+
+        if (isWindows()) return fromEnvOrHome("LOCALAPPDATA", "AppData/Local").resolve(APP_DIR_NAME).resolve("cache");
+        if (isMacOS()) return Path.of(System.getProperty("user.home"), "Library", "Caches", APP_DIR_NAME);
+        return fromEnvOrHome("XDG_CACHE_HOME", ".cache").resolve(APP_DIR_NAME);
+    }
+
+    /**
+     * Get subdirectory of {@link #cacheDirectory()} and create it if not existed.
+     *
+     * @param name Name of subdirectory.
+     *
+     * @return {@link Path} of created subdirectory.
+     *
+     * @throws IOException If unable to create directory.
+     */
+    @Nonnull
+    public static Path createCacheSubdirectory(@Nonnull String name) throws IOException {
+        return Files.createDirectories(cacheDirectory().resolve(name));
+    }
+}
@@ -0,0 +1,64 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * A problem of dependency which found by {@link ProjectAudit}.
+ *
+ * @param kind {@link Kind} of problem.
+ * @param packageName Name of package, or <code>null</code> if it is a problem of whole project.
+ * @param constraint Raw constraint in <code>pubspec.yaml</code>, or <code>null</code> if unknown.
+ * @param lockedVersion Version in <code>pubspec.lock</code>, or <code>null</code> if not resolved.
+ * @param latestVersion Latest version on pub.dev, or <code>null</code> if unknown.
+ * @param message Human-readable description.
+ *
+ * @since 1.0.0
+ */
+public record AuditFinding(
+        @Nonnull Kind kind,
+        @Nullable String packageName,
+        @Nullable String constraint,
+        @Nullable String lockedVersion,
+        @Nullable String latestVersion,
+        @Nonnull String message
+) {
+    /**
+     * Enumerated kind of {@link AuditFinding}.
+     *
+     * @since 1.0.0
+     */
+    public enum Kind {
+        /**
+         * <code>pubspec.lock</code> is missing, or a package listed in <code>pubspec.yaml</code> is not resolved.
+         */
+        NOT_RESOLVED,
+        /**
+         * Resolved version is not allowed by constraint in <code>pubspec.yaml</code>.
+         */
+        CONSTRAINT_MISMATCH,
+        /**
+         * Resolved version is not the latest version on pub.dev.
+         */
+        OUTDATED,
+        /**
+         * Package is discontinued on pub.dev.
+         */
+        DISCONTINUED,
+        /**
+         * Metadata of hosted package can not be fetched, which other kinds of package are not checked.
+         */
+        METADATA_UNAVAILABLE
+    }
+
+    public AuditFinding {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(message);
+    }
+
+    @Override
+    public String toString() {
+        return kind + (packageName == null ? "" : " " + packageName) + ": " + message;
+    }
+}
@@ -0,0 +1,215 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Write {@link ProjectAuditResult} as machine-readable report.
+ *
+ * @since 1.0.0
+ */
+public final class AuditReportWriter {
+    /**
+     * Enumerated format of report.
+     *
+     * @since 1.0.0
+     */
+    public enum Format {
+        /**
+         * A JSON object with summary and every project, including projects without finding.
+         */
+        JSON,
+        /**
+         * CSV with a header row, which each row is a finding or a failed project. Projects without finding have no
+         * row.
+         */
+        CSV;
+
+        /**
+         * Find format by name in any case.
+         *
+         * @param name Name of format.
+         *
+         * @return {@link Format} of given name.
+         *
+         * @throws IllegalArgumentException If no format is matched.
+         */
+        @Nonnull
+        public static Format of(@Nonnull String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + name);
+            }
+        }
+    }
+
+    /**
+     * Header of CSV report.
+     */
+    public static final List<String> CSV_HEADER = List.of(
+            "directory", "project", "kind", "package", "constraint", "locked", "latest", "message"
+    );
+
+    /**
+     * Kind of CSV row which the project can not be loaded.
+     */
+    public static final String CSV_FAILED_KIND = "LOAD_FAILED";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private AuditReportWriter() {}
+
+    /**
+     * Write report in given format. The stream is flushed but not closed.
+     *
+     * @param format {@link Format} of report.
+     * @param results Results from {@link BatchAuditor}.
+     * @param output {@link OutputStream} which report written to.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void write(
+            @Nonnull Format format,
+            @Nonnull List<ProjectAuditResult> results,
+            @Nonnull OutputStream output
+    ) throws IOException {
+        switch (format) {
+            case JSON -> writeJson(results, output);
+            case CSV -> writeCsv(results, output);
+        }
+    }
+
+    /**
+     * Write report as JSON in UTF-8. The stream is flushed but not closed.
+     *
+     * @param results Results from {@link BatchAuditor}.
+     * @param output {@link OutputStream} which report written to.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void writeJson(@Nonnull List<ProjectAuditResult> results, @Nonnull OutputStream output)
+            throws IOException {
+        final EnumMap<AuditFinding.Kind, Integer> kindCount = new EnumMap<>(AuditFinding.Kind.class);
+        for (AuditFinding.Kind k : AuditFinding.Kind.values()) kindCount.put(k, 0);
+
+        int failed = 0;
+        for (ProjectAuditResult r : results) {
+            if (r.isFailed()) failed++;
+            for (AuditFinding f : r.getFindings()) kindCount.merge(f.kind(), 1, Integer::sum);
+        }
+
+        try (JsonGenerator g = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            g.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            g.useDefaultPrettyPrinter();
+
+            g.writeStartObject();
+            g.writeStringField("generatedAt", Instant.now().toString());
+
+            g.writeObjectFieldStart("summary");
+            g.writeNumberField("projects", results.size());
+            g.writeNumberField("failed", failed);
+            g.writeObjectFieldStart("findings");
+            for (var e : kindCount.entrySet()) g.writeNumberField(e.getKey().name(), e.getValue());
+            g.writeEndObject();
+            g.writeEndObject();
+
+            g.writeArrayFieldStart("projects");
+            for (ProjectAuditResult r : results) {
+                g.writeStartObject();
+                g.writeStringField("directory", r.getDirectory().toString());
+                g.writeStringField("name", r.getProjectName());
+                g.writeNumberField("dependencies", r.getDependencyCount());
+                g.writeNumberField("elapsedMillis", r.getElapsed().toMillis());
+                g.writeStringField("failure", r.getFailure());
+
+                g.writeArrayFieldStart("findings");
+                for (AuditFinding f : r.getFindings()) {
+                    g.writeStartObject();
+                    g.writeStringField("kind", f.kind().name());
+                    g.writeStringField("package", f.packageName());
+                    g.writeStringField("constraint", f.constraint());
+                    g.writeStringField("locked", f.lockedVersion());
+                    g.writeStringField("latest", f.latestVersion());
+                    g.writeStringField("message", f.message());
+                    g.writeEndObject();
+                }
+                g.writeEndArray();
+
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+
+            g.writeEndObject();
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Write report as CSV in UTF-8. The stream is flushed but not closed.
+     *
+     * @param results Results from {@link BatchAuditor}.
+     * @param output {@link OutputStream} which report written to.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void writeCsv(@Nonnull List<ProjectAuditResult> results, @Nonnull OutputStream output)
+            throws IOException {
+        final Writer w = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        writeCsvRow(w, CSV_HEADER.toArray(String[]::new));
+        for (ProjectAuditResult r : results) {
+            final String dir = r.getDirectory().toString();
+
+            if (r.isFailed()) {
+                writeCsvRow(w, dir, null, CSV_FAILED_KIND, null, null, null, null, r.getFailure());
+                continue;
+            }
+
+            for (AuditFinding f : r.getFindings()) writeCsvRow(
+                    w,
+                    dir,
+                    r.getProjectName(),
+                    f.kind().name(),
+                    f.packageName(),
+                    f.constraint(),
+                    f.lockedVersion(),
+                    f.latestVersion(),
+                    f.message()
+            );
+        }
+
+        w.flush();
+    }
+
+    private static void writeCsvRow(@Nonnull Writer w, @Nullable String... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) w.write(',');
+
+            final String c = cells[i];
+            if (c == null) continue;
+
+            // RFC 4180 quoting
+            if (c.indexOf(',') >= 0 || c.indexOf('"') >= 0 || c.indexOf('\n') >= 0 || c.indexOf('\r') >= 0) {
+                w.write('"');
+                w.write(c.replace("\"", "\"\""));
+                w.write('"');
+            } else {
+                w.write(c);
+            }
+        }
+
+        w.write("\r\n");
+    }
+}
@@ -0,0 +1,243 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import xyz.rk0cc.willpub.core.pubdev.PubDevCachePolicy;
+import xyz.rk0cc.willpub.core.pubdev.PubDevHttpCache;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceScanner;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless entry point of auditing dependencies of many projects, which is the main class of shaded core jar.
+ * <br/>
+ * It only uses core module, that JavaFX toolkit is never started and it can be run in server without display:
+ * <pre>
+ *     java -jar willpub-core-1.0.0-batch.jar --format=csv --output=report.csv --recursive ~/repos
+ * </pre>
+ * Exit code is <code>0</code> if no problem found, <code>1</code> if any finding, <code>2</code> if any project can
+ * not be loaded and <code>64</code> for invalid arguments.
+ *
+ * @since 1.0.0
+ */
+public final class BatchAudit {
+    /**
+     * Exit code when no problem found.
+     */
+    public static final int EXIT_CLEAN = 0;
+
+    /**
+     * Exit code when at least one {@link AuditFinding} is reported.
+     */
+    public static final int EXIT_FINDINGS = 1;
+
+    /**
+     * Exit code when at least one project can not be loaded.
+     */
+    public static final int EXIT_FAILED = 2;
+
+    /**
+     * Exit code of invalid arguments.
+     */
+    public static final int EXIT_USAGE = 64;
+
+    private static final String USAGE = """
+            Usage: java -jar willpub-core-1.0.0-batch.jar [options] <directory>...
+
+            Options:
+              --format=json|csv   Format of report (default: json)
+              --output=<file>     Write report to file instead of standard output
+              --list=<file>       Read directories from file, one per line
+              --threads=<n>       Projects loaded in the same time (default: number of processors)
+              --recursive         Audit every package found under given directories
+              --offline           Use cached pub.dev responses only
+              --no-fetch          Do not check packages on pub.dev
+              --quiet             Do not print progress to standard error
+            """;
+
+    private BatchAudit() {}
+
+    /**
+     * Options parsed from command line.
+     */
+    private static final class Options {
+        AuditReportWriter.Format format = AuditReportWriter.Format.JSON;
+        Path output = null;
+        int threads = BatchAuditor.DEFAULT_PARALLELISM;
+        boolean recursive = false;
+        boolean offline = false;
+        boolean fetch = true;
+        boolean quiet = false;
+        final LinkedHashSet<Path> directories = new LinkedHashSet<>();
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Run audit with command line arguments.
+     *
+     * @param args Command line arguments.
+     * @param out {@link PrintStream} which report written to if no output file specified.
+     * @param err {@link PrintStream} of progress and error messages.
+     *
+     * @return Exit code.
+     */
+    public static int run(@Nonnull String[] args, @Nonnull PrintStream out, @Nonnull PrintStream err) {
+        final Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException | IOException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (options == null) {
+            out.print(USAGE);
+            return EXIT_CLEAN;
+        }
+
+        try {
+            final List<Path> directories = options.recursive
+                    ? discover(options.directories)
+                    : List.copyOf(options.directories);
+            final List<ProjectAuditResult> results = audit(options, directories, err);
+
+            if (options.output == null) {
+                AuditReportWriter.write(options.format, results, out);
+            } else {
+                try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(options.output))) {
+                    AuditReportWriter.write(options.format, results, os);
+                }
+            }
+
+            int findings = 0, failed = 0;
+            for (ProjectAuditResult r : results) {
+                findings += r.getFindings().size();
+                if (r.isFailed()) failed++;
+            }
+
+            if (!options.quiet) err.println(
+                    "Audited " + results.size() + " projects, " + findings + " findings, " + failed + " failed"
+            );
+
+            return failed > 0 ? EXIT_FAILED : findings > 0 ? EXIT_FINDINGS : EXIT_CLEAN;
+        } catch (IOException e) {
+            err.println("Unable to audit: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Audit interrupted");
+            return EXIT_FAILED;
+        }
+    }
+
+    @Nonnull
+    private static List<ProjectAuditResult> audit(
+            @Nonnull Options options,
+            @Nonnull List<Path> directories,
+            @Nonnull PrintStream err
+    ) throws IOException, InterruptedException {
+        final AtomicInteger done = new AtomicInteger();
+        final BatchAuditListener listener = options.quiet ? null : result -> {
+            final int n = done.incrementAndGet();
+            err.println("[" + n + "/" + directories.size() + "] " + result.getDirectory()
+                    + (result.isFailed() ? " failed: " + result.getFailure()
+                    : " " + result.getFindings().size() + " findings"));
+        };
+
+        if (!options.fetch) {
+            try (BatchAuditor auditor = new BatchAuditor(options.threads, null, null)) {
+                return auditor.auditAll(directories, listener);
+            }
+        }
+
+        final PubDevHttpCache cache = PubDevHttpCache.openDefault();
+        if (options.offline) cache.setDefaultPolicy(PubDevCachePolicy.OFFLINE_ONLY);
+
+        try (PubDevMetadataFetcher fetcher = new PubDevMetadataFetcher(cache);
+             BatchAuditor auditor = new BatchAuditor(options.threads, fetcher, null)) {
+            return auditor.auditAll(directories, listener);
+        }
+    }
+
+    @Nonnull
+    private static List<Path> discover(@Nonnull Collection<Path> roots) throws IOException, InterruptedException {
+        final LinkedHashSet<Path> found = new LinkedHashSet<>();
+
+        try (WorkspaceScanner scanner = new WorkspaceScanner()) {
+            for (Path r : roots) {
+                final WorkspaceIndex index = scanner.scanAndWait(r, null);
+                final ArrayList<Path> packages = new ArrayList<>();
+                for (WorkspacePackage wp : index.getPackages()) packages.add(wp.getDirectory());
+
+                // Scanner walks in parallel, sort for stable report
+                Collections.sort(packages);
+                found.addAll(packages);
+            }
+        }
+
+        return List.copyOf(found);
+    }
+
+    /**
+     * Parse arguments.
+     *
+     * @param args Command line arguments.
+     *
+     * @return Parsed {@link Options}, or <code>null</code> if help is requested.
+     *
+     * @throws IllegalArgumentException If arguments are invalid.
+     * @throws IOException If list file can not be read.
+     */
+    private static Options parse(@Nonnull String[] args) throws IOException {
+        final Options options = new Options();
+
+        for (String a : args) {
+            if (a.equals("-h") || a.equals("--help")) return null;
+            else if (a.equals("--recursive")) options.recursive = true;
+            else if (a.equals("--offline")) options.offline = true;
+            else if (a.equals("--no-fetch")) options.fetch = false;
+            else if (a.equals("--quiet")) options.quiet = true;
+            else if (a.startsWith("--format=")) options.format = AuditReportWriter.Format.of(valueOf(a));
+            else if (a.startsWith("--output=")) options.output = Path.of(valueOf(a)).toAbsolutePath();
+            else if (a.startsWith("--threads=")) {
+                try {
+                    options.threads = Integer.parseInt(valueOf(a));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number of threads: " + valueOf(a));
+                }
+                if (options.threads < 1) throw new IllegalArgumentException("Threads must be positive");
+            } else if (a.startsWith("--list=")) {
+                for (String line : Files.readAllLines(Path.of(valueOf(a)), StandardCharsets.UTF_8)) {
+                    final String l = line.strip();
+                    if (!l.isEmpty() && !l.startsWith("#")) options.directories.add(toDirectory(l));
+                }
+            } else if (a.startsWith("-")) throw new IllegalArgumentException("Unknown option: " + a);
+            else options.directories.add(toDirectory(a));
+        }
+
+        if (options.directories.isEmpty()) throw new IllegalArgumentException("No directory specified");
+
+        return options;
+    }
+
+    @Nonnull
+    private static String valueOf(@Nonnull String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    @Nonnull
+    private static Path toDirectory(@Nonnull String path) {
+        return Path.of(path).toAbsolutePath().normalize();
+    }
+}
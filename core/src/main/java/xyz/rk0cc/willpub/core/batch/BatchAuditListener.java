@@ -0,0 +1,21 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receive result of each project from {@link BatchAuditor} once it is audited.
+ * <br/>
+ * Method is called concurrently from auditor's worker threads or fetcher's threads in completion order, which is not
+ * the order of submitted directories.
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface BatchAuditListener {
+    /**
+     * Called when a project is audited or failed to load.
+     *
+     * @param result {@link ProjectAuditResult} of the project.
+     */
+    void onAudited(@Nonnull ProjectAuditResult result);
+}
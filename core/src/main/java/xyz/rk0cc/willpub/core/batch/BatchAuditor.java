@@ -0,0 +1,188 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectDependency;
+import xyz.rk0cc.willpub.core.project.ProjectModelCache;
+import xyz.rk0cc.willpub.core.pubdev.PubDevFetchListener;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Audit many project directories in parallel without any user interface.
+ * <br/>
+ * Projects are loaded by {@link DartProjectLoader} in a bounded worker pool, then hosted packages are fetched by
+ * {@link PubDevMetadataFetcher} without holding worker, that loading the next project is not blocked by network.
+ * Since fetcher coalesces running requests and caches responses, the same package depended by hundreds of projects
+ * is requested once.
+ *
+ * @since 1.0.0
+ */
+public final class BatchAuditor implements AutoCloseable {
+    /**
+     * Default number of projects loaded in the same time, which is number of processors.
+     */
+    public static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private final ExecutorService workers;
+    private final PubDevMetadataFetcher fetcher;
+    private final ProjectModelCache cache;
+
+    /**
+     * Create auditor.
+     *
+     * @param parallelism Number of projects loaded in the same time.
+     * @param fetcher {@link PubDevMetadataFetcher} for checking hosted packages, or <code>null</code> to check
+     *                <code>pubspec.yaml</code> and <code>pubspec.lock</code> only. It is not closed by this auditor.
+     * @param cache {@link ProjectModelCache} of parsed projects, or <code>null</code> if parse anyway.
+     */
+    public BatchAuditor(int parallelism, @Nullable PubDevMetadataFetcher fetcher, @Nullable ProjectModelCache cache) {
+        this.workers = WillPubExecutors.newBoundedExecutor("willpub-batch-audit", parallelism);
+        this.fetcher = fetcher;
+        this.cache = cache;
+    }
+
+    /**
+     * Create auditor with {@linkplain #DEFAULT_PARALLELISM default parallelism} and no cache.
+     *
+     * @param fetcher {@link PubDevMetadataFetcher} for checking hosted packages, or <code>null</code> to check
+     *                <code>pubspec.yaml</code> and <code>pubspec.lock</code> only.
+     */
+    public BatchAuditor(@Nullable PubDevMetadataFetcher fetcher) {
+        this(DEFAULT_PARALLELISM, fetcher, null);
+    }
+
+    /**
+     * Start auditing a project directory in background.
+     *
+     * @param directory Directory of project.
+     *
+     * @return {@link CompletableFuture} of {@link ProjectAuditResult}, which never completed exceptionally since
+     *         failure of loading is reported as {@linkplain ProjectAuditResult#isFailed() failed result}.
+     */
+    @Nonnull
+    public CompletableFuture<ProjectAuditResult> submit(@Nonnull Path directory) {
+        final Path dir = directory.toAbsolutePath().normalize();
+        final long start = System.nanoTime();
+
+        final CompletableFuture<DartProject> loading;
+        try {
+            loading = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return DartProjectLoader.loadProject(dir.toFile(), stage -> {}, cache);
+                } catch (IOException | InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ProjectAuditResult.failed(dir, e, Duration.ZERO));
+        }
+
+        return loading
+                .thenCompose(project -> audit(project, start))
+                .exceptionally(t -> ProjectAuditResult.failed(
+                        dir,
+                        t instanceof CompletionException && t.getCause() != null ? t.getCause() : t,
+                        Duration.ofNanos(System.nanoTime() - start)
+                ));
+    }
+
+    @Nonnull
+    private CompletableFuture<ProjectAuditResult> audit(@Nonnull DartProject project, long start) {
+        final List<ProjectDependency> dependencies = ProjectDependency.listOf(project);
+
+        if (fetcher == null) return CompletableFuture.completedFuture(result(
+                project,
+                dependencies,
+                ProjectAudit.audit(project, dependencies, Map.of(), null),
+                start
+        ));
+
+        final ConcurrentHashMap<String, String> unavailable = new ConcurrentHashMap<>();
+        return fetcher.fetchAll(ProjectAudit.getHostedPackageNames(dependencies), new PubDevFetchListener() {
+            @Override
+            public void onFetched(@Nonnull PubPackageMetadata metadata) {}
+
+            @Override
+            public void onFailed(@Nonnull String packageName, @Nonnull Throwable cause) {
+                final String message = cause.getMessage();
+                unavailable.put(packageName, message == null ? cause.getClass().getSimpleName() : message);
+            }
+        }).thenApply(metadata -> result(
+                project,
+                dependencies,
+                ProjectAudit.audit(project, dependencies, metadata, unavailable),
+                start
+        ));
+    }
+
+    @Nonnull
+    private static ProjectAuditResult result(
+            @Nonnull DartProject project,
+            @Nonnull List<ProjectDependency> dependencies,
+            @Nonnull List<AuditFinding> findings,
+            long start
+    ) {
+        return ProjectAuditResult.audited(
+                project.getDirectory(),
+                project.getName(),
+                dependencies.size(),
+                findings,
+                Duration.ofNanos(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * Audit project directories and wait until all of them are finished.
+     *
+     * @param directories Directories of projects.
+     * @param listener {@link BatchAuditListener} which receives each result once it is finished, or
+     *                 <code>null</code> if not required.
+     *
+     * @return A {@link List} of {@link ProjectAuditResult} in the same order of given directories.
+     *
+     * @throws InterruptedException If current thread is interrupted while waiting.
+     */
+    @Nonnull
+    public List<ProjectAuditResult> auditAll(
+            @Nonnull Collection<Path> directories,
+            @Nullable BatchAuditListener listener
+    ) throws InterruptedException {
+        final ArrayList<CompletableFuture<ProjectAuditResult>> futures = new ArrayList<>(directories.size());
+        for (Path d : directories) {
+            final CompletableFuture<ProjectAuditResult> f = submit(d);
+            if (listener != null) f.thenAccept(listener::onAudited);
+            futures.add(f);
+        }
+
+        final ArrayList<ProjectAuditResult> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<ProjectAuditResult> f : futures) results.add(f.get());
+        } catch (ExecutionException e) {
+            // Failures are mapped to result already
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            for (CompletableFuture<ProjectAuditResult> f : futures) f.cancel(true);
+            throw e;
+        }
+
+        return results;
+    }
+
+    /**
+     * Stop accepting directories. Loading projects are interrupted.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,134 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.ProjectDependency;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Find {@linkplain AuditFinding problems} of dependencies in a {@link DartProject}.
+ * <br/>
+ * It applies the same rules of dependency table, that a package marked as outdated in user interface is reported
+ * as {@link AuditFinding.Kind#OUTDATED} here.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectAudit {
+    private ProjectAudit() {}
+
+    /**
+     * Get names of hosted packages which their metadata should be fetched before auditing.
+     *
+     * @param dependencies Dependencies from {@link ProjectDependency#listOf(DartProject)}.
+     *
+     * @return A {@link List} of package names.
+     */
+    @Nonnull
+    public static List<String> getHostedPackageNames(@Nonnull List<ProjectDependency> dependencies) {
+        final ArrayList<String> names = new ArrayList<>();
+        for (ProjectDependency pd : dependencies) {
+            if (pd.getSource() == LockedPackage.Source.HOSTED) names.add(pd.getName());
+        }
+
+        return names;
+    }
+
+    /**
+     * Audit dependencies of a project.
+     *
+     * @param project Audited {@link DartProject}.
+     * @param dependencies Dependencies from {@link ProjectDependency#listOf(DartProject)}.
+     * @param metadata Fetched {@link PubPackageMetadata} of hosted packages.
+     * @param unavailable Causes of hosted packages which can not be fetched, or <code>null</code> if metadata is
+     *                    not fetched that hosted packages without metadata are skipped silently.
+     *
+     * @return A {@link List} of {@link AuditFinding}, which project-wide problems come first.
+     */
+    @Nonnull
+    public static List<AuditFinding> audit(
+            @Nonnull DartProject project,
+            @Nonnull List<ProjectDependency> dependencies,
+            @Nonnull Map<String, PubPackageMetadata> metadata,
+            @Nullable Map<String, String> unavailable
+    ) {
+        final ArrayList<AuditFinding> findings = new ArrayList<>();
+        final boolean locked = project.getLock() != null;
+
+        if (!locked) findings.add(new AuditFinding(
+                AuditFinding.Kind.NOT_RESOLVED,
+                null,
+                null,
+                null,
+                null,
+                "pubspec.lock is missing"
+        ));
+
+        for (ProjectDependency pd : dependencies) {
+            if (locked && pd.isDirect() && pd.getLockedVersion() == null
+                    && pd.getSource() != LockedPackage.Source.SDK) {
+                findings.add(finding(AuditFinding.Kind.NOT_RESOLVED, pd, null, "Not found in pubspec.lock"));
+            } else if (pd.isConstraintMismatched()) {
+                findings.add(finding(
+                        AuditFinding.Kind.CONSTRAINT_MISMATCH,
+                        pd,
+                        null,
+                        "Resolved " + pd.getLockedVersion() + " is not allowed by " + pd.getConstraint()
+                ));
+            }
+
+            if (pd.getSource() != LockedPackage.Source.HOSTED) continue;
+
+            final PubPackageMetadata m = metadata.get(pd.getName());
+            if (m == null) {
+                if (unavailable != null) findings.add(finding(
+                        AuditFinding.Kind.METADATA_UNAVAILABLE,
+                        pd,
+                        null,
+                        unavailable.getOrDefault(pd.getName(), "Not fetched")
+                ));
+                continue;
+            }
+
+            final PubPackageVersion latest = m.getLatest();
+            final String latestVersion = latest == null ? null : latest.getRawVersion();
+
+            if (m.isDiscontinued()) findings.add(finding(
+                    AuditFinding.Kind.DISCONTINUED,
+                    pd,
+                    latestVersion,
+                    m.getReplacedBy() == null ? "Discontinued" : "Discontinued, replaced by " + m.getReplacedBy()
+            ));
+
+            if (pd.isOutdated(latestVersion)) findings.add(finding(
+                    AuditFinding.Kind.OUTDATED,
+                    pd,
+                    latestVersion,
+                    pd.getLockedVersion() + " can be upgraded to " + latestVersion
+            ));
+        }
+
+        return findings;
+    }
+
+    @Nonnull
+    private static AuditFinding finding(
+            @Nonnull AuditFinding.Kind kind,
+            @Nonnull ProjectDependency dependency,
+            @Nullable String latestVersion,
+            @Nonnull String message
+    ) {
+        return new AuditFinding(
+                kind,
+                dependency.getName(),
+                dependency.getConstraint(),
+                dependency.getLockedVersion(),
+                latestVersion,
+                message
+        );
+    }
+}
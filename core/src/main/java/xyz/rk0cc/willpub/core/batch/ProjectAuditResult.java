@@ -0,0 +1,162 @@
+package xyz.rk0cc.willpub.core.batch;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of auditing a project directory in {@link BatchAuditor}.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectAuditResult {
+    private final Path directory;
+    private final String projectName;
+    private final int dependencyCount;
+    private final List<AuditFinding> findings;
+    private final String failure;
+    private final Duration elapsed;
+
+    private ProjectAuditResult(
+            @Nonnull Path directory,
+            @Nullable String projectName,
+            int dependencyCount,
+            @Nonnull List<AuditFinding> findings,
+            @Nullable String failure,
+            @Nonnull Duration elapsed
+    ) {
+        this.directory = Objects.requireNonNull(directory);
+        this.projectName = projectName;
+        this.dependencyCount = dependencyCount;
+        this.findings = List.copyOf(findings);
+        this.failure = failure;
+        this.elapsed = Objects.requireNonNull(elapsed);
+    }
+
+    /**
+     * Create result of audited project.
+     *
+     * @param directory Directory of project.
+     * @param projectName Name of project.
+     * @param dependencyCount Number of dependencies including transitive packages.
+     * @param findings Found problems.
+     * @param elapsed Duration of loading and auditing.
+     *
+     * @return A {@link ProjectAuditResult} of audited project.
+     */
+    @Nonnull
+    static ProjectAuditResult audited(
+            @Nonnull Path directory,
+            @Nonnull String projectName,
+            int dependencyCount,
+            @Nonnull List<AuditFinding> findings,
+            @Nonnull Duration elapsed
+    ) {
+        return new ProjectAuditResult(directory, projectName, dependencyCount, findings, null, elapsed);
+    }
+
+    /**
+     * Create result of project which can not be loaded.
+     *
+     * @param directory Directory of project.
+     * @param failure Cause of failure.
+     * @param elapsed Duration until failed.
+     *
+     * @return A {@link ProjectAuditResult} of failed project.
+     */
+    @Nonnull
+    static ProjectAuditResult failed(@Nonnull Path directory, @Nonnull Throwable failure, @Nonnull Duration elapsed) {
+        final String message = failure.getMessage();
+        return new ProjectAuditResult(
+                directory,
+                null,
+                0,
+                List.of(),
+                failure.getClass().getSimpleName() + (message == null ? "" : ": " + message),
+                elapsed
+        );
+    }
+
+    /**
+     * Get directory of project.
+     *
+     * @return Absolute path of project directory.
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get name of project.
+     *
+     * @return Name in <code>pubspec.yaml</code>, or <code>null</code> if {@linkplain #isFailed() failed}.
+     */
+    @Nullable
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Get number of dependencies including transitive packages.
+     *
+     * @return Number of dependencies.
+     */
+    public int getDependencyCount() {
+        return dependencyCount;
+    }
+
+    /**
+     * Get found problems.
+     *
+     * @return An unmodifiable {@link List} of {@link AuditFinding}.
+     */
+    @Nonnull
+    public List<AuditFinding> getFindings() {
+        return findings;
+    }
+
+    /**
+     * Get cause of failure.
+     *
+     * @return Description of failure, or <code>null</code> if audited.
+     */
+    @Nullable
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Determine the project can not be loaded.
+     *
+     * @return <code>true</code> if failed.
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Get duration of loading and auditing.
+     *
+     * @return Elapsed duration.
+     */
+    @Nonnull
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectAuditResult{" +
+                "directory=" + directory +
+                ", projectName='" + projectName + '\'' +
+                ", dependencyCount=" + dependencyCount +
+                ", findings=" + findings.size() +
+                ", failure='" + failure + '\'' +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+}
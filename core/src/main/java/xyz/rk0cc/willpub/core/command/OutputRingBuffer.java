@@ -0,0 +1,80 @@
+package xyz.rk0cc.willpub.core.command;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keep the latest lines of output with fixed capacity, that the oldest line is dropped when full.
+ * <br/>
+ * It is thread safe that stdout and stderr can be appended concurrently.
+ *
+ * @since 1.0.0
+ */
+public final class OutputRingBuffer {
+    private final PubOutputLine[] lines;
+    private int head = 0;
+    private int size = 0;
+    private long total = 0L;
+
+    /**
+     * Create buffer.
+     *
+     * @param capacity Maximum lines kept.
+     */
+    public OutputRingBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.lines = new PubOutputLine[capacity];
+    }
+
+    /**
+     * Append a line.
+     *
+     * @param line A {@link PubOutputLine}.
+     */
+    public synchronized void append(@Nonnull PubOutputLine line) {
+        lines[(head + size) % lines.length] = line;
+        if (size < lines.length) size++;
+        else head = (head + 1) % lines.length;
+        total++;
+    }
+
+    /**
+     * Copy kept lines.
+     *
+     * @return A {@link List} of lines from oldest to latest.
+     */
+    @Nonnull
+    public synchronized List<PubOutputLine> snapshot() {
+        final ArrayList<PubOutputLine> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) copy.add(lines[(head + i) % lines.length]);
+        return copy;
+    }
+
+    /**
+     * Get maximum lines kept.
+     *
+     * @return Capacity of buffer.
+     */
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /**
+     * Get number of all appended lines, including dropped lines.
+     *
+     * @return Total lines.
+     */
+    public synchronized long getTotalLines() {
+        return total;
+    }
+
+    /**
+     * Get number of lines which dropped because buffer is full.
+     *
+     * @return Dropped lines.
+     */
+    public synchronized long getDroppedLines() {
+        return total - size;
+    }
+}
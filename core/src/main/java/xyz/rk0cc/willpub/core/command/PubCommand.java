@@ -0,0 +1,203 @@
+package xyz.rk0cc.willpub.core.command;
+
+import xyz.rk0cc.willpub.core.project.DartProject;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * A <code>pub</code> command which going to be run in a project directory.
+ * <br/>
+ * It is immutable that every changes create a new command.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommand {
+    /**
+     * Default time limit of a command.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * Enumerated subcommands of <code>pub</code> which uses in Will Pub.
+     */
+    public enum Action {
+        /**
+         * Resolve dependencies with locked versions.
+         */
+        GET("get"),
+        /**
+         * Resolve dependencies with latest versions.
+         */
+        UPGRADE("upgrade"),
+        /**
+         * Resolve dependencies with lowest versions.
+         */
+        DOWNGRADE("downgrade"),
+        /**
+         * List outdated dependencies.
+         */
+        OUTDATED("outdated");
+
+        private final String subcommand;
+
+        Action(@Nonnull String subcommand) {
+            this.subcommand = subcommand;
+        }
+
+        /**
+         * Get subcommand name.
+         *
+         * @return Subcommand which uses in command line.
+         */
+        @Nonnull
+        public String getSubcommand() {
+            return subcommand;
+        }
+    }
+
+    private final Path workingDirectory;
+    private final boolean flutter;
+    private final List<String> arguments;
+    private final Duration timeout;
+
+    /**
+     * Create command.
+     *
+     * @param workingDirectory Absolute path of project directory.
+     * @param flutter <code>true</code> to run with <code>flutter pub</code>, or <code>dart pub</code> otherwise.
+     * @param arguments Arguments after <code>pub</code>.
+     * @param timeout Time limit of the command, or <code>null</code> for unlimited.
+     */
+    public PubCommand(
+            @Nonnull Path workingDirectory,
+            boolean flutter,
+            @Nonnull List<String> arguments,
+            @Nullable Duration timeout
+    ) {
+        if (!workingDirectory.isAbsolute())
+            throw new IllegalArgumentException("Required absolute path of working directory");
+        if (timeout != null && (timeout.isNegative() || timeout.isZero()))
+            throw new IllegalArgumentException("Timeout must be positive");
+
+        this.workingDirectory = workingDirectory;
+        this.flutter = flutter;
+        this.arguments = List.copyOf(arguments);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create command for a project, which uses <code>flutter pub</code> if it is Flutter project.
+     *
+     * @param project Loaded {@link DartProject}.
+     * @param action Subcommand.
+     * @param extraArguments Additional arguments after subcommand.
+     *
+     * @return {@link PubCommand} with {@linkplain #DEFAULT_TIMEOUT default timeout}.
+     */
+    @Nonnull
+    public static PubCommand of(
+            @Nonnull DartProject project,
+            @Nonnull Action action,
+            @Nonnull String... extraArguments
+    ) {
+        final ArrayList<String> args = new ArrayList<>(extraArguments.length + 1);
+        args.add(action.getSubcommand());
+        args.addAll(Arrays.asList(extraArguments));
+
+        return new PubCommand(project.getDirectory(), project.isFlutterProject(), args, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Get working directory.
+     *
+     * @return Absolute {@link Path} of project directory.
+     */
+    @Nonnull
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * Determine running with Flutter SDK.
+     *
+     * @return <code>true</code> if uses <code>flutter pub</code>.
+     */
+    public boolean isFlutter() {
+        return flutter;
+    }
+
+    /**
+     * Get arguments after <code>pub</code>.
+     *
+     * @return An unmodifiable {@link List} of arguments.
+     */
+    @Nonnull
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Get time limit of command.
+     *
+     * @return Timeout, or <code>null</code> if unlimited.
+     */
+    @Nullable
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Create a new command with different time limit.
+     *
+     * @param timeout New timeout, or <code>null</code> for unlimited.
+     *
+     * @return A new {@link PubCommand}.
+     */
+    @Nonnull
+    public PubCommand changeTimeout(@Nullable Duration timeout) {
+        return new PubCommand(workingDirectory, flutter, arguments, timeout);
+    }
+
+    /**
+     * Build command line for {@link ProcessBuilder}.
+     *
+     * @return A {@link List} of executable and arguments.
+     */
+    @Nonnull
+    public List<String> toCommandLine() {
+        final boolean windows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        final ArrayList<String> commandLine = new ArrayList<>(arguments.size() + 2);
+
+        // Flutter is a batch script in Windows
+        commandLine.add(flutter ? (windows ? "flutter.bat" : "flutter") : "dart");
+        commandLine.add("pub");
+        commandLine.addAll(arguments);
+
+        return commandLine;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PubCommand that = (PubCommand) o;
+        return flutter == that.flutter
+                && workingDirectory.equals(that.workingDirectory)
+                && arguments.equals(that.arguments)
+                && Objects.equals(timeout, that.timeout);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(workingDirectory, flutter, arguments, timeout);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", toCommandLine()) + " (in " + workingDirectory + ")";
+    }
+}
@@ -0,0 +1,299 @@
+package xyz.rk0cc.willpub.core.command;
+
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A running {@link PubCommand} which started by {@link PubCommandRunner}.
+ * <br/>
+ * Stdout and stderr are drained by separated threads once the process started, that the process never blocked by
+ * full pipe. Lines are kept in {@link OutputRingBuffer} and delivered to {@link PubCommandListener} in batches.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommandExecution {
+    /**
+     * Time waiting process exit by itself before killing forcibly.
+     */
+    private static final Duration DESTROY_GRACE = Duration.ofSeconds(5);
+
+    private final PubCommand command;
+    private final PubCommandListener listener;
+    private final PubCommandRunner runner;
+    private final OutputRingBuffer buffer;
+    private final CompletableFuture<PubCommandResult> result = new CompletableFuture<>();
+
+    /**
+     * Lines which are not delivered to {@link #listener} yet.
+     */
+    private final ConcurrentLinkedQueue<PubOutputLine> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Guard of calling {@link #listener} that methods are never called concurrently.
+     */
+    private final Object deliveryLock = new Object();
+
+    private volatile Process process = null;
+    private volatile PubCommandResult.Status stopReason = null;
+    private long startNanos;
+    private volatile ScheduledFuture<?> flushTask = null;
+    private volatile ScheduledFuture<?> timeoutTask = null;
+    private boolean finished = false;
+
+    PubCommandExecution(
+            @Nonnull PubCommand command,
+            @Nonnull PubCommandListener listener,
+            @Nonnull PubCommandRunner runner,
+            int bufferLines
+    ) {
+        this.command = command;
+        this.listener = listener;
+        this.runner = runner;
+        this.buffer = new OutputRingBuffer(bufferLines);
+    }
+
+    /**
+     * Start process and drainers, which runs in runner's I/O thread.
+     */
+    void launch() {
+        startNanos = System.nanoTime();
+
+        final Process p;
+        try {
+            if (stopReason != null) {
+                finish(-1, null);
+                return;
+            }
+
+            p = new ProcessBuilder(command.toCommandLine())
+                    .directory(command.getWorkingDirectory().toFile())
+                    .start();
+            // Nothing to input
+            p.getOutputStream().close();
+        } catch (IOException | RuntimeException e) {
+            finish(-1, e);
+            return;
+        }
+
+        process = p;
+        synchronized (deliveryLock) {
+            listener.onStarted(this);
+            flushTask = runner.scheduler().scheduleWithFixedDelay(
+                    this::flush,
+                    runner.getFlushInterval().toNanos(),
+                    runner.getFlushInterval().toNanos(),
+                    TimeUnit.NANOSECONDS
+            );
+        }
+
+        final Duration timeout = command.getTimeout();
+        if (timeout != null) {
+            timeoutTask = runner.scheduler().schedule(
+                    () -> stop(PubCommandResult.Status.TIMED_OUT),
+                    timeout.toNanos(),
+                    TimeUnit.NANOSECONDS
+            );
+        }
+
+        // Cancelled before process assigned
+        if (stopReason != null) destroy(p);
+
+        final CompletableFuture<Void> stdout = CompletableFuture.runAsync(
+                () -> drain(p.getInputStream(), PubOutputLine.Stream.STDOUT),
+                runner.ioExecutor()
+        );
+        final CompletableFuture<Void> stderr = CompletableFuture.runAsync(
+                () -> drain(p.getErrorStream(), PubOutputLine.Stream.STDERR),
+                runner.ioExecutor()
+        );
+
+        // Finish after both streams reached the end and process exited
+        CompletableFuture.allOf(stdout, stderr)
+                .handle((v, t) -> t)
+                .thenCombine(p.onExit(), (t, exited) -> {
+                    finish(exited.exitValue(), t);
+                    return null;
+                });
+    }
+
+    /**
+     * Read lines of a stream until the process closed it.
+     */
+    private void drain(@Nonnull InputStream stream, @Nonnull PubOutputLine.Stream type) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                final PubOutputLine line = new PubOutputLine(type, sequence.getAndIncrement(), text);
+                buffer.append(line);
+                pending.add(line);
+            }
+        } catch (IOException ignored) {
+            // Stream closed by destroying process
+        }
+    }
+
+    /**
+     * Deliver pending lines to listener.
+     */
+    private void flush() {
+        synchronized (deliveryLock) {
+            if (finished) return;
+
+            final ArrayList<PubOutputLine> batch = new ArrayList<>();
+            PubOutputLine line;
+            while ((line = pending.poll()) != null) batch.add(line);
+
+            if (!batch.isEmpty()) listener.onOutput(this, batch);
+        }
+    }
+
+    /**
+     * Deliver remaining lines and result.
+     */
+    private void finish(int exitCode, Throwable failure) {
+        if (flushTask != null) flushTask.cancel(false);
+        if (timeoutTask != null) timeoutTask.cancel(false);
+        flush();
+
+        final PubCommandResult.Status status;
+        if (stopReason != null) status = stopReason;
+        else if (process == null) status = PubCommandResult.Status.LAUNCH_FAILED;
+        else if (exitCode == 0) status = PubCommandResult.Status.SUCCEEDED;
+        else status = PubCommandResult.Status.FAILED;
+
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        if (process != null) WillPubMetrics.record(Metric.PUB_COMMAND_RUN, elapsed.toNanos());
+
+        final PubCommandResult r = new PubCommandResult(
+                command,
+                status,
+                exitCode,
+                elapsed,
+                buffer.snapshot(),
+                buffer.getDroppedLines(),
+                failure
+        );
+
+        synchronized (deliveryLock) {
+            finished = true;
+            try {
+                listener.onFinished(this, r);
+            } finally {
+                result.complete(r);
+            }
+        }
+    }
+
+    /**
+     * Stop process with given reason, unless it is stopped already.
+     */
+    private void stop(@Nonnull PubCommandResult.Status reason) {
+        synchronized (this) {
+            if (stopReason != null || result.isDone()) return;
+            stopReason = reason;
+        }
+
+        final Process p = process;
+        if (p != null) destroy(p);
+    }
+
+    /**
+     * Destroy process and its children (e.g. <code>dart</code> launched by <code>flutter</code> script), then kill
+     * forcibly if it does not exit in {@link #DESTROY_GRACE}.
+     */
+    private void destroy(@Nonnull Process p) {
+        p.descendants().forEach(ProcessHandle::destroy);
+        p.destroy();
+
+        runner.scheduler().schedule(() -> {
+            if (p.isAlive()) {
+                p.descendants().forEach(ProcessHandle::destroyForcibly);
+                p.destroyForcibly();
+            }
+        }, DESTROY_GRACE.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop running command. It does nothing if finished already.
+     */
+    public void cancel() {
+        stop(PubCommandResult.Status.CANCELLED);
+    }
+
+    /**
+     * Get running command.
+     *
+     * @return {@link PubCommand} of this execution.
+     */
+    @Nonnull
+    public PubCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Copy lines which printed so far and still kept in buffer.
+     *
+     * @return A {@link List} of {@link PubOutputLine} from oldest to latest.
+     */
+    @Nonnull
+    public List<PubOutputLine> getOutput() {
+        return buffer.snapshot();
+    }
+
+    /**
+     * Determine the command is finished.
+     *
+     * @return <code>true</code> if result is available.
+     */
+    public boolean isFinished() {
+        return result.isDone();
+    }
+
+    /**
+     * Get result of this execution.
+     *
+     * @return A {@link CompletableFuture} which completed once the command finished.
+     */
+    @Nonnull
+    public CompletableFuture<PubCommandResult> getResult() {
+        return result;
+    }
+
+    /**
+     * Wait until the command finished.
+     *
+     * @return {@link PubCommandResult} of execution.
+     *
+     * @throws InterruptedException If current thread is interrupted while waiting.
+     */
+    @Nonnull
+    public PubCommandResult await() throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PubCommandExecution{" +
+                "command=" + command +
+                ", finished=" + isFinished() +
+                '}';
+    }
+}
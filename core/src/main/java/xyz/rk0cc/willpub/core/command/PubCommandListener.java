@@ -0,0 +1,42 @@
+package xyz.rk0cc.willpub.core.command;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Receive progress of {@link PubCommandExecution}.
+ * <br/>
+ * All methods are called in runner's thread, which should be forwarded to JavaFX application thread before touching
+ * any UI. Methods of the same execution are never called concurrently, and
+ * {@link #onFinished(PubCommandExecution, PubCommandResult)} is always the last one.
+ *
+ * @since 1.0.0
+ */
+public interface PubCommandListener {
+    /**
+     * Called when process is started.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param execution Started {@link PubCommandExecution}.
+     */
+    default void onStarted(@Nonnull PubCommandExecution execution) {}
+
+    /**
+     * Called with lines printed since last call, which is delivered in a fixed interval instead of every line.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param execution Running {@link PubCommandExecution}.
+     * @param lines New lines in printed order.
+     */
+    default void onOutput(@Nonnull PubCommandExecution execution, @Nonnull List<PubOutputLine> lines) {}
+
+    /**
+     * Called when process exited, cancelled, timed out or can not be started.
+     *
+     * @param execution Finished {@link PubCommandExecution}.
+     * @param result {@link PubCommandResult} of execution.
+     */
+    void onFinished(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result);
+}
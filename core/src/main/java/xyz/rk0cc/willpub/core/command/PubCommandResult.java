@@ -0,0 +1,154 @@
+package xyz.rk0cc.willpub.core.command;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of running {@link PubCommand}.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommandResult {
+    /**
+     * Enumerated how the command ended.
+     */
+    public enum Status {
+        /**
+         * Exited with code <code>0</code>.
+         */
+        SUCCEEDED,
+        /**
+         * Exited with non-zero code.
+         */
+        FAILED,
+        /**
+         * Stopped by {@link PubCommandExecution#cancel()}.
+         */
+        CANCELLED,
+        /**
+         * Stopped since it runs longer than {@linkplain PubCommand#getTimeout() timeout}.
+         */
+        TIMED_OUT,
+        /**
+         * Process can not be started, usually the SDK is not in <code>PATH</code>.
+         */
+        LAUNCH_FAILED
+    }
+
+    private final PubCommand command;
+    private final Status status;
+    private final int exitCode;
+    private final Duration elapsed;
+    private final List<PubOutputLine> output;
+    private final long droppedLines;
+    private final Throwable failure;
+
+    PubCommandResult(
+            @Nonnull PubCommand command,
+            @Nonnull Status status,
+            int exitCode,
+            @Nonnull Duration elapsed,
+            @Nonnull List<PubOutputLine> output,
+            long droppedLines,
+            @Nullable Throwable failure
+    ) {
+        this.command = command;
+        this.status = status;
+        this.exitCode = exitCode;
+        this.elapsed = elapsed;
+        this.output = List.copyOf(output);
+        this.droppedLines = droppedLines;
+        this.failure = failure;
+    }
+
+    /**
+     * Get executed command.
+     *
+     * @return {@link PubCommand} of this result.
+     */
+    @Nonnull
+    public PubCommand getCommand() {
+        return command;
+    }
+
+    /**
+     * Get how the command ended.
+     *
+     * @return {@link Status} of execution.
+     */
+    @Nonnull
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Determine the command exited successfully.
+     *
+     * @return <code>true</code> if {@link Status#SUCCEEDED}.
+     */
+    public boolean isSuccessful() {
+        return status == Status.SUCCEEDED;
+    }
+
+    /**
+     * Get exit code of process.
+     *
+     * @return Exit code, or <code>-1</code> if the process is not started.
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Get time spent on running.
+     *
+     * @return Elapsed time.
+     */
+    @Nonnull
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get latest lines of output which kept in {@link OutputRingBuffer}.
+     *
+     * @return An unmodifiable {@link List} of {@link PubOutputLine}.
+     */
+    @Nonnull
+    public List<PubOutputLine> getOutput() {
+        return output;
+    }
+
+    /**
+     * Get number of earlier lines which are not kept.
+     *
+     * @return Dropped lines.
+     */
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+
+    /**
+     * Get cause when the process can not be started or read.
+     *
+     * @return {@link Throwable} of failure, or <code>null</code> if none.
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "PubCommandResult{" +
+                "command=" + command +
+                ", status=" + status +
+                ", exitCode=" + exitCode +
+                ", elapsed=" + elapsed +
+                ", lines=" + output.size() +
+                ", droppedLines=" + droppedLines +
+                '}';
+    }
+}
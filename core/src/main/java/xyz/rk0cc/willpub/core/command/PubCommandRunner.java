@@ -0,0 +1,158 @@
+package xyz.rk0cc.willpub.core.command;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Engine of launching {@link PubCommand} as external process.
+ * <br/>
+ * Output of process is drained in background threads and delivered to {@link PubCommandListener} every
+ * {@linkplain #getFlushInterval() flush interval}, which is about a frame by default. Therefore, a command printing
+ * thousands of lines only causes a few updates in UI.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommandRunner implements AutoCloseable {
+    /**
+     * Default lines kept for each execution.
+     */
+    public static final int DEFAULT_BUFFER_LINES = 10000;
+
+    /**
+     * Default interval of delivering output, which is a frame of 60 FPS.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(16);
+
+    /**
+     * Default maximum threads uses when virtual thread is unavailable, which is enough for two drainers of a few
+     * commands.
+     */
+    private static final int DEFAULT_MAX_THREADS = 8;
+
+    private final ExecutorService ioExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final int bufferLines;
+    private final Duration flushInterval;
+
+    /**
+     * Construct runner.
+     *
+     * @param ioExecutor {@link ExecutorService} for launching process and draining output, which must offer at least
+     *                   two threads for each running command.
+     * @param bufferLines Lines kept in {@link OutputRingBuffer} of each execution.
+     * @param flushInterval Interval of delivering output to listener.
+     */
+    public PubCommandRunner(@Nonnull ExecutorService ioExecutor, int bufferLines, @Nonnull Duration flushInterval) {
+        if (bufferLines < 1) throw new IllegalArgumentException("Buffer lines must be positive");
+        if (flushInterval.isNegative() || flushInterval.isZero())
+            throw new IllegalArgumentException("Flush interval must be positive");
+
+        this.ioExecutor = Objects.requireNonNull(ioExecutor);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                WillPubExecutors.newDaemonThreadFactory("willpub-pub-command-scheduler")
+        );
+        this.bufferLines = bufferLines;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Construct runner with {@linkplain WillPubExecutors#newIOExecutor(String, int) I/O executor} and default
+     * settings.
+     */
+    public PubCommandRunner() {
+        this(
+                WillPubExecutors.newIOExecutor("willpub-pub-command", DEFAULT_MAX_THREADS),
+                DEFAULT_BUFFER_LINES,
+                DEFAULT_FLUSH_INTERVAL
+        );
+    }
+
+    /**
+     * Start running a command in background.
+     *
+     * @param command {@link PubCommand} which going to be run.
+     * @param listener {@link PubCommandListener} receiving progress.
+     *
+     * @return {@link PubCommandExecution} for cancelling and getting result.
+     */
+    @Nonnull
+    public PubCommandExecution start(@Nonnull PubCommand command, @Nonnull PubCommandListener listener) {
+        final PubCommandExecution execution = prepare(command, listener);
+        launch(execution);
+
+        return execution;
+    }
+
+    /**
+     * Create execution without launching, which allows {@link PubCommandScheduler} holding it in queue.
+     *
+     * @param command {@link PubCommand} which going to be run.
+     * @param listener {@link PubCommandListener} receiving progress.
+     *
+     * @return A {@link PubCommandExecution} which not launched yet.
+     */
+    @Nonnull
+    PubCommandExecution prepare(@Nonnull PubCommand command, @Nonnull PubCommandListener listener) {
+        return new PubCommandExecution(
+                Objects.requireNonNull(command),
+                Objects.requireNonNull(listener),
+                this,
+                bufferLines
+        );
+    }
+
+    /**
+     * Launch {@linkplain #prepare(PubCommand, PubCommandListener) prepared} execution in background.
+     * <br/>
+     * If the execution is cancelled already, it finishes immediately without starting process.
+     *
+     * @param execution Prepared {@link PubCommandExecution}.
+     */
+    void launch(@Nonnull PubCommandExecution execution) {
+        ioExecutor.execute(execution::launch);
+    }
+
+    /**
+     * Get interval of delivering output.
+     *
+     * @return Flush interval.
+     */
+    @Nonnull
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Get lines kept for each execution.
+     *
+     * @return Capacity of {@link OutputRingBuffer}.
+     */
+    public int getBufferLines() {
+        return bufferLines;
+    }
+
+    @Nonnull
+    ExecutorService ioExecutor() {
+        return ioExecutor;
+    }
+
+    @Nonnull
+    ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stop accepting commands. Running processes are not killed.
+     */
+    @Override
+    public void close() {
+        ioExecutor.shutdown();
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,327 @@
+package xyz.rk0cc.willpub.core.command;
+
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Queue {@link PubCommand} before passing to {@link PubCommandRunner}.
+ * <br/>
+ * Commands of the same project are run one by one, since they are writing the same <code>.dart_tool</code> and
+ * <code>pubspec.lock</code>. Commands of different projects are run in parallel up to
+ * {@linkplain #getMaxConcurrent() maximum concurrent commands}, which is lower than CPU cores that multiple
+ * <code>pub get</code> do not starve each other on pub cache lock.
+ * <br/>
+ * Submitting a command which is identical with a queuing one (same directory, SDK and arguments) does not enqueue
+ * again, but {@linkplain ScheduledPubCommand merges} into the queuing one. Queuing commands are picked by
+ * {@link Priority} first, then submission order.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommandScheduler implements AutoCloseable {
+    /**
+     * Enumerated priority of scheduled command, which higher priority declared first.
+     */
+    public enum Priority {
+        /**
+         * Command of project which user is working on.
+         */
+        FOREGROUND,
+        /**
+         * Command requested by user on other projects.
+         */
+        NORMAL,
+        /**
+         * Command triggered automatically, like resolving every packages after scanning workspace.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Default maximum concurrent commands, which is half of CPU cores and no more than 4.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT
+            = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() / 2, 4));
+
+    /**
+     * Order of picking queuing commands.
+     */
+    private static final Comparator<ScheduledPubCommand> QUEUE_ORDER = Comparator
+            .<ScheduledPubCommand, Priority>comparing(c -> c.priority)
+            .thenComparingLong(ScheduledPubCommand::getSequence);
+
+    /**
+     * Fields uses for determine two commands are identical, which ignores timeout.
+     */
+    private record MergeKey(@Nonnull Path directory, boolean flutter, @Nonnull List<String> arguments) {}
+
+    private final PubCommandRunner runner;
+    private final boolean ownedRunner;
+    private final int maxConcurrent;
+
+    private final Object lock = new Object();
+    private final TreeSet<ScheduledPubCommand> queue = new TreeSet<>(QUEUE_ORDER);
+    private final HashMap<MergeKey, ScheduledPubCommand> queuedByKey = new HashMap<>();
+    private final HashMap<ScheduledPubCommand, MergeKey> keyOfQueued = new HashMap<>();
+    private final HashSet<Path> busyProjects = new HashSet<>();
+    private boolean closed = false;
+    private long nextSequence = 0L;
+
+    // Statistics, guarded by lock
+    private long submitted = 0L, merged = 0L, cancelled = 0L, completed = 0L;
+    private int running = 0, peakQueued = 0;
+    private long totalWaitNanos = 0L, maxWaitNanos = 0L, totalRunNanos = 0L, maxRunNanos = 0L;
+
+    /**
+     * Construct scheduler on existing runner.
+     *
+     * @param runner {@link PubCommandRunner} which launches commands. It will not be closed with this scheduler.
+     * @param maxConcurrent Maximum commands running in the same time.
+     */
+    public PubCommandScheduler(@Nonnull PubCommandRunner runner, int maxConcurrent) {
+        this(runner, maxConcurrent, false);
+    }
+
+    /**
+     * Construct scheduler with default {@link PubCommandRunner} and {@link #DEFAULT_MAX_CONCURRENT}.
+     */
+    public PubCommandScheduler() {
+        this(new PubCommandRunner(), DEFAULT_MAX_CONCURRENT, true);
+    }
+
+    private PubCommandScheduler(@Nonnull PubCommandRunner runner, int maxConcurrent, boolean ownedRunner) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("Maximum concurrent commands must be positive");
+
+        this.runner = Objects.requireNonNull(runner);
+        this.maxConcurrent = maxConcurrent;
+        this.ownedRunner = ownedRunner;
+    }
+
+    /**
+     * Submit command to queue.
+     * <br/>
+     * If an identical command is queuing, listener is attached to it and the queuing command is returned, which
+     * priority raised if given priority is higher.
+     *
+     * @param command {@link PubCommand} which going to be run.
+     * @param priority {@link Priority} of this command.
+     * @param listener {@link PubCommandListener} receiving progress.
+     *
+     * @return {@link ScheduledPubCommand} which this submission assigned to.
+     *
+     * @throws IllegalStateException If this scheduler is closed.
+     */
+    @Nonnull
+    public ScheduledPubCommand submit(
+            @Nonnull PubCommand command,
+            @Nonnull Priority priority,
+            @Nonnull PubCommandListener listener
+    ) {
+        Objects.requireNonNull(priority);
+        Objects.requireNonNull(listener);
+        final Path directory = command.getWorkingDirectory().toAbsolutePath().normalize();
+        final MergeKey key = new MergeKey(directory, command.isFlutter(), command.getArguments());
+
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Scheduler is closed");
+            submitted++;
+
+            final ScheduledPubCommand queuing = queuedByKey.get(key);
+            if (queuing != null) {
+                merged++;
+                queuing.addListener(listener);
+                if (priority.compareTo(queuing.priority) < 0) changeQueuedPriority(queuing, priority);
+                return queuing;
+            }
+
+            final ScheduledPubCommand scheduled = new ScheduledPubCommand(
+                    this,
+                    runner,
+                    command,
+                    directory,
+                    priority,
+                    nextSequence++,
+                    listener
+            );
+            queue.add(scheduled);
+            queuedByKey.put(key, scheduled);
+            keyOfQueued.put(scheduled, key);
+            peakQueued = Math.max(peakQueued, queue.size());
+
+            dispatch();
+
+            return scheduled;
+        }
+    }
+
+    /**
+     * Change priority of every queuing commands of a project, e.g. when the project becomes foreground.
+     *
+     * @param projectDirectory Directory of project.
+     * @param priority New {@link Priority}.
+     *
+     * @return Number of commands changed.
+     */
+    public int changePriority(@Nonnull Path projectDirectory, @Nonnull Priority priority) {
+        Objects.requireNonNull(priority);
+        final Path directory = projectDirectory.toAbsolutePath().normalize();
+
+        synchronized (lock) {
+            final List<ScheduledPubCommand> targets = queue.stream()
+                    .filter(c -> c.getProjectDirectory().equals(directory) && c.priority != priority)
+                    .toList();
+            for (ScheduledPubCommand c : targets) changeQueuedPriority(c, priority);
+
+            return targets.size();
+        }
+    }
+
+    /**
+     * Reorder queuing command, which must be called with {@link #lock}.
+     */
+    private void changeQueuedPriority(@Nonnull ScheduledPubCommand scheduled, @Nonnull Priority priority) {
+        queue.remove(scheduled);
+        scheduled.priority = priority;
+        queue.add(scheduled);
+    }
+
+    /**
+     * Start queuing commands as many as allowed, which must be called with {@link #lock}.
+     */
+    private void dispatch() {
+        final Iterator<ScheduledPubCommand> it = queue.iterator();
+        while (running < maxConcurrent && it.hasNext()) {
+            final ScheduledPubCommand next = it.next();
+            // Keep it in queue until previous command of the same project finished
+            if (!busyProjects.add(next.getProjectDirectory())) continue;
+
+            it.remove();
+            queuedByKey.remove(keyOfQueued.remove(next));
+            running++;
+
+            next.markStarted();
+            final long waitNanos = next.getWaitTime().toNanos();
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            WillPubMetrics.record(Metric.PUB_COMMAND_WAIT, waitNanos);
+
+            next.getResult().whenComplete((r, t) -> onCompleted(next));
+            runner.launch(next.getExecution());
+        }
+    }
+
+    /**
+     * Release project when started command finished.
+     */
+    private void onCompleted(@Nonnull ScheduledPubCommand scheduled) {
+        synchronized (lock) {
+            busyProjects.remove(scheduled.getProjectDirectory());
+            running--;
+            completed++;
+
+            final long runNanos = scheduled.getRunTime().toNanos();
+            totalRunNanos += runNanos;
+            maxRunNanos = Math.max(maxRunNanos, runNanos);
+
+            if (!closed) dispatch();
+        }
+    }
+
+    /**
+     * Cancel scheduled command. Queuing command is removed and finished without starting.
+     */
+    void cancel(@Nonnull ScheduledPubCommand scheduled) {
+        final boolean removed;
+        synchronized (lock) {
+            removed = queue.remove(scheduled);
+            if (removed) {
+                queuedByKey.remove(keyOfQueued.remove(scheduled));
+                scheduled.markRemoved();
+                cancelled++;
+            }
+        }
+
+        scheduled.getExecution().cancel();
+        // Finish with cancelled result without occupying project
+        if (removed) runner.launch(scheduled.getExecution());
+    }
+
+    /**
+     * Get priority under lock since it may be changed while queuing.
+     */
+    @Nonnull
+    Priority priorityOf(@Nonnull ScheduledPubCommand scheduled) {
+        synchronized (lock) {
+            return scheduled.priority;
+        }
+    }
+
+    /**
+     * Get number of commands waiting for a project.
+     *
+     * @param projectDirectory Directory of project.
+     *
+     * @return Number of queuing commands of the project, excluding running one.
+     */
+    public int getQueueDepth(@Nonnull Path projectDirectory) {
+        final Path directory = projectDirectory.toAbsolutePath().normalize();
+
+        synchronized (lock) {
+            return (int) queue.stream().filter(c -> c.getProjectDirectory().equals(directory)).count();
+        }
+    }
+
+    /**
+     * Get maximum commands running in the same time.
+     *
+     * @return Maximum concurrent commands.
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Get snapshot of counters.
+     *
+     * @return {@link PubCommandSchedulerStatistics} at this moment.
+     */
+    @Nonnull
+    public PubCommandSchedulerStatistics getStatistics() {
+        synchronized (lock) {
+            return new PubCommandSchedulerStatistics(
+                    submitted,
+                    merged,
+                    cancelled,
+                    completed,
+                    queue.size(),
+                    running,
+                    peakQueued,
+                    totalWaitNanos,
+                    maxWaitNanos,
+                    totalRunNanos,
+                    maxRunNanos
+            );
+        }
+    }
+
+    /**
+     * Stop accepting commands and cancel queuing commands. Running commands are not killed.
+     * <br/>
+     * The runner is also closed if it is created by this scheduler.
+     */
+    @Override
+    public void close() {
+        final List<ScheduledPubCommand> queuing;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            queuing = List.copyOf(queue);
+        }
+
+        for (ScheduledPubCommand c : queuing) c.cancel();
+        if (ownedRunner) runner.close();
+    }
+}
@@ -0,0 +1,53 @@
+package xyz.rk0cc.willpub.core.command;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of counters of {@link PubCommandScheduler}.
+ *
+ * @param submitted Number of submissions, including merged one.
+ * @param merged Number of submissions merged into a queuing identical command.
+ * @param cancelled Number of commands cancelled before started.
+ * @param completed Number of commands which started and finished.
+ * @param queued Number of commands waiting in queue currently.
+ * @param running Number of commands running currently.
+ * @param peakQueued Highest number of commands waiting in queue at the same time.
+ * @param totalWaitNanos Total time of started commands spent in queue in nanoseconds.
+ * @param maxWaitNanos Longest time of a command spent in queue in nanoseconds.
+ * @param totalRunNanos Total time of completed commands spent on running in nanoseconds.
+ * @param maxRunNanos Longest time of a command spent on running in nanoseconds.
+ *
+ * @since 1.0.0
+ */
+public record PubCommandSchedulerStatistics(
+        long submitted,
+        long merged,
+        long cancelled,
+        long completed,
+        int queued,
+        int running,
+        int peakQueued,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        long totalRunNanos,
+        long maxRunNanos
+) {
+    /**
+     * Get average time of a command spent in queue.
+     *
+     * @return Average wait time, or {@link Duration#ZERO} if no command started.
+     */
+    public Duration averageWaitTime() {
+        final long started = completed + running;
+        return started == 0L ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / started);
+    }
+
+    /**
+     * Get average time of a command spent on running.
+     *
+     * @return Average run time, or {@link Duration#ZERO} if no command completed.
+     */
+    public Duration averageRunTime() {
+        return completed == 0L ? Duration.ZERO : Duration.ofNanos(totalRunNanos / completed);
+    }
+}
@@ -0,0 +1,42 @@
+package xyz.rk0cc.willpub.core.command;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A line printed by running {@link PubCommand}.
+ *
+ * @param stream Which stream printed this line.
+ * @param sequence Order of this line among all lines of the same execution, starting from <code>0</code>.
+ * @param text Context of line without line separator.
+ *
+ * @since 1.0.0
+ */
+public record PubOutputLine(@Nonnull Stream stream, long sequence, @Nonnull String text) {
+    /**
+     * Enumerated output streams of process.
+     */
+    public enum Stream {
+        /**
+         * Standard output.
+         */
+        STDOUT,
+        /**
+         * Standard error.
+         */
+        STDERR
+    }
+
+    /**
+     * Determine this line is printed to standard error.
+     *
+     * @return <code>true</code> if from {@link Stream#STDERR}.
+     */
+    public boolean isError() {
+        return stream == Stream.STDERR;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,191 @@
+package xyz.rk0cc.willpub.core.command;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link PubCommand} which submitted to {@link PubCommandScheduler}.
+ * <br/>
+ * Identical commands submitted while this is still queuing are merged into it, that all
+ * {@linkplain PubCommandListener listeners} of merged submissions receive the same progress and result.
+ *
+ * @since 1.0.0
+ */
+public final class ScheduledPubCommand {
+    private final PubCommandScheduler scheduler;
+    private final Path projectDirectory;
+    private final long sequence;
+    private final long submitNanos;
+    private final CopyOnWriteArrayList<PubCommandListener> listeners = new CopyOnWriteArrayList<>();
+    private final PubCommandExecution execution;
+
+    /**
+     * Current priority, which guarded by scheduler.
+     */
+    PubCommandScheduler.Priority priority;
+
+    private volatile long startNanos = -1L;
+    private volatile long finishNanos = -1L;
+    private volatile boolean removed = false;
+
+    ScheduledPubCommand(
+            @Nonnull PubCommandScheduler scheduler,
+            @Nonnull PubCommandRunner runner,
+            @Nonnull PubCommand command,
+            @Nonnull Path projectDirectory,
+            @Nonnull PubCommandScheduler.Priority priority,
+            long sequence,
+            @Nonnull PubCommandListener listener
+    ) {
+        this.scheduler = scheduler;
+        this.projectDirectory = projectDirectory;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.submitNanos = System.nanoTime();
+        this.listeners.add(listener);
+        this.execution = runner.prepare(command, new Relay());
+    }
+
+    /**
+     * Forward progress of execution to every merged listener.
+     */
+    private final class Relay implements PubCommandListener {
+        @Override
+        public void onStarted(@Nonnull PubCommandExecution execution) {
+            for (PubCommandListener l : listeners) l.onStarted(execution);
+        }
+
+        @Override
+        public void onOutput(@Nonnull PubCommandExecution execution, @Nonnull List<PubOutputLine> lines) {
+            for (PubCommandListener l : listeners) l.onOutput(execution, lines);
+        }
+
+        @Override
+        public void onFinished(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result) {
+            finishNanos = System.nanoTime();
+            for (PubCommandListener l : listeners) l.onFinished(execution, result);
+        }
+    }
+
+    void addListener(@Nonnull PubCommandListener listener) {
+        listeners.add(listener);
+    }
+
+    void markStarted() {
+        startNanos = System.nanoTime();
+    }
+
+    void markRemoved() {
+        removed = true;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get normalized directory of project which this command running on.
+     *
+     * @return Absolute {@link Path} of project.
+     */
+    @Nonnull
+    public Path getProjectDirectory() {
+        return projectDirectory;
+    }
+
+    /**
+     * Get scheduled command.
+     *
+     * @return {@link PubCommand} which will be run.
+     */
+    @Nonnull
+    public PubCommand getCommand() {
+        return execution.getCommand();
+    }
+
+    /**
+     * Get execution of this command, which not launched until it leaves the queue.
+     *
+     * @return {@link PubCommandExecution} of this command.
+     */
+    @Nonnull
+    public PubCommandExecution getExecution() {
+        return execution;
+    }
+
+    /**
+     * Get current priority of this command.
+     *
+     * @return {@link PubCommandScheduler.Priority} of this command.
+     */
+    @Nonnull
+    public PubCommandScheduler.Priority getPriority() {
+        return scheduler.priorityOf(this);
+    }
+
+    /**
+     * Determine this command is still in queue.
+     *
+     * @return <code>true</code> if it is neither started nor cancelled.
+     */
+    public boolean isQueued() {
+        return startNanos < 0L && !removed && !execution.isFinished();
+    }
+
+    /**
+     * Get time spent in queue.
+     *
+     * @return Duration from submitted to started, or until now if it is still queuing.
+     */
+    @Nonnull
+    public Duration getWaitTime() {
+        final long start = startNanos;
+        return Duration.ofNanos((start < 0L ? System.nanoTime() : start) - submitNanos);
+    }
+
+    /**
+     * Get time spent on running.
+     *
+     * @return Duration from started to finished, until now if it is still running, or {@link Duration#ZERO} if
+     *         it is not started.
+     */
+    @Nonnull
+    public Duration getRunTime() {
+        final long start = startNanos, finish = finishNanos;
+        if (start < 0L) return Duration.ZERO;
+
+        return Duration.ofNanos((finish < 0L ? System.nanoTime() : finish) - start);
+    }
+
+    /**
+     * Get result of this command.
+     *
+     * @return A {@link CompletableFuture} which completed once the command finished or cancelled.
+     */
+    @Nonnull
+    public CompletableFuture<PubCommandResult> getResult() {
+        return execution.getResult();
+    }
+
+    /**
+     * Remove this command from queue, or stop it if it is running already.
+     * <br/>
+     * Since identical submissions are merged, it also cancels for all merged listeners.
+     */
+    public void cancel() {
+        scheduler.cancel(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledPubCommand{" +
+                "command=" + getCommand() +
+                ", priority=" + getPriority() +
+                ", queued=" + isQueued() +
+                '}';
+    }
+}
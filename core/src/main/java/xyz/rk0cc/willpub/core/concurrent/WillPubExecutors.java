@@ -0,0 +1,128 @@
+package xyz.rk0cc.willpub.core.concurrent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of {@link ExecutorService} which uses for running blocking I/O in background.
+ * <br/>
+ * When Will Pub running on the JDK which supported virtual thread, it uses
+ * {@linkplain Executors virtual thread per task executor}. Otherwise, a bounded thread pool with daemon threads will be
+ * created that it does not stop JVM shutdown.
+ *
+ * @since 1.0.0
+ */
+public final class WillPubExecutors {
+    /**
+     * Idle time in seconds before bounded pool's thread terminated.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    /**
+     * {@link MethodHandle} of <code>Executors.newVirtualThreadPerTaskExecutor()</code>, or <code>null</code> if
+     * current JDK does not offer it.
+     */
+    private static final MethodHandle VIRTUAL_THREAD_EXECUTOR_FACTORY = findVirtualThreadExecutorFactory();
+
+    private WillPubExecutors() {}
+
+    /**
+     * Find virtual thread executor factory from current JDK.
+     *
+     * @return {@link MethodHandle} of the factory, or <code>null</code> if not found.
+     */
+    @Nullable
+    private static MethodHandle findVirtualThreadExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Determine current JDK can offer virtual thread executor.
+     *
+     * @return <code>true</code> if virtual thread is available.
+     */
+    public static boolean isVirtualThreadAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Create an {@link ExecutorService} for blocking I/O tasks.
+     * <br/>
+     * It uses virtual thread if available, or fallback to {@linkplain #newBoundedExecutor(String, int) bounded pool}.
+     *
+     * @param name Prefix name of thread.
+     * @param maxThreads Maximum threads uses when fallback to bounded pool.
+     *
+     * @return An {@link ExecutorService} that ready to submit tasks.
+     */
+    @Nonnull
+    public static ExecutorService newIOExecutor(@Nonnull String name, int maxThreads) {
+        if (VIRTUAL_THREAD_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invokeExact();
+            } catch (Throwable ignored) {
+                // Virtual thread is preview feature in this JDK, use bounded pool instead
+            }
+        }
+
+        return newBoundedExecutor(name, maxThreads);
+    }
+
+    /**
+     * Create a bounded thread pool that all threads are daemon and terminated when idle.
+     *
+     * @param name Prefix name of thread.
+     * @param maxThreads Maximum threads running in the same time.
+     *
+     * @return A bounded {@link ExecutorService}.
+     */
+    @Nonnull
+    public static ExecutorService newBoundedExecutor(@Nonnull String name, int maxThreads) {
+        if (maxThreads < 1) throw new IllegalArgumentException("Maximum threads must be positive");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                newDaemonThreadFactory(name)
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Create a {@link ThreadFactory} which produce daemon threads with numbered name.
+     *
+     * @param name Prefix name of thread.
+     *
+     * @return A {@link ThreadFactory} for daemon threads.
+     */
+    @Nonnull
+    public static ThreadFactory newDaemonThreadFactory(@Nonnull String name) {
+        Objects.requireNonNull(name);
+        final AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread t = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,554 @@
+package xyz.rk0cc.willpub.core.graph;
+
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfigEntry;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.DependenciesReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.DependencyReference;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Resolved dependency graph of a {@link DartProject}.
+ * <br/>
+ * Nodes are the project itself, which is {@linkplain #getRootName() root}, and every package in
+ * <code>pubspec.lock</code>. Since <code>pubspec.lock</code> does not record which package depends on which, edges
+ * of packages are read from <code>pubspec.yaml</code> of each package that located by
+ * <code>package_config.json</code> through {@link PackageManifestCache}.
+ * <br/>
+ * Nodes are stored as index of arrays and edges as adjacency arrays. Transitive dependencies and dependants of
+ * every node are computed once when building as {@link BitSet}, that every query is answered without traversing the
+ * whole graph again. The graph is immutable and can be shared across threads.
+ *
+ * @since 1.0.0
+ */
+public final class DependencyGraph {
+    private static final int ROOT = 0;
+
+    private final int[] nameIds;
+    private final String[] lockedVersions;
+    private final int[] sortedNameIds;
+    private final int[] sortedIndexes;
+    private final int[] forwardOffsets;
+    private final int[] forwardTargets;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final BitSet[] descendants;
+    private final BitSet[] ancestors;
+    private final BitSet directDependencies;
+    private final boolean complete;
+
+    private DependencyGraph(
+            @Nonnull int[] nameIds,
+            @Nonnull String[] lockedVersions,
+            @Nonnull int[][] edges,
+            @Nonnull BitSet directDependencies,
+            boolean complete
+    ) {
+        final int n = nameIds.length;
+
+        this.nameIds = nameIds;
+        this.lockedVersions = lockedVersions;
+        this.directDependencies = directDependencies;
+        this.complete = complete;
+
+        // Sorted copy of ids for binary search, which package id is global but node index is local
+        final Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> nameIds[i]));
+        this.sortedNameIds = new int[n];
+        this.sortedIndexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedNameIds[i] = nameIds[order[i]];
+            sortedIndexes[i] = order[i];
+        }
+
+        this.forwardOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) forwardOffsets[i + 1] = forwardOffsets[i] + edges[i].length;
+        this.forwardTargets = new int[forwardOffsets[n]];
+        for (int i = 0; i < n; i++) System.arraycopy(edges[i], 0, forwardTargets, forwardOffsets[i], edges[i].length);
+
+        this.reverseOffsets = new int[n + 1];
+        for (int t : forwardTargets) reverseOffsets[t + 1]++;
+        for (int i = 0; i < n; i++) reverseOffsets[i + 1] += reverseOffsets[i];
+        this.reverseTargets = new int[forwardTargets.length];
+        final int[] cursor = Arrays.copyOf(reverseOffsets, n);
+        for (int s = 0; s < n; s++) {
+            for (int e = forwardOffsets[s]; e < forwardOffsets[s + 1]; e++)
+                reverseTargets[cursor[forwardTargets[e]]++] = s;
+        }
+
+        this.descendants = closures();
+        this.ancestors = new BitSet[n];
+        for (int i = 0; i < n; i++) ancestors[i] = new BitSet(n);
+        for (int s = 0; s < n; s++) {
+            final BitSet d = descendants[s];
+            for (int t = d.nextSetBit(0); t >= 0; t = d.nextSetBit(t + 1)) ancestors[t].set(s);
+        }
+    }
+
+    /**
+     * Build graph of a project.
+     * <br/>
+     * If <code>package_config.json</code> is missing or any package's <code>pubspec.yaml</code> is unable to read,
+     * the graph is still built without edges of those packages and {@link #isComplete()} returns <code>false</code>.
+     *
+     * @param project Loaded {@link DartProject}.
+     * @param manifests {@link PackageManifestCache} for reading dependencies of packages.
+     *
+     * @return Graph of the project.
+     */
+    @Nonnull
+    public static DependencyGraph of(@Nonnull DartProject project, @Nonnull PackageManifestCache manifests) {
+        final PubspecLock lock = project.getLock();
+        final PackageConfig config = project.getPackageConfig();
+        final List<LockedPackage> packages = lock == null ? List.of() : lock.getPackages();
+
+        final int n = packages.size() + 1;
+        final int[] nameIds = new int[n];
+        final String[] lockedVersions = new String[n];
+        nameIds[ROOT] = PackageNames.idOf(project.getName());
+        for (int i = 1; i < n; i++) {
+            final LockedPackage lp = packages.get(i - 1);
+            nameIds[i] = lp.getNameId();
+            lockedVersions[i] = lp.getRawVersion();
+        }
+
+        final HashMap<Integer, Integer> indexOf = new HashMap<>(n * 2);
+        for (int i = 1; i < n; i++) indexOf.put(nameIds[i], i);
+
+        final int[][] edges = new int[n][];
+        final BitSet seen = new BitSet(n);
+        boolean complete = lock != null && config != null;
+
+        final int[] rootIds = directDependencyIds(project);
+        edges[ROOT] = toIndexes(rootIds, indexOf, seen);
+        final BitSet direct = new BitSet(n);
+        for (int t : edges[ROOT]) direct.set(t);
+
+        for (int i = 1; i < n; i++) {
+            int[] ids = new int[0];
+            final PackageConfigEntry pce = config == null ? null : config.getPackage(PackageNames.nameOf(nameIds[i]));
+            if (pce == null) {
+                complete = false;
+            } else {
+                try {
+                    ids = manifests.getDependencyIds(Path.of(pce.getRootUri()));
+                } catch (IOException | IllegalArgumentException | FileSystemNotFoundException e) {
+                    complete = false;
+                }
+            }
+            edges[i] = toIndexes(ids, indexOf, seen);
+        }
+
+        return new DependencyGraph(nameIds, lockedVersions, edges, direct, complete);
+    }
+
+    /**
+     * Get ids of packages which listed in project's <code>pubspec.yaml</code>, including
+     * <code>dev_dependencies</code> and <code>dependency_overrides</code>.
+     *
+     * @param project Loaded {@link DartProject}.
+     *
+     * @return Sorted ids of direct dependencies without duplication.
+     */
+    @Nonnull
+    static int[] directDependencyIds(@Nonnull DartProject project) {
+        final TreeSet<Integer> ids = new TreeSet<>();
+        for (DependenciesReferenceSet refs : List.of(
+                project.getPubspec().dependencies(),
+                project.getPubspec().devDependencies(),
+                project.getPubspec().dependencyOverrides()
+        )) {
+            for (DependencyReference dr : refs) ids.add(PackageNames.idOf(dr.name()));
+        }
+
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Convert package ids to node indexes, which unresolved package and duplicated edge are dropped.
+     */
+    @Nonnull
+    private static int[] toIndexes(@Nonnull int[] ids, @Nonnull Map<Integer, Integer> indexOf, @Nonnull BitSet seen) {
+        final int[] targets = new int[ids.length];
+        int c = 0;
+        for (int id : ids) {
+            final Integer t = indexOf.get(id);
+            if (t == null || seen.get(t)) continue;
+            seen.set(t);
+            targets[c++] = t;
+        }
+        for (int i = 0; i < c; i++) seen.clear(targets[i]);
+
+        return Arrays.copyOf(targets, c);
+    }
+
+    /**
+     * Compute transitive dependencies of every node.
+     * <br/>
+     * Strongly connected components are found by Tarjan's algorithm, which emits components in reverse topological
+     * order. Therefore, closures of every dependency outside the component is ready when the component is emitted,
+     * and nodes in the same component share the same closure. It handles cyclic dependencies which are allowed in
+     * Dart.
+     */
+    @Nonnull
+    private BitSet[] closures() {
+        final int n = nameIds.length;
+        final BitSet[] closures = new BitSet[n];
+        final int[] index = new int[n], low = new int[n], edgeCursor = new int[n];
+        final int[] stack = new int[n], callStack = new int[n];
+        final boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+
+        int counter = 0, sp = 0;
+        for (int start = 0; start < n; start++) {
+            if (index[start] >= 0) continue;
+
+            int csp = 0;
+            callStack[csp++] = start;
+            index[start] = low[start] = counter++;
+            edgeCursor[start] = forwardOffsets[start];
+            stack[sp++] = start;
+            onStack[start] = true;
+
+            while (csp > 0) {
+                final int v = callStack[csp - 1];
+                if (edgeCursor[v] < forwardOffsets[v + 1]) {
+                    final int w = forwardTargets[edgeCursor[v]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        edgeCursor[w] = forwardOffsets[w];
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        callStack[csp++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    final int parent = callStack[csp - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] != index[v]) continue;
+
+                // v is root of a component, which members are on the top of stack
+                int bottom = sp;
+                do bottom--; while (stack[bottom] != v);
+
+                final BitSet closure = new BitSet(n);
+                final boolean cyclic = sp - bottom > 1;
+                for (int k = bottom; k < sp; k++) {
+                    final int m = stack[k];
+                    if (cyclic) closure.set(m);
+                    for (int e = forwardOffsets[m]; e < forwardOffsets[m + 1]; e++) {
+                        final int t = forwardTargets[e];
+                        closure.set(t);
+                        if (!onStack[t]) closure.or(closures[t]);
+                    }
+                }
+                for (int k = bottom; k < sp; k++) {
+                    onStack[stack[k]] = false;
+                    closures[stack[k]] = closure;
+                }
+                sp = bottom;
+            }
+        }
+
+        return closures;
+    }
+
+    private int indexOf(@Nonnull String name) {
+        final int id = PackageNames.findId(name);
+        if (id == PackageNames.UNKNOWN_ID) return -1;
+
+        final int i = Arrays.binarySearch(sortedNameIds, id);
+        return i < 0 ? -1 : sortedIndexes[i];
+    }
+
+    private int requireIndex(@Nonnull String name) {
+        final int i = indexOf(name);
+        if (i < 0) throw new NoSuchElementException("Package " + name + " is not in dependency graph");
+        return i;
+    }
+
+    @Nonnull
+    private List<String> namesOf(@Nonnull BitSet nodes) {
+        final ArrayList<String> names = new ArrayList<>(nodes.cardinality());
+        for (int i = nodes.nextSetBit(0); i >= 0; i = nodes.nextSetBit(i + 1))
+            names.add(PackageNames.nameOf(nameIds[i]));
+
+        return Collections.unmodifiableList(names);
+    }
+
+    @Nonnull
+    private List<String> namesOf(@Nonnull int[] targets, int from, int to) {
+        final String[] names = new String[to - from];
+        for (int e = from; e < to; e++) names[e - from] = PackageNames.nameOf(nameIds[targets[e]]);
+
+        return List.of(names);
+    }
+
+    /**
+     * Get name of the project, which is the root of graph.
+     *
+     * @return Project's name.
+     */
+    @Nonnull
+    public String getRootName() {
+        return PackageNames.nameOf(nameIds[ROOT]);
+    }
+
+    /**
+     * Get all packages in the graph except {@linkplain #getRootName() root}.
+     *
+     * @return Names of packages in the same order of <code>pubspec.lock</code>.
+     */
+    @Nonnull
+    public List<String> getPackages() {
+        final BitSet all = new BitSet(nameIds.length);
+        all.set(1, nameIds.length);
+        return namesOf(all);
+    }
+
+    /**
+     * Get number of packages except {@linkplain #getRootName() root}.
+     *
+     * @return Number of packages.
+     */
+    public int size() {
+        return nameIds.length - 1;
+    }
+
+    /**
+     * Get number of edges, including edges from {@linkplain #getRootName() root}.
+     *
+     * @return Number of edges.
+     */
+    public int getEdgeCount() {
+        return forwardTargets.length;
+    }
+
+    /**
+     * Determine every edges are known when building.
+     *
+     * @return <code>false</code> if any package's dependencies is unable to read, which some queries may be
+     *         incorrect.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Determine the package is in this graph.
+     *
+     * @param name Name of package, or {@linkplain #getRootName() root}.
+     *
+     * @return <code>true</code> if the package is found.
+     */
+    public boolean contains(@Nonnull String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Get resolved version of package.
+     *
+     * @param name Name of package.
+     *
+     * @return Version in <code>pubspec.lock</code>.
+     *
+     * @throws NoSuchElementException If the package is not in this graph or it is {@linkplain #getRootName() root}.
+     */
+    @Nonnull
+    public String getLockedVersion(@Nonnull String name) {
+        final int i = requireIndex(name);
+        if (i == ROOT) throw new NoSuchElementException("Root of graph has no locked version");
+        return lockedVersions[i];
+    }
+
+    /**
+     * Determine the package is listed in project's <code>pubspec.yaml</code>.
+     *
+     * @param name Name of package.
+     *
+     * @return <code>true</code> if it is a direct dependency.
+     */
+    public boolean isDirectDependency(@Nonnull String name) {
+        final int i = indexOf(name);
+        return i > ROOT && directDependencies.get(i);
+    }
+
+    /**
+     * Get packages which the package depends on directly.
+     *
+     * @param name Name of package, or {@linkplain #getRootName() root}.
+     *
+     * @return Names of dependencies.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     */
+    @Nonnull
+    public List<String> getDependencies(@Nonnull String name) {
+        final int i = requireIndex(name);
+        return namesOf(forwardTargets, forwardOffsets[i], forwardOffsets[i + 1]);
+    }
+
+    /**
+     * Get every packages which the package depends on directly or indirectly.
+     *
+     * @param name Name of package, or {@linkplain #getRootName() root}.
+     *
+     * @return Names of transitive dependencies.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     */
+    @Nonnull
+    public List<String> getTransitiveDependencies(@Nonnull String name) {
+        return namesOf(descendants[requireIndex(name)]);
+    }
+
+    /**
+     * Get packages which depend on the package directly, which answers <i>what depends on it</i>.
+     *
+     * @param name Name of package.
+     *
+     * @return Names of dependants, which includes {@linkplain #getRootName() root} if it is a direct dependency.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     */
+    @Nonnull
+    public List<String> getDependants(@Nonnull String name) {
+        final int i = requireIndex(name);
+        return namesOf(reverseTargets, reverseOffsets[i], reverseOffsets[i + 1]);
+    }
+
+    /**
+     * Get every packages which depend on the package directly or indirectly.
+     *
+     * @param name Name of package.
+     *
+     * @return Names of transitive dependants.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     */
+    @Nonnull
+    public List<String> getTransitiveDependants(@Nonnull String name) {
+        return namesOf(ancestors[requireIndex(name)]);
+    }
+
+    /**
+     * Find the shortest chain of dependencies from {@linkplain #getRootName() root} to the package, which answers
+     * <i>why is it included</i>.
+     * <br/>
+     * Only nodes which can reach the package are visited that it is proportional to length of the chain rather
+     * than size of graph.
+     *
+     * @param name Name of package.
+     *
+     * @return Names from root to the package, or empty {@link List} if the package is unreachable from root, which
+     *         happens when <code>pubspec.lock</code> is outdated.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     */
+    @Nonnull
+    public List<String> whyIncluded(@Nonnull String name) {
+        final int target = requireIndex(name);
+        if (target == ROOT) return List.of(getRootName());
+        if (!descendants[ROOT].get(target)) return List.of();
+
+        final BitSet towards = ancestors[target];
+        final int[] previous = new int[nameIds.length];
+        Arrays.fill(previous, -1);
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        previous[ROOT] = ROOT;
+
+        while (!queue.isEmpty()) {
+            final int v = queue.poll();
+            for (int e = forwardOffsets[v]; e < forwardOffsets[v + 1]; e++) {
+                final int w = forwardTargets[e];
+                if (previous[w] >= 0 || (w != target && !towards.get(w))) continue;
+
+                previous[w] = v;
+                if (w == target) {
+                    final ArrayDeque<String> chain = new ArrayDeque<>();
+                    for (int c = target; c != ROOT; c = previous[c]) chain.addFirst(PackageNames.nameOf(nameIds[c]));
+                    chain.addFirst(getRootName());
+                    return List.copyOf(chain);
+                }
+                queue.add(w);
+            }
+        }
+
+        return List.of();
+    }
+
+    /**
+     * Find packages which will no longer be resolved if the package is dropped, which answers <i>what changes if
+     * it is removed</i>.
+     * <br/>
+     * For direct dependency, it is the package removed from project's <code>pubspec.yaml</code>. Otherwise, it
+     * assumes the package is removed from whichever depends on it.
+     *
+     * @param name Name of package.
+     *
+     * @return Names of packages which are no longer reachable from {@linkplain #getRootName() root}, including
+     *         the package itself if nothing else depends on it.
+     *
+     * @throws NoSuchElementException If the package is not in this graph.
+     * @throws IllegalArgumentException If it is {@linkplain #getRootName() root}.
+     */
+    @Nonnull
+    public List<String> removalImpact(@Nonnull String name) {
+        final int dropped = requireIndex(name);
+        if (dropped == ROOT) throw new IllegalArgumentException("Root of graph can not be removed");
+
+        final BitSet kept = new BitSet(nameIds.length);
+        if (directDependencies.get(dropped)) {
+            // Union of other direct dependencies' closure
+            for (int e = forwardOffsets[ROOT]; e < forwardOffsets[ROOT + 1]; e++) {
+                final int t = forwardTargets[e];
+                if (t == dropped) continue;
+                kept.set(t);
+                kept.or(descendants[t]);
+            }
+        } else {
+            final ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(ROOT);
+            while (!queue.isEmpty()) {
+                final int v = queue.poll();
+                for (int e = forwardOffsets[v]; e < forwardOffsets[v + 1]; e++) {
+                    final int w = forwardTargets[e];
+                    if (w == dropped || kept.get(w)) continue;
+                    kept.set(w);
+                    queue.add(w);
+                }
+            }
+        }
+
+        final BitSet lost = (BitSet) descendants[ROOT].clone();
+        lost.andNot(kept);
+        lost.clear(ROOT);
+        return namesOf(lost);
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyGraph{" +
+                "root='" + getRootName() + '\'' +
+                ", packages=" + size() +
+                ", edges=" + getEdgeCount() +
+                ", complete=" + complete +
+                '}';
+    }
+}
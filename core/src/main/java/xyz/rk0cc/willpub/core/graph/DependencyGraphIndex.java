@@ -0,0 +1,142 @@
+package xyz.rk0cc.willpub.core.graph;
+
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of {@link DependencyGraph} for every opened project in workspace.
+ * <br/>
+ * Each project owns its graph, that changing one <code>pubspec.lock</code> only rebuilds graph of that project.
+ * Graph is reused as it is when neither <code>pubspec.lock</code>, <code>package_config.json</code> nor
+ * dependencies in <code>pubspec.yaml</code> are changed, and rebuilding reads only <code>pubspec.yaml</code> of
+ * packages which are not {@linkplain PackageManifestCache cached} yet, which is usually the upgraded ones.
+ *
+ * @since 1.0.0
+ */
+public final class DependencyGraphIndex {
+    /**
+     * Graph with the context which built from.
+     */
+    private record Indexed(
+            @Nullable PubspecLock lock,
+            @Nullable PackageConfig config,
+            @Nonnull int[] directDependencyIds,
+            @Nonnull DependencyGraph graph
+    ) {
+        boolean isBuiltFrom(@Nonnull DartProject project, @Nonnull int[] directIds) {
+            return Objects.equals(lock, project.getLock())
+                    && Objects.equals(config, project.getPackageConfig())
+                    && Arrays.equals(directDependencyIds, directIds);
+        }
+    }
+
+    private final ConcurrentHashMap<Path, Indexed> graphs = new ConcurrentHashMap<>();
+    private final PackageManifestCache manifests;
+
+    /**
+     * Create index with given {@link PackageManifestCache}.
+     *
+     * @param manifests Cache of packages' dependencies, which can be shared with other indexes.
+     */
+    public DependencyGraphIndex(@Nonnull PackageManifestCache manifests) {
+        this.manifests = Objects.requireNonNull(manifests);
+    }
+
+    public DependencyGraphIndex() {
+        this(new PackageManifestCache());
+    }
+
+    @Nonnull
+    private static Path keyOf(@Nonnull Path projectDir) {
+        return projectDir.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Update graph of the project after it is loaded or reloaded.
+     *
+     * @param project Latest {@link DartProject}.
+     *
+     * @return Graph of the project, which is the previous one if nothing related is changed.
+     */
+    @Nonnull
+    public DependencyGraph update(@Nonnull DartProject project) {
+        final Path key = keyOf(project.getDirectory());
+        final int[] directIds = DependencyGraph.directDependencyIds(project);
+
+        return graphs.compute(key, (k, previous) -> {
+            if (previous != null && previous.isBuiltFrom(project, directIds)) return previous;
+            return new Indexed(
+                    project.getLock(),
+                    project.getPackageConfig(),
+                    directIds,
+                    DependencyGraph.of(project, manifests)
+            );
+        }).graph();
+    }
+
+    /**
+     * Get graph of the project.
+     *
+     * @param projectDir Directory of project.
+     *
+     * @return Graph of the project, or <code>null</code> if it has not been {@linkplain #update(DartProject) updated}.
+     */
+    @Nullable
+    public DependencyGraph getGraph(@Nonnull Path projectDir) {
+        final Indexed i = graphs.get(keyOf(projectDir));
+        return i == null ? null : i.graph();
+    }
+
+    /**
+     * Remove graph of project when it is closed.
+     *
+     * @param projectDir Directory of project.
+     */
+    public void remove(@Nonnull Path projectDir) {
+        graphs.remove(keyOf(projectDir));
+    }
+
+    /**
+     * Find projects which resolved the package.
+     *
+     * @param packageName Name of package.
+     *
+     * @return Directories of projects which the package is in their graph.
+     */
+    @Nonnull
+    public List<Path> getProjectsContaining(@Nonnull String packageName) {
+        final ArrayList<Path> projects = new ArrayList<>();
+        graphs.forEach((dir, i) -> {
+            if (i.graph().contains(packageName)) projects.add(dir);
+        });
+        projects.sort(Comparator.naturalOrder());
+
+        return Collections.unmodifiableList(projects);
+    }
+
+    /**
+     * Get {@link PackageManifestCache} uses by this index.
+     *
+     * @return Cache of packages' dependencies.
+     */
+    @Nonnull
+    public PackageManifestCache getManifests() {
+        return manifests;
+    }
+
+    /**
+     * Get number of indexed projects.
+     *
+     * @return Number of projects.
+     */
+    public int size() {
+        return graphs.size();
+    }
+}
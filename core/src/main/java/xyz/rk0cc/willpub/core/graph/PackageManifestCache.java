@@ -0,0 +1,129 @@
+package xyz.rk0cc.willpub.core.graph;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of dependencies which declared in <code>pubspec.yaml</code> of resolved packages, which are the edges of
+ * {@link DependencyGraph}.
+ * <br/>
+ * Packages in pub cache are never modified once downloaded, that the same package version is read once no matter
+ * how many projects or lock file changes use it. Path and git package are revalidated by last modified time and size
+ * of <code>pubspec.yaml</code>.
+ * <br/>
+ * Only names in <code>dependencies</code> are read since <code>dev_dependencies</code> of a dependency is never
+ * resolved in the project.
+ *
+ * @since 1.0.0
+ */
+public final class PackageManifestCache {
+    /**
+     * Shared {@link YAMLFactory}, which is thread-safe once configured.
+     */
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+
+    private static final int[] NO_DEPENDENCIES = new int[0];
+
+    /**
+     * Cached dependencies of <code>pubspec.yaml</code> with its state when reading.
+     */
+    private record Entry(long modified, long size, int[] dependencyIds) {}
+
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get dependencies of a package.
+     *
+     * @param packageRoot Root directory of package, which is <code>rootUri</code> in
+     *                    <code>package_config.json</code>.
+     *
+     * @return {@linkplain PackageNames#idOf(String) Ids} of dependencies' name. The array must not be modified.
+     *
+     * @throws IOException If <code>pubspec.yaml</code> does not exist or unable to parse.
+     */
+    @Nonnull
+    public int[] getDependencyIds(@Nonnull Path packageRoot) throws IOException {
+        final Path pubspec = ProjectFile.PUBSPEC_YAML.resolve(packageRoot.toAbsolutePath().normalize());
+        final BasicFileAttributes attrs = Files.readAttributes(pubspec, BasicFileAttributes.class);
+        final long modified = attrs.lastModifiedTime().toMillis(), size = attrs.size();
+
+        final Entry cached = entries.get(pubspec);
+        if (cached != null && cached.modified() == modified && cached.size() == size) return cached.dependencyIds();
+
+        final int[] ids = read(pubspec);
+        entries.put(pubspec, new Entry(modified, size, ids));
+
+        return ids;
+    }
+
+    @Nonnull
+    private static int[] read(@Nonnull Path pubspec) throws IOException {
+        try (InputStream in = Files.newInputStream(pubspec); JsonParser parser = YAML_FACTORY.createParser(in)) {
+            final JsonToken first = parser.nextToken();
+            if (first == null) return NO_DEPENDENCIES;
+            if (first != JsonToken.START_OBJECT) throw new JsonParseException(parser, "pubspec.yaml must be a map");
+
+            int[] ids = NO_DEPENDENCIES;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+
+                if (!field.equals("dependencies") || value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                int n = 0;
+                ids = new int[8];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+                    ids[n++] = PackageNames.idOf(parser.getCurrentName());
+
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+                ids = n == 0 ? NO_DEPENDENCIES : Arrays.copyOf(ids, n);
+            }
+
+            return ids;
+        }
+    }
+
+    /**
+     * Remove cached dependencies of a package.
+     *
+     * @param packageRoot Root directory of package.
+     */
+    public void invalidate(@Nonnull Path packageRoot) {
+        entries.remove(ProjectFile.PUBSPEC_YAML.resolve(packageRoot.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Remove all cached dependencies.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get number of cached packages.
+     *
+     * @return Number of packages.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,50 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe canonicalizing map which stops growing when reaching capacity.
+ * <br/>
+ * Values are never evicted, because entries of a long-running session are reused again and again. Once the pool is
+ * full, key which is not pooled yet is computed every time without being cached, that the heap usage is bounded
+ * even a malicious metadata contains millions of distinct values.
+ *
+ * @param <K> Type of key.
+ * @param <V> Type of canonical value.
+ *
+ * @since 1.0.0
+ */
+final class BoundedPool<K, V> {
+    private final ConcurrentHashMap<K, V> pool;
+    private final int capacity;
+    private final Function<? super K, ? extends V> factory;
+
+    BoundedPool(int capacity, @Nonnull Function<? super K, ? extends V> factory) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.pool = new ConcurrentHashMap<>(Math.min(capacity, 1024));
+        this.capacity = capacity;
+        this.factory = factory;
+    }
+
+    /**
+     * Get canonical value of the key.
+     *
+     * @param key Key of value.
+     *
+     * @return Pooled value, or newly computed value if the pool is full.
+     */
+    @Nonnull
+    V get(@Nonnull K key) {
+        final V pooled = pool.get(key);
+        if (pooled != null) return pooled;
+
+        if (pool.size() >= capacity) return factory.apply(key);
+        return pool.computeIfAbsent(key, factory);
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,75 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+/**
+ * Process-wide pool of canonical {@link PubSemVerConstraint}, that the same constraint is parsed once and shared by
+ * every project, published version and solver.
+ * <br/>
+ * Constraints are immutable that sharing instances is safe. The pool is bounded by {@link #CAPACITY}.
+ *
+ * @since 1.0.0
+ */
+public final class ConstraintPool {
+    /**
+     * Maximum number of pooled constraints.
+     */
+    public static final int CAPACITY = 1 << 15;
+
+    private static final BoundedPool<String, Entry> pool = new BoundedPool<>(CAPACITY, Entry::parse);
+
+    /**
+     * Interned raw constraint with parsed constraint, which is empty if it is invalid.
+     */
+    private record Entry(String raw, Optional<PubSemVerConstraint> constraint) {
+        @Nonnull
+        static Entry parse(@Nonnull String raw) {
+            try {
+                return new Entry(raw, Optional.of(PubSemVerConstraint.parse(raw)));
+            } catch (RuntimeException e) {
+                // Parser throws unchecked exception for malformed constraint
+                return new Entry(raw, Optional.empty());
+            }
+        }
+    }
+
+    private ConstraintPool() {}
+
+    /**
+     * Get shared {@link PubSemVerConstraint} of raw constraint.
+     *
+     * @param raw Raw constraint.
+     *
+     * @return Pooled {@link PubSemVerConstraint}, or <code>null</code> if it is malformed.
+     */
+    @Nullable
+    public static PubSemVerConstraint parse(@Nullable String raw) {
+        return raw == null ? null : pool.get(raw).constraint().orElse(null);
+    }
+
+    /**
+     * Get shared instance of raw constraint string.
+     *
+     * @param raw Raw constraint.
+     *
+     * @return An equal {@link String} which is shared by every model, or <code>null</code> if given
+     *         <code>null</code>.
+     */
+    @Nullable
+    public static String intern(@Nullable String raw) {
+        return raw == null ? null : pool.get(raw).raw();
+    }
+
+    /**
+     * Get number of pooled constraints.
+     *
+     * @return Number of constraints.
+     */
+    public static int size() {
+        return pool.size();
+    }
+}
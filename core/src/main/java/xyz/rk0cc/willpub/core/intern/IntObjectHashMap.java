@@ -0,0 +1,228 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A hash map which key is primitive <code>int</code>, mainly uses for looking up by {@linkplain PackageNames package
+ * id}.
+ * <br/>
+ * It uses open addressing with linear probing in two parallel arrays, that neither key is boxed nor entry object is
+ * allocated. <code>null</code> value is not allowed, which uses for marking empty slot.
+ * <br/>
+ * This map is not thread-safe. Model which shares it across threads must not modify it after publishing.
+ *
+ * @param <V> Type of value.
+ *
+ * @since 1.0.0
+ */
+public final class IntObjectHashMap<V> {
+    /**
+     * Receive each entry of {@link IntObjectHashMap}.
+     *
+     * @param <V> Type of value.
+     *
+     * @since 1.0.0
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, @Nonnull V value);
+    }
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+    private int mask;
+    private int shift;
+
+    /**
+     * Create map which holds expected number of entries without resizing.
+     *
+     * @param expectedSize Expected number of entries.
+     */
+    public IntObjectHashMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size must not be negative");
+        allocate(capacityFor(expectedSize));
+    }
+
+    public IntObjectHashMap() {
+        this(0);
+    }
+
+    /**
+     * Capacity of table which load factor does not exceed 0.5.
+     */
+    private static int capacityFor(int expectedSize) {
+        final long c = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1L, (long) expectedSize * 2L - 1L)) << 1);
+        if (c > 1 << 30) throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        return (int) c;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private int slotOf(int key) {
+        // Fibonacci hashing spreads sequential ids
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Find slot of the key.
+     *
+     * @return Slot of the key, or the empty slot where the key should be inserted.
+     */
+    private int find(int key) {
+        int i = slotOf(key);
+        while (values[i] != null && keys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    /**
+     * Get value of the key.
+     *
+     * @param key Key of value.
+     *
+     * @return Value of key, or <code>null</code> if absent.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[find(key)];
+    }
+
+    public boolean containsKey(int key) {
+        return values[find(key)] != null;
+    }
+
+    /**
+     * Associate value to the key.
+     *
+     * @param key Key of value.
+     * @param value Value which must not be <code>null</code>.
+     *
+     * @return Previous value of key, or <code>null</code> if absent.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(int key, @Nonnull V value) {
+        Objects.requireNonNull(value);
+
+        int i = find(key);
+        final V previous = (V) values[i];
+        if (previous == null) {
+            if ((size + 1) * 2 > values.length) {
+                rehash(values.length << 1);
+                i = find(key);
+            }
+            keys[i] = key;
+            size++;
+        }
+
+        values[i] = value;
+        return previous;
+    }
+
+    /**
+     * Remove the key.
+     *
+     * @param key Key of value.
+     *
+     * @return Removed value, or <code>null</code> if absent.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = find(key);
+        final V previous = (V) values[i];
+        if (previous == null) return null;
+
+        values[i] = null;
+        size--;
+
+        // Shift following entries back that probing is not broken by the hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == null) break;
+
+            final int home = slotOf(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                values[j] = null;
+                i = j;
+            }
+        }
+
+        return previous;
+    }
+
+    private void rehash(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) continue;
+            final int slot = find(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Visit every entry in unspecified order.
+     *
+     * @param consumer {@link EntryConsumer} of each entry.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@Nonnull EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) consumer.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    /**
+     * Get all keys in unspecified order.
+     *
+     * @return A new array of keys.
+     */
+    @Nonnull
+    public int[] keys() {
+        final int[] k = new int[size];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) k[n++] = keys[i];
+        }
+        return k;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IntObjectHashMap{" +
+                "size=" + size +
+                ", capacity=" + values.length +
+                '}';
+    }
+}
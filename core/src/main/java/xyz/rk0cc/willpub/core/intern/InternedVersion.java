@@ -0,0 +1,45 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import xyz.rk0cc.josev.SemVer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A version string with its parsed and {@linkplain PackedVersion packed} forms, which is shared by every model
+ * holding the same version.
+ *
+ * @param raw Version string as written.
+ * @param version Parsed {@link SemVer}, or <code>null</code> if it is not a standard semantic versioning.
+ * @param packed {@linkplain PackedVersion Packed} version, or {@link PackedVersion#UNPACKABLE}.
+ *
+ * @since 1.0.0
+ */
+public record InternedVersion(@Nonnull String raw, @Nullable SemVer version, long packed) {
+    /**
+     * Parse version without pooling.
+     *
+     * @param raw Version string.
+     *
+     * @return A new {@link InternedVersion}.
+     */
+    @Nonnull
+    static InternedVersion parse(@Nonnull String raw) {
+        final SemVer version = SemVer.tryParse(raw);
+        return new InternedVersion(raw, version, PackedVersion.pack(version));
+    }
+
+    /**
+     * Determine this version can be compared as primitive.
+     *
+     * @return <code>true</code> if {@link #packed()} is not {@link PackedVersion#UNPACKABLE}.
+     */
+    public boolean isPacked() {
+        return PackedVersion.isPacked(packed);
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
@@ -0,0 +1,142 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of package names, which assigns a dense integer id to each distinct name.
+ * <br/>
+ * Every model which holds package name uses the {@linkplain #intern(String) interned} instance, that packages like
+ * <code>flutter</code>, <code>collection</code> and <code>meta</code> are stored once regardless how many projects
+ * depend on them. The id can be used as key of {@link IntObjectHashMap} or index of array, which avoids hashing and
+ * comparing strings in hot lookups.
+ * <br/>
+ * Registered names are never removed since models keep their ids, but the registry is bounded by {@link #CAPACITY}.
+ * Names which are only {@linkplain #intern(String) interned}, e.g. dependencies in metadata from pub.dev, are
+ * registered until {@link #INTERN_CAPACITY} only, and returned as is without sharing once exceeded. The rest is
+ * reserved for {@linkplain #idOf(String) ids} of packages in opened projects, that a malicious metadata with millions
+ * of distinct names can neither exhaust heap nor ids.
+ *
+ * @since 1.0.0
+ */
+public final class PackageNames {
+    /**
+     * Id returned by {@link #findId(String)} when the name is not registered.
+     */
+    public static final int UNKNOWN_ID = -1;
+
+    /**
+     * Maximum number of registered names.
+     */
+    public static final int CAPACITY = 1 << 18;
+
+    /**
+     * Number of registered names which {@link #intern(String)} stops registering new name.
+     */
+    public static final int INTERN_CAPACITY = 1 << 16;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>(4096);
+
+    /**
+     * Registered names indexed by id, which is replaced when growing.
+     */
+    private static volatile String[] names = new String[4096];
+
+    private static int size = 0;
+
+    private PackageNames() {}
+
+    /**
+     * Get id of package name, which registers the name if it is never seen.
+     *
+     * @param name Name of package.
+     *
+     * @return Non-negative id of the name.
+     *
+     * @throws IllegalStateException If the name is never seen and {@link #CAPACITY} is reached.
+     */
+    public static int idOf(@Nonnull String name) {
+        final Integer id = ids.get(name);
+        if (id != null) return id;
+
+        return register(Objects.requireNonNull(name));
+    }
+
+    private static synchronized int register(@Nonnull String name) {
+        final Integer raced = ids.get(name);
+        if (raced != null) return raced;
+
+        if (size >= CAPACITY) throw new IllegalStateException("Too many package names, up to " + CAPACITY);
+
+        String[] n = names;
+        if (size == n.length) {
+            n = Arrays.copyOf(n, n.length * 2);
+            names = n;
+        }
+
+        final int id = size++;
+        n[id] = name;
+        // Publish after the array slot is written, that nameOf(id) always sees the name
+        ids.put(name, id);
+
+        return id;
+    }
+
+    /**
+     * Find id of package name without registering.
+     *
+     * @param name Name of package.
+     *
+     * @return Id of the name, or {@link #UNKNOWN_ID} if not registered, which means no model holds this name.
+     */
+    public static int findId(@Nullable String name) {
+        if (name == null) return UNKNOWN_ID;
+        final Integer id = ids.get(name);
+        return id == null ? UNKNOWN_ID : id;
+    }
+
+    /**
+     * Get registered name of id.
+     *
+     * @param id Id from {@link #idOf(String)}.
+     *
+     * @return Interned name.
+     *
+     * @throws IndexOutOfBoundsException If the id is not registered.
+     */
+    @Nonnull
+    public static String nameOf(int id) {
+        final String[] n = names;
+        final String name = id >= 0 && id < n.length ? n[id] : null;
+        if (name == null) throw new IndexOutOfBoundsException("Unregistered package id: " + id);
+        return name;
+    }
+
+    /**
+     * Get the shared instance of package name.
+     *
+     * @param name Name of package.
+     *
+     * @return An equal {@link String} which is shared by every model, or the given one if it is never seen and
+     *         {@link #INTERN_CAPACITY} is reached.
+     */
+    @Nonnull
+    public static String intern(@Nonnull String name) {
+        final Integer id = ids.get(name);
+        if (id != null) return nameOf(id);
+
+        return ids.size() >= INTERN_CAPACITY ? name : nameOf(register(Objects.requireNonNull(name)));
+    }
+
+    /**
+     * Get number of registered names.
+     *
+     * @return Number of names.
+     */
+    public static int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import xyz.rk0cc.josev.SemVer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Encode release version into a single <code>long</code>, which major, minor and patch are stored in 21 bits
+ * respectively.
+ * <br/>
+ * Packed versions are ordered as the same as {@link SemVer#compareTo(SemVer)}, that comparing versions is a
+ * primitive comparison without allocation. Pre-release, build metadata and component larger than
+ * {@link #MAX_COMPONENT} can not be packed, which are {@link #UNPACKABLE} and should fallback to {@link SemVer}.
+ *
+ * @since 1.0.0
+ */
+public final class PackedVersion {
+    /**
+     * Value of version which can not be packed. It is negative that never equal to any packed version.
+     */
+    public static final long UNPACKABLE = -1L;
+
+    /**
+     * Maximum value of each component.
+     */
+    public static final long MAX_COMPONENT = (1L << 21) - 1L;
+
+    private static final int MINOR_SHIFT = 21;
+    private static final int MAJOR_SHIFT = 42;
+
+    private PackedVersion() {}
+
+    /**
+     * Pack components of release version.
+     *
+     * @param major Major version.
+     * @param minor Minor version.
+     * @param patch Patch version.
+     *
+     * @return Packed version, or {@link #UNPACKABLE} if any component is out of range.
+     */
+    public static long pack(long major, long minor, long patch) {
+        if (major < 0 || minor < 0 || patch < 0 || major > MAX_COMPONENT || minor > MAX_COMPONENT
+                || patch > MAX_COMPONENT) return UNPACKABLE;
+
+        return (major << MAJOR_SHIFT) | (minor << MINOR_SHIFT) | patch;
+    }
+
+    /**
+     * Pack a {@link SemVer}.
+     *
+     * @param version Version to pack.
+     *
+     * @return Packed version, or {@link #UNPACKABLE} if it is <code>null</code>, pre-release, has build metadata or
+     *         any component is out of range.
+     */
+    public static long pack(@Nullable SemVer version) {
+        if (version == null || version.isPreRelease() || version.build() != null) return UNPACKABLE;
+        return pack(version.major(), version.minor(), version.patch());
+    }
+
+    /**
+     * Determine the value is a packed version.
+     *
+     * @param packed Value from {@link #pack(SemVer)}.
+     *
+     * @return <code>true</code> if it is not {@link #UNPACKABLE}.
+     */
+    public static boolean isPacked(long packed) {
+        return packed >= 0;
+    }
+
+    public static long major(long packed) {
+        return packed >>> MAJOR_SHIFT;
+    }
+
+    public static long minor(long packed) {
+        return (packed >>> MINOR_SHIFT) & MAX_COMPONENT;
+    }
+
+    public static long patch(long packed) {
+        return packed & MAX_COMPONENT;
+    }
+
+    /**
+     * Decode packed version.
+     *
+     * @param packed Packed version.
+     *
+     * @return A {@link SemVer} of the packed version.
+     *
+     * @throws IllegalArgumentException If it is {@link #UNPACKABLE}.
+     */
+    @Nonnull
+    public static SemVer unpack(long packed) {
+        if (!isPacked(packed)) throw new IllegalArgumentException("Not a packed version");
+        return new SemVer(major(packed), minor(packed), patch(packed));
+    }
+
+    /**
+     * Format packed version.
+     *
+     * @param packed Packed version.
+     *
+     * @return Version in <code>major.minor.patch</code>, or <code>unpackable</code>.
+     */
+    @Nonnull
+    public static String toString(long packed) {
+        return isPacked(packed) ? major(packed) + "." + minor(packed) + "." + patch(packed) : "unpackable";
+    }
+}
@@ -0,0 +1,44 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Process-wide pool of short repeated strings which are neither package name, version nor constraint, such as URL
+ * of hosted repository, name of SDK and language version.
+ * <br/>
+ * Unlike {@link String#intern()}, the pool is bounded by {@link #CAPACITY} and never touches JVM's string table.
+ *
+ * @since 1.0.0
+ */
+public final class StringPool {
+    /**
+     * Maximum number of pooled strings.
+     */
+    public static final int CAPACITY = 1 << 14;
+
+    private static final BoundedPool<String, String> pool = new BoundedPool<>(CAPACITY, s -> s);
+
+    private StringPool() {}
+
+    /**
+     * Get shared instance of the string.
+     *
+     * @param value A {@link String}.
+     *
+     * @return An equal {@link String} which is shared by every model, or <code>null</code> if given
+     *         <code>null</code>.
+     */
+    @Nullable
+    public static String intern(@Nullable String value) {
+        return value == null ? null : pool.get(value);
+    }
+
+    /**
+     * Get number of pooled strings.
+     *
+     * @return Number of strings.
+     */
+    public static int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.rk0cc.willpub.core.intern;
+
+import xyz.rk0cc.josev.SemVer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Process-wide pool of {@link InternedVersion}, that the same version string is parsed once and shared by every
+ * locked package and published version.
+ * <br/>
+ * The pool is bounded by {@link #CAPACITY}. Version which is not pooled when it is full is still parsed correctly,
+ * but not shared.
+ *
+ * @since 1.0.0
+ */
+public final class VersionPool {
+    /**
+     * Maximum number of pooled versions.
+     */
+    public static final int CAPACITY = 1 << 17;
+
+    private static final BoundedPool<String, InternedVersion> pool = new BoundedPool<>(
+            CAPACITY,
+            InternedVersion::parse
+    );
+
+    private VersionPool() {}
+
+    /**
+     * Get shared {@link InternedVersion} of the version string.
+     *
+     * @param raw Version string.
+     *
+     * @return Pooled {@link InternedVersion}.
+     */
+    @Nonnull
+    public static InternedVersion intern(@Nonnull String raw) {
+        return pool.get(raw);
+    }
+
+    /**
+     * Get shared {@link SemVer} of the version string.
+     *
+     * @param raw Version string.
+     *
+     * @return Pooled {@link SemVer}, or <code>null</code> if it is not a standard semantic versioning.
+     */
+    @Nullable
+    public static SemVer parse(@Nullable String raw) {
+        return raw == null ? null : pool.get(raw).version();
+    }
+
+    /**
+     * Get number of pooled versions.
+     *
+     * @return Number of versions.
+     */
+    public static int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,163 @@
+package xyz.rk0cc.willpub.core.io;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Common file operations of on-disk caches in Will Pub.
+ * <br/>
+ * Every cache entry is a single file named by hashing its key, written atomically via temporary file and evicted by
+ * least recently used order which is tracked by modified time of entry.
+ *
+ * @since 1.0.0
+ */
+public final class CacheFiles {
+    private CacheFiles() {}
+
+    /**
+     * Encoding entry context.
+     *
+     * @since 1.0.0
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+        /**
+         * Write context of entry.
+         *
+         * @param out Output destination.
+         *
+         * @throws IOException If unable to write.
+         */
+        void write(@Nonnull DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Get file name of entry from the key.
+     *
+     * @param key Key of entry.
+     * @param suffix File extension of entry.
+     *
+     * @return Hashed file name.
+     */
+    @Nonnull
+    public static String entryName(@Nonnull String key, @Nonnull String suffix) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + suffix;
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory in all Java platform
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Write entry to temporary file first then replace the entry, that reader never sees incomplete entry.
+     *
+     * @param entry Path of entry.
+     * @param writer Encoder of entry context.
+     *
+     * @throws IOException If unable to write or move.
+     */
+    public static void writeAtomically(@Nonnull Path entry, @Nonnull EntryWriter writer) throws IOException {
+        final Path temp = Files.createTempFile(entry.getParent(), "entry", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writer.write(out);
+            }
+
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Mark entry as recently used.
+     *
+     * @param entry Path of entry.
+     */
+    public static void touch(@Nonnull Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affect eviction order
+        }
+    }
+
+    /**
+     * Remove least recently used entries until total size is under limit.
+     *
+     * @param cacheDir Directory of entries.
+     * @param suffix File extension of entry.
+     * @param maxBytes Maximum size of all entries.
+     *
+     * @throws IOException If unable to list entries.
+     */
+    public static void evictLeastRecentlyUsed(@Nonnull Path cacheDir, @Nonnull String suffix, long maxBytes)
+            throws IOException {
+        record EntryStat(Path path, long size, long lastUsed) {}
+
+        final ArrayList<EntryStat> stats = new ArrayList<>();
+        long total = 0L;
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(cacheDir, "*" + suffix)) {
+            for (Path p : entries) {
+                try {
+                    BasicFileAttributes attr = Files.readAttributes(p, BasicFileAttributes.class);
+                    stats.add(new EntryStat(p, attr.size(), attr.lastModifiedTime().toMillis()));
+                    total += attr.size();
+                } catch (NoSuchFileException e) {
+                    // Removed by another thread
+                }
+            }
+        }
+
+        if (total <= maxBytes) return;
+
+        stats.sort(Comparator.comparingLong(EntryStat::lastUsed));
+        for (EntryStat es : stats) {
+            if (total <= maxBytes) break;
+            deleteQuietly(es.path());
+            total -= es.size();
+        }
+    }
+
+    /**
+     * Remove all entries in the directory.
+     *
+     * @param cacheDir Directory of entries.
+     * @param suffix File extension of entry.
+     *
+     * @throws IOException If unable to list entries.
+     */
+    public static void clear(@Nonnull Path cacheDir, @Nonnull String suffix) throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            entries.filter(p -> p.getFileName().toString().endsWith(suffix)).forEach(CacheFiles::deleteQuietly);
+        }
+    }
+
+    /**
+     * Delete file and ignore any failure.
+     *
+     * @param file File that going to be deleted.
+     */
+    public static void deleteQuietly(@Nonnull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Will be retried or evicted later
+        }
+    }
+}
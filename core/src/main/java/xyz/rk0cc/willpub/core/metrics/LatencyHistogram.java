@@ -0,0 +1,108 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ * <br/>
+ * Durations are counted in buckets which each power of two is divided into {@value #SUB_BUCKETS} sub-buckets, that
+ * the relative error of percentiles is no more than 25% and the memory is fixed. Recording a sample only increments
+ * counters that no object is allocated.
+ *
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+    /**
+     * Sub-buckets of each power of two, which must be a power of two as well.
+     */
+    static final int SUB_BUCKETS = 4;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    /**
+     * Number of buckets which covers every positive <code>long</code>.
+     */
+    static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Find bucket of a duration.
+     *
+     * @param nanos Non-negative duration.
+     *
+     * @return Index of bucket.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        final int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the highest duration which counted in the bucket.
+     *
+     * @param bucket Index of bucket.
+     *
+     * @return Upper bound of bucket in nanoseconds.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        final long nextLower = (SUB_BUCKETS + sub + 1L) << shift;
+
+        // The last bucket overflows
+        return nextLower <= 0L ? Long.MAX_VALUE : nextLower - 1L;
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos Duration in nanoseconds, which negative value is treated as <code>0</code>.
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) nanos = 0L;
+
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) Thread.onSpinWait();
+    }
+
+    /**
+     * Copy current counters.
+     * <br/>
+     * Since samples may be recorded while copying, counters of snapshot are not exactly consistent to each other.
+     *
+     * @return {@link LatencySnapshot} of this histogram.
+     */
+    @Nonnull
+    public LatencySnapshot snapshot() {
+        final long[] copied = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copied[i] = buckets.get(i);
+
+        return new LatencySnapshot(count.sum(), totalNanos.sum(), maxNanos.get(), copied);
+    }
+
+    /**
+     * Clear all recorded samples.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0L);
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0L);
+    }
+}
@@ -0,0 +1,27 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+/**
+ * JMX view of a {@link Metric}, which registered as <code>xyz.rk0cc.willpub:type=Latency,name=(metric)</code>.
+ * <br/>
+ * Durations are in microseconds.
+ *
+ * @since 1.0.0
+ */
+public interface LatencyMXBean {
+    long getCount();
+
+    long getMeanMicros();
+
+    long getMaxMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    /**
+     * Clear recorded samples.
+     */
+    void reset();
+}
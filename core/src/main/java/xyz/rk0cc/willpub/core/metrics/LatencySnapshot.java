@@ -0,0 +1,63 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+/**
+ * Snapshot of {@link LatencyHistogram}.
+ *
+ * @param count Number of samples.
+ * @param totalNanos Sum of all samples in nanoseconds.
+ * @param maxNanos Longest sample in nanoseconds.
+ * @param buckets Count of each bucket, which should not be modified.
+ *
+ * @since 1.0.0
+ */
+public record LatencySnapshot(long count, long totalNanos, long maxNanos, @Nonnull long[] buckets) {
+    /**
+     * Get average duration.
+     *
+     * @return Mean of samples, or {@link Duration#ZERO} if no sample.
+     */
+    @Nonnull
+    public Duration mean() {
+        return count == 0L ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+    }
+
+    /**
+     * Get longest duration.
+     *
+     * @return Maximum sample.
+     */
+    @Nonnull
+    public Duration max() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    /**
+     * Estimate duration which given ratio of samples are not longer than it.
+     * <br/>
+     * It returns upper bound of the bucket which contains the percentile, and never exceeds {@link #max()}.
+     *
+     * @param quantile Ratio between <code>0</code> and <code>1</code>, e.g. <code>0.99</code> for p99.
+     *
+     * @return Estimated percentile, or {@link Duration#ZERO} if no sample.
+     */
+    @Nonnull
+    public Duration percentile(double quantile) {
+        if (quantile < 0d || quantile > 1d) throw new IllegalArgumentException("Quantile must be between 0 and 1");
+
+        long total = 0L;
+        for (long b : buckets) total += b;
+        if (total == 0L) return Duration.ZERO;
+
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return Duration.ofNanos(Math.min(LatencyHistogram.upperBoundOf(i), maxNanos));
+        }
+
+        return max();
+    }
+}
@@ -0,0 +1,66 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Enumerated operations which are timed by {@link WillPubMetrics}.
+ *
+ * @since 1.0.0
+ */
+public enum Metric {
+    /**
+     * Dispatching UI event to Will Pub's handler.
+     */
+    EVENT_DISPATCH("Event dispatch"),
+    /**
+     * Reading and parsing <code>pubspec.yaml</code>.
+     */
+    PUBSPEC_PARSE("Parse pubspec.yaml"),
+    /**
+     * Reading and parsing <code>pubspec.lock</code>.
+     */
+    LOCK_PARSE("Parse pubspec.lock"),
+    /**
+     * Reading and parsing <code>.dart_tool/package_config.json</code>.
+     */
+    PACKAGE_CONFIG_PARSE("Parse package_config.json"),
+    /**
+     * Sending request to pub.dev, excluding response served from cache.
+     */
+    PUB_DEV_REQUEST("pub.dev request"),
+    /**
+     * Time of pub command waiting in scheduler's queue.
+     */
+    PUB_COMMAND_WAIT("pub command queuing"),
+    /**
+     * Running pub command process.
+     */
+    PUB_COMMAND_RUN("pub command running");
+
+    private final String displayName;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Metric(@Nonnull String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Get human-readable name.
+     *
+     * @return Name for displaying in UI.
+     */
+    @Nonnull
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Get histogram which records durations of this operation.
+     *
+     * @return {@link LatencyHistogram} of this metric.
+     */
+    @Nonnull
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
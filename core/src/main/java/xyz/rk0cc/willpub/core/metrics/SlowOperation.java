@@ -0,0 +1,37 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * An operation which took longer than {@linkplain WillPubMetrics#getSlowThreshold() slow threshold}.
+ *
+ * @param metric {@link Metric} of operation.
+ * @param subject Description of what was running, e.g. class name of handler.
+ * @param nanos Duration in nanoseconds.
+ * @param finishedAt When the operation finished.
+ *
+ * @since 1.0.0
+ */
+public record SlowOperation(
+        @Nonnull Metric metric,
+        @Nonnull String subject,
+        long nanos,
+        @Nonnull Instant finishedAt
+) {
+    /**
+     * Get duration of operation.
+     *
+     * @return Duration of operation.
+     */
+    @Nonnull
+    public Duration duration() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return finishedAt + " " + metric.getDisplayName() + " " + subject + " took " + (nanos / 1000L) + "us";
+    }
+}
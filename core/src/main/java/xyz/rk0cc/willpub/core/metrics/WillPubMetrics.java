@@ -0,0 +1,322 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Instrumentation of hot paths in Will Pub.
+ * <br/>
+ * Instrumented code calls {@link #start()} before the operation and {@link #stop(Metric, long)} after, which records
+ * duration into {@linkplain Metric#getHistogram() histogram} of the {@link Metric}. When instrumentation is disabled,
+ * {@link #start()} returns a sentinel without reading clock and {@link #stop(Metric, long)} returns immediately, that
+ * the overhead is a volatile read.
+ * <br/>
+ * Instrumentation is disabled by default, which can be enabled by {@link #setEnabled(boolean)}, JMX or system
+ * property <code>-Dwillpub.metrics=true</code>.
+ *
+ * @since 1.0.0
+ */
+public final class WillPubMetrics {
+    /**
+     * System property of enabling instrumentation on startup.
+     */
+    public static final String ENABLED_PROPERTY = "willpub.metrics";
+
+    /**
+     * Default threshold of slow operation, which is a frame of 60 FPS.
+     */
+    public static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofMillis(16);
+
+    /**
+     * Number of slow operations kept.
+     */
+    public static final int SLOW_HISTORY = 64;
+
+    /**
+     * Domain of registered MBeans.
+     */
+    public static final String JMX_DOMAIN = "xyz.rk0cc.willpub";
+
+    /**
+     * Returned by {@link #start()} when disabled.
+     */
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static volatile long slowThresholdNanos = DEFAULT_SLOW_THRESHOLD.toNanos();
+
+    private static final AtomicReferenceArray<SlowOperation> slowOperations = new AtomicReferenceArray<>(SLOW_HISTORY);
+    private static final AtomicLong slowCount = new AtomicLong();
+
+    private static boolean registered = false;
+
+    static {
+        if (enabled) registerMBeans();
+    }
+
+    private WillPubMetrics() {}
+
+    /**
+     * Mark beginning of an operation.
+     *
+     * @return Token which passes to {@link #stop(Metric, long)}.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Record duration of an operation.
+     *
+     * @param metric {@link Metric} of operation.
+     * @param start Token returned from {@link #start()}.
+     *
+     * @return Duration in nanoseconds, or <code>-1</code> if it is not recorded.
+     */
+    public static long stop(@Nonnull Metric metric, long start) {
+        if (start == DISABLED) return -1L;
+
+        final long nanos = System.nanoTime() - start;
+        metric.getHistogram().record(nanos);
+        return nanos;
+    }
+
+    /**
+     * Record duration of an operation and report it as {@link SlowOperation} if it exceeded threshold.
+     *
+     * @param metric {@link Metric} of operation.
+     * @param start Token returned from {@link #start()}.
+     * @param subject What was running. If it is a {@link Class}, its name is used. It is converted to
+     *                {@link String} only when the operation is slow.
+     *
+     * @return Duration in nanoseconds, or <code>-1</code> if it is not recorded.
+     */
+    public static long stop(@Nonnull Metric metric, long start, @Nullable Object subject) {
+        final long nanos = stop(metric, start);
+        if (nanos >= slowThresholdNanos) reportSlow(metric, subject, nanos);
+
+        return nanos;
+    }
+
+    /**
+     * Record duration which is measured already, e.g. elapsed time of a process.
+     *
+     * @param metric {@link Metric} of operation.
+     * @param nanos Duration in nanoseconds.
+     */
+    public static void record(@Nonnull Metric metric, long nanos) {
+        if (enabled) metric.getHistogram().record(nanos);
+    }
+
+    private static void reportSlow(@Nonnull Metric metric, @Nullable Object subject, long nanos) {
+        final String description = subject instanceof Class<?> c ? c.getName() : String.valueOf(subject);
+        final long index = slowCount.getAndIncrement();
+
+        slowOperations.set((int) (index % SLOW_HISTORY), new SlowOperation(metric, description, nanos, Instant.now()));
+    }
+
+    /**
+     * Determine instrumentation is enabled.
+     *
+     * @return <code>true</code> if durations are recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable instrumentation. Recorded samples are kept when disabled.
+     * <br/>
+     * MBeans are registered when it is enabled at the first time.
+     *
+     * @param enabled <code>true</code> to record durations.
+     */
+    public static void setEnabled(boolean enabled) {
+        WillPubMetrics.enabled = enabled;
+        if (enabled) registerMBeans();
+    }
+
+    /**
+     * Get threshold of reporting {@link SlowOperation}.
+     *
+     * @return Slow threshold.
+     */
+    @Nonnull
+    public static Duration getSlowThreshold() {
+        return Duration.ofNanos(slowThresholdNanos);
+    }
+
+    /**
+     * Set threshold of reporting {@link SlowOperation}.
+     *
+     * @param threshold New threshold, which must be positive.
+     */
+    public static void setSlowThreshold(@Nonnull Duration threshold) {
+        if (threshold.isNegative() || threshold.isZero())
+            throw new IllegalArgumentException("Slow threshold must be positive");
+
+        slowThresholdNanos = threshold.toNanos();
+    }
+
+    /**
+     * Get number of slow operations since started or {@linkplain #reset() reset}.
+     *
+     * @return Number of slow operations, including which are not kept.
+     */
+    public static long getSlowOperationCount() {
+        return slowCount.get();
+    }
+
+    /**
+     * Get up to {@value #SLOW_HISTORY} recent slow operations.
+     *
+     * @return A {@link List} of {@link SlowOperation} from latest to oldest.
+     */
+    @Nonnull
+    public static List<SlowOperation> getRecentSlowOperations() {
+        final long count = slowCount.get();
+        final ArrayList<SlowOperation> recent = new ArrayList<>();
+
+        for (long i = count - 1L; i >= 0L && i >= count - SLOW_HISTORY; i--) {
+            final SlowOperation op = slowOperations.get((int) (i % SLOW_HISTORY));
+            if (op != null) recent.add(op);
+        }
+
+        return recent;
+    }
+
+    /**
+     * Copy histograms of all metrics.
+     *
+     * @return A {@link Map} of {@link LatencySnapshot} in declaration order of {@link Metric}.
+     */
+    @Nonnull
+    public static Map<Metric, LatencySnapshot> snapshot() {
+        final EnumMap<Metric, LatencySnapshot> snapshots = new EnumMap<>(Metric.class);
+        for (Metric m : Metric.values()) snapshots.put(m, m.getHistogram().snapshot());
+
+        return snapshots;
+    }
+
+    /**
+     * Clear all histograms and slow operations.
+     */
+    public static void reset() {
+        for (Metric m : Metric.values()) m.getHistogram().reset();
+        for (int i = 0; i < SLOW_HISTORY; i++) slowOperations.set(i, null);
+        slowCount.set(0L);
+    }
+
+    /**
+     * Register MBeans to {@linkplain ManagementFactory#getPlatformMBeanServer() platform MBean server} if it is not
+     * registered yet.
+     * <br/>
+     * Failure of registering is ignored since JMX is optional.
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) return;
+        registered = true;
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MetricsControl(), new ObjectName(JMX_DOMAIN + ":type=Metrics"));
+            for (Metric m : Metric.values())
+                server.registerMBean(new LatencyView(m), new ObjectName(JMX_DOMAIN + ":type=Latency,name=" + m.name()));
+        } catch (JMException ignored) {
+            // Registered by another class loader already
+        }
+    }
+
+    /**
+     * Implementation of {@link WillPubMetricsMXBean}.
+     */
+    private static final class MetricsControl implements WillPubMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return WillPubMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            WillPubMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSlowThresholdMillis() {
+            return getSlowThreshold().toMillis();
+        }
+
+        @Override
+        public void setSlowThresholdMillis(long millis) {
+            setSlowThreshold(Duration.ofMillis(millis));
+        }
+
+        @Override
+        public long getSlowOperationCount() {
+            return WillPubMetrics.getSlowOperationCount();
+        }
+
+        @Override
+        public String[] getRecentSlowOperations() {
+            return WillPubMetrics.getRecentSlowOperations()
+                    .stream()
+                    .map(SlowOperation::toString)
+                    .toArray(String[]::new);
+        }
+
+        @Override
+        public void reset() {
+            WillPubMetrics.reset();
+        }
+    }
+
+    /**
+     * Implementation of {@link LatencyMXBean}.
+     */
+    private record LatencyView(@Nonnull Metric metric) implements LatencyMXBean {
+        @Override
+        public long getCount() {
+            return metric.getHistogram().snapshot().count();
+        }
+
+        @Override
+        public long getMeanMicros() {
+            return metric.getHistogram().snapshot().mean().toNanos() / 1000L;
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return metric.getHistogram().snapshot().maxNanos() / 1000L;
+        }
+
+        @Override
+        public long getP50Micros() {
+            return metric.getHistogram().snapshot().percentile(0.5d).toNanos() / 1000L;
+        }
+
+        @Override
+        public long getP90Micros() {
+            return metric.getHistogram().snapshot().percentile(0.9d).toNanos() / 1000L;
+        }
+
+        @Override
+        public long getP99Micros() {
+            return metric.getHistogram().snapshot().percentile(0.99d).toNanos() / 1000L;
+        }
+
+        @Override
+        public void reset() {
+            metric.getHistogram().reset();
+        }
+    }
+}
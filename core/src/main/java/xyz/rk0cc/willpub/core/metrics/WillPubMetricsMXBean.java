@@ -0,0 +1,30 @@
+package xyz.rk0cc.willpub.core.metrics;
+
+/**
+ * JMX control of {@link WillPubMetrics}, which registered as <code>xyz.rk0cc.willpub:type=Metrics</code>.
+ *
+ * @since 1.0.0
+ */
+public interface WillPubMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowThresholdMillis();
+
+    void setSlowThresholdMillis(long millis);
+
+    long getSlowOperationCount();
+
+    /**
+     * Get recent slow operations from latest.
+     *
+     * @return Description of slow operations.
+     */
+    String[] getRecentSlowOperations();
+
+    /**
+     * Clear all histograms and slow operations.
+     */
+    void reset();
+}
@@ -0,0 +1,137 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A loaded Dart project which contains parsed context from the project directory.
+ * <br/>
+ * It should be obtained from {@link DartProjectLoader} that all parsing has been done in background already.
+ *
+ * @since 1.0.0
+ */
+public final class DartProject {
+    /**
+     * Absolute {@link Path} of project directory.
+     */
+    private final Path directory;
+
+    /**
+     * Parsed <code>pubspec.yaml</code>.
+     */
+    private final Pubspec pubspec;
+
+    /**
+     * Parsed <code>pubspec.lock</code>, or <code>null</code> if dependencies are not resolved yet.
+     */
+    private final PubspecLock lock;
+
+    /**
+     * Parsed <code>.dart_tool/package_config.json</code>, or <code>null</code> if it does not exist.
+     */
+    private final PackageConfig packageConfig;
+
+    /**
+     * Construct loaded project.
+     *
+     * @param directory Absolute path of project directory.
+     * @param pubspec Parsed {@link Pubspec}.
+     * @param lock Parsed {@link PubspecLock} if existed.
+     * @param packageConfig Parsed {@link PackageConfig} if existed.
+     */
+    DartProject(
+            @Nonnull Path directory,
+            @Nonnull Pubspec pubspec,
+            @Nullable PubspecLock lock,
+            @Nullable PackageConfig packageConfig
+    ) {
+        this.directory = Objects.requireNonNull(directory);
+        this.pubspec = Objects.requireNonNull(pubspec);
+        this.lock = lock;
+        this.packageConfig = packageConfig;
+    }
+
+    /**
+     * Get project directory.
+     *
+     * @return Absolute {@link Path} of project directory.
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get project directory in {@link File}.
+     *
+     * @return {@link File} of project directory.
+     */
+    @Nonnull
+    public File getDirectoryFile() {
+        return directory.toFile();
+    }
+
+    /**
+     * Get parsed <code>pubspec.yaml</code> of this project.
+     *
+     * @return {@link Pubspec} of this project.
+     */
+    @Nonnull
+    public Pubspec getPubspec() {
+        return pubspec;
+    }
+
+    /**
+     * Get parsed <code>pubspec.lock</code> of this project.
+     *
+     * @return {@link PubspecLock} of this project, or <code>null</code> if dependencies are not resolved yet.
+     */
+    @Nullable
+    public PubspecLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Get parsed <code>.dart_tool/package_config.json</code> of this project.
+     *
+     * @return {@link PackageConfig} of this project, or <code>null</code> if it does not exist.
+     */
+    @Nullable
+    public PackageConfig getPackageConfig() {
+        return packageConfig;
+    }
+
+    /**
+     * Get package name of this project.
+     *
+     * @return Name of package.
+     */
+    @Nonnull
+    public String getName() {
+        return pubspec.name();
+    }
+
+    /**
+     * Determine this project is using Flutter.
+     *
+     * @return <code>true</code> if Flutter SDK is required.
+     */
+    public boolean isFlutterProject() {
+        return Pubspec.isFlutterProject(pubspec);
+    }
+
+    @Override
+    public String toString() {
+        return "DartProject{" +
+                "directory=" + directory +
+                ", name='" + getName() + '\'' +
+                '}';
+    }
+}
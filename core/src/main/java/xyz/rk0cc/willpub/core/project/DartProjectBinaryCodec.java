@@ -0,0 +1,64 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.willpub.core.project.lock.LockBinaryCodec;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Binary encoding of parsed {@link DartProject}, which stores <code>pubspec.yaml</code>, <code>pubspec.lock</code> and
+ * <code>package_config.json</code> without project directory.
+ * <br/>
+ * It is a compact form for persisting models (e.g. {@link ProjectModelCache}) that decoding does not parse any YAML
+ * or JSON. Format is not compatible across versions, and users must store their own version number.
+ *
+ * @since 1.0.0
+ */
+public final class DartProjectBinaryCodec {
+    private DartProjectBinaryCodec() {}
+
+    /**
+     * Encode project.
+     *
+     * @param out Destination.
+     * @param project {@link DartProject} which going to be encoded.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void write(@Nonnull DataOutput out, @Nonnull DartProject project) throws IOException {
+        PubspecBinaryCodec.write(out, project.getPubspec());
+
+        final PubspecLock lock = project.getLock();
+        out.writeBoolean(lock != null);
+        if (lock != null) LockBinaryCodec.writeLock(out, lock);
+
+        final PackageConfig packageConfig = project.getPackageConfig();
+        out.writeBoolean(packageConfig != null);
+        if (packageConfig != null) LockBinaryCodec.writePackageConfig(out, packageConfig);
+    }
+
+    /**
+     * Decode project which {@linkplain #write(DataOutput, DartProject) encoded} before.
+     *
+     * @param in Source.
+     * @param projectDir Directory of the project.
+     *
+     * @return Decoded {@link DartProject}.
+     *
+     * @throws IOException If unable to read or data is corrupted.
+     */
+    @Nonnull
+    public static DartProject read(@Nonnull DataInput in, @Nonnull Path projectDir) throws IOException {
+        return new DartProject(
+                projectDir,
+                PubspecBinaryCodec.read(in),
+                in.readBoolean() ? LockBinaryCodec.readLock(in) : null,
+                in.readBoolean() ? LockBinaryCodec.readPackageConfig(in) : null
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package xyz.rk0cc.willpub.core.project;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Listener of {@link DartProjectLoader} that receive progress and result of loading.
+ * <br/>
+ * All methods are called from loader's thread. Therefore, it must be dispatched to the UI thread if the result is
+ * going to be displayed. None of these methods will be called once loading is cancelled.
+ *
+ * @since 1.0.0
+ */
+public interface DartProjectLoadListener {
+    /**
+     * Method that will be called when loading is reached new stage.
+     *
+     * @param stage Current {@link DartProjectLoadStage}.
+     */
+    void onProgress(@Nonnull DartProjectLoadStage stage);
+
+    /**
+     * Method that will be called when the project is loaded completely.
+     *
+     * @param project Loaded {@link DartProject}.
+     */
+    void onLoaded(@Nonnull DartProject project);
+
+    /**
+     * Method that will be called when the project can not be loaded.
+     *
+     * @param throwable Cause of failure.
+     */
+    void onFailed(@Nonnull Throwable throwable);
+}
@@ -0,0 +1,47 @@
+package xyz.rk0cc.willpub.core.project;
+
+/**
+ * Stages of loading {@link DartProject} in {@link DartProjectLoader}.
+ *
+ * @since 1.0.0
+ */
+public enum DartProjectLoadStage {
+    /**
+     * Verifying given directory is an absolute path of existed directory.
+     */
+    VALIDATING(0d),
+    /**
+     * Parsing <code>pubspec.yaml</code>.
+     */
+    READING_PUBSPEC(0.25d),
+    /**
+     * Parsing <code>pubspec.lock</code> if existed.
+     */
+    READING_LOCK(0.5d),
+    /**
+     * Parsing <code>.dart_tool/package_config.json</code> if existed.
+     */
+    READING_PACKAGE_CONFIG(0.75d),
+    /**
+     * All files are parsed.
+     */
+    COMPLETED(1d);
+
+    /**
+     * Progress of loading when reached this stage.
+     */
+    private final double progress;
+
+    DartProjectLoadStage(double progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Get progress of loading when reached this stage.
+     *
+     * @return Progress value between <code>0</code> to <code>1</code>.
+     */
+    public double getProgress() {
+        return progress;
+    }
+}
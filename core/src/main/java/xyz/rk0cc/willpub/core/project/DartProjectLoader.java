@@ -0,0 +1,388 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfigReader;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLockReader;
+import xyz.rk0cc.willpub.pubspec.PubspecManager;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline of loading {@link DartProject} from a directory in background.
+ * <br/>
+ * Validating directory and parsing files are performed in the {@link ExecutorService} of this loader, which returns a
+ * {@link Future} that can be {@linkplain Future#cancel(boolean) cancelled} when another directory is requested before
+ * loading finished. If {@link ProjectModelCache} is provided, unchanged project will be restored from cache instead of
+ * parsing again.
+ *
+ * @since 1.0.0
+ */
+public final class DartProjectLoader implements AutoCloseable {
+    /**
+     * Default maximum threads uses when virtual thread is unavailable.
+     */
+    private static final int DEFAULT_MAX_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * {@link ExecutorService} for running loading tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Cache of parsed projects, or <code>null</code> if parse every time.
+     */
+    private final ProjectModelCache cache;
+
+    /**
+     * Construct a loader with given {@link ExecutorService} and {@link ProjectModelCache}.
+     *
+     * @param executor {@link ExecutorService} for running loading tasks.
+     * @param cache Cache of parsed projects, or <code>null</code> if disabled.
+     */
+    public DartProjectLoader(@Nonnull ExecutorService executor, @Nullable ProjectModelCache cache) {
+        this.executor = Objects.requireNonNull(executor);
+        this.cache = cache;
+    }
+
+    /**
+     * Construct a loader with given {@link ExecutorService} without caching.
+     *
+     * @param executor {@link ExecutorService} for running loading tasks.
+     */
+    public DartProjectLoader(@Nonnull ExecutorService executor) {
+        this(executor, null);
+    }
+
+    /**
+     * Construct a loader which uses {@linkplain WillPubExecutors#newIOExecutor(String, int) I/O executor} and
+     * {@linkplain ProjectModelCache#openDefault() default cache} if available.
+     */
+    public DartProjectLoader() {
+        this(WillPubExecutors.newIOExecutor("willpub-project-loader", DEFAULT_MAX_THREADS), openDefaultCache());
+    }
+
+    /**
+     * Construct a loader which uses {@linkplain WillPubExecutors#newIOExecutor(String, int) I/O executor} and given
+     * {@link ProjectModelCache}.
+     *
+     * @param cache Cache of parsed projects, or <code>null</code> if disabled.
+     */
+    public DartProjectLoader(@Nullable ProjectModelCache cache) {
+        this(WillPubExecutors.newIOExecutor("willpub-project-loader", DEFAULT_MAX_THREADS), cache);
+    }
+
+    /**
+     * Open default {@link ProjectModelCache}.
+     *
+     * @return Default cache, or <code>null</code> if cache directory is not writable.
+     */
+    @Nullable
+    private static ProjectModelCache openDefaultCache() {
+        try {
+            return ProjectModelCache.openDefault();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get cache which uses by this loader.
+     *
+     * @return {@link ProjectModelCache}, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public ProjectModelCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Throw {@link InterruptedException} if loading is cancelled.
+     *
+     * @throws InterruptedException If current thread is interrupted.
+     */
+    private static void checkCancelled() throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException("Loading Dart project has been cancelled");
+    }
+
+    /**
+     * Load {@link DartProject} in current thread.
+     * <br/>
+     * This method is blocking and should not be called in UI thread.
+     *
+     * @param directory Directory of Dart project.
+     * @param progress Callback when reaching new {@link DartProjectLoadStage}.
+     *
+     * @return Loaded {@link DartProject}.
+     *
+     * @throws IllegalArgumentException If given directory is not an absolute path.
+     * @throws NotDirectoryException If given directory is not existed.
+     * @throws IOException If the directory is not a Dart project or unable to parse.
+     * @throws InterruptedException If loading is cancelled.
+     */
+    @Nonnull
+    public static DartProject loadProject(@Nonnull File directory, @Nonnull Consumer<DartProjectLoadStage> progress)
+            throws IOException, InterruptedException {
+        return loadProject(directory, progress, null);
+    }
+
+    /**
+     * Load {@link DartProject} in current thread with {@link ProjectModelCache}.
+     * <br/>
+     * This method is blocking and should not be called in UI thread.
+     *
+     * @param directory Directory of Dart project.
+     * @param progress Callback when reaching new {@link DartProjectLoadStage}.
+     * @param cache Cache of parsed projects, or <code>null</code> if parse anyway.
+     *
+     * @return Loaded {@link DartProject}.
+     *
+     * @throws IllegalArgumentException If given directory is not an absolute path.
+     * @throws NotDirectoryException If given directory is not existed.
+     * @throws IOException If the directory is not a Dart project or unable to parse.
+     * @throws InterruptedException If loading is cancelled.
+     */
+    @Nonnull
+    public static DartProject loadProject(
+            @Nonnull File directory,
+            @Nonnull Consumer<DartProjectLoadStage> progress,
+            @Nullable ProjectModelCache cache
+    ) throws IOException, InterruptedException {
+        progress.accept(DartProjectLoadStage.VALIDATING);
+        if (!directory.isAbsolute())
+            throw new IllegalArgumentException("Required absolute path when opening new Dart project directory");
+        else if (!directory.isDirectory())
+            throw new NotDirectoryException(directory.getPath());
+
+        final Path dirPath = directory.toPath();
+        ProjectFingerprint fingerprint = null;
+        if (cache != null) {
+            fingerprint = ProjectFingerprint.stat(dirPath);
+            if (fingerprint.isExisted(ProjectFile.PUBSPEC_YAML)) {
+                final DartProject cached = cache.get(dirPath, fingerprint);
+                if (cached != null) {
+                    progress.accept(DartProjectLoadStage.COMPLETED);
+                    return cached;
+                }
+
+                // Hash before parsing that the entry will be stale if files changed during parsing
+                fingerprint.ensureHashed();
+            }
+        }
+
+        checkCancelled();
+        progress.accept(DartProjectLoadStage.READING_PUBSPEC);
+        final Pubspec pubspec = readPubspec(dirPath);
+
+        checkCancelled();
+        progress.accept(DartProjectLoadStage.READING_LOCK);
+        final PubspecLock lock = readLock(dirPath);
+
+        checkCancelled();
+        progress.accept(DartProjectLoadStage.READING_PACKAGE_CONFIG);
+        final PackageConfig packageConfig = readPackageConfig(dirPath);
+
+        checkCancelled();
+        final DartProject project = new DartProject(dirPath, pubspec, lock, packageConfig);
+        if (fingerprint != null) cache.put(project, fingerprint);
+        progress.accept(DartProjectLoadStage.COMPLETED);
+
+        return project;
+    }
+
+    /**
+     * Read <code>pubspec.yaml</code> in project directory.
+     *
+     * @param dirPath Project directory.
+     *
+     * @return Parsed {@link Pubspec}.
+     *
+     * @throws IOException If unable to read or parse.
+     */
+    @Nonnull
+    private static Pubspec readPubspec(@Nonnull Path dirPath) throws IOException {
+        final long start = WillPubMetrics.start();
+        try {
+            return new PubspecManager(dirPath).loadPubspec();
+        } finally {
+            WillPubMetrics.stop(Metric.PUBSPEC_PARSE, start, dirPath);
+        }
+    }
+
+    /**
+     * Read <code>pubspec.lock</code> in project directory.
+     *
+     * @param dirPath Project directory.
+     *
+     * @return {@link PubspecLock}, or <code>null</code> if not existed.
+     *
+     * @throws IOException If unable to read.
+     */
+    @Nullable
+    private static PubspecLock readLock(@Nonnull Path dirPath) throws IOException {
+        final Path lockFile = ProjectFile.PUBSPEC_LOCK.resolve(dirPath);
+        if (!Files.isRegularFile(lockFile)) return null;
+
+        final long start = WillPubMetrics.start();
+        try {
+            return PubspecLockReader.read(lockFile);
+        } finally {
+            WillPubMetrics.stop(Metric.LOCK_PARSE, start, lockFile);
+        }
+    }
+
+    /**
+     * Read <code>.dart_tool/package_config.json</code> in project directory.
+     *
+     * @param dirPath Project directory.
+     *
+     * @return {@link PackageConfig}, or <code>null</code> if not existed.
+     *
+     * @throws IOException If unable to read.
+     */
+    @Nullable
+    private static PackageConfig readPackageConfig(@Nonnull Path dirPath) throws IOException {
+        final Path configFile = ProjectFile.PACKAGE_CONFIG.resolve(dirPath);
+        if (!Files.isRegularFile(configFile)) return null;
+
+        final long start = WillPubMetrics.start();
+        try {
+            return PackageConfigReader.read(configFile);
+        } finally {
+            WillPubMetrics.stop(Metric.PACKAGE_CONFIG_PARSE, start, configFile);
+        }
+    }
+
+    /**
+     * Load {@link DartProject} in current thread without reporting progress.
+     *
+     * @param directory Directory of Dart project.
+     *
+     * @return Loaded {@link DartProject}.
+     *
+     * @throws IOException If the directory is not a Dart project or unable to parse.
+     * @throws InterruptedException If loading is cancelled.
+     *
+     * @see #loadProject(File, Consumer)
+     */
+    @Nonnull
+    public static DartProject loadProject(@Nonnull File directory) throws IOException, InterruptedException {
+        return loadProject(directory, stage -> {});
+    }
+
+    /**
+     * Parse changed files only and return updated {@link DartProject} in current thread.
+     * <br/>
+     * Unchanged context will be reused from given project.
+     *
+     * @param project Previously loaded {@link DartProject}.
+     * @param changedFiles {@link ProjectFile} which has been modified.
+     *
+     * @return Updated {@link DartProject}, or the same <code>project</code> if nothing need to re-parse.
+     *
+     * @throws IOException If changed files unable to parse.
+     */
+    @Nonnull
+    public static DartProject reloadProject(@Nonnull DartProject project, @Nonnull Set<ProjectFile> changedFiles)
+            throws IOException {
+        if (changedFiles.isEmpty()) return project;
+
+        final Path dirPath = project.getDirectory();
+
+        return new DartProject(
+                dirPath,
+                changedFiles.contains(ProjectFile.PUBSPEC_YAML)
+                        ? readPubspec(dirPath)
+                        : project.getPubspec(),
+                changedFiles.contains(ProjectFile.PUBSPEC_LOCK) ? readLock(dirPath) : project.getLock(),
+                changedFiles.contains(ProjectFile.PACKAGE_CONFIG)
+                        ? readPackageConfig(dirPath)
+                        : project.getPackageConfig()
+        );
+    }
+
+    /**
+     * Load {@link DartProject} in background.
+     *
+     * @param directory Directory of Dart project.
+     * @param listener {@link DartProjectLoadListener} that receiving progress and result.
+     *
+     * @return A {@link Future} of loading, which can be cancelled if the result is no longer required.
+     */
+    @Nonnull
+    public Future<DartProject> load(@Nonnull File directory, @Nonnull DartProjectLoadListener listener) {
+        return load(directory, listener, null);
+    }
+
+    /**
+     * Load {@link DartProject} in background, which uses the project kept in {@link ProjectModelStore} if files are
+     * not changed since it kept.
+     * <br/>
+     * Loaded project is {@linkplain ProjectModelStore#offer(DartProject, ProjectFingerprint) offered} to the store
+     * with the fingerprint taken before loading.
+     *
+     * @param directory Directory of Dart project.
+     * @param listener {@link DartProjectLoadListener} that receiving progress and result.
+     * @param store In-memory store of projects, or <code>null</code> if not used.
+     *
+     * @return A {@link Future} of loading, which can be cancelled if the result is no longer required.
+     */
+    @Nonnull
+    public Future<DartProject> load(
+            @Nonnull File directory,
+            @Nonnull DartProjectLoadListener listener,
+            @Nullable ProjectModelStore store
+    ) {
+        Objects.requireNonNull(directory);
+        Objects.requireNonNull(listener);
+
+        return executor.submit(() -> {
+            DartProject project;
+            try {
+                final ProjectFingerprint fingerprint = store != null && directory.isAbsolute()
+                        && directory.isDirectory() ? ProjectFingerprint.stat(directory.toPath()) : null;
+                project = fingerprint == null ? null : store.find(directory.toPath(), fingerprint);
+                if (project != null) {
+                    listener.onProgress(DartProjectLoadStage.COMPLETED);
+                } else {
+                    project = loadProject(directory, listener::onProgress, cache);
+                    if (fingerprint != null) store.offer(project, fingerprint);
+                }
+            } catch (InterruptedException e) {
+                // Cancelled, no need to notify
+                throw e;
+            } catch (Throwable t) {
+                // Errors (e.g. stack overflow on deeply nested YAML) must be notified too, or listener keeps waiting
+                if (!Thread.currentThread().isInterrupted()) listener.onFailed(t);
+                throw t;
+            }
+
+            if (!Thread.currentThread().isInterrupted()) listener.onLoaded(project);
+
+            return project;
+        });
+    }
+
+    /**
+     * Stop all loading tasks and release threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,261 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.core.intern.ConstraintPool;
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.intern.VersionPool;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.core.solver.DependencySolver;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.DependenciesReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A package which depended by {@link DartProject}, either listed in <code>pubspec.yaml</code> or resolved in
+ * <code>pubspec.lock</code>.
+ * <br/>
+ * It is the model shared by dependency table in user interface and headless audit, that both of them report the
+ * same packages in the same way.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectDependency {
+    private final String name;
+    private final LockedPackage.DependencyType dependencyType;
+    private final LockedPackage.Source source;
+    private final String constraint;
+    private final String lockedVersion;
+
+    /**
+     * Create dependency.
+     *
+     * @param name Name of package.
+     * @param dependencyType How the package is depended.
+     * @param source Where the package come from.
+     * @param constraint Raw constraint in <code>pubspec.yaml</code>, or <code>null</code> for transitive package.
+     * @param lockedVersion Version in <code>pubspec.lock</code>, or <code>null</code> if not resolved.
+     */
+    public ProjectDependency(
+            @Nonnull String name,
+            @Nonnull LockedPackage.DependencyType dependencyType,
+            @Nonnull LockedPackage.Source source,
+            @Nullable String constraint,
+            @Nullable String lockedVersion
+    ) {
+        this.name = PackageNames.intern(name);
+        this.dependencyType = Objects.requireNonNull(dependencyType);
+        this.source = Objects.requireNonNull(source);
+        this.constraint = ConstraintPool.intern(constraint);
+        this.lockedVersion = lockedVersion == null ? null : VersionPool.intern(lockedVersion).raw();
+    }
+
+    /**
+     * List every package which listed in <code>pubspec.yaml</code> and <code>pubspec.lock</code>.
+     * <br/>
+     * Package in <code>dependency_overrides</code> replaces the same package listed in dependencies.
+     *
+     * @param project Loaded {@link DartProject}.
+     *
+     * @return A {@link List} of dependencies, which direct dependencies come first.
+     */
+    @Nonnull
+    public static List<ProjectDependency> listOf(@Nonnull DartProject project) {
+        final PubspecLock lock = project.getLock();
+        final LinkedHashMap<String, ProjectDependency> dependencies = new LinkedHashMap<>();
+
+        collect(project.getPubspec().dependencies(), LockedPackage.DependencyType.DIRECT_MAIN, lock, dependencies);
+        collect(project.getPubspec().devDependencies(), LockedPackage.DependencyType.DIRECT_DEV, lock, dependencies);
+        collect(
+                project.getPubspec().dependencyOverrides(),
+                LockedPackage.DependencyType.DIRECT_OVERRIDDEN,
+                lock,
+                dependencies
+        );
+
+        if (lock != null) {
+            for (LockedPackage lp : lock.getPackages()) {
+                if (dependencies.containsKey(lp.getName())) continue;
+                dependencies.put(lp.getName(), new ProjectDependency(
+                        lp.getName(),
+                        lp.getDependencyType(),
+                        lp.getSource(),
+                        null,
+                        lp.getRawVersion()
+                ));
+            }
+        }
+
+        return new ArrayList<>(dependencies.values());
+    }
+
+    private static void collect(
+            @Nonnull DependenciesReferenceSet references,
+            @Nonnull LockedPackage.DependencyType dependencyType,
+            @Nullable PubspecLock lock,
+            @Nonnull Map<String, ProjectDependency> dependencies
+    ) {
+        for (DependencyReference dr : references) {
+            final LockedPackage lp = lock == null ? null : lock.getPackage(dr.name());
+
+            dependencies.put(dr.name(), new ProjectDependency(
+                    dr.name(),
+                    dependencyType,
+                    sourceOf(dr),
+                    constraintOf(dr),
+                    lp == null ? null : lp.getRawVersion()
+            ));
+        }
+    }
+
+    @Nonnull
+    private static LockedPackage.Source sourceOf(@Nonnull DependencyReference reference) {
+        if (reference instanceof HostedReference || reference instanceof ThirdPartyHostedReference)
+            return LockedPackage.Source.HOSTED;
+        else if (reference instanceof GitReference) return LockedPackage.Source.GIT;
+        else if (reference instanceof LocalReference) return LockedPackage.Source.PATH;
+        else if (reference instanceof SDKReference) return LockedPackage.Source.SDK;
+        return LockedPackage.Source.UNKNOWN;
+    }
+
+    @Nullable
+    private static String constraintOf(@Nonnull DependencyReference reference) {
+        if (!(reference instanceof VersionConstrainedDependency<?> vcd)) return null;
+
+        final PubSemVerConstraint c = vcd.versionConstraint();
+        final String raw = c == null ? null : c.rawConstraint();
+        return raw == null ? "any" : raw;
+    }
+
+    /**
+     * Determine resolved version is not the latest.
+     *
+     * @param lockedVersion Version in <code>pubspec.lock</code>.
+     * @param latestVersion Latest version on pub.dev.
+     *
+     * @return <code>true</code> if both versions are known and different.
+     */
+    public static boolean isOutdated(@Nullable String lockedVersion, @Nullable String latestVersion) {
+        return lockedVersion != null && latestVersion != null && !lockedVersion.equals(latestVersion);
+    }
+
+    /**
+     * Get name of package.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get how the package is depended.
+     *
+     * @return {@link LockedPackage.DependencyType} of the package.
+     */
+    @Nonnull
+    public LockedPackage.DependencyType getDependencyType() {
+        return dependencyType;
+    }
+
+    /**
+     * Get where the package come from.
+     *
+     * @return {@link LockedPackage.Source} of the package.
+     */
+    @Nonnull
+    public LockedPackage.Source getSource() {
+        return source;
+    }
+
+    /**
+     * Get constraint of the package.
+     *
+     * @return Raw constraint, or <code>null</code> if it is not versioned or transitive.
+     */
+    @Nullable
+    public String getConstraint() {
+        return constraint;
+    }
+
+    /**
+     * Get resolved version.
+     *
+     * @return Version in <code>pubspec.lock</code>, or <code>null</code> if not resolved.
+     */
+    @Nullable
+    public String getLockedVersion() {
+        return lockedVersion;
+    }
+
+    /**
+     * Determine the package is listed in <code>pubspec.yaml</code>.
+     *
+     * @return <code>true</code> if it is not a transitive package.
+     */
+    public boolean isDirect() {
+        return dependencyType != LockedPackage.DependencyType.TRANSITIVE;
+    }
+
+    /**
+     * Determine resolved version is not the latest.
+     *
+     * @param latestVersion Latest version on pub.dev.
+     *
+     * @return <code>true</code> if both versions are known and different.
+     */
+    public boolean isOutdated(@Nullable String latestVersion) {
+        return isOutdated(lockedVersion, latestVersion);
+    }
+
+    /**
+     * Determine resolved version is no longer allowed by constraint, which happens when <code>pubspec.yaml</code>
+     * is edited without running <code>pub get</code>.
+     * <br/>
+     * Constraint or version which can not be parsed is not regarded as mismatched.
+     *
+     * @return <code>true</code> if both constraint and resolved version are known and the version is out of range.
+     */
+    public boolean isConstraintMismatched() {
+        if (constraint == null || lockedVersion == null || constraint.equals("any")) return false;
+
+        final SemVer locked = VersionPool.parse(lockedVersion);
+        final PubSemVerConstraint parsed = ConstraintPool.parse(constraint);
+        if (locked == null || parsed == null) return false;
+
+        return !DependencySolver.allows(parsed, locked);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProjectDependency that = (ProjectDependency) o;
+        return name.equals(that.name)
+                && dependencyType == that.dependencyType
+                && source == that.source
+                && Objects.equals(constraint, that.constraint)
+                && Objects.equals(lockedVersion, that.lockedVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, dependencyType, source, constraint, lockedVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectDependency{" +
+                "name='" + name + '\'' +
+                ", dependencyType=" + dependencyType +
+                ", source=" + source +
+                ", constraint='" + constraint + '\'' +
+                ", lockedVersion='" + lockedVersion + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.rk0cc.willpub.core.project;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+
+/**
+ * Enumerated files in Dart project which affecting {@link DartProject}'s context.
+ *
+ * @since 1.0.0
+ */
+public enum ProjectFile {
+    /**
+     * Project's <code>pubspec.yaml</code>.
+     */
+    PUBSPEC_YAML(null, "pubspec.yaml"),
+    /**
+     * Project's <code>pubspec.lock</code>.
+     */
+    PUBSPEC_LOCK(null, "pubspec.lock"),
+    /**
+     * Resolved package configuration under <code>.dart_tool</code>.
+     */
+    PACKAGE_CONFIG(ProjectFile.DART_TOOL_DIR, "package_config.json");
+
+    /**
+     * Name of directory that storing Dart tools' generated files.
+     */
+    public static final String DART_TOOL_DIR = ".dart_tool";
+
+    /**
+     * Parent directory name related to project directory, or <code>null</code> if it is in project directory.
+     */
+    private final String parentDir;
+
+    /**
+     * Name of file.
+     */
+    private final String fileName;
+
+    ProjectFile(@Nullable String parentDir, @Nonnull String fileName) {
+        this.parentDir = parentDir;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Get file name.
+     *
+     * @return Name of file without parent directory.
+     */
+    @Nonnull
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Determine this file is located in project directory directly.
+     *
+     * @return <code>true</code> if it is not in subdirectory.
+     */
+    public boolean isInProjectRoot() {
+        return parentDir == null;
+    }
+
+    /**
+     * Resolve location of this file in given project directory.
+     *
+     * @param projectDir Directory of Dart project.
+     *
+     * @return {@link Path} of this file.
+     */
+    @Nonnull
+    public Path resolve(@Nonnull Path projectDir) {
+        return parentDir == null ? projectDir.resolve(fileName) : projectDir.resolve(parentDir).resolve(fileName);
+    }
+
+    /**
+     * Find {@link ProjectFile} from changed file's name which reported in specific directory.
+     *
+     * @param inDartToolDir Report from {@link #DART_TOOL_DIR} if <code>true</code>, or project directory otherwise.
+     * @param fileName Name of changed file.
+     *
+     * @return Corresponded {@link ProjectFile}, or <code>null</code> if it is not tracked.
+     */
+    @Nullable
+    public static ProjectFile fromFileName(boolean inDartToolDir, @Nonnull String fileName) {
+        for (ProjectFile pf : values()) {
+            if (pf.isInProjectRoot() != inDartToolDir && pf.fileName.equals(fileName)) return pf;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,257 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watching {@linkplain ProjectFile tracked files} of a Dart project from file system.
+ * <br/>
+ * Changes are debounced that a burst of writes (e.g. <code>git checkout</code> or <code>dart pub get</code>) will be
+ * coalesced into single callback which contains all changed {@link ProjectFile}. The callback is invoked in watcher's
+ * own thread, therefore it is safe to re-parse changed files there.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectFileWatcher implements AutoCloseable {
+    /**
+     * Default quiet period before notifying changes.
+     */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(300L);
+
+    /**
+     * Multiplier of debounce that the changes must be notified even writing is still continued.
+     */
+    private static final int MAX_DEBOUNCE_MULTIPLIER = 10;
+
+    /**
+     * Project directory that being watched.
+     */
+    private final Path projectDir;
+
+    /**
+     * Quiet period in nanoseconds.
+     */
+    private final long debounceNanos;
+
+    /**
+     * Callback when changes are settled.
+     */
+    private final Consumer<Set<ProjectFile>> onChanged;
+
+    /**
+     * {@link WatchService} from project's {@link FileSystem}.
+     */
+    private final WatchService watchService;
+
+    /**
+     * Single thread scheduler for debouncing and invoking {@link #onChanged}.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Changed files that not notified yet. All access must be synchronized with this object.
+     */
+    private final EnumSet<ProjectFile> pendingChanges = EnumSet.noneOf(ProjectFile.class);
+
+    /**
+     * {@link WatchKey} of {@link ProjectFile#DART_TOOL_DIR}, which may be registered after it created.
+     */
+    private volatile WatchKey dartToolKey = null;
+
+    /**
+     * Scheduled notification that will be replaced when further changes received.
+     */
+    private ScheduledFuture<?> pendingNotify = null;
+
+    /**
+     * {@link System#nanoTime()} when first pending change received.
+     */
+    private long firstPendingAt = 0L;
+
+    /**
+     * Thread that polling {@link #watchService}.
+     */
+    private final Thread pollThread;
+
+    /**
+     * Create a watcher of given project directory and start watching immediately.
+     *
+     * @param projectDir Directory of Dart project.
+     * @param debounce Quiet period before notifying changes.
+     * @param onChanged Callback with changed {@link ProjectFile} once changes are settled.
+     *
+     * @throws IOException If unable to watch the directory.
+     */
+    public ProjectFileWatcher(
+            @Nonnull Path projectDir,
+            @Nonnull Duration debounce,
+            @Nonnull Consumer<Set<ProjectFile>> onChanged
+    ) throws IOException {
+        this.projectDir = Objects.requireNonNull(projectDir);
+        this.debounceNanos = debounce.toNanos();
+        this.onChanged = Objects.requireNonNull(onChanged);
+
+        this.watchService = projectDir.getFileSystem().newWatchService();
+        try {
+            projectDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            registerDartToolDir();
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                WillPubExecutors.newDaemonThreadFactory("willpub-project-watcher-notify")
+        );
+        this.pollThread = WillPubExecutors.newDaemonThreadFactory("willpub-project-watcher").newThread(this::poll);
+        this.pollThread.start();
+    }
+
+    /**
+     * Create a watcher of given project directory with {@linkplain #DEFAULT_DEBOUNCE default debounce}.
+     *
+     * @param projectDir Directory of Dart project.
+     * @param onChanged Callback with changed {@link ProjectFile} once changes are settled.
+     *
+     * @throws IOException If unable to watch the directory.
+     */
+    public ProjectFileWatcher(@Nonnull Path projectDir, @Nonnull Consumer<Set<ProjectFile>> onChanged)
+            throws IOException {
+        this(projectDir, DEFAULT_DEBOUNCE, onChanged);
+    }
+
+    /**
+     * Get project directory which being watched.
+     *
+     * @return {@link Path} of project directory.
+     */
+    @Nonnull
+    public Path getProjectDir() {
+        return projectDir;
+    }
+
+    /**
+     * Register {@link ProjectFile#DART_TOOL_DIR} if it existed and not registered yet.
+     *
+     * @throws IOException If unable to watch the directory.
+     */
+    private void registerDartToolDir() throws IOException {
+        Path dartTool = projectDir.resolve(ProjectFile.DART_TOOL_DIR);
+        if (dartToolKey == null && Files.isDirectory(dartTool))
+            dartToolKey = dartTool.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+    }
+
+    /**
+     * Polling loop of {@link #watchService} until {@linkplain #close() closed}.
+     */
+    private void poll() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final WatchKey key = watchService.take();
+                final boolean fromDartTool = key == dartToolKey;
+                final EnumSet<ProjectFile> changed = EnumSet.noneOf(ProjectFile.class);
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        // Some events are lost, assume everything changed
+                        changed.addAll(EnumSet.allOf(ProjectFile.class));
+                        continue;
+                    }
+
+                    final String fileName = event.context().toString();
+                    if (!fromDartTool && fileName.equals(ProjectFile.DART_TOOL_DIR)) {
+                        // First "pub get" creates .dart_tool after watching started
+                        if (event.kind() == ENTRY_CREATE) {
+                            try {
+                                registerDartToolDir();
+                            } catch (IOException e) {
+                                // Unable to watch .dart_tool, keep watching project directory only
+                            }
+                        }
+                        changed.add(ProjectFile.PACKAGE_CONFIG);
+                        continue;
+                    }
+
+                    final ProjectFile pf = ProjectFile.fromFileName(fromDartTool, fileName);
+                    if (pf != null) changed.add(pf);
+                }
+
+                if (!key.reset() && fromDartTool) dartToolKey = null;
+                if (!changed.isEmpty()) enqueue(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher closed
+        }
+    }
+
+    /**
+     * Add changes to pending set and postpone notification until quiet period passed.
+     *
+     * @param changed Newly changed files.
+     */
+    private synchronized void enqueue(@Nonnull Set<ProjectFile> changed) {
+        final long now = System.nanoTime();
+
+        if (pendingChanges.isEmpty()) firstPendingAt = now;
+        pendingChanges.addAll(changed);
+
+        if (pendingNotify != null) pendingNotify.cancel(false);
+
+        // Do not postpone forever if files keep writing
+        final long waited = now - firstPendingAt;
+        final long delay = waited >= debounceNanos * MAX_DEBOUNCE_MULTIPLIER ? 0L : debounceNanos;
+
+        try {
+            pendingNotify = scheduler.schedule(this::notifyChanges, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed during polling
+        }
+    }
+
+    /**
+     * Flush pending changes to {@link #onChanged}.
+     */
+    private void notifyChanges() {
+        final Set<ProjectFile> changes;
+
+        synchronized (this) {
+            if (pendingChanges.isEmpty()) return;
+            changes = Collections.unmodifiableSet(EnumSet.copyOf(pendingChanges));
+            pendingChanges.clear();
+            pendingNotify = null;
+        }
+
+        onChanged.accept(changes);
+    }
+
+    /**
+     * Stop watching and discard all pending changes.
+     */
+    @Override
+    public void close() {
+        pollThread.interrupt();
+        scheduler.shutdownNow();
+
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing to do when closing
+        }
+
+        synchronized (this) {
+            pendingChanges.clear();
+        }
+    }
+}
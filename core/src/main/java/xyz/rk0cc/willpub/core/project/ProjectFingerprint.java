@@ -0,0 +1,190 @@
+package xyz.rk0cc.willpub.core.project;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Size, modified time and content hash of every {@link ProjectFile} in a project directory.
+ * <br/>
+ * Content hash is computed only when metadata is not matched or it is required to be stored, since reading file
+ * costs more than getting attributes on network drive.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectFingerprint {
+    /**
+     * Size which uses when the file does not exist.
+     */
+    private static final long ABSENT = -1L;
+
+    /**
+     * Buffer size for hashing file.
+     */
+    private static final int HASH_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Project directory of this fingerprint, or <code>null</code> if it is decoded from storage.
+     */
+    private final Path projectDir;
+    private final long[] sizes;
+    private final long[] modifiedTimes;
+    private final long[] hashes;
+    private boolean hashed;
+
+    private ProjectFingerprint(Path projectDir, long[] sizes, long[] modifiedTimes, long[] hashes, boolean hashed) {
+        this.projectDir = projectDir;
+        this.sizes = sizes;
+        this.modifiedTimes = modifiedTimes;
+        this.hashes = hashes;
+        this.hashed = hashed;
+    }
+
+    /**
+     * Get attributes of all {@link ProjectFile} without reading context.
+     *
+     * @param projectDir Project directory.
+     *
+     * @return Fingerprint with unresolved hash.
+     *
+     * @throws IOException If unable to get attributes.
+     */
+    @Nonnull
+    public static ProjectFingerprint stat(@Nonnull Path projectDir) throws IOException {
+        final ProjectFile[] files = ProjectFile.values();
+        final long[] sizes = new long[files.length], modifiedTimes = new long[files.length];
+
+        for (ProjectFile pf : files) {
+            try {
+                BasicFileAttributes attr = Files.readAttributes(pf.resolve(projectDir), BasicFileAttributes.class);
+                sizes[pf.ordinal()] = attr.size();
+                modifiedTimes[pf.ordinal()] = attr.lastModifiedTime().toMillis();
+            } catch (NoSuchFileException e) {
+                sizes[pf.ordinal()] = ABSENT;
+            }
+        }
+
+        return new ProjectFingerprint(projectDir, sizes, modifiedTimes, new long[files.length], false);
+    }
+
+    /**
+     * Compute content hash of all existed files if not computed yet.
+     *
+     * @throws IOException If unable to read files.
+     * @throws IllegalStateException If this fingerprint is decoded without hash.
+     */
+    public void ensureHashed() throws IOException {
+        if (hashed) return;
+        if (projectDir == null) throw new IllegalStateException("Decoded fingerprint can not be hashed");
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        for (ProjectFile pf : ProjectFile.values()) {
+            if (sizes[pf.ordinal()] == ABSENT) continue;
+
+            final CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(pf.resolve(projectDir), StandardOpenOption.READ)) {
+                buffer.clear();
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+            }
+            hashes[pf.ordinal()] = crc.getValue();
+        }
+
+        hashed = true;
+    }
+
+    /**
+     * Compare size and modified time only.
+     *
+     * @param other Another fingerprint.
+     *
+     * @return <code>true</code> if all files have same size and modified time.
+     */
+    public boolean isMetadataMatched(@Nonnull ProjectFingerprint other) {
+        return Arrays.equals(sizes, other.sizes) && Arrays.equals(modifiedTimes, other.modifiedTimes);
+    }
+
+    /**
+     * Compare size and content hash, which computes hash if required.
+     *
+     * @param other Another fingerprint.
+     *
+     * @return <code>true</code> if all files have same context.
+     *
+     * @throws IOException If unable to compute hash.
+     */
+    public boolean isContentMatched(@Nonnull ProjectFingerprint other) throws IOException {
+        if (!Arrays.equals(sizes, other.sizes)) return false;
+
+        ensureHashed();
+        other.ensureHashed();
+
+        return Arrays.equals(hashes, other.hashes);
+    }
+
+    /**
+     * Determine given file is existed when this fingerprint created.
+     *
+     * @param file File in project.
+     *
+     * @return <code>true</code> if existed.
+     */
+    public boolean isExisted(@Nonnull ProjectFile file) {
+        return sizes[file.ordinal()] != ABSENT;
+    }
+
+    /**
+     * Encode this fingerprint with content hash.
+     *
+     * @param out Output destination.
+     *
+     * @throws IOException If unable to compute hash or write.
+     */
+    public void write(@Nonnull DataOutput out) throws IOException {
+        ensureHashed();
+
+        out.writeByte(sizes.length);
+        for (int i = 0; i < sizes.length; i++) {
+            out.writeLong(sizes[i]);
+            out.writeLong(modifiedTimes[i]);
+            out.writeLong(hashes[i]);
+        }
+    }
+
+    /**
+     * Decode fingerprint which written by {@link #write(DataOutput)}.
+     *
+     * @param in Input source.
+     *
+     * @return Decoded fingerprint.
+     *
+     * @throws IOException If unable to read or number of files is not matched.
+     */
+    @Nonnull
+    public static ProjectFingerprint read(@Nonnull DataInput in) throws IOException {
+        final int length = in.readUnsignedByte();
+        if (length != ProjectFile.values().length) throw new IOException("Fingerprint is not matched to project files");
+
+        final long[] sizes = new long[length], modifiedTimes = new long[length], hashes = new long[length];
+        for (int i = 0; i < length; i++) {
+            sizes[i] = in.readLong();
+            modifiedTimes[i] = in.readLong();
+            hashes[i] = in.readLong();
+        }
+
+        return new ProjectFingerprint(null, sizes, modifiedTimes, hashes, true);
+    }
+}
@@ -0,0 +1,179 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.willpub.core.WillPubDirectories;
+import xyz.rk0cc.willpub.core.io.CacheFiles;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Persistent cache of parsed {@link DartProject} in local disk.
+ * <br/>
+ * Each project is stored in a binary entry with {@link ProjectFingerprint} of project files. An entry is reused when
+ * size and modified time are matched, or content hash is matched if modified time changed by checking out same
+ * revision. Otherwise, the entry is removed as stale. Once total size of entries exceeded limit, least recently used
+ * entries will be removed.
+ * <br/>
+ * All I/O failures of cache are treated as cache miss that it never stops loading project.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectModelCache {
+    /**
+     * Default maximum size of all entries.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024L * 1024L;
+
+    /**
+     * Magic number in the header of entry.
+     */
+    private static final int MAGIC = 0x57505043;
+
+    /**
+     * Version of entry format, which must be increased when encoding changed.
+     */
+    private static final short FORMAT_VERSION = 1;
+
+    /**
+     * File extension of entry.
+     */
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    /**
+     * Create a cache which stores entries in given directory.
+     *
+     * @param cacheDir Directory of entries, which will be created if not existed.
+     * @param maxBytes Maximum size of all entries.
+     *
+     * @throws IOException If unable to create directory.
+     */
+    public ProjectModelCache(@Nonnull Path cacheDir, long maxBytes) throws IOException {
+        if (maxBytes <= 0L) throw new IllegalArgumentException("Maximum size must be positive");
+
+        this.cacheDir = Files.createDirectories(cacheDir);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Create cache in {@linkplain WillPubDirectories#cacheDirectory() Will Pub's cache directory} with
+     * {@linkplain #DEFAULT_MAX_BYTES default size}.
+     *
+     * @return Default {@link ProjectModelCache}.
+     *
+     * @throws IOException If unable to create directory.
+     */
+    @Nonnull
+    public static ProjectModelCache openDefault() throws IOException {
+        return new ProjectModelCache(WillPubDirectories.createCacheSubdirectory("projects"), DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Find entry file of the project.
+     *
+     * @param projectDir Project directory.
+     *
+     * @return {@link Path} of entry.
+     */
+    @Nonnull
+    private Path entryFile(@Nonnull Path projectDir) {
+        return cacheDir.resolve(CacheFiles.entryName(projectDir.toAbsolutePath().normalize().toString(), ENTRY_SUFFIX));
+    }
+
+    /**
+     * Get cached project if it is still fresh.
+     *
+     * @param projectDir Project directory.
+     * @param current {@link ProjectFingerprint} of project files currently.
+     *
+     * @return Cached {@link DartProject}, or <code>null</code> if no entry or stale.
+     */
+    @Nullable
+    public DartProject get(@Nonnull Path projectDir, @Nonnull ProjectFingerprint current) {
+        final Path entry = entryFile(projectDir);
+        if (!Files.isRegularFile(entry)) return null;
+
+        final DartProject project;
+        final boolean refreshFingerprint;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION
+                    || !in.readUTF().equals(projectDir.toAbsolutePath().normalize().toString())) {
+                CacheFiles.deleteQuietly(entry);
+                return null;
+            }
+
+            final ProjectFingerprint stored = ProjectFingerprint.read(in);
+            final boolean metadataMatched = current.isMetadataMatched(stored);
+            if (!metadataMatched && !current.isContentMatched(stored)) {
+                CacheFiles.deleteQuietly(entry);
+                return null;
+            }
+
+            project = DartProjectBinaryCodec.read(in, projectDir);
+            refreshFingerprint = !metadataMatched;
+        } catch (IOException e) {
+            CacheFiles.deleteQuietly(entry);
+            return null;
+        }
+
+        if (refreshFingerprint) {
+            // Store new modified time that it does not require hashing again in next time
+            put(project, current);
+        } else {
+            CacheFiles.touch(entry);
+        }
+
+        return project;
+    }
+
+    /**
+     * Store parsed project.
+     *
+     * @param project Parsed {@link DartProject}.
+     * @param fingerprint {@link ProjectFingerprint} which obtained before parsing.
+     */
+    public void put(@Nonnull DartProject project, @Nonnull ProjectFingerprint fingerprint) {
+        final Path entry = entryFile(project.getDirectory());
+
+        try {
+            CacheFiles.writeAtomically(entry, out -> {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeUTF(project.getDirectory().toAbsolutePath().normalize().toString());
+                fingerprint.write(out);
+                DartProjectBinaryCodec.write(out, project);
+            });
+
+            CacheFiles.evictLeastRecentlyUsed(cacheDir, ENTRY_SUFFIX, maxBytes);
+        } catch (IOException e) {
+            // Unable to cache, which will be parsed again next time
+            CacheFiles.deleteQuietly(entry);
+        }
+    }
+
+    /**
+     * Remove cached entry of the project.
+     *
+     * @param projectDir Project directory.
+     */
+    public void invalidate(@Nonnull Path projectDir) {
+        CacheFiles.deleteQuietly(entryFile(projectDir));
+    }
+
+    /**
+     * Remove all entries.
+     *
+     * @throws IOException If unable to list entries.
+     */
+    public void clear() throws IOException {
+        CacheFiles.clear(cacheDir, ENTRY_SUFFIX);
+    }
+}
@@ -0,0 +1,34 @@
+package xyz.rk0cc.willpub.core.project;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+
+/**
+ * In-memory store of {@link DartProject} which is consulted by {@link DartProjectLoader} before
+ * {@link ProjectModelCache} and parsing.
+ * <br/>
+ * Both methods are called in loader's thread.
+ *
+ * @since 1.0.0
+ */
+public interface ProjectModelStore {
+    /**
+     * Find a project which still matches files in the directory.
+     *
+     * @param projectDir Project directory.
+     * @param current {@link ProjectFingerprint} of files at this moment, which content hash is not resolved.
+     *
+     * @return Kept {@link DartProject}, or <code>null</code> if it is not kept or files changed since kept.
+     */
+    @Nullable
+    DartProject find(@Nonnull Path projectDir, @Nonnull ProjectFingerprint current);
+
+    /**
+     * Offer a project which loaded from cache or files.
+     *
+     * @param project Loaded {@link DartProject}.
+     * @param fingerprint {@link ProjectFingerprint} which taken before loading.
+     */
+    void offer(@Nonnull DartProject project, @Nonnull ProjectFingerprint fingerprint);
+}
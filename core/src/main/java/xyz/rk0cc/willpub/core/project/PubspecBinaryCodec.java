@@ -0,0 +1,340 @@
+package xyz.rk0cc.willpub.core.project;
+
+import xyz.rk0cc.jogu.GitRepositoryURL;
+import xyz.rk0cc.jogu.UnknownGitRepositoryURLTypeException;
+import xyz.rk0cc.josev.NonStandardSemVerException;
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.exceptions.pubspec.IllegalPubspecConfigurationException;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+import xyz.rk0cc.willpub.pubspec.data.PubspecEnvironment;
+import xyz.rk0cc.willpub.pubspec.data.PubspecPlatforms;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.DependenciesReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.ImportedReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.OverrideReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link Pubspec} for {@link ProjectModelCache}.
+ * <br/>
+ * {@link xyz.rk0cc.willpub.pubspec.data.PubspecSnapshot} can not be serialized when it contains
+ * {@link LocalReference} since {@link Path} is not {@link java.io.Serializable}. Therefore, every field is written
+ * in its raw form, including version constraint, and constructed again with jpubspec's constructors when decoding.
+ *
+ * @since 1.0.0
+ */
+final class PubspecBinaryCodec {
+    private static final byte REF_HOSTED = 0, REF_THIRD_PARTY_HOSTED = 1, REF_GIT = 2, REF_LOCAL = 3, REF_SDK = 4;
+
+    private static final byte VAL_NULL = 0, VAL_STRING = 1, VAL_BOOLEAN = 2, VAL_INT = 3, VAL_LONG = 4,
+            VAL_DOUBLE = 5, VAL_BIG_INTEGER = 6, VAL_BIG_DECIMAL = 7, VAL_LIST = 8, VAL_MAP = 9;
+
+    private PubspecBinaryCodec() {}
+
+    private static void writeNullableUTF(@Nonnull DataOutput out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    @Nullable
+    private static String readNullableUTF(@Nonnull DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Nullable
+    private static String rawConstraint(@Nullable PubSemVerConstraint constraint) {
+        return constraint == null ? null : constraint.rawConstraint();
+    }
+
+    @Nullable
+    private static PubSemVerConstraint readConstraint(@Nonnull DataInput in) throws IOException {
+        final String raw = readNullableUTF(in);
+        return raw == null ? null : PubSemVerConstraint.parse(raw);
+    }
+
+    @Nullable
+    private static URL readURL(@Nonnull DataInput in) throws IOException {
+        final String raw = readNullableUTF(in);
+        return raw == null ? null : new URL(raw);
+    }
+
+    /**
+     * Encode {@link Pubspec}.
+     *
+     * @param out Output destination.
+     * @param pubspec Pubspec that going to be written.
+     *
+     * @throws IOException If unable to write or additional data contains unsupported type.
+     */
+    static void write(@Nonnull DataOutput out, @Nonnull Pubspec pubspec) throws IOException {
+        out.writeUTF(pubspec.name());
+
+        final PubspecEnvironment env = pubspec.environment();
+        writeNullableUTF(out, rawConstraint(env.sdk()));
+        writeNullableUTF(out, rawConstraint(env.flutter()));
+
+        final SemVer version = pubspec.version();
+        writeNullableUTF(out, version == null ? null : version.value());
+        writeNullableUTF(out, pubspec.description());
+        writeNullableUTF(out, pubspec.publishTo());
+
+        for (URL url : new URL[] {
+                pubspec.homepage(), pubspec.repository(), pubspec.issueTracker(), pubspec.documentation()
+        }) writeNullableUTF(out, url == null ? null : url.toString());
+
+        writeReferences(out, pubspec.dependencies());
+        writeReferences(out, pubspec.devDependencies());
+        writeReferences(out, pubspec.dependencyOverrides());
+
+        final PubspecPlatforms platforms = pubspec.platforms();
+        out.writeBoolean(platforms != null);
+        if (platforms != null) {
+            out.writeByte((platforms.android() ? 1 : 0)
+                    | (platforms.ios() ? 1 << 1 : 0)
+                    | (platforms.linux() ? 1 << 2 : 0)
+                    | (platforms.macos() ? 1 << 3 : 0)
+                    | (platforms.web() ? 1 << 4 : 0)
+                    | (platforms.windows() ? 1 << 5 : 0));
+        }
+
+        writeValue(out, pubspec.additionalData());
+    }
+
+    /**
+     * Decode {@link Pubspec} which written by {@link #write(DataOutput, Pubspec)}.
+     *
+     * @param in Input source.
+     *
+     * @return Decoded {@link Pubspec}.
+     *
+     * @throws IOException If unable to read or context is no longer valid.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static Pubspec read(@Nonnull DataInput in) throws IOException {
+        try {
+            final String name = in.readUTF();
+
+            final PubSemVerConstraint sdk = readConstraint(in), flutter = readConstraint(in);
+            final PubspecEnvironment env = flutter == null
+                    ? new PubspecEnvironment(sdk)
+                    : new PubspecEnvironment(sdk, flutter);
+
+            final String version = readNullableUTF(in);
+            final String description = readNullableUTF(in), publishTo = readNullableUTF(in);
+            final URL homepage = readURL(in), repository = readURL(in), issueTracker = readURL(in),
+                    documentation = readURL(in);
+
+            final ImportedReferenceSet dependencies = new ImportedReferenceSet(), devDependencies
+                    = new ImportedReferenceSet();
+            final OverrideReferenceSet dependencyOverrides = new OverrideReferenceSet();
+            readReferences(in, dependencies);
+            readReferences(in, devDependencies);
+            readReferences(in, dependencyOverrides);
+
+            PubspecPlatforms platforms = null;
+            if (in.readBoolean()) {
+                final int flags = in.readUnsignedByte();
+                platforms = new PubspecPlatforms(
+                        (flags & 1) != 0,
+                        (flags & 1 << 1) != 0,
+                        (flags & 1 << 2) != 0,
+                        (flags & 1 << 3) != 0,
+                        (flags & 1 << 4) != 0,
+                        (flags & 1 << 5) != 0
+                );
+            }
+
+            return new Pubspec(
+                    name,
+                    env,
+                    version == null ? null : SemVer.parse(version),
+                    description,
+                    publishTo,
+                    homepage,
+                    repository,
+                    issueTracker,
+                    documentation,
+                    dependencies,
+                    devDependencies,
+                    dependencyOverrides,
+                    platforms,
+                    (Map<String, Object>) readValue(in)
+            );
+        } catch (IllegalPubspecConfigurationException | UnknownGitRepositoryURLTypeException
+                | NonStandardSemVerException | RuntimeException e) {
+            // Version constraint parser throws runtime exception for unexpected value
+            throw new IOException("Encoded pubspec is no longer valid", e);
+        }
+    }
+
+    private static void writeReferences(@Nonnull DataOutput out, @Nonnull DependenciesReferenceSet references)
+            throws IOException {
+        out.writeInt(references.size());
+        for (DependencyReference dr : references) {
+            if (dr instanceof HostedReference hr) {
+                out.writeByte(REF_HOSTED);
+                out.writeUTF(hr.name());
+                writeNullableUTF(out, rawConstraint(hr.versionConstraint()));
+            } else if (dr instanceof ThirdPartyHostedReference tphr) {
+                out.writeByte(REF_THIRD_PARTY_HOSTED);
+                out.writeUTF(tphr.name());
+                out.writeUTF(tphr.repositoryURL().toString());
+                writeNullableUTF(out, tphr.hostedName());
+                writeNullableUTF(out, rawConstraint(tphr.versionConstraint()));
+            } else if (dr instanceof GitReference gr) {
+                out.writeByte(REF_GIT);
+                out.writeUTF(gr.name());
+                out.writeUTF(gr.repositoryURL().assembleURL());
+                writeNullableUTF(out, gr.path());
+                writeNullableUTF(out, gr.ref());
+            } else if (dr instanceof LocalReference lr) {
+                out.writeByte(REF_LOCAL);
+                out.writeUTF(lr.name());
+                out.writeUTF(lr.path().toString());
+            } else if (dr instanceof SDKReference sr) {
+                out.writeByte(REF_SDK);
+                out.writeUTF(sr.name());
+                out.writeUTF(sr.sdk());
+                writeNullableUTF(out, rawConstraint(sr.versionConstraint()));
+            } else {
+                throw new IOException("Unsupported dependency reference: " + dr.getClass().getName());
+            }
+        }
+    }
+
+    private static void readReferences(@Nonnull DataInput in, @Nonnull DependenciesReferenceSet references)
+            throws IOException, IllegalPubspecConfigurationException, UnknownGitRepositoryURLTypeException {
+        final int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            final byte type = in.readByte();
+            final String name = in.readUTF();
+
+            references.add(switch (type) {
+                case REF_HOSTED -> {
+                    final PubSemVerConstraint constraint = readConstraint(in);
+                    yield constraint == null ? new HostedReference(name) : new HostedReference(name, constraint);
+                }
+                case REF_THIRD_PARTY_HOSTED -> {
+                    final URL url = new URL(in.readUTF());
+                    final String hostedName = readNullableUTF(in);
+                    final PubSemVerConstraint constraint = readConstraint(in);
+                    yield new ThirdPartyHostedReference(name, url, hostedName == null ? name : hostedName, constraint);
+                }
+                case REF_GIT -> new GitReference(
+                        name,
+                        GitRepositoryURL.parse(in.readUTF()),
+                        readNullableUTF(in),
+                        readNullableUTF(in)
+                );
+                case REF_LOCAL -> new LocalReference(name, Path.of(in.readUTF()));
+                case REF_SDK -> {
+                    final String sdk = in.readUTF();
+                    final PubSemVerConstraint constraint = readConstraint(in);
+                    yield constraint == null ? new SDKReference(name, sdk) : new SDKReference(name, sdk, constraint);
+                }
+                default -> throw new IOException("Unknown dependency reference type: " + type);
+            });
+        }
+    }
+
+    /**
+     * Write JSON-liked value which is allowed in {@link Pubspec#additionalData()}.
+     *
+     * @param out Output destination.
+     * @param value Value to write.
+     *
+     * @throws IOException If unable to write or type is unsupported.
+     */
+    private static void writeValue(@Nonnull DataOutput out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VAL_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(VAL_STRING);
+            out.writeUTF(s);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(VAL_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(VAL_INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long l) {
+            out.writeByte(VAL_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(VAL_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigInteger bi) {
+            out.writeByte(VAL_BIG_INTEGER);
+            out.writeUTF(bi.toString());
+        } else if (value instanceof BigDecimal bd) {
+            out.writeByte(VAL_BIG_DECIMAL);
+            out.writeUTF(bd.toString());
+        } else if (value instanceof List<?> list) {
+            out.writeByte(VAL_LIST);
+            out.writeInt(list.size());
+            for (Object o : list) writeValue(out, o);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(VAL_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                out.writeUTF(String.valueOf(e.getKey()));
+                writeValue(out, e.getValue());
+            }
+        } else {
+            throw new IOException("Unsupported additional data type: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Read value which written by {@link #writeValue(DataOutput, Object)}.
+     *
+     * @param in Input source.
+     *
+     * @return Decoded value.
+     *
+     * @throws IOException If unable to read or type is unknown.
+     */
+    @Nullable
+    private static Object readValue(@Nonnull DataInput in) throws IOException {
+        final byte type = in.readByte();
+        return switch (type) {
+            case VAL_NULL -> null;
+            case VAL_STRING -> in.readUTF();
+            case VAL_BOOLEAN -> in.readBoolean();
+            case VAL_INT -> in.readInt();
+            case VAL_LONG -> in.readLong();
+            case VAL_DOUBLE -> in.readDouble();
+            case VAL_BIG_INTEGER -> new BigInteger(in.readUTF());
+            case VAL_BIG_DECIMAL -> new BigDecimal(in.readUTF());
+            case VAL_LIST -> {
+                final int size = in.readInt();
+                // Size is read from stored data, which must not be trusted for allocating
+                final ArrayList<Object> list = new ArrayList<>(Math.min(Math.max(size, 0), 1024));
+                for (int i = 0; i < size; i++) list.add(readValue(in));
+                yield list;
+            }
+            case VAL_MAP -> {
+                final int size = in.readInt();
+                final LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) map.put(in.readUTF(), readValue(in));
+                yield map;
+            }
+            default -> throw new IOException("Unknown additional data type: " + type);
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link PubspecLock} and {@link PackageConfig}.
+ * <br/>
+ * Enumerated values are written as single byte and nullable {@link String} is prefixed with a presence flag. The
+ * format does not contain version number, which should be handled by the caller.
+ *
+ * @since 1.0.0
+ */
+public final class LockBinaryCodec {
+    private LockBinaryCodec() {}
+
+    /**
+     * Write a nullable {@link String}.
+     *
+     * @param out Output destination.
+     * @param value Value to write.
+     *
+     * @throws IOException If unable to write.
+     */
+    private static void writeNullableUTF(@Nonnull DataOutput out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    /**
+     * Read a nullable {@link String} which written by {@link #writeNullableUTF(DataOutput, String)}.
+     *
+     * @param in Input source.
+     *
+     * @return Read value.
+     *
+     * @throws IOException If unable to read.
+     */
+    @Nullable
+    private static String readNullableUTF(@Nonnull DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Encode {@link PubspecLock}.
+     *
+     * @param out Output destination.
+     * @param lock Lock that going to be written.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void writeLock(@Nonnull DataOutput out, @Nonnull PubspecLock lock) throws IOException {
+        final Map<String, String> sdks = lock.getSdks();
+        out.writeInt(sdks.size());
+        for (Map.Entry<String, String> sdk : sdks.entrySet()) {
+            out.writeUTF(sdk.getKey());
+            writeNullableUTF(out, sdk.getValue());
+        }
+
+        out.writeInt(lock.size());
+        for (LockedPackage lp : lock.getPackages()) {
+            out.writeUTF(lp.getName());
+            out.writeUTF(lp.getRawVersion());
+            out.writeByte(lp.getSource().ordinal());
+            out.writeByte(lp.getDependencyType().ordinal());
+            writeNullableUTF(out, lp.getLocation());
+            writeNullableUTF(out, lp.getResolvedRef());
+        }
+    }
+
+    /**
+     * Decode {@link PubspecLock} which written by {@link #writeLock(DataOutput, PubspecLock)}.
+     *
+     * @param in Input source.
+     *
+     * @return Decoded {@link PubspecLock}.
+     *
+     * @throws IOException If unable to read or context is malformed.
+     */
+    @Nonnull
+    public static PubspecLock readLock(@Nonnull DataInput in) throws IOException {
+        final int sdkSize = in.readInt();
+        final HashMap<String, String> sdks = new HashMap<>();
+        for (int i = 0; i < sdkSize; i++) sdks.put(in.readUTF(), readNullableUTF(in));
+
+        final LockedPackage.Source[] sources = LockedPackage.Source.values();
+        final LockedPackage.DependencyType[] types = LockedPackage.DependencyType.values();
+
+        final int pkgSize = in.readInt();
+        // Size is read from stored data, which must not be trusted for allocating
+        final ArrayList<LockedPackage> packages = new ArrayList<>(Math.min(Math.max(pkgSize, 0), 1024));
+        try {
+            for (int i = 0; i < pkgSize; i++) {
+                packages.add(new LockedPackage(
+                        in.readUTF(),
+                        in.readUTF(),
+                        sources[in.readUnsignedByte()],
+                        types[in.readUnsignedByte()],
+                        readNullableUTF(in),
+                        readNullableUTF(in)
+                ));
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Unknown enumerated value in encoded lock", e);
+        }
+
+        return new PubspecLock(packages, sdks);
+    }
+
+    /**
+     * Encode {@link PackageConfig}.
+     *
+     * @param out Output destination.
+     * @param config Package configuration that going to be written.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void writePackageConfig(@Nonnull DataOutput out, @Nonnull PackageConfig config) throws IOException {
+        out.writeInt(config.getConfigVersion());
+        writeNullableUTF(out, config.getGeneratorVersion());
+
+        out.writeInt(config.getPackages().size());
+        for (PackageConfigEntry pce : config.getPackages()) {
+            out.writeUTF(pce.getName());
+            out.writeUTF(pce.getRootUri().toString());
+            writeNullableUTF(out, pce.getPackageUri());
+            writeNullableUTF(out, pce.getLanguageVersion());
+        }
+    }
+
+    /**
+     * Decode {@link PackageConfig} which written by {@link #writePackageConfig(DataOutput, PackageConfig)}.
+     *
+     * @param in Input source.
+     *
+     * @return Decoded {@link PackageConfig}.
+     *
+     * @throws IOException If unable to read or context is malformed.
+     */
+    @Nonnull
+    public static PackageConfig readPackageConfig(@Nonnull DataInput in) throws IOException {
+        final int configVersion = in.readInt();
+        final String generatorVersion = readNullableUTF(in);
+
+        final int size = in.readInt();
+        final ArrayList<PackageConfigEntry> packages = new ArrayList<>(Math.min(Math.max(size, 0), 1024));
+        try {
+            for (int i = 0; i < size; i++) {
+                packages.add(new PackageConfigEntry(
+                        in.readUTF(),
+                        new URI(in.readUTF()),
+                        readNullableUTF(in),
+                        readNullableUTF(in)
+                ));
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException("Malformed root URI in encoded package configuration", e);
+        }
+
+        return new PackageConfig(configVersion, packages, generatorVersion);
+    }
+}
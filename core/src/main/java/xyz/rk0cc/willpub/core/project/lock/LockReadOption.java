@@ -0,0 +1,37 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sections of <code>pubspec.lock</code> which should be read by {@link PubspecLockReader}.
+ * <br/>
+ * Omitted sections are skipped at token level that no object will be allocated for them.
+ *
+ * @since 1.0.0
+ */
+public enum LockReadOption {
+    /**
+     * Read resolved packages under <code>packages</code>.
+     */
+    PACKAGES,
+    /**
+     * Read <code>description</code> of each packages, which requires {@link #PACKAGES}.
+     */
+    PACKAGE_DESCRIPTION,
+    /**
+     * Read SDK constraints under <code>sdks</code>.
+     */
+    SDKS;
+
+    /**
+     * Read everything in <code>pubspec.lock</code>.
+     */
+    public static final Set<LockReadOption> ALL = Collections.unmodifiableSet(EnumSet.allOf(LockReadOption.class));
+
+    /**
+     * Read name, version, source and dependency type of packages only.
+     */
+    public static final Set<LockReadOption> PACKAGES_ONLY = Collections.unmodifiableSet(EnumSet.of(PACKAGES));
+}
@@ -0,0 +1,248 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.willpub.core.intern.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * A package which resolved in <code>pubspec.lock</code>.
+ * <br/>
+ * Name, version and location are pooled in {@link xyz.rk0cc.willpub.core.intern}, that the same package resolved
+ * in many projects does not duplicate them.
+ *
+ * @since 1.0.0
+ */
+public final class LockedPackage {
+    /**
+     * Enumerated source of package.
+     */
+    public enum Source {
+        /**
+         * Package downloaded from pub repository.
+         */
+        HOSTED,
+        /**
+         * Package cloned from git repository.
+         */
+        GIT,
+        /**
+         * Package from local file system.
+         */
+        PATH,
+        /**
+         * Package bundled with SDK.
+         */
+        SDK,
+        /**
+         * Source that not recognized by Will Pub.
+         */
+        UNKNOWN;
+
+        /**
+         * Find {@link Source} from value of <code>source</code> in <code>pubspec.lock</code>.
+         *
+         * @param value Value of <code>source</code>.
+         *
+         * @return Corresponded {@link Source}.
+         */
+        @Nonnull
+        public static Source fromLockValue(@Nonnull String value) {
+            return switch (value) {
+                case "hosted" -> HOSTED;
+                case "git" -> GIT;
+                case "path" -> PATH;
+                case "sdk" -> SDK;
+                default -> UNKNOWN;
+            };
+        }
+    }
+
+    /**
+     * Enumerated how the package is depended by the project.
+     */
+    public enum DependencyType {
+        /**
+         * Listed in <code>dependencies</code>.
+         */
+        DIRECT_MAIN,
+        /**
+         * Listed in <code>dev_dependencies</code>.
+         */
+        DIRECT_DEV,
+        /**
+         * Listed in <code>dependency_overrides</code>.
+         */
+        DIRECT_OVERRIDDEN,
+        /**
+         * Depended by other packages.
+         */
+        TRANSITIVE;
+
+        /**
+         * Find {@link DependencyType} from value of <code>dependency</code> in <code>pubspec.lock</code>.
+         *
+         * @param value Value of <code>dependency</code>.
+         *
+         * @return Corresponded {@link DependencyType}.
+         */
+        @Nonnull
+        public static DependencyType fromLockValue(@Nonnull String value) {
+            return switch (value) {
+                case "direct main" -> DIRECT_MAIN;
+                case "direct dev" -> DIRECT_DEV;
+                case "direct overridden" -> DIRECT_OVERRIDDEN;
+                default -> TRANSITIVE;
+            };
+        }
+    }
+
+    private final String name;
+    private final int nameId;
+    private final InternedVersion version;
+    private final Source source;
+    private final DependencyType dependencyType;
+    private final String location;
+    private final String resolvedRef;
+
+    /**
+     * Construct a resolved package.
+     *
+     * @param name Name of package.
+     * @param rawVersion Version in <code>pubspec.lock</code>.
+     * @param source Where the package come from.
+     * @param dependencyType How the package is depended.
+     * @param location URL of hosted or git repository, path of local package or SDK name.
+     * @param resolvedRef Commit of git repository.
+     */
+    LockedPackage(
+            @Nonnull String name,
+            @Nonnull String rawVersion,
+            @Nonnull Source source,
+            @Nonnull DependencyType dependencyType,
+            @Nullable String location,
+            @Nullable String resolvedRef
+    ) {
+        this.nameId = PackageNames.idOf(name);
+        this.name = PackageNames.nameOf(nameId);
+        this.version = VersionPool.intern(Objects.requireNonNull(rawVersion));
+        this.source = Objects.requireNonNull(source);
+        this.dependencyType = Objects.requireNonNull(dependencyType);
+        this.location = StringPool.intern(location);
+        this.resolvedRef = resolvedRef;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get id of package name.
+     *
+     * @return {@linkplain PackageNames#idOf(String) Id} of {@link #getName()}.
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * Get version string which written in <code>pubspec.lock</code>.
+     *
+     * @return Version in {@link String}.
+     */
+    @Nonnull
+    public String getRawVersion() {
+        return version.raw();
+    }
+
+    /**
+     * Get resolved version.
+     *
+     * @return {@link SemVer} of this package, or <code>null</code> if it is not a standard semantic versioning.
+     */
+    @Nullable
+    public SemVer getVersion() {
+        return version.version();
+    }
+
+    /**
+     * Get resolved version which can be compared as primitive.
+     *
+     * @return {@linkplain PackedVersion Packed} version, or {@link PackedVersion#UNPACKABLE} if it is pre-release,
+     *         has build metadata or not a standard semantic versioning.
+     */
+    public long getPackedVersion() {
+        return version.packed();
+    }
+
+    @Nonnull
+    public Source getSource() {
+        return source;
+    }
+
+    @Nonnull
+    public DependencyType getDependencyType() {
+        return dependencyType;
+    }
+
+    /**
+     * Get location of package, which depending on {@link #getSource()}.
+     *
+     * @return URL of hosted or git repository, path of local package, name of SDK or <code>null</code> if
+     *         description is skipped when reading.
+     */
+    @Nullable
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Get commit of git repository.
+     *
+     * @return Resolved commit, or <code>null</code> if it is not from git.
+     */
+    @Nullable
+    public String getResolvedRef() {
+        return resolvedRef;
+    }
+
+    /**
+     * Determine this package is listed in project's <code>pubspec.yaml</code>.
+     *
+     * @return <code>true</code> if it is not {@linkplain DependencyType#TRANSITIVE transitive}.
+     */
+    public boolean isDirect() {
+        return dependencyType != DependencyType.TRANSITIVE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LockedPackage that = (LockedPackage) o;
+        return nameId == that.nameId &&
+                version.raw().equals(that.version.raw()) &&
+                source == that.source &&
+                dependencyType == that.dependencyType &&
+                Objects.equals(location, that.location) &&
+                Objects.equals(resolvedRef, that.resolvedRef);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, version.raw(), source, dependencyType, location, resolvedRef);
+    }
+
+    @Override
+    public String toString() {
+        return "LockedPackage{" +
+                "name='" + name + '\'' +
+                ", version='" + version.raw() + '\'' +
+                ", source=" + source +
+                ", dependencyType=" + dependencyType +
+                '}';
+    }
+}
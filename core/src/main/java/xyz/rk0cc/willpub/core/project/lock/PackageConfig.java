@@ -0,0 +1,92 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import xyz.rk0cc.willpub.core.intern.IntObjectHashMap;
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.intern.StringPool;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Context of <code>.dart_tool/package_config.json</code> which read by {@link PackageConfigReader}.
+ *
+ * @since 1.0.0
+ */
+public final class PackageConfig {
+    private final int configVersion;
+    private final List<PackageConfigEntry> packages;
+    private final IntObjectHashMap<PackageConfigEntry> packagesById;
+    private final String generatorVersion;
+
+    PackageConfig(int configVersion, @Nonnull List<PackageConfigEntry> packages, @Nullable String generatorVersion) {
+        this.configVersion = configVersion;
+        this.packages = List.copyOf(packages);
+        this.generatorVersion = StringPool.intern(generatorVersion);
+
+        // Never modified after constructed
+        final IntObjectHashMap<PackageConfigEntry> byId = new IntObjectHashMap<>(packages.size());
+        for (PackageConfigEntry pce : packages) byId.put(pce.getNameId(), pce);
+        this.packagesById = byId;
+    }
+
+    public int getConfigVersion() {
+        return configVersion;
+    }
+
+    /**
+     * Get all packages in configuration.
+     *
+     * @return Unmodifiable {@link List} of {@link PackageConfigEntry}.
+     */
+    @Nonnull
+    public List<PackageConfigEntry> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Find package by name.
+     *
+     * @param name Name of package.
+     *
+     * @return {@link PackageConfigEntry} of given name, or <code>null</code> if not found.
+     */
+    @Nullable
+    public PackageConfigEntry getPackage(@Nonnull String name) {
+        final int id = PackageNames.findId(name);
+        return id == PackageNames.UNKNOWN_ID ? null : packagesById.get(id);
+    }
+
+    /**
+     * Get Dart SDK version which generated this configuration.
+     *
+     * @return Version of generator, or <code>null</code> if not provided.
+     */
+    @Nullable
+    public String getGeneratorVersion() {
+        return generatorVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PackageConfig that = (PackageConfig) o;
+        return configVersion == that.configVersion &&
+                packages.equals(that.packages) &&
+                Objects.equals(generatorVersion, that.generatorVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(configVersion, packages, generatorVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "PackageConfig{" +
+                "configVersion=" + configVersion +
+                ", packages=" + packages.size() +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.intern.StringPool;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * A package which listed in <code>.dart_tool/package_config.json</code>.
+ *
+ * @since 1.0.0
+ */
+public final class PackageConfigEntry {
+    private final String name;
+    private final int nameId;
+    private final URI rootUri;
+    private final String packageUri;
+    private final String languageVersion;
+
+    PackageConfigEntry(
+            @Nonnull String name,
+            @Nonnull URI rootUri,
+            @Nullable String packageUri,
+            @Nullable String languageVersion
+    ) {
+        this.nameId = PackageNames.idOf(name);
+        this.name = PackageNames.nameOf(nameId);
+        this.rootUri = Objects.requireNonNull(rootUri);
+        this.packageUri = StringPool.intern(packageUri);
+        this.languageVersion = StringPool.intern(languageVersion);
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get id of package name.
+     *
+     * @return {@linkplain PackageNames#idOf(String) Id} of {@link #getName()}.
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * Get root of package.
+     *
+     * @return Absolute {@link URI} of package root which resolved from <code>package_config.json</code>'s location.
+     */
+    @Nonnull
+    public URI getRootUri() {
+        return rootUri;
+    }
+
+    @Nullable
+    public String getPackageUri() {
+        return packageUri;
+    }
+
+    @Nullable
+    public String getLanguageVersion() {
+        return languageVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PackageConfigEntry that = (PackageConfigEntry) o;
+        return name.equals(that.name) &&
+                rootUri.equals(that.rootUri) &&
+                Objects.equals(packageUri, that.packageUri) &&
+                Objects.equals(languageVersion, that.languageVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, rootUri, packageUri, languageVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "PackageConfigEntry{" +
+                "name='" + name + '\'' +
+                ", rootUri=" + rootUri +
+                '}';
+    }
+}
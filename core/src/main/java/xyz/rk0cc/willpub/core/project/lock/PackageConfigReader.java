@@ -0,0 +1,127 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Streaming reader of <code>.dart_tool/package_config.json</code>.
+ *
+ * @since 1.0.0
+ */
+public final class PackageConfigReader {
+    /**
+     * Shared {@link JsonFactory}, which is thread-safe once configured.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private PackageConfigReader() {}
+
+    /**
+     * Read <code>package_config.json</code>.
+     *
+     * @param configFile Location of <code>package_config.json</code>.
+     *
+     * @return {@link PackageConfig} of given file.
+     *
+     * @throws IOException If unable to read or not a valid package configuration.
+     */
+    @Nonnull
+    public static PackageConfig read(@Nonnull Path configFile) throws IOException {
+        try (InputStream in = ResolutionFileInput.open(configFile)) {
+            return read(in, configFile.toAbsolutePath().toUri());
+        }
+    }
+
+    /**
+     * Read <code>package_config.json</code> from {@link InputStream}.
+     *
+     * @param in {@link InputStream} of <code>package_config.json</code>'s context, which will not be closed.
+     * @param configUri Location of <code>package_config.json</code> which uses to resolve relative
+     *                  <code>rootUri</code>.
+     *
+     * @return {@link PackageConfig} of given context.
+     *
+     * @throws IOException If unable to read or not a valid package configuration.
+     */
+    @Nonnull
+    public static PackageConfig read(@Nonnull InputStream in, @Nonnull URI configUri) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "package_config.json must be an object");
+
+            int configVersion = 0;
+            String generatorVersion = null;
+            final ArrayList<PackageConfigEntry> packages = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+
+                switch (field) {
+                    case "configVersion" -> configVersion = parser.getValueAsInt();
+                    case "generatorVersion" -> generatorVersion = parser.getValueAsString();
+                    case "packages" -> {
+                        if (valueToken != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() == JsonToken.START_OBJECT)
+                            packages.add(readEntry(parser, configUri));
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return new PackageConfig(configVersion, packages, generatorVersion);
+        }
+    }
+
+    /**
+     * Read a package entry.
+     *
+     * @param parser Parser which pointed to entry's {@link JsonToken#START_OBJECT}.
+     * @param configUri Location of <code>package_config.json</code>.
+     *
+     * @return Parsed {@link PackageConfigEntry}.
+     *
+     * @throws IOException If unable to read or missing required fields.
+     */
+    @Nonnull
+    private static PackageConfigEntry readEntry(@Nonnull JsonParser parser, @Nonnull URI configUri)
+            throws IOException {
+        String name = null, rootUri = null, packageUri = null, languageVersion = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "rootUri" -> rootUri = parser.getValueAsString();
+                case "packageUri" -> packageUri = parser.getValueAsString();
+                case "languageVersion" -> languageVersion = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (name == null || rootUri == null) throw new JsonParseException(parser, "Missing name or rootUri");
+
+        try {
+            return new PackageConfigEntry(name, configUri.resolve(new URI(rootUri)), packageUri, languageVersion);
+        } catch (URISyntaxException e) {
+            throw new JsonParseException(parser, "Invalid rootUri of package " + name, e);
+        }
+    }
+}
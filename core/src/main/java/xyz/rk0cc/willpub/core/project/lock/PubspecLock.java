@@ -0,0 +1,122 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import xyz.rk0cc.willpub.core.intern.IntObjectHashMap;
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.intern.StringPool;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Context of <code>pubspec.lock</code> which read by {@link PubspecLockReader}.
+ *
+ * @since 1.0.0
+ */
+public final class PubspecLock {
+    /**
+     * Resolved packages in written order.
+     */
+    private final List<LockedPackage> packages;
+
+    /**
+     * Index of {@link #packages} by {@linkplain LockedPackage#getNameId() id of name}, which is never modified
+     * after constructed.
+     */
+    private final IntObjectHashMap<LockedPackage> packagesById;
+
+    /**
+     * SDK name with constraint in {@link String}.
+     */
+    private final Map<String, String> sdks;
+
+    PubspecLock(@Nonnull List<LockedPackage> packages, @Nonnull Map<String, String> sdks) {
+        this.packages = List.copyOf(packages);
+
+        final HashMap<String, String> pooledSdks = new HashMap<>();
+        for (Map.Entry<String, String> e : sdks.entrySet()) {
+            if (e.getKey() == null || e.getValue() == null) continue;
+            pooledSdks.put(StringPool.intern(e.getKey()), StringPool.intern(e.getValue()));
+        }
+        this.sdks = Map.copyOf(pooledSdks);
+
+        final IntObjectHashMap<LockedPackage> byId = new IntObjectHashMap<>(packages.size());
+        for (LockedPackage lp : packages) byId.put(lp.getNameId(), lp);
+        this.packagesById = byId;
+    }
+
+    /**
+     * Get all resolved packages.
+     *
+     * @return Unmodifiable {@link List} of {@link LockedPackage}.
+     */
+    @Nonnull
+    public List<LockedPackage> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Find resolved package by name.
+     *
+     * @param name Name of package.
+     *
+     * @return {@link LockedPackage} of given name, or <code>null</code> if not resolved.
+     */
+    @Nullable
+    public LockedPackage getPackage(@Nonnull String name) {
+        final int id = PackageNames.findId(name);
+        return id == PackageNames.UNKNOWN_ID ? null : packagesById.get(id);
+    }
+
+    /**
+     * Find resolved package by id of name.
+     *
+     * @param nameId {@linkplain PackageNames#idOf(String) Id} of package name.
+     *
+     * @return {@link LockedPackage} of given id, or <code>null</code> if not resolved.
+     */
+    @Nullable
+    public LockedPackage getPackage(int nameId) {
+        return packagesById.get(nameId);
+    }
+
+    /**
+     * Get SDK constraints which resolved by all packages.
+     *
+     * @return Unmodifiable {@link Map} of SDK name and constraint.
+     */
+    @Nonnull
+    public Map<String, String> getSdks() {
+        return sdks;
+    }
+
+    /**
+     * Get number of resolved packages.
+     *
+     * @return Number of packages.
+     */
+    public int size() {
+        return packages.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PubspecLock that = (PubspecLock) o;
+        return packages.equals(that.packages) && sdks.equals(that.sdks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(packages, sdks);
+    }
+
+    @Override
+    public String toString() {
+        return "PubspecLock{" +
+                "packages=" + packages.size() +
+                ", sdks=" + sdks +
+                '}';
+    }
+}
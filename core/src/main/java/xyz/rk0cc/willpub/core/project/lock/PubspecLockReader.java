@@ -0,0 +1,199 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streaming reader of <code>pubspec.lock</code>.
+ * <br/>
+ * Instead of binding whole YAML tree, it reads tokens from {@link JsonParser} directly and creates
+ * {@link LockedPackage} once all fields of the package are read. Sections which are not
+ * {@linkplain LockReadOption requested} are skipped.
+ *
+ * @since 1.0.0
+ */
+public final class PubspecLockReader {
+    /**
+     * Shared {@link YAMLFactory}, which is thread-safe once configured.
+     */
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+
+    private PubspecLockReader() {}
+
+    /**
+     * Read entire <code>pubspec.lock</code>.
+     *
+     * @param lockFile Location of <code>pubspec.lock</code>.
+     *
+     * @return {@link PubspecLock} of given file.
+     *
+     * @throws IOException If unable to read or not a valid lock file.
+     */
+    @Nonnull
+    public static PubspecLock read(@Nonnull Path lockFile) throws IOException {
+        return read(lockFile, LockReadOption.ALL);
+    }
+
+    /**
+     * Read <code>pubspec.lock</code> with given options.
+     *
+     * @param lockFile Location of <code>pubspec.lock</code>.
+     * @param options Sections that required to read.
+     *
+     * @return {@link PubspecLock} of given file.
+     *
+     * @throws IOException If unable to read or not a valid lock file.
+     */
+    @Nonnull
+    public static PubspecLock read(@Nonnull Path lockFile, @Nonnull Set<LockReadOption> options) throws IOException {
+        try (InputStream in = ResolutionFileInput.open(lockFile)) {
+            return read(in, options);
+        }
+    }
+
+    /**
+     * Read <code>pubspec.lock</code> from {@link InputStream} with given options.
+     *
+     * @param in {@link InputStream} of <code>pubspec.lock</code>'s context, which will not be closed.
+     * @param options Sections that required to read.
+     *
+     * @return {@link PubspecLock} of given context.
+     *
+     * @throws IOException If unable to read or not a valid lock file.
+     */
+    @Nonnull
+    public static PubspecLock read(@Nonnull InputStream in, @Nonnull Set<LockReadOption> options) throws IOException {
+        try (JsonParser parser = YAML_FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return read(parser, options);
+        }
+    }
+
+    /**
+     * Read lock file's tokens from {@link JsonParser}.
+     *
+     * @param parser Parser of <code>pubspec.lock</code>.
+     * @param options Sections that required to read.
+     *
+     * @return {@link PubspecLock} of parsed tokens.
+     *
+     * @throws IOException If unable to read or not a valid lock file.
+     */
+    @Nonnull
+    private static PubspecLock read(@Nonnull JsonParser parser, @Nonnull Set<LockReadOption> options)
+            throws IOException {
+        final ArrayList<LockedPackage> packages = new ArrayList<>();
+        final HashMap<String, String> sdks = new HashMap<>();
+
+        final JsonToken first = parser.nextToken();
+        if (first == null) return new PubspecLock(packages, sdks); // Empty file
+        if (first != JsonToken.START_OBJECT) throw new JsonParseException(parser, "pubspec.lock must be a map");
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String section = parser.getCurrentName();
+            final JsonToken sectionToken = parser.nextToken();
+
+            if (section.equals("packages") && sectionToken == JsonToken.START_OBJECT
+                    && options.contains(LockReadOption.PACKAGES)) {
+                readPackages(parser, options.contains(LockReadOption.PACKAGE_DESCRIPTION), packages);
+            } else if (section.equals("sdks") && sectionToken == JsonToken.START_OBJECT
+                    && options.contains(LockReadOption.SDKS)) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String sdk = parser.getCurrentName();
+                    if (!parser.nextToken().isScalarValue()) {
+                        // Nested constraint is not a version, skip whole structure to keep parser position
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    // Empty value (e.g. "dart:") is null
+                    final String constraint = parser.getValueAsString();
+                    if (constraint != null) sdks.put(sdk, constraint);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new PubspecLock(packages, sdks);
+    }
+
+    /**
+     * Read all packages under <code>packages</code>.
+     *
+     * @param parser Parser which pointed to <code>packages</code>' {@link JsonToken#START_OBJECT}.
+     * @param readDescription Read <code>description</code> of packages.
+     * @param packages List of read packages.
+     *
+     * @throws IOException If unable to read.
+     */
+    private static void readPackages(
+            @Nonnull JsonParser parser,
+            boolean readDescription,
+            @Nonnull List<LockedPackage> packages
+    ) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            String version = null, dependency = null, source = null, location = null, resolvedRef = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+
+                switch (field) {
+                    case "version" -> version = parser.getValueAsString();
+                    case "dependency" -> dependency = parser.getValueAsString();
+                    case "source" -> source = parser.getValueAsString();
+                    case "description" -> {
+                        if (!readDescription) {
+                            parser.skipChildren();
+                        } else if (valueToken == JsonToken.START_OBJECT) {
+                            String url = null, path = null;
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                final String descField = parser.getCurrentName();
+                                parser.nextToken();
+                                switch (descField) {
+                                    case "url" -> url = parser.getValueAsString();
+                                    case "path" -> path = parser.getValueAsString();
+                                    case "resolved-ref" -> resolvedRef = parser.getValueAsString();
+                                    default -> parser.skipChildren();
+                                }
+                            }
+                            location = url != null ? url : path;
+                        } else {
+                            // SDK name
+                            location = parser.getValueAsString();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (version == null) throw new JsonParseException(parser, "Missing version of package " + name);
+
+            packages.add(new LockedPackage(
+                    name,
+                    version,
+                    source == null ? LockedPackage.Source.UNKNOWN : LockedPackage.Source.fromLockValue(source),
+                    dependency == null
+                            ? LockedPackage.DependencyType.TRANSITIVE
+                            : LockedPackage.DependencyType.fromLockValue(dependency),
+                    location,
+                    resolvedRef
+            ));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * {@link InputStream} that reading resolution file from {@link FileChannel} through a direct {@link ByteBuffer}.
+ * <br/>
+ * Direct buffers are taken from a bounded pool when opening and returned when closing, rather than holding one for
+ * each thread, since loading may run in a new virtual thread every time that per-thread buffers are never reused.
+ * A new buffer is allocated if the pool is empty, and buffers returned to a full pool are released by GC.
+ * <br/>
+ * The file is not memory-mapped deliberately, since mapped file can not be replaced on Windows until the mapping is
+ * garbage collected, which blocks <code>pub get</code> to rewrite lock file.
+ *
+ * @since 1.0.0
+ */
+final class ResolutionFileInput extends InputStream {
+    /**
+     * Size of reused direct buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Maximum buffers kept in {@link #BUFFER_POOL}, which is enough for files reading in the same time by loaders.
+     */
+    private static final int POOL_SIZE = 8;
+
+    /**
+     * Idle direct buffers.
+     */
+    private static final ArrayBlockingQueue<ByteBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+
+    private ResolutionFileInput(@Nonnull FileChannel channel) {
+        this.channel = channel;
+
+        final ByteBuffer pooled = BUFFER_POOL.poll();
+        this.buffer = pooled != null ? pooled : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.clear().limit(0);
+    }
+
+    /**
+     * Open resolution file for reading.
+     *
+     * @param file File that going to read.
+     *
+     * @return An {@link InputStream} of given file.
+     *
+     * @throws IOException If unable to open the file.
+     */
+    @Nonnull
+    static InputStream open(@Nonnull Path file) throws IOException {
+        return new ResolutionFileInput(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Fill {@link #buffer} if all bytes are consumed.
+     *
+     * @return <code>false</code> if end of file reached.
+     *
+     * @throws IOException If unable to read or the stream is closed.
+     */
+    private boolean fill() throws IOException {
+        if (buffer == null) throw new IOException("Stream closed");
+        if (buffer.hasRemaining()) return true;
+
+        buffer.clear();
+        final int read = channel.read(buffer);
+        buffer.flip();
+
+        return read > 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!fill()) return -1;
+
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (buffer != null) {
+                // Closing twice must not return the same buffer again
+                BUFFER_POOL.offer(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
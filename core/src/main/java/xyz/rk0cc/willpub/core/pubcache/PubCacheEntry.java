@@ -0,0 +1,140 @@
+package xyz.rk0cc.willpub.core.pubcache;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hosted package version which downloaded into pub cache, which is a directory named
+ * <code>hosted/&lt;host&gt;/&lt;name&gt;-&lt;version&gt;</code>.
+ *
+ * @since 1.0.0
+ */
+public final class PubCacheEntry {
+    private final String host;
+    private final String name;
+    private final String version;
+    private final long size;
+    private final long lastModified;
+    private final List<Path> referencingProjects;
+
+    PubCacheEntry(
+            @Nonnull String host,
+            @Nonnull String name,
+            @Nonnull String version,
+            long size,
+            long lastModified,
+            @Nonnull List<Path> referencingProjects
+    ) {
+        this.host = host;
+        this.name = name;
+        this.version = version;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.referencingProjects = List.copyOf(referencingProjects);
+    }
+
+    /**
+     * Get directory name of the host, which is the host name of repository URL.
+     *
+     * @return Name of host directory, such as <code>pub.dev</code> or <code>pub.dartlang.org</code>.
+     */
+    @Nonnull
+    public String getHost() {
+        return host;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Get total size of files in the package.
+     *
+     * @return Size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get when the package is downloaded.
+     *
+     * @return Last modified time of package directory.
+     */
+    @Nonnull
+    public Instant getLastModified() {
+        return Instant.ofEpochMilli(lastModified);
+    }
+
+    long getLastModifiedMillis() {
+        return lastModified;
+    }
+
+    /**
+     * Get opened projects which resolved this package when indexing.
+     *
+     * @return Unmodifiable {@link List} of project directory.
+     */
+    @Nonnull
+    public List<Path> getReferencingProjects() {
+        return referencingProjects;
+    }
+
+    /**
+     * Determine any opened project uses this package.
+     *
+     * @return <code>true</code> if it is referenced, otherwise it is a candidate of cleanup.
+     */
+    public boolean isReferenced() {
+        return !referencingProjects.isEmpty();
+    }
+
+    /**
+     * Get directory of this package.
+     *
+     * @param pubCacheDir Root of pub cache.
+     *
+     * @return {@link Path} of package directory.
+     */
+    @Nonnull
+    public Path resolve(@Nonnull Path pubCacheDir) {
+        return pubCacheDir.resolve(PubCacheIndexer.HOSTED_DIR).resolve(host).resolve(name + "-" + version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PubCacheEntry that = (PubCacheEntry) o;
+        return size == that.size
+                && lastModified == that.lastModified
+                && host.equals(that.host)
+                && name.equals(that.name)
+                && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, name, version, size, lastModified);
+    }
+
+    @Override
+    public String toString() {
+        return "PubCacheEntry{" +
+                "host='" + host + '\'' +
+                ", name='" + name + '\'' +
+                ", version='" + version + '\'' +
+                ", size=" + size +
+                ", referencingProjects=" + referencingProjects.size() +
+                '}';
+    }
+}
@@ -0,0 +1,422 @@
+package xyz.rk0cc.willpub.core.pubcache;
+
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.core.intern.StringPool;
+import xyz.rk0cc.willpub.core.intern.VersionPool;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Snapshot of hosted packages in pub cache, which is a memory-mapped file written by {@link PubCacheIndexer}.
+ * <br/>
+ * Entries are fixed-size records sorted by package name that finding a package is a binary search on the mapped
+ * file, and only the records which are visited are decoded. Therefore, opening an index with tens of thousands
+ * package versions costs nothing more than mapping the file.
+ * <br/>
+ * Layout of index file in big endian:
+ * <ol>
+ *     <li>Header: magic, format version, counts of entries, projects and references, total size, created time and
+ *     pub cache directory.</li>
+ *     <li>Entries: name, version, host, first reference and number of references, size and last modified time.</li>
+ *     <li>Projects: directory of opened projects when indexing.</li>
+ *     <li>References: index of projects which referencing entries.</li>
+ *     <li>Strings: length prefixed UTF-8 which referred by offset.</li>
+ * </ol>
+ *
+ * @since 1.0.0
+ */
+public final class PubCacheIndex {
+    private static final int MAGIC = 0x57504349;
+    private static final short FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 40;
+    private static final int ENTRY_SIZE = 40;
+
+    // Offset in header
+    private static final int H_MAGIC = 0, H_VERSION = 4, H_ENTRIES = 8, H_PROJECTS = 12, H_REFERENCES = 16,
+            H_ROOT = 20, H_TOTAL = 24, H_CREATED = 32;
+
+    // Offset in entry
+    private static final int E_NAME = 0, E_VERSION = 4, E_HOST = 8, E_REF_START = 12, E_REF_COUNT = 16,
+            E_SIZE = 24, E_MODIFIED = 32;
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int projectsOffset;
+    private final int referencesOffset;
+    private final Path pubCacheDirectory;
+    private final List<Path> projects;
+
+    private PubCacheIndex(@Nonnull ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        try {
+            if (buffer.getInt(H_MAGIC) != MAGIC || buffer.getShort(H_VERSION) != FORMAT_VERSION)
+                throw new IOException("Not a pub cache index or unsupported format");
+
+            this.entryCount = buffer.getInt(H_ENTRIES);
+            final int projectCount = buffer.getInt(H_PROJECTS);
+            final int referenceCount = buffer.getInt(H_REFERENCES);
+            if (entryCount < 0 || projectCount < 0 || referenceCount < 0)
+                throw new IOException("Corrupted pub cache index");
+
+            // Computed in long that huge counts can not wrap around to a valid offset
+            final long projectsEnd = HEADER_SIZE + (long) entryCount * ENTRY_SIZE + (long) projectCount * Integer.BYTES;
+            if (projectsEnd + (long) referenceCount * Integer.BYTES > buffer.limit())
+                throw new IOException("Truncated pub cache index");
+
+            this.projectsOffset = HEADER_SIZE + entryCount * ENTRY_SIZE;
+            this.referencesOffset = (int) projectsEnd;
+
+            this.pubCacheDirectory = Path.of(string(buffer.getInt(H_ROOT)));
+            final Path[] p = new Path[projectCount];
+            for (int i = 0; i < projectCount; i++) p[i] = Path.of(string(buffer.getInt(projectsOffset + i * 4)));
+            this.projects = List.of(p);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Corrupted pub cache index", e);
+        }
+    }
+
+    /**
+     * Map an index file into memory.
+     *
+     * @param indexFile Index file which written by {@link PubCacheIndexer}.
+     *
+     * @return Mapped {@link PubCacheIndex}.
+     *
+     * @throws IOException If unable to read or the file is not a valid index.
+     */
+    @Nonnull
+    public static PubCacheIndex map(@Nonnull Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Invalid size of pub cache index");
+
+            // Mapping remains valid after channel closed
+            return new PubCacheIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+        }
+    }
+
+    /**
+     * Wrap encoded index in heap, which uses when index file can not be written.
+     */
+    @Nonnull
+    static PubCacheIndex wrap(@Nonnull byte[] encoded) throws IOException {
+        return new PubCacheIndex(ByteBuffer.wrap(encoded).asReadOnlyBuffer());
+    }
+
+    /**
+     * Encode entries into index format.
+     *
+     * @param pubCacheDir Root of pub cache.
+     * @param entries Every entry in pub cache.
+     * @param created Time of scanning.
+     *
+     * @return Encoded index.
+     */
+    @Nonnull
+    static byte[] encode(@Nonnull Path pubCacheDir, @Nonnull Collection<PubCacheEntry> entries, long created) {
+        final ArrayList<PubCacheEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(PubCacheEntry::getName)
+                .thenComparing(PubCacheEntry::getVersion)
+                .thenComparing(PubCacheEntry::getHost));
+
+        final LinkedHashMap<Path, Integer> projectIndexes = new LinkedHashMap<>();
+        int referenceCount = 0;
+        for (PubCacheEntry e : sorted) {
+            for (Path p : e.getReferencingProjects()) projectIndexes.putIfAbsent(p, projectIndexes.size());
+            referenceCount += e.getReferencingProjects().size();
+        }
+
+        // Strings are deduplicated, which hosts and popular names are stored once
+        final LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+        final int stringsOffset = HEADER_SIZE + sorted.size() * ENTRY_SIZE
+                + (projectIndexes.size() + referenceCount) * Integer.BYTES;
+        final int[] cursor = {stringsOffset};
+        final ToIntFunction<String> ref = s -> strings.computeIfAbsent(s, k -> {
+            final int offset = cursor[0];
+            cursor[0] += Short.BYTES + k.getBytes(StandardCharsets.UTF_8).length;
+            return offset;
+        });
+
+        final int rootRef = ref.applyAsInt(pubCacheDir.toString());
+        final int[] entryRefs = new int[sorted.size() * 3];
+        for (int i = 0; i < sorted.size(); i++) {
+            final PubCacheEntry e = sorted.get(i);
+            entryRefs[i * 3] = ref.applyAsInt(e.getName());
+            entryRefs[i * 3 + 1] = ref.applyAsInt(e.getVersion());
+            entryRefs[i * 3 + 2] = ref.applyAsInt(e.getHost());
+        }
+        final int[] projectRefs = projectIndexes.keySet()
+                .stream()
+                .mapToInt(p -> ref.applyAsInt(p.toString()))
+                .toArray();
+
+        final ByteBuffer out = ByteBuffer.allocate(cursor[0]);
+        out.putInt(H_MAGIC, MAGIC)
+                .putShort(H_VERSION, FORMAT_VERSION)
+                .putInt(H_ENTRIES, sorted.size())
+                .putInt(H_PROJECTS, projectRefs.length)
+                .putInt(H_REFERENCES, referenceCount)
+                .putInt(H_ROOT, rootRef)
+                .putLong(H_CREATED, created);
+
+        long total = 0L;
+        int nextReference = 0;
+        final int referencesOffset = HEADER_SIZE + sorted.size() * ENTRY_SIZE + projectRefs.length * Integer.BYTES;
+        for (int i = 0; i < sorted.size(); i++) {
+            final PubCacheEntry e = sorted.get(i);
+            final int base = HEADER_SIZE + i * ENTRY_SIZE;
+            out.putInt(base + E_NAME, entryRefs[i * 3])
+                    .putInt(base + E_VERSION, entryRefs[i * 3 + 1])
+                    .putInt(base + E_HOST, entryRefs[i * 3 + 2])
+                    .putInt(base + E_REF_START, nextReference)
+                    .putInt(base + E_REF_COUNT, e.getReferencingProjects().size())
+                    .putLong(base + E_SIZE, e.getSize())
+                    .putLong(base + E_MODIFIED, e.getLastModifiedMillis());
+
+            for (Path p : e.getReferencingProjects())
+                out.putInt(referencesOffset + (nextReference++) * Integer.BYTES, projectIndexes.get(p));
+            total += e.getSize();
+        }
+        out.putLong(H_TOTAL, total);
+
+        for (int i = 0; i < projectRefs.length; i++)
+            out.putInt(HEADER_SIZE + sorted.size() * ENTRY_SIZE + i * Integer.BYTES, projectRefs[i]);
+
+        strings.forEach((s, offset) -> {
+            final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            out.putShort(offset, (short) b.length).put(offset + Short.BYTES, b);
+        });
+
+        return out.array();
+    }
+
+    @Nonnull
+    private String string(int offset) {
+        final byte[] b = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + Short.BYTES, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private String nameAt(int index) {
+        return string(buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + E_NAME));
+    }
+
+    @Nonnull
+    private String versionAt(int index) {
+        return string(buffer.getInt(HEADER_SIZE + index * ENTRY_SIZE + E_VERSION));
+    }
+
+    /**
+     * Find first entry of the package.
+     *
+     * @return Index of first entry, or {@link #entryCount} if absent.
+     */
+    private int lowerBound(@Nonnull String name) {
+        int low = 0, high = entryCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (nameAt(mid).compareTo(name) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Decode entry.
+     *
+     * @param index Index of entry, which is ordered by package name and version.
+     *
+     * @return {@link PubCacheEntry} of the index.
+     *
+     * @throws IndexOutOfBoundsException If index is out of range.
+     */
+    @Nonnull
+    public PubCacheEntry getEntry(int index) {
+        Objects.checkIndex(index, entryCount);
+
+        final int base = HEADER_SIZE + index * ENTRY_SIZE;
+        final int refStart = buffer.getInt(base + E_REF_START), refCount = buffer.getInt(base + E_REF_COUNT);
+        final Path[] refs = new Path[refCount];
+        for (int i = 0; i < refCount; i++)
+            refs[i] = projects.get(buffer.getInt(referencesOffset + (refStart + i) * Integer.BYTES));
+
+        return new PubCacheEntry(
+                StringPool.intern(string(buffer.getInt(base + E_HOST))),
+                PackageNames.intern(nameAt(index)),
+                VersionPool.intern(versionAt(index)).raw(),
+                buffer.getLong(base + E_SIZE),
+                buffer.getLong(base + E_MODIFIED),
+                List.of(refs)
+        );
+    }
+
+    /**
+     * Decode every entry.
+     *
+     * @return Unmodifiable {@link List} of entries.
+     */
+    @Nonnull
+    public List<PubCacheEntry> getEntries() {
+        final PubCacheEntry[] entries = new PubCacheEntry[entryCount];
+        for (int i = 0; i < entryCount; i++) entries[i] = getEntry(i);
+        return List.of(entries);
+    }
+
+    /**
+     * Get every cached versions of the package.
+     *
+     * @param name Name of package.
+     *
+     * @return Unmodifiable {@link List} of entries, or empty if never downloaded.
+     */
+    @Nonnull
+    public List<PubCacheEntry> getVersions(@Nonnull String name) {
+        final ArrayList<PubCacheEntry> versions = new ArrayList<>();
+        for (int i = lowerBound(name); i < entryCount && nameAt(i).equals(name); i++) versions.add(getEntry(i));
+        return Collections.unmodifiableList(versions);
+    }
+
+    /**
+     * Find cached package version.
+     *
+     * @param host Name of host directory, or <code>null</code> for any host.
+     * @param name Name of package.
+     * @param version Version of package.
+     *
+     * @return {@link PubCacheEntry} of the version, or <code>null</code> if not cached.
+     */
+    @Nullable
+    public PubCacheEntry find(@Nullable String host, @Nonnull String name, @Nonnull String version) {
+        for (int i = lowerBound(name); i < entryCount && nameAt(i).equals(name); i++) {
+            if (!versionAt(i).equals(version)) continue;
+            if (host == null || string(buffer.getInt(HEADER_SIZE + i * ENTRY_SIZE + E_HOST)).equals(host))
+                return getEntry(i);
+        }
+
+        return null;
+    }
+
+    /**
+     * Determine the package version is downloaded from any host.
+     *
+     * @param name Name of package.
+     * @param version Version of package.
+     *
+     * @return <code>true</code> if it is in pub cache when indexing.
+     */
+    public boolean isCached(@Nonnull String name, @Nonnull String version) {
+        for (int i = lowerBound(name); i < entryCount && nameAt(i).equals(name); i++) {
+            if (versionAt(i).equals(version)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Find hosted packages in <code>pubspec.lock</code> which are not in pub cache, which
+     * <code>pub get --offline</code> will fail if it is not empty.
+     *
+     * @param lock Resolved <code>pubspec.lock</code>.
+     *
+     * @return Unmodifiable {@link List} of missing packages.
+     */
+    @Nonnull
+    public List<LockedPackage> getMissing(@Nonnull PubspecLock lock) {
+        final ArrayList<LockedPackage> missing = new ArrayList<>();
+        for (LockedPackage lp : lock.getPackages()) {
+            if (lp.getSource() == LockedPackage.Source.HOSTED && !isCached(lp.getName(), lp.getRawVersion()))
+                missing.add(lp);
+        }
+
+        return Collections.unmodifiableList(missing);
+    }
+
+    /**
+     * Get entries which are not used by any opened project when indexing, which are candidates of cleanup.
+     *
+     * @return Unmodifiable {@link List} of unreferenced entries.
+     */
+    @Nonnull
+    public List<PubCacheEntry> getUnreferenced() {
+        final ArrayList<PubCacheEntry> unreferenced = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            if (buffer.getInt(HEADER_SIZE + i * ENTRY_SIZE + E_REF_COUNT) == 0) unreferenced.add(getEntry(i));
+        }
+
+        return Collections.unmodifiableList(unreferenced);
+    }
+
+    /**
+     * Get root of pub cache which indexed.
+     *
+     * @return Directory of pub cache.
+     */
+    @Nonnull
+    public Path getPubCacheDirectory() {
+        return pubCacheDirectory;
+    }
+
+    /**
+     * Get opened projects when indexing.
+     *
+     * @return Unmodifiable {@link List} of project directory.
+     */
+    @Nonnull
+    public List<Path> getProjects() {
+        return projects;
+    }
+
+    /**
+     * Get number of cached package versions.
+     *
+     * @return Number of entries.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Get total size of all cached package versions.
+     *
+     * @return Size in bytes.
+     */
+    public long getTotalSize() {
+        return buffer.getLong(H_TOTAL);
+    }
+
+    /**
+     * Get when this index is scanned.
+     *
+     * @return Time of scanning.
+     */
+    @Nonnull
+    public Instant getCreatedTime() {
+        return Instant.ofEpochMilli(buffer.getLong(H_CREATED));
+    }
+
+    @Override
+    public String toString() {
+        return "PubCacheIndex{" +
+                "pubCacheDirectory=" + pubCacheDirectory +
+                ", entries=" + entryCount +
+                ", totalSize=" + getTotalSize() +
+                ", projects=" + projects.size() +
+                '}';
+    }
+}
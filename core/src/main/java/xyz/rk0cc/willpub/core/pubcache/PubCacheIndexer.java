@@ -0,0 +1,288 @@
+package xyz.rk0cc.willpub.core.pubcache;
+
+import xyz.rk0cc.willpub.core.WillPubDirectories;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.io.CacheFiles;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Scan hosted packages in pub cache and write {@link PubCacheIndex}.
+ * <br/>
+ * Package directory in pub cache is never modified after it is extracted, that a directory which has the same
+ * last modified time in previous index reuses recorded size instead of walking its files again. As a result, only
+ * listing host directories is required when nothing is downloaded since last launch. Size of new packages are
+ * computed in parallel.
+ * <br/>
+ * Git dependencies are not indexed since their directory names are commit hashes rather than versions.
+ *
+ * @since 1.0.0
+ */
+public final class PubCacheIndexer implements AutoCloseable {
+    /**
+     * Name of directory which storing hosted packages in pub cache.
+     */
+    public static final String HOSTED_DIR = "hosted";
+
+    /**
+     * File name of index in Will Pub's cache directory.
+     */
+    public static final String INDEX_FILE_NAME = "pub-cache.idx";
+
+    private final Path pubCacheDir;
+    private final Path indexFile;
+    private final ExecutorService executor;
+
+    /**
+     * Create indexer.
+     *
+     * @param pubCacheDir Root of pub cache.
+     * @param indexFile Location of index file.
+     * @param parallelism Number of package directories measuring in the same time.
+     */
+    public PubCacheIndexer(@Nonnull Path pubCacheDir, @Nonnull Path indexFile, int parallelism) {
+        this.pubCacheDir = pubCacheDir.toAbsolutePath().normalize();
+        this.indexFile = indexFile.toAbsolutePath().normalize();
+        this.executor = WillPubExecutors.newBoundedExecutor("willpub-pub-cache-indexer", parallelism);
+    }
+
+    /**
+     * Create indexer of {@linkplain #defaultPubCacheDirectory() default pub cache} which stores index in
+     * {@linkplain WillPubDirectories#cacheDirectory() Will Pub's cache directory}.
+     *
+     * @return Default {@link PubCacheIndexer}.
+     *
+     * @throws IOException If unable to create cache directory.
+     */
+    @Nonnull
+    public static PubCacheIndexer openDefault() throws IOException {
+        return new PubCacheIndexer(
+                defaultPubCacheDirectory(),
+                WillPubDirectories.createCacheSubdirectory("pub-cache").resolve(INDEX_FILE_NAME),
+                Math.max(2, Runtime.getRuntime().availableProcessors() * 2)
+        );
+    }
+
+    /**
+     * Locate pub cache as the same as Dart SDK.
+     * <br/>
+     * It uses <code>PUB_CACHE</code> environment variable if defined, <code>%LOCALAPPDATA%\Pub\Cache</code> on
+     * Windows and <code>~/.pub-cache</code> for others.
+     *
+     * @return {@link Path} of pub cache, which may not be existed.
+     */
+    @Nonnull
+    public static Path defaultPubCacheDirectory() {
+        final String env = System.getenv("PUB_CACHE");
+        if (env != null && !env.isBlank()) return Path.of(env);
+
+        if (System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows")) {
+            final String localAppData = System.getenv("LOCALAPPDATA");
+            if (localAppData != null && !localAppData.isBlank()) return Path.of(localAppData, "Pub", "Cache");
+        }
+
+        return Path.of(System.getProperty("user.home"), ".pub-cache");
+    }
+
+    @Nonnull
+    public Path getPubCacheDirectory() {
+        return pubCacheDir;
+    }
+
+    @Nonnull
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * Map index file from last launch.
+     *
+     * @return Previous {@link PubCacheIndex}, or <code>null</code> if absent, invalid or indexed another pub cache.
+     */
+    @Nullable
+    public PubCacheIndex load() {
+        if (!Files.isRegularFile(indexFile)) return null;
+
+        try {
+            final PubCacheIndex index = PubCacheIndex.map(indexFile);
+            return index.getPubCacheDirectory().equals(pubCacheDir) ? index : null;
+        } catch (IOException e) {
+            CacheFiles.deleteQuietly(indexFile);
+            return null;
+        }
+    }
+
+    /**
+     * Scan pub cache and write new index.
+     *
+     * @param previous Index for skipping unchanged packages, or <code>null</code> for full scan.
+     * @param projects Opened projects which references are recorded.
+     *
+     * @return New {@link PubCacheIndex}, which is mapped from index file if written successfully.
+     *
+     * @throws IOException If unable to list pub cache.
+     * @throws InterruptedException If current thread is interrupted while scanning.
+     */
+    @Nonnull
+    public PubCacheIndex refresh(@Nullable PubCacheIndex previous, @Nonnull Collection<DartProject> projects)
+            throws IOException, InterruptedException {
+        final long created = System.currentTimeMillis();
+        final PubCacheIndex reusable = previous != null && previous.getPubCacheDirectory().equals(pubCacheDir)
+                ? previous
+                : null;
+        final Map<String, List<Path>> references = referencesOf(projects);
+
+        final ArrayList<Future<PubCacheEntry>> pending = new ArrayList<>();
+        final Path hostedDir = pubCacheDir.resolve(HOSTED_DIR);
+        try {
+            if (Files.isDirectory(hostedDir)) {
+                try (DirectoryStream<Path> hosts = Files.newDirectoryStream(hostedDir, Files::isDirectory)) {
+                    for (Path host : hosts) {
+                        try (DirectoryStream<Path> packages = Files.newDirectoryStream(host)) {
+                            for (Path p : packages)
+                                pending.add(executor.submit(() -> measure(p, reusable, references)));
+                        }
+                    }
+                }
+            }
+
+            final ArrayList<PubCacheEntry> entries = new ArrayList<>(pending.size());
+            for (Future<PubCacheEntry> f : pending) {
+                final PubCacheEntry e = f.get();
+                if (e != null) entries.add(e);
+            }
+
+            return write(PubCacheIndex.encode(pubCacheDir, entries, created));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) throw ioe;
+            throw new IOException(e.getCause());
+        } finally {
+            for (Future<PubCacheEntry> f : pending) f.cancel(true);
+        }
+    }
+
+    /**
+     * Map previous index then apply changes since last launch.
+     *
+     * @param projects Opened projects which references are recorded.
+     *
+     * @return Latest {@link PubCacheIndex}.
+     *
+     * @throws IOException If unable to list pub cache.
+     * @throws InterruptedException If current thread is interrupted while scanning.
+     */
+    @Nonnull
+    public PubCacheIndex loadAndRefresh(@Nonnull Collection<DartProject> projects)
+            throws IOException, InterruptedException {
+        return refresh(load(), projects);
+    }
+
+    /**
+     * Collect hosted packages which resolved by projects.
+     *
+     * @return Project directories keyed by <code>name-version</code>.
+     */
+    @Nonnull
+    private static Map<String, List<Path>> referencesOf(@Nonnull Collection<DartProject> projects) {
+        final HashMap<String, List<Path>> references = new HashMap<>();
+        for (DartProject dp : projects) {
+            final PubspecLock lock = dp.getLock();
+            if (lock == null) continue;
+
+            final Path dir = dp.getDirectory().toAbsolutePath().normalize();
+            for (LockedPackage lp : lock.getPackages()) {
+                if (lp.getSource() != LockedPackage.Source.HOSTED) continue;
+                references.computeIfAbsent(lp.getName() + "-" + lp.getRawVersion(), k -> new ArrayList<>(2)).add(dir);
+            }
+        }
+
+        return references;
+    }
+
+    /**
+     * Read a package directory.
+     *
+     * @return {@link PubCacheEntry} of the directory, or <code>null</code> if it is not a package.
+     */
+    @Nullable
+    private static PubCacheEntry measure(
+            @Nonnull Path packageDir,
+            @Nullable PubCacheIndex previous,
+            @Nonnull Map<String, List<Path>> references
+    ) throws IOException {
+        final String dirName = packageDir.getFileName().toString();
+        // Package name never contains dash but version may have
+        final int dash = dirName.indexOf('-');
+        if (dash <= 0 || dash == dirName.length() - 1) return null;
+
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(packageDir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            // Removed by pub cache clean
+            return null;
+        }
+        if (!attrs.isDirectory()) return null;
+
+        final String host = packageDir.getParent().getFileName().toString();
+        final String name = dirName.substring(0, dash), version = dirName.substring(dash + 1);
+        final long modified = attrs.lastModifiedTime().toMillis();
+        final List<Path> referencing = references.getOrDefault(dirName, List.of());
+
+        final PubCacheEntry known = previous == null ? null : previous.find(host, name, version);
+        final long size = known != null && known.getLastModifiedMillis() == modified
+                ? known.getSize()
+                : sizeOf(packageDir);
+
+        return new PubCacheEntry(host, name, version, size, modified, referencing);
+    }
+
+    private static long sizeOf(@Nonnull Path dir) throws IOException {
+        final long[] total = {0L};
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) total[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return total[0];
+    }
+
+    /**
+     * Write encoded index then map it.
+     * <br/>
+     * If the file can not be replaced, such as the previous index is still mapped on Windows, the index is kept in
+     * heap for this session and written again in next refresh.
+     */
+    @Nonnull
+    private PubCacheIndex write(@Nonnull byte[] encoded) throws IOException {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            CacheFiles.writeAtomically(indexFile, out -> out.write(encoded));
+            return PubCacheIndex.map(indexFile);
+        } catch (IOException e) {
+            return PubCacheIndex.wrap(encoded);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
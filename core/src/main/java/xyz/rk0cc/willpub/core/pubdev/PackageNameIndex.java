@@ -0,0 +1,243 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Sorted package names for completing package name while typing.
+ * <br/>
+ * Names are front coded in a single byte array, that each name only stores the part which differs from previous
+ * name. Every {@value #BLOCK_SIZE} names start a block with full name, which uses for binary search. It keeps all
+ * names on pub.dev in about a quarter of {@link String} array, and completing a prefix only decodes one block before
+ * the first result.
+ * <br/>
+ * The index is immutable and completing is fast enough for calling in UI thread directly.
+ *
+ * @since 1.0.0
+ */
+public final class PackageNameIndex {
+    /**
+     * Index which has no name.
+     */
+    public static final PackageNameIndex EMPTY = new PackageNameIndex(new byte[0], new int[0], 0);
+
+    /**
+     * Number of names in each block.
+     */
+    private static final int BLOCK_SIZE = 16;
+
+    /**
+     * Maximum length of name, which is limited by a byte of length.
+     */
+    private static final int MAX_NAME_BYTES = 255;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int size;
+
+    private PackageNameIndex(@Nonnull byte[] data, @Nonnull int[] blockOffsets, int size) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+    }
+
+    /**
+     * Build index from names.
+     *
+     * @param names Package names in any order. Duplicated and over long names are ignored.
+     *
+     * @return Index of given names.
+     */
+    @Nonnull
+    public static PackageNameIndex of(@Nonnull Collection<String> names) {
+        final TreeSet<String> sorted = new TreeSet<>(names);
+        if (sorted.isEmpty()) return EMPTY;
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.size() * 6);
+        final int[] blocks = new int[(sorted.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] previous = new byte[0];
+        int n = 0;
+
+        for (String name : sorted) {
+            final byte[] b = name.getBytes(StandardCharsets.UTF_8);
+            if (b.length == 0 || b.length > MAX_NAME_BYTES) continue;
+
+            int shared = 0;
+            if (n % BLOCK_SIZE == 0) {
+                blocks[n / BLOCK_SIZE] = out.size();
+            } else {
+                final int max = Math.min(previous.length, b.length);
+                while (shared < max && previous[shared] == b[shared]) shared++;
+            }
+
+            out.write(shared);
+            out.write(b.length - shared);
+            out.write(b, shared, b.length - shared);
+            previous = b;
+            n++;
+        }
+
+        return new PackageNameIndex(out.toByteArray(), Arrays.copyOf(blocks, (n + BLOCK_SIZE - 1) / BLOCK_SIZE), n);
+    }
+
+    /**
+     * Read names from response of <code>/api/package-names</code>.
+     *
+     * @param in {@link InputStream} of response body, which will not be closed.
+     * @param names Collection to add names into.
+     *
+     * @return URL of next page, or <code>null</code> if it is the last page.
+     *
+     * @throws IOException If unable to read or not a valid response.
+     */
+    @Nullable
+    public static String readPackageNames(@Nonnull InputStream in, @Nonnull Collection<String> names)
+            throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Package names response must be an object");
+
+            String nextUrl = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+
+                if (field.equals("packages") && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) names.add(parser.getText());
+                } else if (field.equals("nextUrl") && value == JsonToken.VALUE_STRING) {
+                    nextUrl = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return nextUrl;
+        }
+    }
+
+    /**
+     * Compare name in buffer with prefix.
+     *
+     * @return Negative if name is ordered before prefix, zero if name starts with prefix, otherwise positive.
+     */
+    private static int compareToPrefix(@Nonnull byte[] name, int length, @Nonnull byte[] prefix) {
+        final int max = Math.min(length, prefix.length);
+        for (int i = 0; i < max; i++) {
+            final int c = Integer.compare(Byte.toUnsignedInt(name[i]), Byte.toUnsignedInt(prefix[i]));
+            if (c != 0) return c;
+        }
+
+        return length < prefix.length ? -1 : 0;
+    }
+
+    /**
+     * Find block which the first name of prefix may be located.
+     */
+    private int blockOf(@Nonnull byte[] prefix) {
+        final byte[] head = new byte[MAX_NAME_BYTES];
+        int low = 0, high = blockOffsets.length - 1;
+
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            final int offset = blockOffsets[mid];
+            final int length = Byte.toUnsignedInt(data[offset + 1]);
+            System.arraycopy(data, offset + 2, head, 0, length);
+
+            // Head which starts with prefix is not the first candidate since previous block may also match
+            if (compareToPrefix(head, length, prefix) < 0) low = mid;
+            else high = mid - 1;
+        }
+
+        return low;
+    }
+
+    /**
+     * Find names which start with given prefix.
+     *
+     * @param prefix Typed text, which is case-insensitive as package name is always in lowercase.
+     * @param limit Maximum number of names.
+     *
+     * @return Unmodifiable {@link List} of names in alphabetical order, which exact matched name comes first.
+     */
+    @Nonnull
+    public List<String> complete(@Nonnull String prefix, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+
+        final String normalized = prefix.strip().toLowerCase(Locale.ROOT);
+        if (size == 0 || normalized.isEmpty()) return List.of();
+
+        final byte[] p = normalized.getBytes(StandardCharsets.UTF_8);
+        final byte[] current = new byte[MAX_NAME_BYTES];
+        final ArrayList<String> found = new ArrayList<>(Math.min(limit, 16));
+
+        int offset = blockOffsets[blockOf(p)];
+        while (offset < data.length) {
+            final int shared = Byte.toUnsignedInt(data[offset]);
+            final int suffix = Byte.toUnsignedInt(data[offset + 1]);
+            System.arraycopy(data, offset + 2, current, shared, suffix);
+            offset += 2 + suffix;
+
+            final int length = shared + suffix;
+            final int c = compareToPrefix(current, length, p);
+            if (c < 0) continue;
+            if (c > 0) break;
+
+            found.add(new String(current, 0, length, StandardCharsets.UTF_8));
+            if (found.size() == limit) break;
+        }
+
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Determine the name is in this index.
+     *
+     * @param name Name of package.
+     *
+     * @return <code>true</code> if the name is found.
+     */
+    public boolean contains(@Nonnull String name) {
+        final List<String> first = complete(name, 1);
+        return !first.isEmpty() && first.get(0).equals(name);
+    }
+
+    /**
+     * Get number of names.
+     *
+     * @return Number of names.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get size of encoded names.
+     *
+     * @return Size in bytes.
+     */
+    public int getEncodedSize() {
+        return data.length + blockOffsets.length * Integer.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "PackageNameIndex{" +
+                "size=" + size +
+                ", encodedSize=" + getEncodedSize() +
+                '}';
+    }
+}
@@ -0,0 +1,136 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keep {@link PackageNameIndex} of every package on pub.dev up to date in background.
+ * <br/>
+ * Names are fetched from <code>/api/package-names</code> through {@link PubDevHttpCache}, that the response stored
+ * in disk tier is reused on next launch and completion is available before any request is sent. The index is
+ * replaced once new names arrived, and {@link #getIndex()} always returns the latest one without blocking.
+ *
+ * @since 1.0.0
+ */
+public final class PackageNameIndexLoader implements AutoCloseable {
+    /**
+     * Path of package names API.
+     */
+    public static final String PACKAGE_NAMES_PATH = "api/package-names";
+
+    /**
+     * Maximum pages to follow, which prevents looping forever on malformed response.
+     */
+    private static final int MAX_PAGES = 64;
+
+    private final PubDevHttpCache cache;
+    private final ExecutorService executor;
+    private final AtomicReference<PackageNameIndex> index = new AtomicReference<>(PackageNameIndex.EMPTY);
+    private final AtomicReference<CompletableFuture<PackageNameIndex>> running = new AtomicReference<>();
+
+    /**
+     * Create loader which sends requests through given cache.
+     *
+     * @param cache {@link PubDevHttpCache} for sending request.
+     */
+    public PackageNameIndexLoader(@Nonnull PubDevHttpCache cache) {
+        this.cache = Objects.requireNonNull(cache);
+        this.executor = WillPubExecutors.newBoundedExecutor("willpub-package-names", 1);
+    }
+
+    /**
+     * Get latest index.
+     *
+     * @return Latest {@link PackageNameIndex}, or {@link PackageNameIndex#EMPTY} if never loaded.
+     */
+    @Nonnull
+    public PackageNameIndex getIndex() {
+        return index.get();
+    }
+
+    /**
+     * Load names in background.
+     * <br/>
+     * Calling again while previous loading is not finished returns the running one.
+     *
+     * @param policy {@link PubDevCachePolicy} of requests, which {@link PubDevCachePolicy#OFFLINE_FIRST} reuses
+     *               names from last launch.
+     *
+     * @return {@link CompletableFuture} of loaded index, which is also applied to {@link #getIndex()}.
+     */
+    @Nonnull
+    public CompletableFuture<PackageNameIndex> refresh(@Nonnull PubDevCachePolicy policy) {
+        Objects.requireNonNull(policy);
+
+        while (true) {
+            final CompletableFuture<PackageNameIndex> current = running.get();
+            if (current != null && !current.isDone()) return current.copy();
+
+            final CompletableFuture<PackageNameIndex> created = new CompletableFuture<>();
+            if (!running.compareAndSet(current, created)) continue;
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        final PackageNameIndex loaded = PackageNameIndex.of(fetchNames(policy));
+                        index.set(loaded);
+                        created.complete(loaded);
+                    } catch (IOException e) {
+                        created.completeExceptionally(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        created.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+
+            return created.copy();
+        }
+    }
+
+    /**
+     * Show names from last launch immediately, then revalidate them.
+     *
+     * @return {@link CompletableFuture} of revalidated index.
+     */
+    @Nonnull
+    public CompletableFuture<PackageNameIndex> start() {
+        return refresh(PubDevCachePolicy.OFFLINE_FIRST)
+                .exceptionally(t -> index.get())
+                .thenCompose(i -> refresh(PubDevCachePolicy.DEFAULT));
+    }
+
+    @Nonnull
+    private Collection<String> fetchNames(@Nonnull PubDevCachePolicy policy)
+            throws IOException, InterruptedException {
+        final HashSet<String> names = new HashSet<>(1 << 16);
+        final ArrayList<String> visited = new ArrayList<>();
+        String path = PACKAGE_NAMES_PATH;
+
+        while (path != null && visited.size() < MAX_PAGES && !visited.contains(path)) {
+            visited.add(path);
+            try (InputStream in = cache.get(path, policy).openBody()) {
+                path = PackageNameIndex.readPackageNames(in, names);
+            }
+        }
+
+        return names;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+/**
+ * Determine how {@link PubDevHttpCache} uses cached response and network.
+ *
+ * @since 1.0.0
+ */
+public enum PubDevCachePolicy {
+    /**
+     * Use cached response if it is validated within TTL. Otherwise, revalidate it with conditional request and
+     * fallback to stale response if network is unavailable.
+     */
+    DEFAULT,
+    /**
+     * Use cached response regardless of TTL, and only request when it has never been cached.
+     */
+    OFFLINE_FIRST,
+    /**
+     * Use cached response only and never send request.
+     */
+    OFFLINE_ONLY,
+    /**
+     * Always revalidate cached response even it is within TTL.
+     */
+    REVALIDATE
+}
@@ -0,0 +1,55 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of counters of {@link PubDevHttpCache}.
+ *
+ * @param memoryHits Number of fresh response served from memory.
+ * @param diskHits Number of fresh response served from disk.
+ * @param revalidated Number of conditional requests which replied <code>304 Not Modified</code>.
+ * @param downloaded Number of requests which downloaded body.
+ * @param staleServed Number of stale response served when network is unavailable or disallowed.
+ * @param failures Number of lookups which neither cached nor downloaded.
+ * @param networkNanos Total time spent on network requests in nanoseconds.
+ *
+ * @since 1.0.0
+ */
+public record PubDevCacheStatistics(
+        long memoryHits,
+        long diskHits,
+        long revalidated,
+        long downloaded,
+        long staleServed,
+        long failures,
+        long networkNanos
+) {
+    /**
+     * Get total number of lookups.
+     *
+     * @return Total number of lookups.
+     */
+    public long lookups() {
+        return memoryHits + diskHits + revalidated + downloaded + staleServed + failures;
+    }
+
+    /**
+     * Get ratio of lookups which did not download body, including revalidated response.
+     *
+     * @return Hit rate between <code>0</code> to <code>1</code>, or <code>0</code> if no lookup yet.
+     */
+    public double hitRate() {
+        final long lookups = lookups();
+        return lookups == 0L ? 0d : (double) (memoryHits + diskHits + revalidated + staleServed) / lookups;
+    }
+
+    /**
+     * Get average latency of network requests.
+     *
+     * @return Average duration of a request, or {@link Duration#ZERO} if no request sent.
+     */
+    public Duration averageNetworkLatency() {
+        final long requests = revalidated + downloaded;
+        return requests == 0L ? Duration.ZERO : Duration.ofNanos(networkNanos / requests);
+    }
+}
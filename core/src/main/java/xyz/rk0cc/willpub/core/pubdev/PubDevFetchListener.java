@@ -0,0 +1,31 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receive result of each package from {@link PubDevMetadataFetcher#fetchAll(java.util.Collection, PubDevFetchListener)}
+ * once it is arrived.
+ * <br/>
+ * All methods are called in fetcher's thread, which should be forwarded to JavaFX application thread before
+ * touching any UI.
+ *
+ * @since 1.0.0
+ */
+public interface PubDevFetchListener {
+    /**
+     * Called when metadata of a package is fetched.
+     *
+     * @param metadata Fetched {@link PubPackageMetadata}.
+     */
+    void onFetched(@Nonnull PubPackageMetadata metadata);
+
+    /**
+     * Called when a package can not be fetched after retried.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param packageName Name of package.
+     * @param cause Cause of failure.
+     */
+    default void onFailed(@Nonnull String packageName, @Nonnull Throwable cause) {}
+}
@@ -0,0 +1,532 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import xyz.rk0cc.willpub.core.WillPubDirectories;
+import xyz.rk0cc.willpub.core.io.CacheFiles;
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client of pub.dev API with two tiers of response cache.
+ * <br/>
+ * Responses are kept in memory with least recently used eviction by total body size, and persisted in disk so that
+ * they are reusable after restarting Will Pub. When a cached response is older than TTL, it will be revalidated with
+ * <code>If-None-Match</code> and <code>If-Modified-Since</code>, which only downloads body if the package is
+ * changed. Cached response is served as stale when pub.dev can not be reached.
+ * <br/>
+ * Base URI is configurable that requests can be sent to mirror or local stub server.
+ *
+ * @since 1.0.0
+ */
+public final class PubDevHttpCache {
+    /**
+     * URI of official pub.dev.
+     */
+    public static final URI DEFAULT_BASE_URI = URI.create("https://pub.dev/");
+
+    /**
+     * Default duration which cached response is treated as fresh without revalidation.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    /**
+     * Default maximum size of bodies kept in memory.
+     */
+    public static final long DEFAULT_MEMORY_MAX_BYTES = 16L * 1024L * 1024L;
+
+    /**
+     * Default maximum size of entries in disk.
+     */
+    public static final long DEFAULT_DISK_MAX_BYTES = 128L * 1024L * 1024L;
+
+    /**
+     * Media type of pub.dev API version 2.
+     */
+    private static final String ACCEPT = "application/vnd.pub.v2+json";
+
+    private static final String USER_AGENT = "willpub (+https://github.com/Project-Will-Pub/willpub)";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int MAGIC = 0x57504448;
+
+    private static final short FORMAT_VERSION = 1;
+
+    private static final String ENTRY_SUFFIX = ".http";
+
+    /**
+     * Number of disk writes between each eviction, since listing directory is not cheap when thousands of packages
+     * are cached.
+     */
+    private static final int EVICT_INTERVAL = 32;
+
+    /**
+     * Cached response.
+     *
+     * @param uri Requested URI.
+     * @param body Response body.
+     * @param etag Value of <code>ETag</code> header.
+     * @param lastModified Value of <code>Last-Modified</code> header.
+     * @param validatedAt Epoch milliseconds when pub.dev confirmed this body.
+     */
+    private record Entry(URI uri, byte[] body, String etag, String lastModified, long validatedAt) {
+        @Nonnull
+        Entry revalidated(@Nonnull HttpHeaders headers, long now) {
+            return new Entry(
+                    uri,
+                    body,
+                    headers.firstValue("ETag").orElse(etag),
+                    headers.firstValue("Last-Modified").orElse(lastModified),
+                    now
+            );
+        }
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Path diskDir;
+    private final long diskMaxBytes;
+    private final long memoryMaxBytes;
+    private final Duration ttl;
+
+    /**
+     * Cached response in access order, guarded by itself.
+     */
+    private final LinkedHashMap<URI, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0L;
+
+    private final AtomicInteger diskWrites = new AtomicInteger();
+
+    private volatile PubDevCachePolicy defaultPolicy = PubDevCachePolicy.DEFAULT;
+
+    private final LongAdder memoryHits = new LongAdder(), diskHits = new LongAdder(), revalidated = new LongAdder(),
+            downloaded = new LongAdder(), staleServed = new LongAdder(), failures = new LongAdder(),
+            networkNanos = new LongAdder();
+
+    /**
+     * Create cache with custom configuration.
+     *
+     * @param client {@link HttpClient} for sending request.
+     * @param baseUri Base URI of pub.dev or compatible server.
+     * @param diskDir Directory of disk tier, or <code>null</code> for caching in memory only.
+     * @param diskMaxBytes Maximum size of entries in disk.
+     * @param memoryMaxBytes Maximum size of bodies in memory.
+     * @param ttl Duration which cached response is treated as fresh.
+     *
+     * @throws IOException If unable to create disk directory.
+     */
+    public PubDevHttpCache(
+            @Nonnull HttpClient client,
+            @Nonnull URI baseUri,
+            @Nullable Path diskDir,
+            long diskMaxBytes,
+            long memoryMaxBytes,
+            @Nonnull Duration ttl
+    ) throws IOException {
+        if (diskMaxBytes <= 0L || memoryMaxBytes <= 0L) throw new IllegalArgumentException("Size must be positive");
+        if (ttl.isNegative()) throw new IllegalArgumentException("TTL can not be negative");
+
+        this.client = Objects.requireNonNull(client);
+        this.baseUri = Objects.requireNonNull(baseUri);
+        this.diskDir = diskDir == null ? null : Files.createDirectories(diskDir);
+        this.diskMaxBytes = diskMaxBytes;
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Create cache to official pub.dev with default sizes and TTL, which stores entries in
+     * {@linkplain WillPubDirectories#cacheDirectory() Will Pub's cache directory}.
+     *
+     * @return Default {@link PubDevHttpCache}.
+     *
+     * @throws IOException If unable to create disk directory.
+     */
+    @Nonnull
+    public static PubDevHttpCache openDefault() throws IOException {
+        return new PubDevHttpCache(
+                HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build(),
+                DEFAULT_BASE_URI,
+                WillPubDirectories.createCacheSubdirectory("pubdev"),
+                DEFAULT_DISK_MAX_BYTES,
+                DEFAULT_MEMORY_MAX_BYTES,
+                DEFAULT_TTL
+        );
+    }
+
+    /**
+     * Get base URI of requests.
+     *
+     * @return Base URI.
+     */
+    @Nonnull
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Get {@link PubDevCachePolicy} when calling {@link #get(String)}.
+     *
+     * @return Current default policy.
+     */
+    @Nonnull
+    public PubDevCachePolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Change {@link PubDevCachePolicy} when calling {@link #get(String)}, which uses for toggling offline mode.
+     *
+     * @param defaultPolicy New default policy.
+     */
+    public void setDefaultPolicy(@Nonnull PubDevCachePolicy defaultPolicy) {
+        this.defaultPolicy = Objects.requireNonNull(defaultPolicy);
+    }
+
+    /**
+     * Get response with {@linkplain #getDefaultPolicy() default policy}.
+     *
+     * @param path Path relative to {@linkplain #getBaseUri() base URI}, like <code>api/packages/http</code>.
+     *
+     * @return Response of path.
+     *
+     * @throws IOException If unable to get response and no cached response can be served.
+     * @throws InterruptedException If interrupted while waiting response.
+     */
+    @Nonnull
+    public PubDevResponse get(@Nonnull String path) throws IOException, InterruptedException {
+        return get(path, defaultPolicy);
+    }
+
+    /**
+     * Get response with given policy.
+     *
+     * @param path Path relative to {@linkplain #getBaseUri() base URI}, like <code>api/packages/http</code>.
+     * @param policy {@link PubDevCachePolicy} of this lookup.
+     *
+     * @return Response of path.
+     *
+     * @throws IOException If unable to get response and no cached response can be served.
+     * @throws InterruptedException If interrupted while waiting response.
+     */
+    @Nonnull
+    public PubDevResponse get(@Nonnull String path, @Nonnull PubDevCachePolicy policy)
+            throws IOException, InterruptedException {
+        final URI uri = baseUri.resolve(path);
+        final long now = System.currentTimeMillis();
+
+        Entry cached = fromMemory(uri);
+        PubDevResponse.Source cachedSource = PubDevResponse.Source.MEMORY;
+        if (cached == null) {
+            cached = fromDisk(uri);
+            cachedSource = PubDevResponse.Source.DISK;
+        }
+
+        if (cached != null) {
+            final boolean fresh = now - cached.validatedAt() < ttl.toMillis();
+
+            if (fresh && policy != PubDevCachePolicy.REVALIDATE) {
+                (cachedSource == PubDevResponse.Source.MEMORY ? memoryHits : diskHits).increment();
+                return toResponse(cached, cachedSource);
+            } else if (policy == PubDevCachePolicy.OFFLINE_FIRST || policy == PubDevCachePolicy.OFFLINE_ONLY) {
+                staleServed.increment();
+                return toResponse(cached, PubDevResponse.Source.STALE);
+            }
+        } else if (policy == PubDevCachePolicy.OFFLINE_ONLY) {
+            failures.increment();
+            throw new IOException("Offline mode enabled and " + uri + " has not been cached");
+        }
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", ACCEPT)
+                .header("User-Agent", USER_AGENT)
+                .GET();
+        if (cached != null) {
+            if (cached.etag() != null) request.header("If-None-Match", cached.etag());
+            if (cached.lastModified() != null) request.header("If-Modified-Since", cached.lastModified());
+        }
+
+        final long start = System.nanoTime(), metricStart = WillPubMetrics.start();
+        final HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            WillPubMetrics.stop(Metric.PUB_DEV_REQUEST, metricStart, uri);
+
+            if (cached == null) {
+                failures.increment();
+                throw e;
+            }
+
+            staleServed.increment();
+            return toResponse(cached, PubDevResponse.Source.STALE);
+        }
+        WillPubMetrics.stop(Metric.PUB_DEV_REQUEST, metricStart, uri);
+        final long completed = System.currentTimeMillis();
+
+        final int status = response.statusCode();
+        if (status == 304 && cached != null) {
+            networkNanos.add(System.nanoTime() - start);
+            revalidated.increment();
+
+            final Entry updated = cached.revalidated(response.headers(), completed);
+            store(updated);
+            return toResponse(updated, PubDevResponse.Source.REVALIDATED);
+        } else if (status == 200) {
+            networkNanos.add(System.nanoTime() - start);
+            downloaded.increment();
+
+            final HttpHeaders headers = response.headers();
+            final Entry downloadedEntry = new Entry(
+                    uri,
+                    response.body(),
+                    headers.firstValue("ETag").orElse(null),
+                    headers.firstValue("Last-Modified").orElse(null),
+                    completed
+            );
+            store(downloadedEntry);
+            return toResponse(downloadedEntry, PubDevResponse.Source.NETWORK);
+        }
+
+        final PubDevHttpException error = new PubDevHttpException(
+                uri,
+                status,
+                parseRetryAfter(response.headers(), completed)
+        );
+        if (cached != null && error.isRetryable()) {
+            staleServed.increment();
+            return toResponse(cached, PubDevResponse.Source.STALE);
+        }
+
+        failures.increment();
+        throw error;
+    }
+
+    /**
+     * Remove cached response of the path in both tiers.
+     *
+     * @param path Path relative to {@linkplain #getBaseUri() base URI}.
+     */
+    public void invalidate(@Nonnull String path) {
+        final URI uri = baseUri.resolve(path);
+
+        synchronized (memory) {
+            final Entry removed = memory.remove(uri);
+            if (removed != null) memoryBytes -= removed.body().length;
+        }
+
+        if (diskDir != null) CacheFiles.deleteQuietly(diskFile(uri));
+    }
+
+    /**
+     * Remove all cached responses.
+     *
+     * @throws IOException If unable to list entries in disk.
+     */
+    public void clear() throws IOException {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0L;
+        }
+
+        if (diskDir != null) CacheFiles.clear(diskDir, ENTRY_SUFFIX);
+    }
+
+    /**
+     * Get counters since this cache created or {@linkplain #resetStatistics() reset}.
+     *
+     * @return Snapshot of counters.
+     */
+    @Nonnull
+    public PubDevCacheStatistics getStatistics() {
+        return new PubDevCacheStatistics(
+                memoryHits.sum(),
+                diskHits.sum(),
+                revalidated.sum(),
+                downloaded.sum(),
+                staleServed.sum(),
+                failures.sum(),
+                networkNanos.sum()
+        );
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public void resetStatistics() {
+        for (LongAdder la : new LongAdder[] {
+                memoryHits, diskHits, revalidated, downloaded, staleServed, failures, networkNanos
+        }) la.reset();
+    }
+
+    @Nonnull
+    private static PubDevResponse toResponse(@Nonnull Entry entry, @Nonnull PubDevResponse.Source source) {
+        return new PubDevResponse(entry.uri(), entry.body(), source, Instant.ofEpochMilli(entry.validatedAt()));
+    }
+
+    @Nullable
+    private Entry fromMemory(@Nonnull URI uri) {
+        synchronized (memory) {
+            return memory.get(uri);
+        }
+    }
+
+    /**
+     * Put entry into memory and remove least recently used entries until it is under {@link #memoryMaxBytes}.
+     *
+     * @param entry Entry to store.
+     */
+    private void putMemory(@Nonnull Entry entry) {
+        synchronized (memory) {
+            final Entry replaced = memory.put(entry.uri(), entry);
+            memoryBytes += entry.body().length - (replaced == null ? 0 : replaced.body().length);
+
+            final Iterator<Map.Entry<URI, Entry>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                final Entry e = eldest.next().getValue();
+                if (e == entry) continue;
+
+                memoryBytes -= e.body().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    @Nonnull
+    private Path diskFile(@Nonnull URI uri) {
+        return diskDir.resolve(CacheFiles.entryName(uri.toString(), ENTRY_SUFFIX));
+    }
+
+    /**
+     * Load entry from disk and promote it to memory.
+     *
+     * @param uri Requested URI.
+     *
+     * @return Cached entry, or <code>null</code> if not cached or unreadable.
+     */
+    @Nullable
+    private Entry fromDisk(@Nonnull URI uri) {
+        if (diskDir == null) return null;
+
+        final Path file = diskFile(uri);
+        if (!Files.isRegularFile(file)) return null;
+
+        final Entry entry;
+        try {
+            // Entry is read as a whole that length of body can be checked with remaining bytes
+            final ByteArrayInputStream bytes = new ByteArrayInputStream(Files.readAllBytes(file));
+            final DataInputStream in = new DataInputStream(bytes);
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION || !in.readUTF().equals(uri.toString())) {
+                CacheFiles.deleteQuietly(file);
+                return null;
+            }
+
+            final long validatedAt = in.readLong();
+            final String etag = in.readBoolean() ? in.readUTF() : null;
+            final String lastModified = in.readBoolean() ? in.readUTF() : null;
+            final int bodyLength = in.readInt();
+            if (bodyLength != bytes.available()) {
+                // Truncated or corrupted
+                CacheFiles.deleteQuietly(file);
+                return null;
+            }
+            final byte[] body = new byte[bodyLength];
+            in.readFully(body);
+
+            entry = new Entry(uri, body, etag, lastModified, validatedAt);
+        } catch (IOException e) {
+            CacheFiles.deleteQuietly(file);
+            return null;
+        }
+
+        CacheFiles.touch(file);
+        putMemory(entry);
+        return entry;
+    }
+
+    /**
+     * Store entry in both tiers. Failure of writing disk is ignored.
+     *
+     * @param entry Entry to store.
+     */
+    private void store(@Nonnull Entry entry) {
+        putMemory(entry);
+        if (diskDir == null) return;
+
+        final Path file = diskFile(entry.uri());
+        try {
+            CacheFiles.writeAtomically(file, out -> {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeUTF(entry.uri().toString());
+                out.writeLong(entry.validatedAt());
+                out.writeBoolean(entry.etag() != null);
+                if (entry.etag() != null) out.writeUTF(entry.etag());
+                out.writeBoolean(entry.lastModified() != null);
+                if (entry.lastModified() != null) out.writeUTF(entry.lastModified());
+                out.writeInt(entry.body().length);
+                out.write(entry.body());
+            });
+
+            if (diskWrites.incrementAndGet() % EVICT_INTERVAL == 0)
+                CacheFiles.evictLeastRecentlyUsed(diskDir, ENTRY_SUFFIX, diskMaxBytes);
+        } catch (IOException e) {
+            // Still cached in memory
+            CacheFiles.deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Parse <code>Retry-After</code> header in either delay seconds or HTTP date.
+     *
+     * @param headers Response headers.
+     * @param now Epoch milliseconds when response received.
+     *
+     * @return Delay before retrying, or <code>null</code> if not provided or malformed.
+     */
+    @Nullable
+    static Duration parseRetryAfter(@Nonnull HttpHeaders headers, long now) {
+        final String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null) return null;
+
+        try {
+            return Duration.ofSeconds(Math.max(0L, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                final long at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant()
+                        .toEpochMilli();
+                return Duration.ofMillis(Math.max(0L, at - now));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
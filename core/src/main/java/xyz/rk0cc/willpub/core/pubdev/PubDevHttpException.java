@@ -0,0 +1,80 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Thrown when pub.dev responded with unexpected status code.
+ *
+ * @since 1.0.0
+ */
+public final class PubDevHttpException extends IOException {
+    private final URI uri;
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    /**
+     * Create exception with response status.
+     *
+     * @param uri Requested URI.
+     * @param statusCode Status code of response.
+     * @param retryAfter Delay from <code>Retry-After</code> header if provided.
+     */
+    public PubDevHttpException(@Nonnull URI uri, int statusCode, @Nullable Duration retryAfter) {
+        super("pub.dev responded " + statusCode + " for " + uri);
+        this.uri = uri;
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Get requested URI.
+     *
+     * @return Requested URI.
+     */
+    @Nonnull
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Get status code of response.
+     *
+     * @return HTTP status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Determine the package or resource does not exist.
+     *
+     * @return <code>true</code> if status code is <code>404</code>.
+     */
+    public boolean isNotFound() {
+        return statusCode == 404;
+    }
+
+    /**
+     * Determine request is rejected by rate limit or server is temporary unavailable, which can be retried later.
+     *
+     * @return <code>true</code> if status code is <code>429</code> or <code>5xx</code>.
+     */
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Get delay which requested by server before retrying.
+     *
+     * @return Delay from <code>Retry-After</code> header, or empty if not provided.
+     */
+    @Nonnull
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
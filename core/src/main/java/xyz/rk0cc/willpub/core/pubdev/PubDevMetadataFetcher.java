@@ -0,0 +1,379 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Fetch {@link PubPackageMetadata} from pub.dev in parallel.
+ * <br/>
+ * Number of running requests is limited by both fetcher's concurrency and per host limit, which shared between all
+ * fetchers in this JVM. When a host responded <code>429 Too Many Requests</code>, all requests to the host are
+ * paused until <code>Retry-After</code> elapsed. Failed requests are retried with exponential backoff and jitter.
+ * <br/>
+ * Requests of the same package while the previous one is still running are merged into one.
+ *
+ * @since 1.0.0
+ */
+public final class PubDevMetadataFetcher implements AutoCloseable {
+    /**
+     * Default number of requests running in the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    /**
+     * Default number of attempts for each package.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+
+    /**
+     * Maximum requests to the same host from all fetchers.
+     */
+    private static final int MAX_REQUESTS_PER_HOST = 16;
+
+    private static final Duration BASE_RETRY_DELAY = Duration.ofMillis(250);
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(15);
+
+    private static final Pattern PACKAGE_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    /**
+     * Backpressure of a host which shared between fetchers.
+     */
+    private static final class HostGate {
+        private final Semaphore permits = new Semaphore(MAX_REQUESTS_PER_HOST, true);
+        private volatile long pausedUntil = 0L;
+
+        /**
+         * Pause all requests to this host.
+         *
+         * @param delay Duration of pause.
+         */
+        void pause(@Nonnull Duration delay) {
+            final long until = System.nanoTime() + delay.toNanos();
+            synchronized (this) {
+                if (until - pausedUntil > 0L) pausedUntil = until;
+            }
+        }
+
+        /**
+         * Wait until pause elapsed.
+         *
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        void awaitResume() throws InterruptedException {
+            long remain;
+            while ((remain = pausedUntil - System.nanoTime()) > 0L) TimeUnit.NANOSECONDS.sleep(remain);
+        }
+    }
+
+    private static final ConcurrentHashMap<String, HostGate> HOST_GATES = new ConcurrentHashMap<>();
+
+    private final PubDevHttpCache cache;
+    private final ExecutorService executor;
+    private final boolean ownedExecutor;
+    private final Semaphore concurrency;
+    private final int maxAttempts;
+    private final HostGate hostGate;
+
+    /**
+     * Fetching packages which may be shared by multiple callers.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<PubPackageMetadata>> inFlight
+            = new ConcurrentHashMap<>();
+
+    private final LongAdder requested = new LongAdder(), coalesced = new LongAdder(), retried = new LongAdder(),
+            failed = new LongAdder();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Create fetcher with given executor.
+     *
+     * @param cache {@link PubDevHttpCache} for sending request.
+     * @param executor {@link ExecutorService} to run requests, which will not be shutdown when closing fetcher.
+     * @param maxConcurrency Maximum requests running in the same time.
+     * @param maxAttempts Maximum attempts of each package, including the first request.
+     */
+    public PubDevMetadataFetcher(
+            @Nonnull PubDevHttpCache cache,
+            @Nonnull ExecutorService executor,
+            int maxConcurrency,
+            int maxAttempts
+    ) {
+        this(cache, executor, false, maxConcurrency, maxAttempts);
+    }
+
+    /**
+     * Create fetcher with {@linkplain WillPubExecutors#newIOExecutor(String, int) I/O executor} and default
+     * concurrency.
+     *
+     * @param cache {@link PubDevHttpCache} for sending request.
+     */
+    public PubDevMetadataFetcher(@Nonnull PubDevHttpCache cache) {
+        this(
+                cache,
+                WillPubExecutors.newIOExecutor("willpub-pubdev-fetcher", DEFAULT_MAX_CONCURRENCY),
+                true,
+                DEFAULT_MAX_CONCURRENCY,
+                DEFAULT_MAX_ATTEMPTS
+        );
+    }
+
+    private PubDevMetadataFetcher(
+            @Nonnull PubDevHttpCache cache,
+            @Nonnull ExecutorService executor,
+            boolean ownedExecutor,
+            int maxConcurrency,
+            int maxAttempts
+    ) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("Concurrency must be positive");
+        if (maxAttempts < 1) throw new IllegalArgumentException("Attempts must be positive");
+
+        this.cache = Objects.requireNonNull(cache);
+        this.executor = Objects.requireNonNull(executor);
+        this.ownedExecutor = ownedExecutor;
+        this.concurrency = new Semaphore(maxConcurrency, true);
+        this.maxAttempts = maxAttempts;
+
+        final String host = cache.getBaseUri().getAuthority();
+        this.hostGate = HOST_GATES.computeIfAbsent(host == null ? "" : host, h -> new HostGate());
+    }
+
+    /**
+     * Get {@link PubDevHttpCache} which uses by this fetcher.
+     *
+     * @return Cache of responses.
+     */
+    @Nonnull
+    public PubDevHttpCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Fetch a package.
+     * <br/>
+     * If the same package is fetching already, it returns the result of running request. Cancelling returned
+     * {@link CompletableFuture} does not affect other callers.
+     *
+     * @param packageName Name of package.
+     *
+     * @return {@link CompletableFuture} of {@link PubPackageMetadata}.
+     */
+    @Nonnull
+    public CompletableFuture<PubPackageMetadata> fetch(@Nonnull String packageName) {
+        if (closed) return CompletableFuture.failedFuture(new RejectedExecutionException("Fetcher closed"));
+        if (!PACKAGE_NAME.matcher(packageName).matches())
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid package name: " + packageName));
+
+        final CompletableFuture<PubPackageMetadata> existed = inFlight.get(packageName);
+        if (existed != null) {
+            coalesced.increment();
+            return existed.copy();
+        }
+
+        final CompletableFuture<PubPackageMetadata> created = new CompletableFuture<>();
+        final CompletableFuture<PubPackageMetadata> raced = inFlight.putIfAbsent(packageName, created);
+        if (raced != null) {
+            coalesced.increment();
+            return raced.copy();
+        }
+
+        requested.increment();
+        created.whenComplete((m, t) -> inFlight.remove(packageName, created));
+
+        try {
+            executor.execute(() -> run(packageName, created));
+        } catch (RejectedExecutionException e) {
+            created.completeExceptionally(e);
+        }
+
+        return created.copy();
+    }
+
+    /**
+     * Fetch packages and notify each result once it is arrived.
+     *
+     * @param packageNames Names of package. Duplicated names are fetched once.
+     * @param listener {@link PubDevFetchListener} which receives result of every package.
+     *
+     * @return {@link CompletableFuture} of all fetched packages, which excludes failed packages and completed
+     *         when all packages are either fetched or failed.
+     */
+    @Nonnull
+    public CompletableFuture<Map<String, PubPackageMetadata>> fetchAll(
+            @Nonnull Collection<String> packageNames,
+            @Nullable PubDevFetchListener listener
+    ) {
+        final ConcurrentHashMap<String, PubPackageMetadata> results = new ConcurrentHashMap<>();
+        final LinkedHashSet<String> distinct = new LinkedHashSet<>(packageNames);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[distinct.size()];
+
+        int i = 0;
+        for (String name : distinct) {
+            futures[i++] = fetch(name).handle((metadata, t) -> {
+                if (t == null) {
+                    results.put(name, metadata);
+                    if (listener != null) listener.onFetched(metadata);
+                } else if (listener != null) {
+                    listener.onFailed(name, t instanceof CompletionException && t.getCause() != null
+                            ? t.getCause()
+                            : t);
+                }
+                return null;
+            });
+        }
+
+        return CompletableFuture.allOf(futures).thenApply(v -> Collections.unmodifiableMap(results));
+    }
+
+    /**
+     * Run request of a package with retry.
+     *
+     * @param packageName Name of package.
+     * @param result Future which completes with the result.
+     */
+    private void run(@Nonnull String packageName, @Nonnull CompletableFuture<PubPackageMetadata> result) {
+        for (int attempt = 1; !result.isDone(); attempt++) {
+            Duration retryDelay = null;
+
+            try {
+                final PubDevResponse response;
+
+                hostGate.awaitResume();
+                concurrency.acquire();
+                try {
+                    hostGate.permits.acquire();
+                    try {
+                        response = cache.get("api/packages/" + packageName);
+                    } finally {
+                        hostGate.permits.release();
+                    }
+                } finally {
+                    concurrency.release();
+                }
+
+                try (InputStream body = response.openBody()) {
+                    result.complete(PubPackageMetadataReader.read(body));
+                }
+                return;
+            } catch (InterruptedException e) {
+                result.cancel(false);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (PubDevHttpException e) {
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    fail(result, e);
+                    return;
+                }
+
+                retryDelay = backoff(attempt);
+                final Duration retryAfter = e.getRetryAfter().orElse(null);
+                if (retryAfter != null && retryAfter.compareTo(retryDelay) > 0) retryDelay = retryAfter;
+                if (e.getStatusCode() == 429) hostGate.pause(retryDelay);
+            } catch (JsonProcessingException e) {
+                // Malformed body will not be fixed by retrying
+                fail(result, e);
+                return;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    fail(result, e);
+                    return;
+                }
+
+                retryDelay = backoff(attempt);
+            } catch (RuntimeException e) {
+                fail(result, e);
+                return;
+            }
+
+            retried.increment();
+            try {
+                TimeUnit.NANOSECONDS.sleep(retryDelay.toNanos());
+            } catch (InterruptedException e) {
+                result.cancel(false);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void fail(@Nonnull CompletableFuture<PubPackageMetadata> result, @Nonnull Throwable cause) {
+        failed.increment();
+        result.completeExceptionally(cause);
+    }
+
+    /**
+     * Compute delay before next attempt with exponential backoff and jitter, that retries from many packages are
+     * not sent in the same time.
+     *
+     * @param attempt Number of attempt which just failed.
+     *
+     * @return Delay of next attempt.
+     */
+    @Nonnull
+    private static Duration backoff(int attempt) {
+        final long cap = Math.min(
+                MAX_RETRY_DELAY.toMillis(),
+                BASE_RETRY_DELAY.toMillis() << Math.min(attempt - 1, 16)
+        );
+        return Duration.ofMillis(cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1));
+    }
+
+    /**
+     * Get number of packages which sent request.
+     *
+     * @return Number of requested packages.
+     */
+    public long getRequestedCount() {
+        return requested.sum();
+    }
+
+    /**
+     * Get number of fetching which merged into running request.
+     *
+     * @return Number of merged fetching.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get number of retried attempts.
+     *
+     * @return Number of retries.
+     */
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    /**
+     * Get number of packages which unable to fetch.
+     *
+     * @return Number of failed packages.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Cancel all running requests and reject further fetching.
+     * <br/>
+     * Executor will be shutdown only if it is created by this fetcher.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (CompletableFuture<PubPackageMetadata> f : inFlight.values()) f.cancel(false);
+        if (ownedExecutor) executor.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+
+/**
+ * Body of successful response from pub.dev which may be served from {@link PubDevHttpCache}.
+ *
+ * @since 1.0.0
+ */
+public final class PubDevResponse {
+    /**
+     * Where the response is came from.
+     *
+     * @since 1.0.0
+     */
+    public enum Source {
+        /**
+         * Cached in memory and still fresh.
+         */
+        MEMORY,
+        /**
+         * Cached in disk and still fresh.
+         */
+        DISK,
+        /**
+         * Downloaded from pub.dev.
+         */
+        NETWORK,
+        /**
+         * Cached response which confirmed unchanged by pub.dev.
+         */
+        REVALIDATED,
+        /**
+         * Cached response which can not be revalidated, either by policy or network failure.
+         */
+        STALE
+    }
+
+    private final URI uri;
+    private final byte[] body;
+    private final Source source;
+    private final Instant validatedAt;
+
+    PubDevResponse(@Nonnull URI uri, @Nonnull byte[] body, @Nonnull Source source, @Nonnull Instant validatedAt) {
+        this.uri = uri;
+        this.body = body;
+        this.source = source;
+        this.validatedAt = validatedAt;
+    }
+
+    /**
+     * Get requested URI.
+     *
+     * @return Requested URI.
+     */
+    @Nonnull
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Open body as {@link InputStream} for streaming parser.
+     *
+     * @return {@link InputStream} of body without copying.
+     */
+    @Nonnull
+    public InputStream openBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * Get size of body.
+     *
+     * @return Number of bytes of body.
+     */
+    public int getBodyLength() {
+        return body.length;
+    }
+
+    /**
+     * Get where this response came from.
+     *
+     * @return {@link Source} of response.
+     */
+    @Nonnull
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Determine this response is served without completing a request.
+     *
+     * @return <code>true</code> if response is served by cache without network.
+     */
+    public boolean isFromCache() {
+        return source != Source.NETWORK && source != Source.REVALIDATED;
+    }
+
+    /**
+     * Get the time when pub.dev confirmed this body is latest.
+     *
+     * @return Last validated time.
+     */
+    @Nonnull
+    public Instant getValidatedAt() {
+        return validatedAt;
+    }
+}
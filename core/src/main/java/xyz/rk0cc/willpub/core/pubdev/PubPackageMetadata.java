@@ -0,0 +1,110 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Package information from pub.dev API, which includes all published versions.
+ *
+ * @since 1.0.0
+ */
+public final class PubPackageMetadata {
+    private final String name;
+    private final PubPackageVersion latest;
+    private final List<PubPackageVersion> versions;
+    private final HashMap<String, PubPackageVersion> byRawVersion;
+    private final boolean discontinued;
+    private final String replacedBy;
+
+    PubPackageMetadata(
+            @Nonnull String name,
+            @Nullable PubPackageVersion latest,
+            @Nonnull List<PubPackageVersion> versions,
+            boolean discontinued,
+            @Nullable String replacedBy
+    ) {
+        this.name = PackageNames.intern(name);
+        this.versions = Collections.unmodifiableList(versions);
+        this.byRawVersion = new HashMap<>();
+        for (PubPackageVersion ppv : versions) byRawVersion.put(ppv.getRawVersion(), ppv);
+        this.latest = latest == null ? null : byRawVersion.getOrDefault(latest.getRawVersion(), latest);
+        this.discontinued = discontinued;
+        this.replacedBy = replacedBy;
+    }
+
+    /**
+     * Get package name.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get latest version which marked by pub.dev.
+     *
+     * @return Latest {@link PubPackageVersion}, or <code>null</code> if not provided.
+     */
+    @Nullable
+    public PubPackageVersion getLatest() {
+        return latest;
+    }
+
+    /**
+     * Get all published versions in the order of pub.dev.
+     *
+     * @return An unmodifiable {@link List} of versions.
+     */
+    @Nonnull
+    public List<PubPackageVersion> getVersions() {
+        return versions;
+    }
+
+    /**
+     * Find version by version string.
+     *
+     * @param rawVersion Version string as published.
+     *
+     * @return Matched {@link PubPackageVersion}, or <code>null</code> if not found.
+     */
+    @Nullable
+    public PubPackageVersion getVersion(@Nonnull String rawVersion) {
+        return byRawVersion.get(rawVersion);
+    }
+
+    /**
+     * Determine this package is marked as discontinued.
+     *
+     * @return <code>true</code> if discontinued.
+     */
+    public boolean isDiscontinued() {
+        return discontinued;
+    }
+
+    /**
+     * Get suggested replacement of discontinued package.
+     *
+     * @return Replacement package name, or <code>null</code> if not provided.
+     */
+    @Nullable
+    public String getReplacedBy() {
+        return replacedBy;
+    }
+
+    @Override
+    public String toString() {
+        return "PubPackageMetadata{" +
+                "name='" + name + '\'' +
+                ", latest=" + (latest == null ? null : latest.getRawVersion()) +
+                ", versions=" + versions.size() +
+                ", discontinued=" + discontinued +
+                '}';
+    }
+}
@@ -0,0 +1,213 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import xyz.rk0cc.willpub.core.intern.ConstraintPool;
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader of package response from <code>/api/packages/&lt;name&gt;</code>.
+ * <br/>
+ * Only fields which required by Will Pub are read, and remaining part of pubspec like description and
+ * screenshots are skipped without building tree.
+ *
+ * @since 1.0.0
+ */
+public final class PubPackageMetadataReader {
+    /**
+     * Shared {@link JsonFactory}, which is thread-safe once configured.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private PubPackageMetadataReader() {}
+
+    /**
+     * Read package response.
+     *
+     * @param in {@link InputStream} of response body, which will not be closed.
+     *
+     * @return Parsed {@link PubPackageMetadata}.
+     *
+     * @throws IOException If unable to read or not a valid package response.
+     */
+    @Nonnull
+    public static PubPackageMetadata read(@Nonnull InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Package response must be an object");
+
+            String name = null, replacedBy = null;
+            boolean discontinued = false;
+            PubPackageVersion latest = null;
+            final ArrayList<PubPackageVersion> versions = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "isDiscontinued" -> discontinued = parser.getValueAsBoolean();
+                    case "replacedBy" -> replacedBy = parser.getValueAsString();
+                    case "latest" -> {
+                        if (valueToken == JsonToken.START_OBJECT) latest = readVersion(parser, null);
+                        else parser.skipChildren();
+                    }
+                    case "versions" -> {
+                        if (valueToken != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        PubPackageVersion previous = null;
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            previous = readVersion(parser, previous);
+                            versions.add(previous);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (name == null) throw new JsonParseException(parser, "Missing package name");
+
+            return new PubPackageMetadata(name, latest, versions, discontinued, replacedBy);
+        }
+    }
+
+    /**
+     * Read a version object.
+     *
+     * @param parser Parser which pointed to version's {@link JsonToken#START_OBJECT}.
+     * @param previous Previous version in the same response, which dependencies are reused if they are the same.
+     *
+     * @return Parsed {@link PubPackageVersion}.
+     *
+     * @throws IOException If unable to read or missing version.
+     */
+    @Nonnull
+    private static PubPackageVersion readVersion(@Nonnull JsonParser parser, @Nullable PubPackageVersion previous)
+            throws IOException {
+        String version = null, sdk = null, flutter = null;
+        boolean retracted = false;
+        Instant published = null;
+        final LinkedHashMap<String, String> dependencies = new LinkedHashMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken valueToken = parser.nextToken();
+
+            switch (field) {
+                case "version" -> version = parser.getValueAsString();
+                case "retracted" -> retracted = parser.getValueAsBoolean();
+                case "published" -> published = parseInstant(parser.getValueAsString());
+                case "pubspec" -> {
+                    if (valueToken != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        break;
+                    }
+
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String pubspecField = parser.getCurrentName();
+                        final JsonToken pubspecValue = parser.nextToken();
+
+                        if (pubspecField.equals("dependencies") && pubspecValue == JsonToken.START_OBJECT) {
+                            readDependencies(parser, dependencies);
+                        } else if (pubspecField.equals("environment") && pubspecValue == JsonToken.START_OBJECT) {
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                final String sdkName = parser.getCurrentName();
+                                parser.nextToken();
+                                switch (sdkName) {
+                                    case "sdk" -> sdk = parser.getValueAsString();
+                                    case "flutter" -> flutter = parser.getValueAsString();
+                                    default -> parser.skipChildren();
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (version == null) throw new JsonParseException(parser, "Missing version");
+
+        final Map<String, String> sharedDependencies;
+        if (dependencies.isEmpty()) sharedDependencies = Map.of();
+        else if (previous != null && previous.getDependencies().equals(dependencies))
+            sharedDependencies = previous.getDependencies();
+        else sharedDependencies = Collections.unmodifiableMap(dependencies);
+
+        return new PubPackageVersion(version, retracted, published, sharedDependencies, sdk, flutter);
+    }
+
+    /**
+     * Read hosted dependencies and their constraints.
+     *
+     * @param parser Parser which pointed to {@link JsonToken#START_OBJECT} of <code>dependencies</code>.
+     * @param dependencies Destination of package name and raw constraint.
+     *
+     * @throws IOException If unable to read.
+     */
+    private static void readDependencies(@Nonnull JsonParser parser, @Nonnull LinkedHashMap<String, String> dependencies)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String dependencyName = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.VALUE_NULL) {
+                dependencies.put(PackageNames.intern(dependencyName), "any");
+            } else if (value == JsonToken.VALUE_STRING) {
+                dependencies.put(PackageNames.intern(dependencyName), ConstraintPool.intern(parser.getText()));
+            } else if (value == JsonToken.START_OBJECT) {
+                String constraint = "any";
+                boolean hosted = true;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String key = parser.getCurrentName();
+                    parser.nextToken();
+
+                    switch (key) {
+                        case "version" -> constraint = parser.getValueAsString("any");
+                        case "sdk", "git", "path" -> {
+                            hosted = false;
+                            parser.skipChildren();
+                        }
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                if (hosted) dependencies.put(PackageNames.intern(dependencyName), ConstraintPool.intern(constraint));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    @Nullable
+    private static Instant parseInstant(@Nullable String value) {
+        if (value == null) return null;
+
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.willpub.core.intern.ConstraintPool;
+import xyz.rk0cc.willpub.core.intern.InternedVersion;
+import xyz.rk0cc.willpub.core.intern.PackedVersion;
+import xyz.rk0cc.willpub.core.intern.VersionPool;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A published version of package in pub.dev.
+ * <br/>
+ * Version and constraints are pooled, and consecutive versions with the same dependencies share one {@link Map}
+ * when reading by {@link PubPackageMetadataReader}, which matters when hundreds of versions of many packages are
+ * cached.
+ *
+ * @since 1.0.0
+ */
+public final class PubPackageVersion {
+    private final InternedVersion version;
+    private final boolean retracted;
+    private final Instant published;
+    private final Map<String, String> dependencies;
+    private final String sdkConstraint;
+    private final String flutterConstraint;
+
+    /**
+     * Construct a published version.
+     *
+     * @param rawVersion Version string as published.
+     * @param retracted <code>true</code> if retracted.
+     * @param published Published time.
+     * @param dependencies An unmodifiable {@link Map} of hosted dependencies which may be shared with other
+     *                     versions.
+     * @param sdkConstraint Raw Dart SDK constraint.
+     * @param flutterConstraint Raw Flutter SDK constraint.
+     */
+    PubPackageVersion(
+            @Nonnull String rawVersion,
+            boolean retracted,
+            @Nullable Instant published,
+            @Nonnull Map<String, String> dependencies,
+            @Nullable String sdkConstraint,
+            @Nullable String flutterConstraint
+    ) {
+        this.version = VersionPool.intern(rawVersion);
+        this.retracted = retracted;
+        this.published = published;
+        this.dependencies = dependencies;
+        this.sdkConstraint = ConstraintPool.intern(sdkConstraint);
+        this.flutterConstraint = ConstraintPool.intern(flutterConstraint);
+    }
+
+    /**
+     * Get version string as published.
+     *
+     * @return Version in {@link String}.
+     */
+    @Nonnull
+    public String getRawVersion() {
+        return version.raw();
+    }
+
+    /**
+     * Get parsed version.
+     *
+     * @return {@link SemVer} of this version, or <code>null</code> if it is not a standard semantic version.
+     */
+    @Nullable
+    public SemVer getVersion() {
+        return version.version();
+    }
+
+    /**
+     * Get version which can be compared as primitive.
+     *
+     * @return {@linkplain PackedVersion Packed} version, or {@link PackedVersion#UNPACKABLE} if it is pre-release,
+     *         has build metadata or not a standard semantic versioning.
+     */
+    public long getPackedVersion() {
+        return version.packed();
+    }
+
+    /**
+     * Determine this version is retracted by publisher.
+     *
+     * @return <code>true</code> if retracted.
+     */
+    public boolean isRetracted() {
+        return retracted;
+    }
+
+    /**
+     * Get published time.
+     *
+     * @return Published time, or <code>null</code> if not provided.
+     */
+    @Nullable
+    public Instant getPublished() {
+        return published;
+    }
+
+    /**
+     * Get version constraints of hosted dependencies in this version.
+     * <br/>
+     * Dependencies from SDK are excluded.
+     *
+     * @return An unmodifiable {@link Map} of package name and raw version constraint.
+     */
+    @Nonnull
+    public Map<String, String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Get Dart SDK constraint of this version.
+     *
+     * @return Raw SDK constraint, or <code>null</code> if not specified.
+     */
+    @Nullable
+    public String getSdkConstraint() {
+        return sdkConstraint;
+    }
+
+    /**
+     * Get Flutter SDK constraint of this version.
+     *
+     * @return Raw Flutter constraint, or <code>null</code> if not specified.
+     */
+    @Nullable
+    public String getFlutterConstraint() {
+        return flutterConstraint;
+    }
+
+    @Override
+    public String toString() {
+        return "PubPackageVersion{" +
+                "rawVersion='" + version.raw() + '\'' +
+                ", retracted=" + retracted +
+                ", dependencies=" + dependencies +
+                '}';
+    }
+}
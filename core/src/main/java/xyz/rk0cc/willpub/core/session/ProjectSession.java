@@ -0,0 +1,474 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.command.PubCommandRunner;
+import xyz.rk0cc.willpub.core.command.PubCommandScheduler;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.graph.DependencyGraph;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.ProjectFileWatcher;
+import xyz.rk0cc.willpub.core.project.ProjectFingerprint;
+import xyz.rk0cc.willpub.core.project.ProjectModelCache;
+import xyz.rk0cc.willpub.core.project.lock.PackageConfig;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Owner of everything which belongs to an opened {@link DartProject}, which are the parsed model, the
+ * {@link ProjectFileWatcher}, a bounded {@link ExecutorService} for project's tasks, a {@link PubCommandScheduler}
+ * which runs on that executor and {@link DependencyGraph}.
+ * <br/>
+ * A session is created by {@link ProjectSessionManager} when the project applied. It holds watcher and executor only
+ * when it is {@link State#ACTIVE}, and they are released once it is deactivated by resetting or closing the
+ * project. Since every session owns its executor, a slow <code>pub get</code> of a project does not occupy threads
+ * of other projects. The inactive session keeps the model that switching back does not parse again, until the manager demotes
+ * it to {@link State#SOFT} and then {@link State#SERIALIZED} when memory budget is exceeded.
+ * <br/>
+ * All methods are thread safe.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectSession implements AutoCloseable {
+    /**
+     * Where the model of {@link ProjectSession} is held.
+     */
+    public enum State {
+        /**
+         * Applied project, which holds the model, watcher and executor.
+         */
+        ACTIVE,
+
+        /**
+         * Project is not applied, but the model is still held.
+         */
+        INACTIVE,
+
+        /**
+         * Only {@linkplain SoftReference soft reference} of the model is held, which may be collected when heap is
+         * running out.
+         */
+        SOFT,
+
+        /**
+         * Model is dropped from heap, which is restored from {@link ProjectModelCache} or parsed again when it is
+         * reopened.
+         */
+        SERIALIZED,
+
+        /**
+         * Session is closed and removed from manager.
+         */
+        CLOSED
+    }
+
+    /**
+     * Fixed size of a model regardless dependencies.
+     */
+    private static final long MODEL_BASE_BYTES = 4L * 1024L;
+    private static final long PUBSPEC_DEPENDENCY_BYTES = 512L;
+    private static final long LOCKED_PACKAGE_BYTES = 640L;
+    private static final long PACKAGE_CONFIG_ENTRY_BYTES = 384L;
+    private static final long GRAPH_NODE_BYTES = 128L;
+    private static final long GRAPH_EDGE_BYTES = 8L;
+
+    private final ProjectSessionManager manager;
+    private final Path directory;
+
+    private State state = State.INACTIVE;
+    /**
+     * Strong reference of the model, or <code>null</code> if demoted.
+     */
+    private DartProject project;
+    /**
+     * Soft reference of the model when {@link State#SOFT}.
+     */
+    private SoftReference<DartProject> softProject = null;
+    /**
+     * {@link ProjectFingerprint} of files which the model is read from, or <code>null</code> if unknown.
+     */
+    private ProjectFingerprint fingerprint;
+    /**
+     * Model is reloaded by watcher and not stored into {@link ProjectModelCache} yet.
+     */
+    private boolean dirty = false;
+    private DependencyGraph graph = null;
+    private ProjectFileWatcher watcher = null;
+    private ExecutorService executor = null;
+    private PubCommandRunner commandRunner = null;
+    private PubCommandScheduler commandScheduler = null;
+    private long estimatedBytes;
+    /**
+     * Value of {@link System#nanoTime()} when it is activated, which uses for finding the least recently used session.
+     */
+    private long lastUsedNanos = System.nanoTime();
+
+    ProjectSession(
+            @Nonnull ProjectSessionManager manager,
+            @Nonnull DartProject project,
+            @Nullable ProjectFingerprint fingerprint
+    ) {
+        this.manager = manager;
+        this.directory = ProjectSessionManager.keyOf(project.getDirectory());
+        this.project = project;
+        this.fingerprint = fingerprint;
+        this.estimatedBytes = estimateBytes(project);
+    }
+
+    /**
+     * Estimate retained heap of the model by number of dependencies.
+     * <br/>
+     * It does not measure actual size, but it is proportional enough for comparing with memory budget.
+     *
+     * @param project Parsed model.
+     *
+     * @return Estimated bytes.
+     */
+    static long estimateBytes(@Nonnull DartProject project) {
+        final Pubspec pubspec = project.getPubspec();
+        final PubspecLock lock = project.getLock();
+        final PackageConfig config = project.getPackageConfig();
+
+        long bytes = MODEL_BASE_BYTES;
+        bytes += PUBSPEC_DEPENDENCY_BYTES * (pubspec.dependencies().size() + pubspec.devDependencies().size()
+                + pubspec.dependencyOverrides().size());
+        if (lock != null) bytes += LOCKED_PACKAGE_BYTES * lock.size();
+        if (config != null) bytes += PACKAGE_CONFIG_ENTRY_BYTES * config.getPackages().size();
+
+        return bytes;
+    }
+
+    /**
+     * Get project directory of this session.
+     *
+     * @return Normalized absolute path of project directory.
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get current state.
+     *
+     * @return Current {@link State}.
+     */
+    @Nonnull
+    public synchronized State getState() {
+        if (state == State.SOFT && softProject.get() == null) {
+            // Collected by GC
+            softProject = null;
+            state = State.SERIALIZED;
+        }
+        return state;
+    }
+
+    /**
+     * Get the model if it is still in heap.
+     *
+     * @return {@link DartProject}, or <code>null</code> if it is {@link State#SERIALIZED} or {@link State#CLOSED}.
+     */
+    @Nullable
+    public synchronized DartProject getProject() {
+        if (project != null) return project;
+        return getState() == State.SOFT ? softProject.get() : null;
+    }
+
+    /**
+     * Get estimated heap which retained by this session.
+     *
+     * @return Estimated bytes of model and graph, or <code>0</code> if the model is not strongly held.
+     */
+    public synchronized long getEstimatedBytes() {
+        return project == null ? 0L : estimatedBytes;
+    }
+
+    /**
+     * Get fingerprint of project files which the model is parsed from.
+     *
+     * @return {@link ProjectFingerprint} of the model, or <code>null</code> if unknown.
+     */
+    @Nullable
+    public synchronized ProjectFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    synchronized long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    /**
+     * Get {@link DependencyGraph} of the model, which built when it is called first time.
+     * <br/>
+     * Building graph reads <code>pubspec.yaml</code> of dependencies that it should not be called in UI thread.
+     *
+     * @return {@link DependencyGraph} of the project, or <code>null</code> if the model is not in heap.
+     */
+    @Nullable
+    public DependencyGraph getGraph() {
+        final DartProject built;
+        synchronized (this) {
+            if (graph != null) return graph;
+            built = getProject();
+            if (built == null) return null;
+        }
+
+        // Build outside lock that state can be observed during building
+        final DependencyGraph g = DependencyGraph.of(built, manager.getManifests());
+        synchronized (this) {
+            if (project != built) return g; // Reloaded or demoted during building
+
+            graph = g;
+            estimatedBytes += GRAPH_NODE_BYTES * g.size() + GRAPH_EDGE_BYTES * g.getEdgeCount();
+        }
+        manager.trim();
+
+        return g;
+    }
+
+    /**
+     * Get {@link ExecutorService} for tasks of this project, which is created when it is called first time after
+     * activated.
+     * <br/>
+     * It is shut down when this session is deactivated that all submitted tasks are interrupted.
+     *
+     * @return Bounded {@link ExecutorService} of this session.
+     *
+     * @throws IllegalStateException If this session is not {@link State#ACTIVE}.
+     */
+    @Nonnull
+    public synchronized ExecutorService getExecutor() {
+        if (state != State.ACTIVE) throw new IllegalStateException("Session of " + directory + " is not active");
+        if (executor == null) executor = WillPubExecutors.newBoundedExecutor(
+                "willpub-session-" + directory.getFileName(),
+                manager.getThreadsPerSession()
+        );
+        return executor;
+    }
+
+    /**
+     * Get {@link PubCommandScheduler} for pub commands of this project, which launches processes and drains output on
+     * {@linkplain #getExecutor() executor of this session}.
+     * <br/>
+     * Commands are run one by one. Queuing commands are cancelled when this session is deactivated.
+     *
+     * @return {@link PubCommandScheduler} of this session.
+     *
+     * @throws IllegalStateException If this session is not {@link State#ACTIVE}.
+     */
+    @Nonnull
+    public synchronized PubCommandScheduler getCommandScheduler() {
+        if (commandScheduler == null) {
+            commandRunner = new PubCommandRunner(
+                    getExecutor(),
+                    PubCommandRunner.DEFAULT_BUFFER_LINES,
+                    PubCommandRunner.DEFAULT_FLUSH_INTERVAL
+            );
+            commandScheduler = new PubCommandScheduler(commandRunner, 1);
+        }
+        return commandScheduler;
+    }
+
+    /**
+     * Transfer ownership of {@link ProjectFileWatcher} to this session, which closes the previous one.
+     *
+     * @param watcher Watcher of this project, or <code>null</code> to stop watching.
+     *
+     * @return <code>true</code> if it is owned, or <code>false</code> if this session is not {@link State#ACTIVE}
+     * that the watcher has been closed.
+     */
+    public boolean setWatcher(@Nullable ProjectFileWatcher watcher) {
+        final ProjectFileWatcher closing;
+        final boolean owned;
+        synchronized (this) {
+            owned = state == State.ACTIVE;
+            closing = owned ? this.watcher : watcher;
+            if (owned) this.watcher = watcher;
+        }
+
+        if (closing != null && (closing != watcher || !owned)) closing.close();
+        return owned;
+    }
+
+    /**
+     * Replace the model after changed files are parsed again.
+     *
+     * @param updated Updated {@link DartProject} of the same directory.
+     * @param fingerprint {@link ProjectFingerprint} which taken and {@linkplain ProjectFingerprint#ensureHashed()
+     *                    hashed} before changed files are read, or <code>null</code> if not available.
+     *
+     * @throws IllegalArgumentException If the project is in another directory.
+     */
+    public void update(@Nonnull DartProject updated, @Nullable ProjectFingerprint fingerprint) {
+        if (!directory.equals(ProjectSessionManager.keyOf(updated.getDirectory())))
+            throw new IllegalArgumentException("Project is not in " + directory);
+
+        synchronized (this) {
+            if (state == State.CLOSED || updated == project) return;
+
+            setProject(updated, fingerprint);
+            dirty = fingerprint != null;
+        }
+        manager.trim();
+    }
+
+    /**
+     * Hold a model strongly, which drops graph that built from previous one.
+     */
+    private void setProject(@Nonnull DartProject project, @Nullable ProjectFingerprint fingerprint) {
+        this.project = project;
+        this.softProject = null;
+        this.fingerprint = fingerprint;
+        this.graph = null;
+        this.estimatedBytes = estimateBytes(project);
+    }
+
+    /**
+     * Get the model if it is kept and files are not changed since it read.
+     *
+     * @param current Fingerprint of files at this moment.
+     *
+     * @return Kept model, or <code>null</code> if not kept or outdated.
+     */
+    @Nullable
+    synchronized DartProject find(@Nonnull ProjectFingerprint current) {
+        final DartProject kept = getProject();
+        if (kept == null || fingerprint == null || !fingerprint.isMetadataMatched(current)) return null;
+        return kept;
+    }
+
+    /**
+     * Hold loaded model again.
+     */
+    synchronized void offer(@Nonnull DartProject loaded, @Nonnull ProjectFingerprint fingerprint) {
+        if (state == State.CLOSED) return;
+        if (loaded != getProject()) {
+            setProject(loaded, fingerprint);
+            dirty = false;
+        }
+        if (state != State.ACTIVE) state = State.INACTIVE;
+        project = loaded;
+        softProject = null;
+    }
+
+    synchronized void activate(@Nonnull DartProject applied) {
+        if (applied != getProject()) {
+            setProject(applied, null);
+            dirty = false;
+        }
+        project = applied;
+        softProject = null;
+        state = State.ACTIVE;
+        lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Release watcher, command scheduler and executor but keep the model.
+     */
+    void deactivate() {
+        final Runnable release = detach();
+        if (release != null) release.run();
+    }
+
+    /**
+     * Mark this session {@link State#INACTIVE} and take watcher, command scheduler and executor away from it, but do
+     * not close them yet.
+     * <br/>
+     * Closing watcher waits its thread, that {@link ProjectSessionManager} runs returned action in its I/O executor
+     * instead of the caller which may be UI thread.
+     *
+     * @return Action which closes taken resources, or <code>null</code> if this session is not {@link State#ACTIVE}.
+     */
+    @Nullable
+    synchronized Runnable detach() {
+        if (state != State.ACTIVE) return null;
+
+        state = State.INACTIVE;
+        final ProjectFileWatcher w = watcher;
+        final ExecutorService e = executor;
+        final PubCommandScheduler cs = commandScheduler;
+        final PubCommandRunner cr = commandRunner;
+        watcher = null;
+        executor = null;
+        commandScheduler = null;
+        commandRunner = null;
+
+        return () -> {
+            if (w != null) w.close();
+            if (cs != null) cs.close();
+            if (cr != null) cr.close();
+            if (e != null) e.shutdownNow();
+        };
+    }
+
+    /**
+     * Demote strongly held model to {@link State#SOFT}.
+     *
+     * @return Estimated bytes released from budget.
+     */
+    synchronized long soften() {
+        if (state != State.INACTIVE || project == null) return 0L;
+
+        final long released = estimatedBytes;
+        storeIfDirty();
+        softProject = new SoftReference<>(project);
+        estimatedBytes = estimateBytes(project);
+        project = null;
+        graph = null;
+        state = State.SOFT;
+
+        return released;
+    }
+
+    /**
+     * Drop the model from heap.
+     */
+    synchronized void serialize() {
+        if (state == State.ACTIVE || state == State.CLOSED) return;
+
+        if (project == null && softProject != null) project = softProject.get();
+        if (project != null) storeIfDirty();
+        project = null;
+        softProject = null;
+        graph = null;
+        state = State.SERIALIZED;
+    }
+
+    /**
+     * Store reloaded model into {@link ProjectModelCache} that it can be restored after dropped.
+     * <br/>
+     * Model which loaded by {@link xyz.rk0cc.willpub.core.project.DartProjectLoader} is stored by loader already.
+     */
+    private void storeIfDirty() {
+        final ProjectModelCache cache = manager.getCache();
+        if (dirty && cache != null && project != null && fingerprint != null) cache.put(project, fingerprint);
+        dirty = false;
+    }
+
+    /**
+     * Release everything and remove from {@link ProjectSessionManager}.
+     */
+    @Override
+    public void close() {
+        deactivate();
+        synchronized (this) {
+            if (state == State.CLOSED) return;
+
+            project = null;
+            softProject = null;
+            fingerprint = null;
+            graph = null;
+            state = State.CLOSED;
+        }
+        manager.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectSession{" + directory + ", " + getState() + ", " + getEstimatedBytes() + " bytes}";
+    }
+}
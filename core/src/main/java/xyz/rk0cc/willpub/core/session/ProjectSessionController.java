@@ -0,0 +1,690 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadListener;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectDependency;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.project.ProjectFileWatcher;
+import xyz.rk0cc.willpub.core.project.ProjectFingerprint;
+import xyz.rk0cc.willpub.core.project.ProjectModelStore;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceScanListener;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceScanner;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Coordinate the applied directory with {@link ProjectSessionManager}, which loads projects, watches their files,
+ * scans workspace, restores and writes {@link SessionSnapshot}.
+ * <br/>
+ * It is confined to an owner's thread (e.g. JavaFX application thread), which every method must be called in.
+ * Results from background are delivered to owner's thread by {@link Dispatcher}, then reported to
+ * {@link ProjectSessionListener}. Opening another directory or resetting discards every loading which is not
+ * finished yet, and no further result is reported from them.
+ * <br/>
+ * It does not depend on any UI toolkit, that a control only displays what it reports.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectSessionController {
+    /**
+     * Run action in owner's thread of {@link ProjectSessionController}, e.g.
+     * <pre>
+     *     (label, action) -&gt; Platform.runLater(FXDiagnostics.track(label, action))
+     * </pre>
+     * Actions must be run in the order they dispatched.
+     */
+    @FunctionalInterface
+    public interface Dispatcher {
+        /**
+         * Run action in owner's thread later. It can be called from any thread.
+         *
+         * @param label Name of action for diagnostics.
+         * @param action Action that going to be performed.
+         */
+        void dispatch(@Nonnull String label, @Nonnull Runnable action);
+    }
+
+    private final DartProjectLoader projectLoader;
+    private final ProjectSessionManager sessionManager;
+    private final Dispatcher dispatcher;
+    private final ProjectSessionListener listener;
+
+    /**
+     * Increase when the directory is opened or reset, which uses for discarding result from outdated loading.
+     */
+    private long loadGeneration = 0L;
+    /**
+     * {@link Future} of the loading which does not finished yet.
+     */
+    private Future<DartProject> pendingLoad = null;
+    /**
+     * Directory which is applied or being restored, or <code>null</code> if none.
+     */
+    private File currentDirectory = null;
+    /**
+     * {@link DartProject} of applied directory, or <code>null</code> if no directory applied.
+     */
+    private DartProject currentProject = null;
+    /**
+     * Session of applied directory which owns its watcher, or <code>null</code> if no directory applied.
+     */
+    private ProjectSession currentSession = null;
+    /**
+     * Scanner of workspace root, which created when the first workspace opened.
+     */
+    private WorkspaceScanner workspaceScanner = null;
+    /**
+     * {@link Future} of the workspace scanning which does not finished yet.
+     */
+    private Future<WorkspaceIndex> pendingScan = null;
+    /**
+     * {@link WorkspaceIndex} of applied workspace, or <code>null</code> if no workspace applied.
+     */
+    private WorkspaceIndex currentWorkspace = null;
+
+    /**
+     * Create controller.
+     *
+     * @param projectLoader Loader for parsing opened directory.
+     * @param sessionManager Manager of sessions of applied directories.
+     * @param dispatcher {@link Dispatcher} to owner's thread.
+     * @param listener {@link ProjectSessionListener} which receives changes in owner's thread.
+     */
+    public ProjectSessionController(
+            @Nonnull DartProjectLoader projectLoader,
+            @Nonnull ProjectSessionManager sessionManager,
+            @Nonnull Dispatcher dispatcher,
+            @Nonnull ProjectSessionListener listener
+    ) {
+        this.projectLoader = Objects.requireNonNull(projectLoader);
+        this.sessionManager = Objects.requireNonNull(sessionManager);
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+        this.listener = Objects.requireNonNull(listener);
+    }
+
+    /**
+     * Get {@link ProjectSessionManager} which keeps sessions of applied directories.
+     *
+     * @return {@link ProjectSessionManager} of this controller.
+     */
+    @Nonnull
+    public ProjectSessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    /**
+     * Get directory which is applied, or displayed while it is restored from {@link SessionSnapshot}.
+     *
+     * @return Applied directory or workspace root, or <code>null</code> if none.
+     */
+    @Nullable
+    public File getCurrentDirectory() {
+        return currentDirectory;
+    }
+
+    /**
+     * Get {@link DartProject} of the directory that currently applied.
+     *
+     * @return Loaded {@link DartProject}, or <code>null</code> if no directory applied.
+     */
+    @Nullable
+    public DartProject getCurrentProject() {
+        return currentProject;
+    }
+
+    /**
+     * Get {@link ProjectSession} of the directory that currently applied.
+     *
+     * @return Active {@link ProjectSession}, or <code>null</code> if no directory applied.
+     */
+    @Nullable
+    public ProjectSession getCurrentSession() {
+        return currentSession;
+    }
+
+    /**
+     * Get {@link WorkspaceIndex} of the workspace that currently applied.
+     *
+     * @return Scanned {@link WorkspaceIndex}, or <code>null</code> if no workspace applied.
+     */
+    @Nullable
+    public WorkspaceIndex getCurrentWorkspace() {
+        return currentWorkspace;
+    }
+
+    /**
+     * Determine there is a directory loading in background.
+     *
+     * @return <code>true</code> if loading is not finished yet.
+     */
+    public boolean isLoading() {
+        return pendingLoad != null || pendingScan != null;
+    }
+
+    /**
+     * Open given directory, which is validated and parsed in background.
+     * <br/>
+     * It reports {@link ProjectSessionListener#onLoading(File, DartProjectLoadStage) loading} stages, then either
+     * {@link ProjectSessionListener#onApplied(File, DartProject) applied} or
+     * {@link ProjectSessionListener#onFailed(String, Throwable) failed}. If the directory has been applied before
+     * and files are not changed, the model kept by its {@link ProjectSession} is applied without parsing.
+     *
+     * @param directory Directory that going to be opened.
+     */
+    public void openDirectory(@Nonnull File directory) {
+        cancelPendingLoad();
+        pendingLoad = projectLoader.load(directory, new ProjectLoadRelay(loadGeneration, directory), sessionManager);
+    }
+
+    /**
+     * Discard loading, deactivate session of applied directory and report
+     * {@link ProjectSessionListener#onReset() reset}.
+     */
+    public void reset() {
+        cancelPendingLoad();
+        releaseSession();
+        currentDirectory = null;
+        currentProject = null;
+        currentWorkspace = null;
+        listener.onReset();
+    }
+
+    /**
+     * Close an opened project. It is the same as {@linkplain #reset() resetting} if the session is applied currently.
+     *
+     * @param session {@link ProjectSession} from {@link #getSessionManager()}.
+     */
+    public void closeSession(@Nonnull ProjectSession session) {
+        if (session == currentSession) reset();
+        else sessionManager.deactivate(session);
+    }
+
+    /**
+     * Restore projects which opened in last launch from {@link SessionSnapshot}.
+     * <br/>
+     * The applied project of last launch is decoded from snapshot and reported by
+     * {@link ProjectSessionListener#onRestored(File, DartProject, List, Map) restored} immediately without reading
+     * any project file. Then every project is verified in background, which the model from snapshot is used if
+     * files are unchanged, or parsed again otherwise. Other projects are opened without applying, and the applied
+     * one is reported as {@link ProjectSessionListener#onApplied(File, DartProject) applied} after all projects
+     * verified and metadata of its hosted packages fetched again, or
+     * {@link ProjectSessionListener#onFailed(String, Throwable) failed} if it can not be loaded anymore. If no
+     * project applied in last launch, {@link ProjectSessionListener#onReset() reset} is reported once all projects
+     * reopened. If the applied project can not be decoded from a corrupted snapshot, it is
+     * {@linkplain #openDirectory(File) opened} from files without restoring.
+     *
+     * @param snapshot {@linkplain SessionSnapshot#read(Path) Read} {@link SessionSnapshot}.
+     * @param fetcher Fetcher for verifying metadata of packages, or <code>null</code> if only files are verified.
+     */
+    public void restoreSnapshot(@Nonnull SessionSnapshot snapshot, @Nullable PubDevMetadataFetcher fetcher) {
+        cancelPendingLoad();
+
+        final SnapshotStore store = new SnapshotStore(snapshot);
+        final List<Path> directories = snapshot.getProjectDirectories();
+        final int appliedIndex = snapshot.getAppliedIndex();
+
+        final ArrayList<CompletableFuture<Void>> reopened = new ArrayList<>(directories.size());
+        for (int i = 0; i < directories.size(); i++) {
+            if (i == appliedIndex) continue;
+
+            final CompletableFuture<Void> opened = new CompletableFuture<>();
+            projectLoader.load(directories.get(i).toFile(), new ProjectReopenRelay(opened), store);
+            reopened.add(opened);
+        }
+        final CompletableFuture<Void> allReopened = CompletableFuture.allOf(reopened.toArray(CompletableFuture[]::new));
+
+        if (appliedIndex < 0) {
+            // No project applied in last launch, but listener should know reopened projects
+            final long generation = loadGeneration;
+            allReopened.thenRun(() -> dispatcher.dispatch("ProjectSessionController.reopenedAll", () -> {
+                if (generation == loadGeneration) listener.onReset();
+            }));
+            return;
+        }
+
+        final File directory = directories.get(appliedIndex).toFile();
+        final DartProject restored;
+        final List<SessionSnapshot.PackageStatus> packages;
+        final Map<String, String> uiStates;
+        try {
+            restored = snapshot.readProject(appliedIndex);
+            packages = snapshot.getPackageStatuses(appliedIndex);
+            uiStates = snapshot.getUiStates();
+        } catch (IOException e) {
+            // Corrupted snapshot, load it from files like opening the directory
+            openDirectory(directory);
+            return;
+        }
+
+        currentDirectory = directory;
+        listener.onRestored(directory, restored, packages, uiStates);
+
+        pendingLoad = projectLoader.load(
+                directory,
+                new ProjectRestoreRelay(new ProjectLoadRelay(loadGeneration, directory), allReopened, fetcher),
+                store
+        );
+    }
+
+    /**
+     * Write every opened project into {@link SessionSnapshot}, which should be called when exiting.
+     * <br/>
+     * Projects are written with the model kept by their {@link ProjectSession}, and given metadata of packages is
+     * written for the applied one. Fingerprints of projects are hashed if not yet that it reads project files before
+     * return.
+     *
+     * @param snapshotFile Destination of snapshot, e.g. {@link SessionSnapshot#defaultFile()}.
+     * @param appliedPackages Last known metadata of packages in applied project.
+     * @param uiStates State of UI which is reported when restoring in next launch.
+     *
+     * @throws IOException If unable to write.
+     */
+    public void writeSnapshot(
+            @Nonnull Path snapshotFile,
+            @Nonnull Collection<SessionSnapshot.PackageStatus> appliedPackages,
+            @Nonnull Map<String, String> uiStates
+    ) throws IOException {
+        final ArrayList<SessionSnapshot.ProjectState> projects = new ArrayList<>();
+        for (ProjectSession s : sessionManager.getOpenSessions()) {
+            final SessionSnapshot.ProjectState state = SessionSnapshot.ProjectState.of(
+                    s,
+                    s == currentSession ? appliedPackages : List.of()
+            );
+            if (state != null) projects.add(state);
+        }
+
+        SessionSnapshot.write(
+                snapshotFile,
+                projects,
+                currentSession == null ? null : currentSession.getDirectory(),
+                uiStates
+        );
+    }
+
+    /**
+     * Open given directory as workspace root, which finds every Dart package under it.
+     * <br/>
+     * The directory will be scanned in background. Found packages are reported by
+     * {@link ProjectSessionListener#onDiscovered(File, List, WorkspaceIndex) discovered} in batches, and the last one
+     * contains complete {@link WorkspaceIndex}. If the same root is opened again, unchanged directories from previous
+     * scan are skipped.
+     *
+     * @param root Root directory of workspace.
+     *
+     * @see #rescanWorkspace()
+     */
+    public void openWorkspace(@Nonnull File root) {
+        cancelPendingLoad();
+
+        if (!root.isAbsolute() || !root.isDirectory()) {
+            listener.onFailed(root.getPath(), null);
+            return;
+        }
+
+        if (workspaceScanner == null) workspaceScanner = new WorkspaceScanner();
+        pendingScan = workspaceScanner.scan(
+                root.toPath(),
+                currentWorkspace,
+                new WorkspaceScanRelay(loadGeneration, root)
+        );
+    }
+
+    /**
+     * Scan applied workspace again.
+     *
+     * @see #openWorkspace(File)
+     */
+    public void rescanWorkspace() {
+        if (currentWorkspace != null) openWorkspace(currentWorkspace.getRoot().toFile());
+    }
+
+    /**
+     * Deactivate session of applied directory, which stops watching and releases its executor but keeps the model.
+     */
+    private void releaseSession() {
+        if (currentSession != null) {
+            sessionManager.deactivate(currentSession);
+            currentSession = null;
+        }
+    }
+
+    /**
+     * Cancel current loading if applied and mark all relayed result from it as outdated.
+     */
+    private void cancelPendingLoad() {
+        loadGeneration++;
+
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+
+        if (pendingScan != null) {
+            pendingScan.cancel(true);
+            pendingScan = null;
+        }
+    }
+
+    /**
+     * Start watching loaded project, which parse changed files in watcher's thread and report
+     * {@link ProjectSessionListener#onModified(File, Set, DartProject) modified} in owner's thread.
+     *
+     * @param project Loaded project.
+     * @param directory Directory which is opened.
+     *
+     * @return A {@link ProjectFileWatcher} of the project, or <code>null</code> if it can not be watched.
+     */
+    @Nullable
+    private ProjectFileWatcher startWatcher(@Nonnull DartProject project, @Nonnull File directory) {
+        try {
+            return new ProjectFileWatcher(project.getDirectory(), new Consumer<>() {
+                /**
+                 * Latest {@link DartProject} which parsed in watcher's thread.
+                 */
+                private DartProject latest = project;
+
+                @Override
+                public void accept(Set<ProjectFile> changedFiles) {
+                    ProjectFingerprint fingerprint;
+                    try {
+                        // Hash before parsing that the session can store it into cache when it is demoted
+                        fingerprint = ProjectFingerprint.stat(latest.getDirectory());
+                        fingerprint.ensureHashed();
+                    } catch (IOException e) {
+                        fingerprint = null;
+                    }
+
+                    try {
+                        latest = DartProjectLoader.reloadProject(latest, changedFiles);
+                    } catch (IOException e) {
+                        // Changed files may still writing, retry when next changes come
+                        return;
+                    }
+
+                    final DartProject updated = latest;
+                    final ProjectFingerprint updatedFingerprint = fingerprint;
+                    dispatcher.dispatch("ProjectSessionController.modified", () -> {
+                        // Keep model of opened project up to date even it is not the applied one
+                        final ProjectSession session = sessionManager.get(updated.getDirectory());
+                        if (session != null) session.update(updated, updatedFingerprint);
+
+                        // Only report if this project is applied
+                        if (currentProject == null || !currentProject.getDirectory().equals(updated.getDirectory()))
+                            return;
+
+                        currentProject = updated;
+                        listener.onModified(directory, changedFiles, updated);
+                    });
+                }
+            });
+        } catch (IOException e) {
+            // Can not be watched, changes must be applied by reopening
+            return null;
+        }
+    }
+
+    /**
+     * Relay {@link DartProjectLoader}'s result from background to {@link #listener} in owner's thread.
+     * <br/>
+     * Result will be discarded if the directory is opened again or reset before it relayed.
+     */
+    private final class ProjectLoadRelay implements DartProjectLoadListener {
+        /**
+         * {@link #loadGeneration} when loading started.
+         */
+        private final long generation;
+        /**
+         * Directory that is loading.
+         */
+        private final File directory;
+
+        private ProjectLoadRelay(long generation, @Nonnull File directory) {
+            this.generation = generation;
+            this.directory = directory;
+        }
+
+        /**
+         * Run given action in owner's thread if this loading is still the latest.
+         *
+         * @param label Name of action for diagnostics.
+         * @param action Action that going to be performed.
+         */
+        private void relay(@Nonnull String label, @Nonnull Runnable action) {
+            dispatcher.dispatch(label, () -> {
+                if (generation == loadGeneration) action.run();
+            });
+        }
+
+        @Override
+        public void onProgress(@Nonnull DartProjectLoadStage stage) {
+            relay("ProjectSessionController.loading", () -> listener.onLoading(directory, stage));
+        }
+
+        @Override
+        public void onLoaded(@Nonnull DartProject project) {
+            // Register watcher in background since it may be slow on network drive
+            final ProjectFileWatcher watcher = startWatcher(project, directory);
+
+            dispatcher.dispatch("ProjectSessionController.applied", () -> {
+                if (generation != loadGeneration) {
+                    // Outdated
+                    if (watcher != null) watcher.close();
+                    return;
+                }
+
+                pendingLoad = null;
+                // Previous sessions are kept open by manager
+                currentSession = sessionManager.activate(project);
+                currentSession.setWatcher(watcher);
+                currentDirectory = directory;
+                currentProject = project;
+                listener.onApplied(directory, project);
+            });
+        }
+
+        @Override
+        public void onFailed(@Nonnull Throwable throwable) {
+            relay("ProjectSessionController.failed", () -> {
+                pendingLoad = null;
+                listener.onFailed(directory.getPath(), throwable);
+            });
+        }
+    }
+
+    /**
+     * {@link ProjectModelStore} which uses models from {@link SessionSnapshot} if the session manager does not keep
+     * the project. Model taken from snapshot is offered to the session manager that it is decoded once.
+     */
+    private final class SnapshotStore implements ProjectModelStore {
+        private final SessionSnapshot snapshot;
+
+        private SnapshotStore(@Nonnull SessionSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Nullable
+        @Override
+        public DartProject find(@Nonnull Path projectDir, @Nonnull ProjectFingerprint current) {
+            final DartProject kept = sessionManager.find(projectDir, current);
+            if (kept != null) return kept;
+
+            final DartProject restored = snapshot.find(projectDir, current);
+            if (restored != null) sessionManager.offer(restored, current);
+            return restored;
+        }
+
+        @Override
+        public void offer(@Nonnull DartProject project, @Nonnull ProjectFingerprint fingerprint) {
+            sessionManager.offer(project, fingerprint);
+        }
+    }
+
+    /**
+     * Open verified project from {@link SessionSnapshot} without applying it.
+     * <br/>
+     * Given {@link CompletableFuture} is completed once the project is opened in owner's thread or can not be loaded.
+     */
+    private final class ProjectReopenRelay implements DartProjectLoadListener {
+        private final CompletableFuture<Void> opened;
+
+        private ProjectReopenRelay(@Nonnull CompletableFuture<Void> opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        public void onProgress(@Nonnull DartProjectLoadStage stage) {}
+
+        @Override
+        public void onLoaded(@Nonnull DartProject project) {
+            final ProjectFileWatcher watcher = startWatcher(project, project.getDirectory().toFile());
+
+            dispatcher.dispatch("ProjectSessionController.reopened", () -> {
+                try {
+                    sessionManager.open(project).setWatcher(watcher);
+                } finally {
+                    opened.complete(null);
+                }
+            });
+        }
+
+        @Override
+        public void onFailed(@Nonnull Throwable throwable) {
+            // Removed since last launch, just not reopen it
+            opened.complete(null);
+        }
+    }
+
+    /**
+     * Relay result of restoring applied project to {@link ProjectLoadRelay}, which delays it until other projects are
+     * reopened and metadata of hosted packages are fetched.
+     */
+    private final class ProjectRestoreRelay implements DartProjectLoadListener {
+        private final ProjectLoadRelay relay;
+        private final CompletableFuture<Void> reopened;
+        private final PubDevMetadataFetcher fetcher;
+
+        private ProjectRestoreRelay(
+                @Nonnull ProjectLoadRelay relay,
+                @Nonnull CompletableFuture<Void> reopened,
+                @Nullable PubDevMetadataFetcher fetcher
+        ) {
+            this.relay = relay;
+            this.reopened = reopened;
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public void onProgress(@Nonnull DartProjectLoadStage stage) {
+            relay.onProgress(stage);
+        }
+
+        @Override
+        public void onLoaded(@Nonnull DartProject project) {
+            final ArrayList<String> hosted = new ArrayList<>();
+            for (ProjectDependency pd : ProjectDependency.listOf(project)) {
+                if (pd.getSource() == LockedPackage.Source.HOSTED) hosted.add(pd.getName());
+            }
+
+            // Failed packages are not matter, which keep displaying last known metadata
+            final CompletableFuture<?> fetched = fetcher == null || hosted.isEmpty()
+                    ? CompletableFuture.completedFuture(null)
+                    : fetcher.fetchAll(hosted, null);
+
+            CompletableFuture.allOf(reopened, fetched).whenComplete((v, t) -> relay.onLoaded(project));
+        }
+
+        @Override
+        public void onFailed(@Nonnull Throwable throwable) {
+            relay.relay("ProjectSessionController.restoreFailed", () -> {
+                // Restored path is no longer valid
+                if (currentProject == null) currentDirectory = null;
+            });
+            relay.onFailed(throwable);
+        }
+    }
+
+    /**
+     * Relay {@link WorkspaceScanner}'s result from background to {@link #listener} in owner's thread.
+     * <br/>
+     * Packages found by worker threads are batched that only the first one after a delivery dispatches, and others
+     * found before it runs are reported together. Result will be discarded if another directory is opened or reset
+     * before it relayed.
+     */
+    private final class WorkspaceScanRelay implements WorkspaceScanListener {
+        /**
+         * {@link #loadGeneration} when scanning started.
+         */
+        private final long generation;
+        /**
+         * Workspace root directory.
+         */
+        private final File root;
+        /**
+         * Found packages which are not reported yet.
+         */
+        private final ConcurrentLinkedQueue<WorkspacePackage> discovered = new ConcurrentLinkedQueue<>();
+        /**
+         * <code>true</code> if delivery of {@link #discovered} has been dispatched and not started yet.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private WorkspaceScanRelay(long generation, @Nonnull File root) {
+            this.generation = generation;
+            this.root = root;
+        }
+
+        @Override
+        public void onPackageFound(@Nonnull WorkspacePackage workspacePackage) {
+            discovered.add(workspacePackage);
+            if (scheduled.compareAndSet(false, true))
+                dispatcher.dispatch("ProjectSessionController.discovered", this::deliver);
+        }
+
+        private void deliver() {
+            // Reset before polling that packages found during delivery are dispatched again
+            scheduled.set(false);
+
+            final ArrayList<WorkspacePackage> batch = new ArrayList<>();
+            WorkspacePackage found;
+            while ((found = discovered.poll()) != null) batch.add(found);
+
+            if (generation == loadGeneration && !batch.isEmpty()) listener.onDiscovered(root, batch, null);
+        }
+
+        @Override
+        public void onCompleted(@Nonnull WorkspaceIndex index) {
+            // Dispatched after all batches of found packages
+            dispatcher.dispatch("ProjectSessionController.scanned", () -> {
+                if (generation != loadGeneration) return;
+
+                pendingScan = null;
+                releaseSession();
+                currentDirectory = root;
+                currentProject = null;
+                currentWorkspace = index;
+                listener.onDiscovered(root, List.of(), index);
+            });
+        }
+    }
+}
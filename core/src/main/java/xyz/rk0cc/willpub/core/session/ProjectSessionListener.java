@@ -0,0 +1,98 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Receive changes of directory which applied by {@link ProjectSessionController}.
+ * <br/>
+ * All methods are called in owner's thread of the controller (e.g. JavaFX application thread), either directly by
+ * the controller's method or by its {@link ProjectSessionController.Dispatcher}. Results of outdated loading are
+ * never delivered.
+ * <br/>
+ * By default, every method does nothing.
+ *
+ * @since 1.0.0
+ */
+public interface ProjectSessionListener {
+    /**
+     * Called when loading of a directory reached new stage.
+     *
+     * @param directory Directory which is loading.
+     * @param stage Current {@link DartProjectLoadStage}.
+     */
+    default void onLoading(@Nonnull File directory, @Nonnull DartProjectLoadStage stage) {}
+
+    /**
+     * Called when applied project of last launch is decoded from {@link SessionSnapshot}, before it is verified.
+     *
+     * @param directory Restored directory.
+     * @param project {@link DartProject} decoded from snapshot.
+     * @param packages Last known metadata of packages of the project.
+     * @param uiStates State of UI when the snapshot written.
+     */
+    default void onRestored(
+            @Nonnull File directory,
+            @Nonnull DartProject project,
+            @Nonnull List<SessionSnapshot.PackageStatus> packages,
+            @Nonnull Map<String, String> uiStates
+    ) {}
+
+    /**
+     * Called when a directory is loaded and applied.
+     *
+     * @param directory Applied directory.
+     * @param project Loaded {@link DartProject}.
+     */
+    default void onApplied(@Nonnull File directory, @Nonnull DartProject project) {}
+
+    /**
+     * Called when files of applied project are changed and parsed again.
+     *
+     * @param directory Applied directory.
+     * @param changedFiles Changed files.
+     * @param project Updated {@link DartProject}.
+     */
+    default void onModified(
+            @Nonnull File directory,
+            @Nonnull Set<ProjectFile> changedFiles,
+            @Nonnull DartProject project
+    ) {}
+
+    /**
+     * Called with packages found under workspace root since last call, and once with complete {@link WorkspaceIndex}
+     * when scanning finished.
+     *
+     * @param root Root directory of workspace.
+     * @param discovered Found packages, which is empty when completed.
+     * @param index Complete {@link WorkspaceIndex}, or <code>null</code> if scanning is not finished.
+     */
+    default void onDiscovered(
+            @Nonnull File root,
+            @Nonnull List<WorkspacePackage> discovered,
+            @Nullable WorkspaceIndex index
+    ) {}
+
+    /**
+     * Called when a directory can not be loaded or scanned.
+     *
+     * @param path Path of the directory.
+     * @param throwable Cause of failure, or <code>null</code> if the path is not a directory.
+     */
+    default void onFailed(@Nonnull String path, @Nullable Throwable throwable) {}
+
+    /**
+     * Called when no directory applied after resetting, or after restoring a session which has no applied project.
+     */
+    default void onReset() {}
+}
@@ -0,0 +1,455 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.graph.PackageManifestCache;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFingerprint;
+import xyz.rk0cc.willpub.core.project.ProjectModelCache;
+import xyz.rk0cc.willpub.core.project.ProjectModelStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Manage {@link ProjectSession} of every opened project under a memory budget.
+ * <br/>
+ * Applying a project {@linkplain #activate(DartProject) activates} its session, and the previous active sessions are
+ * kept open up to {@linkplain #getMaxOpenSessions() maximum}, which the least recently applied one is deactivated
+ * when exceeded. Deactivating releases watcher and executor but keeps the model. When estimated bytes of held models
+ * exceeded budget, the least recently used inactive sessions are demoted to {@link ProjectSession.State#SOFT}. Sessions
+ * beyond {@linkplain #getMaxSessions() maximum} drop the model to {@link ProjectSession.State#SERIALIZED}, which is
+ * restored from {@link ProjectModelCache} when it is reopened. Therefore, heap used by sessions is bounded regardless
+ * how many projects opened.
+ * <br/>
+ * It implements {@link ProjectModelStore} that passing it to {@link DartProjectLoader} reuses kept model when
+ * reopening unchanged project.
+ * <br/>
+ * Closing watchers and executors of deactivated sessions, and storing demoted models into {@link ProjectModelCache}
+ * are done in an I/O thread of this manager. Callers only see the change of state, that it is safe to deactivate or
+ * update sessions in UI thread.
+ *
+ * @since 1.0.0
+ */
+public final class ProjectSessionManager implements ProjectModelStore, AutoCloseable {
+    /**
+     * System property of memory budget in megabytes.
+     */
+    public static final String BUDGET_PROPERTY = "willpub.session.budget";
+
+    /**
+     * Default memory budget which uses when {@value #BUDGET_PROPERTY} is not specified.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 128L * 1024L * 1024L;
+
+    /**
+     * Default maximum sessions which hold model.
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 16;
+
+    /**
+     * Default maximum sessions which are active in the same time.
+     */
+    public static final int DEFAULT_MAX_OPEN_SESSIONS = 8;
+
+    /**
+     * Maximum threads of executor of each session, which a running pub command takes two of them for draining output.
+     */
+    private static final int THREADS_PER_SESSION = 4;
+
+    private final long memoryBudget;
+    private final int maxSessions;
+    private final int maxOpenSessions;
+    private final ProjectModelCache cache;
+    private final PackageManifestCache manifests;
+
+    /**
+     * Single thread which releases resources of deactivated sessions and trims, which runs them in submitted order.
+     */
+    private final ExecutorService ioExecutor = WillPubExecutors.newBoundedExecutor("willpub-session-io", 1);
+    /**
+     * <code>true</code> if trimming has been submitted and not started yet.
+     */
+    private final AtomicBoolean trimScheduled = new AtomicBoolean(false);
+
+    private final HashMap<Path, ProjectSession> sessions = new HashMap<>();
+    /**
+     * Active sessions from the least recently applied one.
+     */
+    private final LinkedHashSet<ProjectSession> openSessions = new LinkedHashSet<>();
+    /**
+     * The latest applied session.
+     */
+    private ProjectSession active = null;
+
+    /**
+     * Create manager with given budget and caches.
+     *
+     * @param memoryBudget Maximum estimated bytes of models held by inactive sessions and active one.
+     * @param maxSessions Maximum sessions which hold model strongly or softly.
+     * @param maxOpenSessions Maximum sessions which are active in the same time.
+     * @param cache {@link ProjectModelCache} which restores dropped model, or <code>null</code> if parse again.
+     * @param manifests Cache of packages' dependencies for building graph, which can be shared with others.
+     */
+    public ProjectSessionManager(
+            long memoryBudget,
+            int maxSessions,
+            int maxOpenSessions,
+            @Nullable ProjectModelCache cache,
+            @Nonnull PackageManifestCache manifests
+    ) {
+        if (memoryBudget < 0L) throw new IllegalArgumentException("Memory budget must not be negative");
+        if (maxSessions < 1) throw new IllegalArgumentException("Maximum sessions must be positive");
+        if (maxOpenSessions < 1) throw new IllegalArgumentException("Maximum open sessions must be positive");
+
+        this.memoryBudget = memoryBudget;
+        this.maxSessions = maxSessions;
+        this.maxOpenSessions = maxOpenSessions;
+        this.cache = cache;
+        this.manifests = Objects.requireNonNull(manifests);
+    }
+
+    /**
+     * Create manager with given budget.
+     *
+     * @param memoryBudget Maximum estimated bytes of models.
+     * @param cache {@link ProjectModelCache} which restores dropped model, or <code>null</code> if parse again.
+     */
+    public ProjectSessionManager(long memoryBudget, @Nullable ProjectModelCache cache) {
+        this(memoryBudget, DEFAULT_MAX_SESSIONS, DEFAULT_MAX_OPEN_SESSIONS, cache, new PackageManifestCache());
+    }
+
+    /**
+     * Create manager with {@linkplain #getDefaultMemoryBudget() default budget} which uses caches of
+     * {@link SharedProjectServices}.
+     *
+     * @param services Caches shared by all projects.
+     */
+    public ProjectSessionManager(@Nonnull SharedProjectServices services) {
+        this(
+                getDefaultMemoryBudget(),
+                DEFAULT_MAX_SESSIONS,
+                DEFAULT_MAX_OPEN_SESSIONS,
+                services.getModelCache(),
+                services.getManifests()
+        );
+    }
+
+    /**
+     * Create manager with {@linkplain #getDefaultMemoryBudget() default budget}.
+     *
+     * @param cache {@link ProjectModelCache} which restores dropped model, or <code>null</code> if parse again.
+     */
+    public ProjectSessionManager(@Nullable ProjectModelCache cache) {
+        this(getDefaultMemoryBudget(), cache);
+    }
+
+    /**
+     * Get memory budget from {@value #BUDGET_PROPERTY}.
+     *
+     * @return Budget in bytes, or {@link #DEFAULT_MEMORY_BUDGET} if not specified.
+     */
+    public static long getDefaultMemoryBudget() {
+        final Long mb = Long.getLong(BUDGET_PROPERTY);
+        return mb == null || mb < 0L ? DEFAULT_MEMORY_BUDGET : mb * 1024L * 1024L;
+    }
+
+    @Nonnull
+    static Path keyOf(@Nonnull Path projectDir) {
+        return projectDir.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Get memory budget.
+     *
+     * @return Maximum estimated bytes of held models.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Get maximum sessions which hold model.
+     *
+     * @return Maximum sessions.
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Get maximum sessions which are active in the same time.
+     *
+     * @return Maximum open sessions.
+     */
+    public int getMaxOpenSessions() {
+        return maxOpenSessions;
+    }
+
+    /**
+     * Get cache which restores dropped model.
+     *
+     * @return {@link ProjectModelCache}, or <code>null</code> if not used.
+     */
+    @Nullable
+    public ProjectModelCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Get cache of packages' dependencies which shared by all sessions.
+     *
+     * @return {@link PackageManifestCache}.
+     */
+    @Nonnull
+    public PackageManifestCache getManifests() {
+        return manifests;
+    }
+
+    int getThreadsPerSession() {
+        return THREADS_PER_SESSION;
+    }
+
+    /**
+     * Activate session of applied project, which is created if absent. Other active sessions are kept open, but the
+     * least recently applied ones will be deactivated if exceeded {@linkplain #getMaxOpenSessions() maximum}.
+     *
+     * @param project Applied {@link DartProject}.
+     *
+     * @return Active {@link ProjectSession} of the project.
+     */
+    @Nonnull
+    public ProjectSession activate(@Nonnull DartProject project) {
+        return activate(project, true);
+    }
+
+    /**
+     * Activate session of a project without applying it, e.g. restoring projects opened in previous launch. It is
+     * the same as {@link #activate(DartProject)} except {@link #getActive()} is unchanged.
+     *
+     * @param project Opened {@link DartProject}.
+     *
+     * @return Active {@link ProjectSession} of the project.
+     */
+    @Nonnull
+    public ProjectSession open(@Nonnull DartProject project) {
+        return activate(project, false);
+    }
+
+    @Nonnull
+    private ProjectSession activate(@Nonnull DartProject project, boolean apply) {
+        final ProjectSession session;
+        final ArrayList<Runnable> releases = new ArrayList<>();
+        synchronized (this) {
+            session = sessions.computeIfAbsent(
+                    keyOf(project.getDirectory()),
+                    k -> new ProjectSession(this, project, null)
+            );
+            session.activate(project);
+            if (apply) active = session;
+
+            // Move to the most recent one
+            openSessions.remove(session);
+            openSessions.add(session);
+            final Iterator<ProjectSession> it = openSessions.iterator();
+            while (openSessions.size() > maxOpenSessions && it.hasNext()) {
+                final ProjectSession eldest = it.next();
+                // Applied one is kept even it is not the most recent
+                if (eldest == active) continue;
+
+                it.remove();
+                final Runnable release = eldest.detach();
+                if (release != null) releases.add(release);
+            }
+        }
+
+        release(releases);
+        trim();
+
+        return session;
+    }
+
+    /**
+     * Deactivate given session, which releases watcher and executor but keeps the model.
+     * <br/>
+     * The session is {@link ProjectSession.State#INACTIVE} when it returns, and its resources are released in
+     * background.
+     *
+     * @param session Session which no longer applied.
+     */
+    public void deactivate(@Nonnull ProjectSession session) {
+        final Runnable release;
+        synchronized (this) {
+            openSessions.remove(session);
+            if (active == session) active = null;
+            release = session.detach();
+        }
+
+        if (release != null) release(List.of(release));
+        trim();
+    }
+
+    /**
+     * Close resources taken from deactivated sessions in {@link #ioExecutor}, since closing watcher may wait its
+     * thread.
+     */
+    private void release(@Nonnull List<Runnable> releases) {
+        if (releases.isEmpty()) return;
+
+        runInBackground(() -> {
+            for (Runnable r : releases) r.run();
+        });
+    }
+
+    /**
+     * Run task in {@link #ioExecutor}, or in caller's thread if this manager has been closed.
+     */
+    private void runInBackground(@Nonnull Runnable task) {
+        try {
+            ioExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Get session of the latest applied project.
+     *
+     * @return The latest active {@link ProjectSession}, or <code>null</code> if it has been deactivated.
+     */
+    @Nullable
+    public synchronized ProjectSession getActive() {
+        return active;
+    }
+
+    /**
+     * Get all active sessions.
+     *
+     * @return Copy of active sessions from the least recently applied one.
+     */
+    @Nonnull
+    public synchronized List<ProjectSession> getOpenSessions() {
+        return List.copyOf(openSessions);
+    }
+
+    /**
+     * Get session of given directory.
+     *
+     * @param projectDir Project directory.
+     *
+     * @return {@link ProjectSession} of the directory, or <code>null</code> if never opened or closed.
+     */
+    @Nullable
+    public synchronized ProjectSession get(@Nonnull Path projectDir) {
+        return sessions.get(keyOf(projectDir));
+    }
+
+    /**
+     * Get all sessions from the least recently used one.
+     *
+     * @return Copy of sessions.
+     */
+    @Nonnull
+    public List<ProjectSession> getSessions() {
+        final ArrayList<ProjectSession> copy;
+        synchronized (this) {
+            copy = new ArrayList<>(sessions.values());
+        }
+        copy.sort(Comparator.comparingLong(ProjectSession::getLastUsedNanos));
+
+        return copy;
+    }
+
+    /**
+     * Get estimated bytes of all strongly held models.
+     *
+     * @return Sum of {@link ProjectSession#getEstimatedBytes()}.
+     */
+    public long getRetainedBytes() {
+        long retained = 0L;
+        for (ProjectSession s : getSessions()) retained += s.getEstimatedBytes();
+        return retained;
+    }
+
+    @Nullable
+    @Override
+    public DartProject find(@Nonnull Path projectDir, @Nonnull ProjectFingerprint current) {
+        final ProjectSession session = get(projectDir);
+        return session == null ? null : session.find(current);
+    }
+
+    @Override
+    public void offer(@Nonnull DartProject project, @Nonnull ProjectFingerprint fingerprint) {
+        synchronized (this) {
+            final Path key = keyOf(project.getDirectory());
+            final ProjectSession session = sessions.get(key);
+            if (session == null) sessions.put(key, new ProjectSession(this, project, fingerprint));
+            else session.offer(project, fingerprint);
+        }
+        trim();
+    }
+
+    /**
+     * Demote the least recently used inactive sessions until held models are under budget, and drop models of
+     * sessions beyond maximum.
+     * <br/>
+     * It is done in {@link #ioExecutor} since demoting may write model into {@link ProjectModelCache}, and multiple
+     * calls before it started are merged into once.
+     */
+    void trim() {
+        if (trimScheduled.compareAndSet(false, true)) runInBackground(() -> {
+            // Reset before trimming that changes during trimming are trimmed again
+            trimScheduled.set(false);
+            trimNow();
+        });
+    }
+
+    private void trimNow() {
+        final List<ProjectSession> lru = getSessions();
+
+        long retained = 0L;
+        for (ProjectSession s : lru) retained += s.getEstimatedBytes();
+        for (ProjectSession s : lru) {
+            if (retained <= memoryBudget) break;
+            retained -= s.soften();
+        }
+
+        int held = 0;
+        for (int i = lru.size() - 1; i >= 0; i--) {
+            final ProjectSession s = lru.get(i);
+            final ProjectSession.State state = s.getState();
+            if (state == ProjectSession.State.SERIALIZED || state == ProjectSession.State.CLOSED) continue;
+
+            if (++held > maxSessions) s.serialize();
+        }
+    }
+
+    /**
+     * Remove closed session.
+     */
+    synchronized void remove(@Nonnull ProjectSession session) {
+        sessions.remove(session.getDirectory(), session);
+        openSessions.remove(session);
+        if (active == session) active = null;
+    }
+
+    /**
+     * Close all sessions. Resources of sessions deactivated before are still released in background.
+     */
+    @Override
+    public void close() {
+        for (ProjectSession s : getSessions()) s.close();
+        ioExecutor.shutdown();
+    }
+}
@@ -0,0 +1,631 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.WillPubDirectories;
+import xyz.rk0cc.willpub.core.io.CacheFiles;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectBinaryCodec;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFingerprint;
+import xyz.rk0cc.willpub.core.project.ProjectModelStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compact binary snapshot of opened projects in the last launch, which is a file written when exiting.
+ * <br/>
+ * It contains directories of opened projects with their parsed models, last known metadata of packages and state of
+ * UI. Reading a snapshot only decodes directories, and a model is decoded when it is requested. Therefore, previous
+ * session can be displayed immediately when launching before any project file is read.
+ * <br/>
+ * The file is copied into heap when reading instead of memory-mapped. On Windows, a mapped file can not be replaced
+ * until the mapping is garbage collected, which fails writing snapshot when exiting.
+ * <br/>
+ * Models in snapshot may be outdated. It implements {@link ProjectModelStore} that passing it to
+ * {@link DartProjectLoader} uses model from snapshot only if the files are still matched with fingerprint stored with
+ * it, and parse the project again otherwise.
+ * <br/>
+ * Layout of snapshot file in big endian:
+ * <ol>
+ *     <li>Header: magic, format version, index of applied project, counts of projects, packages and UI states, and
+ *     created time.</li>
+ *     <li>Projects: directory, offset and length of model, first package and number of packages.</li>
+ *     <li>Packages: name, latest version and flags.</li>
+ *     <li>UI states: key and value.</li>
+ *     <li>Models: {@link ProjectFingerprint} and {@link DartProjectBinaryCodec encoded} model.</li>
+ *     <li>Strings: length prefixed UTF-8 which referred by offset.</li>
+ * </ol>
+ *
+ * @since 1.0.0
+ */
+public final class SessionSnapshot implements ProjectModelStore {
+    private static final int MAGIC = 0x57505353;
+    private static final short FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int PROJECT_SIZE = 20;
+    private static final int PACKAGE_SIZE = 12;
+    private static final int UI_STATE_SIZE = 8;
+
+    /**
+     * Offset which refers nothing.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Flag of discontinued package.
+     */
+    private static final int F_DISCONTINUED = 1;
+
+    // Offset in header
+    private static final int H_MAGIC = 0, H_VERSION = 4, H_APPLIED = 8, H_PROJECTS = 12, H_PACKAGES = 16,
+            H_UI_STATES = 20, H_CREATED = 24;
+
+    // Offset in project
+    private static final int P_DIR = 0, P_MODEL = 4, P_MODEL_LENGTH = 8, P_PACKAGE_START = 12, P_PACKAGE_COUNT = 16;
+
+    // Offset in package
+    private static final int K_NAME = 0, K_LATEST = 4, K_FLAGS = 8;
+
+    private final ByteBuffer buffer;
+    private final int appliedIndex;
+    private final int packagesOffset;
+    private final int uiStatesOffset;
+    private final int uiStateCount;
+    private final List<Path> directories;
+
+    /**
+     * Read header and validate tables of projects, packages and UI states, which every offset and length refers to
+     * the buffer. Strings are validated when they are read.
+     */
+    private SessionSnapshot(@Nonnull ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        try {
+            if (buffer.getInt(H_MAGIC) != MAGIC || buffer.getShort(H_VERSION) != FORMAT_VERSION)
+                throw new IOException("Not a session snapshot or unsupported format");
+
+            this.appliedIndex = buffer.getInt(H_APPLIED);
+            final int projectCount = buffer.getInt(H_PROJECTS);
+            final int packageCount = buffer.getInt(H_PACKAGES);
+            this.uiStateCount = buffer.getInt(H_UI_STATES);
+            if (projectCount < 0 || packageCount < 0 || uiStateCount < 0 || appliedIndex < NONE
+                    || appliedIndex >= projectCount)
+                throw corrupted(null);
+
+            // Counts are not trusted yet, which may overflow int
+            final long tablesEnd = HEADER_SIZE + (long) projectCount * PROJECT_SIZE
+                    + (long) packageCount * PACKAGE_SIZE + (long) uiStateCount * UI_STATE_SIZE;
+            if (tablesEnd > buffer.limit()) throw new IOException("Truncated session snapshot");
+
+            this.packagesOffset = HEADER_SIZE + projectCount * PROJECT_SIZE;
+            this.uiStatesOffset = packagesOffset + packageCount * PACKAGE_SIZE;
+
+            final Path[] d = new Path[projectCount];
+            for (int i = 0; i < projectCount; i++) {
+                final int base = projectBase(i);
+                checkRange(buffer.getInt(base + P_MODEL), buffer.getInt(base + P_MODEL_LENGTH), buffer.limit());
+                checkRange(buffer.getInt(base + P_PACKAGE_START), buffer.getInt(base + P_PACKAGE_COUNT), packageCount);
+
+                d[i] = Path.of(string(buffer.getInt(base + P_DIR)));
+            }
+            this.directories = List.of(d);
+        } catch (RuntimeException e) {
+            throw corrupted(e);
+        }
+    }
+
+    /**
+     * Get location of snapshot in {@linkplain WillPubDirectories#cacheDirectory() Will Pub's cache directory}.
+     *
+     * @return {@link Path} of snapshot file, which may not exist.
+     *
+     * @throws IOException If unable to create directory.
+     */
+    @Nonnull
+    public static Path defaultFile() throws IOException {
+        return WillPubDirectories.createCacheSubdirectory("session").resolve("last-session.bin");
+    }
+
+    /**
+     * Read a snapshot file into memory. The file is closed when returned that it can be replaced by
+     * {@link #write(Path, List, Path, Map)} in the same launch.
+     *
+     * @param snapshotFile Snapshot file which {@linkplain #write(Path, List, Path, Map) written} before.
+     *
+     * @return {@link SessionSnapshot} of the file.
+     *
+     * @throws IOException If unable to read or the file is not a valid snapshot.
+     */
+    @Nonnull
+    public static SessionSnapshot read(@Nonnull Path snapshotFile) throws IOException {
+        final long size = Files.size(snapshotFile);
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) throw new IOException("Invalid size of session snapshot");
+
+        return new SessionSnapshot(ByteBuffer.wrap(Files.readAllBytes(snapshotFile)).asReadOnlyBuffer());
+    }
+
+    /**
+     * Write snapshot file, which replaces the existed one atomically.
+     * <br/>
+     * Fingerprints which are not hashed yet will be hashed that it should not be called in UI thread. Fingerprint
+     * which unable to be hashed is omitted, and the model will be parsed again when restoring.
+     *
+     * @param snapshotFile Destination of snapshot.
+     * @param projects Opened projects.
+     * @param appliedDir Directory of applied project, or <code>null</code> if no project applied.
+     * @param uiStates State of UI which will be restored.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void write(
+            @Nonnull Path snapshotFile,
+            @Nonnull List<ProjectState> projects,
+            @Nullable Path appliedDir,
+            @Nonnull Map<String, String> uiStates
+    ) throws IOException {
+        final byte[] encoded = encode(projects, appliedDir, uiStates, System.currentTimeMillis());
+        CacheFiles.writeAtomically(snapshotFile, out -> out.write(encoded));
+    }
+
+    /**
+     * Encode snapshot.
+     */
+    @Nonnull
+    static byte[] encode(
+            @Nonnull List<ProjectState> projects,
+            @Nullable Path appliedDir,
+            @Nonnull Map<String, String> uiStates,
+            long created
+    ) throws IOException {
+        // Models are encoded first for knowing their length
+        final ByteArrayOutputStream models = new ByteArrayOutputStream();
+        final int[] modelBounds = new int[projects.size() + 1];
+        final Path appliedKey = appliedDir == null ? null : ProjectSessionManager.keyOf(appliedDir);
+        int applied = NONE, packageCount = 0;
+        for (int i = 0; i < projects.size(); i++) {
+            final ProjectState ps = projects.get(i);
+            final DataOutputStream out = new DataOutputStream(models);
+
+            final ProjectFingerprint fingerprint = ps.getFingerprint();
+            boolean hashed = false;
+            if (fingerprint != null) {
+                try {
+                    fingerprint.ensureHashed();
+                    hashed = true;
+                } catch (IOException e) {
+                    // Files are removed or not readable, verify by parsing again when restoring
+                }
+            }
+            out.writeBoolean(hashed);
+            if (hashed) fingerprint.write(out);
+            DartProjectBinaryCodec.write(out, ps.getProject());
+            out.flush();
+
+            modelBounds[i + 1] = models.size();
+            packageCount += ps.getPackages().size();
+            if (ps.getDirectory().equals(appliedKey)) applied = i;
+        }
+
+        final int packagesOffset = HEADER_SIZE + projects.size() * PROJECT_SIZE;
+        final int uiStatesOffset = packagesOffset + packageCount * PACKAGE_SIZE;
+        final int modelsOffset = uiStatesOffset + uiStates.size() * UI_STATE_SIZE;
+
+        // Strings are deduplicated, which names of common packages are stored once
+        final LinkedHashMap<String, Integer> strings = new LinkedHashMap<>();
+        final int[] cursor = {modelsOffset + models.size()};
+        final ToIntFunction<String> ref = s -> strings.computeIfAbsent(s, k -> {
+            final int offset = cursor[0];
+            cursor[0] += Integer.BYTES + k.getBytes(StandardCharsets.UTF_8).length;
+            return offset;
+        });
+
+        final int[] dirRefs = projects.stream().mapToInt(ps -> ref.applyAsInt(ps.getDirectory().toString())).toArray();
+        final int[] packageRefs = new int[packageCount * 2];
+        int p = 0;
+        for (ProjectState ps : projects) {
+            for (PackageStatus status : ps.getPackages()) {
+                packageRefs[p++] = ref.applyAsInt(status.getName());
+                packageRefs[p++] = status.getLatestVersion() == null
+                        ? NONE
+                        : ref.applyAsInt(status.getLatestVersion());
+            }
+        }
+        final int[] uiStateRefs = new int[uiStates.size() * 2];
+        int u = 0;
+        for (Map.Entry<String, String> e : uiStates.entrySet()) {
+            uiStateRefs[u++] = ref.applyAsInt(e.getKey());
+            uiStateRefs[u++] = ref.applyAsInt(e.getValue());
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate(cursor[0]);
+        out.putInt(H_MAGIC, MAGIC)
+                .putShort(H_VERSION, FORMAT_VERSION)
+                .putInt(H_APPLIED, applied)
+                .putInt(H_PROJECTS, projects.size())
+                .putInt(H_PACKAGES, packageCount)
+                .putInt(H_UI_STATES, uiStates.size())
+                .putLong(H_CREATED, created);
+
+        int nextPackage = 0;
+        for (int i = 0; i < projects.size(); i++) {
+            final ProjectState ps = projects.get(i);
+            final int base = HEADER_SIZE + i * PROJECT_SIZE;
+            out.putInt(base + P_DIR, dirRefs[i])
+                    .putInt(base + P_MODEL, modelsOffset + modelBounds[i])
+                    .putInt(base + P_MODEL_LENGTH, modelBounds[i + 1] - modelBounds[i])
+                    .putInt(base + P_PACKAGE_START, nextPackage)
+                    .putInt(base + P_PACKAGE_COUNT, ps.getPackages().size());
+
+            for (PackageStatus status : ps.getPackages()) {
+                final int packageBase = packagesOffset + nextPackage * PACKAGE_SIZE;
+                out.putInt(packageBase + K_NAME, packageRefs[nextPackage * 2])
+                        .putInt(packageBase + K_LATEST, packageRefs[nextPackage * 2 + 1])
+                        .putInt(packageBase + K_FLAGS, status.isDiscontinued() ? F_DISCONTINUED : 0);
+                nextPackage++;
+            }
+        }
+
+        for (int i = 0; i < uiStates.size(); i++) {
+            out.putInt(uiStatesOffset + i * UI_STATE_SIZE, uiStateRefs[i * 2])
+                    .putInt(uiStatesOffset + i * UI_STATE_SIZE + Integer.BYTES, uiStateRefs[i * 2 + 1]);
+        }
+
+        out.put(modelsOffset, models.toByteArray());
+        strings.forEach((s, offset) -> {
+            final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            out.putInt(offset, b.length).put(offset + Integer.BYTES, b);
+        });
+
+        return out.array();
+    }
+
+    private static int projectBase(int index) {
+        return HEADER_SIZE + index * PROJECT_SIZE;
+    }
+
+    @Nonnull
+    private static IOException corrupted(@Nullable Throwable cause) {
+        return new IOException("Corrupted session snapshot", cause);
+    }
+
+    /**
+     * Ensure a range which read from snapshot is inside <code>[0, bound)</code>.
+     *
+     * @throws IOException If the range is out of bound.
+     */
+    private static void checkRange(int start, int length, int bound) throws IOException {
+        if (start < 0 || length < 0 || length > bound - start) throw corrupted(null);
+    }
+
+    /**
+     * Read a length prefixed string.
+     *
+     * @throws IOException If offset or length is out of the buffer.
+     */
+    @Nonnull
+    private String string(int offset) throws IOException {
+        checkRange(offset, Integer.BYTES, buffer.limit());
+        final int length = buffer.getInt(offset);
+        checkRange(offset + Integer.BYTES, length, buffer.limit());
+
+        final byte[] b = new byte[length];
+        buffer.get(offset + Integer.BYTES, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open model of a project as stream, which reads the buffer directly without copying. Range of the model is
+     * validated already when constructing.
+     */
+    @Nonnull
+    private DataInputStream openModel(int index) {
+        final int base = projectBase(index);
+        final ByteBuffer model = buffer.slice(buffer.getInt(base + P_MODEL), buffer.getInt(base + P_MODEL_LENGTH));
+
+        return new DataInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return model.hasRemaining() ? Byte.toUnsignedInt(model.get()) : -1;
+            }
+
+            @Override
+            public int read(@Nonnull byte[] b, int off, int len) {
+                if (len == 0) return 0;
+                if (!model.hasRemaining()) return -1;
+
+                final int n = Math.min(len, model.remaining());
+                model.get(b, off, n);
+                return n;
+            }
+        });
+    }
+
+    /**
+     * Get time of writing this snapshot.
+     *
+     * @return {@link Instant} of writing.
+     */
+    @Nonnull
+    public Instant getCreatedTime() {
+        return Instant.ofEpochMilli(buffer.getLong(H_CREATED));
+    }
+
+    /**
+     * Get directories of opened projects.
+     *
+     * @return Unmodifiable {@link List} of normalized absolute paths in written order.
+     */
+    @Nonnull
+    public List<Path> getProjectDirectories() {
+        return directories;
+    }
+
+    /**
+     * Find index of a project.
+     *
+     * @param projectDir Project directory.
+     *
+     * @return Index in {@link #getProjectDirectories()}, or <code>-1</code> if not in this snapshot.
+     */
+    public int indexOf(@Nonnull Path projectDir) {
+        return directories.indexOf(ProjectSessionManager.keyOf(projectDir));
+    }
+
+    /**
+     * Get index of applied project.
+     *
+     * @return Index in {@link #getProjectDirectories()}, or <code>-1</code> if no project applied.
+     */
+    public int getAppliedIndex() {
+        return appliedIndex;
+    }
+
+    /**
+     * Decode fingerprint of project files when this snapshot written.
+     *
+     * @param index Index of project.
+     *
+     * @return Stored {@link ProjectFingerprint}, or <code>null</code> if omitted.
+     *
+     * @throws IOException If the snapshot is corrupted.
+     * @throws IndexOutOfBoundsException If index is out of range.
+     */
+    @Nullable
+    public ProjectFingerprint readFingerprint(int index) throws IOException {
+        Objects.checkIndex(index, directories.size());
+
+        try (DataInputStream in = openModel(index)) {
+            return in.readBoolean() ? ProjectFingerprint.read(in) : null;
+        } catch (RuntimeException e) {
+            // Decoders are not expecting garbage, which may throw any unchecked exception
+            throw corrupted(e);
+        }
+    }
+
+    /**
+     * Decode model of a project. The model is not cached that each call decodes again.
+     *
+     * @param index Index of project.
+     *
+     * @return Stored {@link DartProject}, which may be outdated.
+     *
+     * @throws IOException If the snapshot is corrupted.
+     * @throws IndexOutOfBoundsException If index is out of range.
+     */
+    @Nonnull
+    public DartProject readProject(int index) throws IOException {
+        Objects.checkIndex(index, directories.size());
+
+        try (DataInputStream in = openModel(index)) {
+            if (in.readBoolean()) ProjectFingerprint.read(in);
+            return DartProjectBinaryCodec.read(in, directories.get(index));
+        } catch (RuntimeException e) {
+            throw corrupted(e);
+        }
+    }
+
+    /**
+     * Get last known metadata of packages in a project.
+     *
+     * @param index Index of project.
+     *
+     * @return Unmodifiable {@link List} of {@link PackageStatus}.
+     *
+     * @throws IOException If the snapshot is corrupted.
+     * @throws IndexOutOfBoundsException If index is out of range.
+     */
+    @Nonnull
+    public List<PackageStatus> getPackageStatuses(int index) throws IOException {
+        final int base = projectBase(Objects.checkIndex(index, directories.size()));
+        final int start = buffer.getInt(base + P_PACKAGE_START);
+        final int count = buffer.getInt(base + P_PACKAGE_COUNT);
+
+        final PackageStatus[] statuses = new PackageStatus[count];
+        for (int i = 0; i < count; i++) {
+            final int packageBase = packagesOffset + (start + i) * PACKAGE_SIZE;
+            final int latest = buffer.getInt(packageBase + K_LATEST);
+            statuses[i] = new PackageStatus(
+                    string(buffer.getInt(packageBase + K_NAME)),
+                    latest == NONE ? null : string(latest),
+                    (buffer.getInt(packageBase + K_FLAGS) & F_DISCONTINUED) != 0
+            );
+        }
+
+        return List.of(statuses);
+    }
+
+    /**
+     * Get state of UI.
+     *
+     * @return Unmodifiable {@link Map} of UI states in written order.
+     *
+     * @throws IOException If the snapshot is corrupted.
+     */
+    @Nonnull
+    public Map<String, String> getUiStates() throws IOException {
+        final LinkedHashMap<String, String> states = new LinkedHashMap<>();
+        for (int i = 0; i < uiStateCount; i++) {
+            final int base = uiStatesOffset + i * UI_STATE_SIZE;
+            states.put(string(buffer.getInt(base)), string(buffer.getInt(base + Integer.BYTES)));
+        }
+
+        return Collections.unmodifiableMap(states);
+    }
+
+    /**
+     * Decode model of the project if files are unchanged since this snapshot written, which either size and modified
+     * time or content hash are matched.
+     *
+     * @param projectDir Project directory.
+     * @param current {@link ProjectFingerprint} of project files currently.
+     *
+     * @return Stored {@link DartProject}, or <code>null</code> if absent, outdated or corrupted.
+     */
+    @Nullable
+    @Override
+    public DartProject find(@Nonnull Path projectDir, @Nonnull ProjectFingerprint current) {
+        final int index = indexOf(projectDir);
+        if (index < 0) return null;
+
+        try {
+            final ProjectFingerprint stored = readFingerprint(index);
+            if (stored == null || !(current.isMetadataMatched(stored) || current.isContentMatched(stored)))
+                return null;
+
+            return readProject(index);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot is read only that offered project is ignored.
+     */
+    @Override
+    public void offer(@Nonnull DartProject project, @Nonnull ProjectFingerprint fingerprint) {}
+
+    @Override
+    public String toString() {
+        return "SessionSnapshot{projects=" + directories.size() + ", applied=" + appliedIndex + ", created="
+                + getCreatedTime() + "}";
+    }
+
+    /**
+     * An opened project which will be written into snapshot.
+     *
+     * @since 1.0.0
+     */
+    public static final class ProjectState {
+        private final DartProject project;
+        private final ProjectFingerprint fingerprint;
+        private final List<PackageStatus> packages;
+
+        /**
+         * Create state of an opened project.
+         *
+         * @param project Parsed {@link DartProject}.
+         * @param fingerprint {@link ProjectFingerprint} which taken before parsing, or <code>null</code> if unknown.
+         * @param packages Last known metadata of packages.
+         */
+        public ProjectState(
+                @Nonnull DartProject project,
+                @Nullable ProjectFingerprint fingerprint,
+                @Nonnull Collection<PackageStatus> packages
+        ) {
+            this.project = Objects.requireNonNull(project);
+            this.fingerprint = fingerprint;
+            this.packages = List.copyOf(packages);
+        }
+
+        /**
+         * Create state of an opened project from its {@link ProjectSession}.
+         *
+         * @param session Session of opened project.
+         * @param packages Last known metadata of packages.
+         *
+         * @return {@link ProjectState} of the session, or <code>null</code> if the model is no longer in heap.
+         */
+        @Nullable
+        public static ProjectState of(@Nonnull ProjectSession session, @Nonnull Collection<PackageStatus> packages) {
+            final DartProject project = session.getProject();
+            return project == null ? null : new ProjectState(project, session.getFingerprint(), packages);
+        }
+
+        @Nonnull
+        Path getDirectory() {
+            return ProjectSessionManager.keyOf(project.getDirectory());
+        }
+
+        @Nonnull
+        public DartProject getProject() {
+            return project;
+        }
+
+        @Nullable
+        public ProjectFingerprint getFingerprint() {
+            return fingerprint;
+        }
+
+        @Nonnull
+        public List<PackageStatus> getPackages() {
+            return packages;
+        }
+    }
+
+    /**
+     * Last known metadata of a package from pub.dev.
+     *
+     * @since 1.0.0
+     */
+    public static final class PackageStatus {
+        private final String name;
+        private final String latestVersion;
+        private final boolean discontinued;
+
+        /**
+         * Create status of a package.
+         *
+         * @param name Name of package.
+         * @param latestVersion Latest version on pub.dev, or <code>null</code> if unknown.
+         * @param discontinued <code>true</code> if the package is discontinued.
+         */
+        public PackageStatus(@Nonnull String name, @Nullable String latestVersion, boolean discontinued) {
+            this.name = Objects.requireNonNull(name);
+            this.latestVersion = latestVersion;
+            this.discontinued = discontinued;
+        }
+
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        public String getLatestVersion() {
+            return latestVersion;
+        }
+
+        public boolean isDiscontinued() {
+            return discontinued;
+        }
+
+        @Override
+        public String toString() {
+            return "PackageStatus{name=" + name + ", latestVersion=" + latestVersion + ", discontinued="
+                    + discontinued + "}";
+        }
+    }
+}
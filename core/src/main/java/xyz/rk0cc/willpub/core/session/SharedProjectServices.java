@@ -0,0 +1,192 @@
+package xyz.rk0cc.willpub.core.session;
+
+import xyz.rk0cc.willpub.core.graph.PackageManifestCache;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.ProjectModelCache;
+import xyz.rk0cc.willpub.core.pubcache.PubCacheIndex;
+import xyz.rk0cc.willpub.core.pubcache.PubCacheIndexer;
+import xyz.rk0cc.willpub.core.pubdev.PubDevHttpCache;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Caches which are shared by all opened projects, that opening another project which depends on the same packages
+ * does not parse or fetch them again.
+ * <br/>
+ * It holds a {@link ProjectModelCache} for parsed projects, a {@link PackageManifestCache} for dependencies of
+ * packages, a {@link PubDevMetadataFetcher} with its {@link PubDevHttpCache} for pub.dev metadata and a
+ * {@link PubCacheIndexer} for pub cache. Package names and versions are interned by
+ * {@link xyz.rk0cc.willpub.core.intern.PackageNames} and pools which are shared in JVM already.
+ * <br/>
+ * Components which can not be opened are <code>null</code>, and features rely on them should be disabled.
+ *
+ * @since 1.0.0
+ */
+public final class SharedProjectServices implements AutoCloseable {
+    private final ProjectModelCache modelCache;
+    private final PackageManifestCache manifests;
+    private final PubDevMetadataFetcher metadataFetcher;
+    private final PubCacheIndexer pubCacheIndexer;
+
+    /**
+     * Latest {@link PubCacheIndex}, which is mapped from index file when it is requested first time.
+     */
+    private PubCacheIndex pubCacheIndex = null;
+    private boolean pubCacheIndexLoaded = false;
+
+    /**
+     * Create services with given components.
+     *
+     * @param modelCache Cache of parsed projects, or <code>null</code> if disabled.
+     * @param manifests Cache of packages' dependencies.
+     * @param metadataFetcher Fetcher of pub.dev metadata, or <code>null</code> if disabled. It will be closed with
+     *                        this services.
+     * @param pubCacheIndexer Indexer of pub cache, or <code>null</code> if disabled. It will be closed with this
+     *                        services.
+     */
+    public SharedProjectServices(
+            @Nullable ProjectModelCache modelCache,
+            @Nonnull PackageManifestCache manifests,
+            @Nullable PubDevMetadataFetcher metadataFetcher,
+            @Nullable PubCacheIndexer pubCacheIndexer
+    ) {
+        this.modelCache = modelCache;
+        this.manifests = Objects.requireNonNull(manifests);
+        this.metadataFetcher = metadataFetcher;
+        this.pubCacheIndexer = pubCacheIndexer;
+    }
+
+    /**
+     * Open all components in default locations. Component which unable to be opened will be disabled.
+     *
+     * @return Default {@link SharedProjectServices}.
+     */
+    @Nonnull
+    public static SharedProjectServices openDefault() {
+        ProjectModelCache modelCache;
+        try {
+            modelCache = ProjectModelCache.openDefault();
+        } catch (IOException e) {
+            modelCache = null;
+        }
+
+        PubDevMetadataFetcher metadataFetcher;
+        try {
+            metadataFetcher = new PubDevMetadataFetcher(PubDevHttpCache.openDefault());
+        } catch (IOException e) {
+            metadataFetcher = null;
+        }
+
+        PubCacheIndexer pubCacheIndexer;
+        try {
+            pubCacheIndexer = PubCacheIndexer.openDefault();
+        } catch (IOException e) {
+            pubCacheIndexer = null;
+        }
+
+        return new SharedProjectServices(modelCache, new PackageManifestCache(), metadataFetcher, pubCacheIndexer);
+    }
+
+    /**
+     * Get cache of parsed projects.
+     *
+     * @return {@link ProjectModelCache}, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public ProjectModelCache getModelCache() {
+        return modelCache;
+    }
+
+    /**
+     * Get cache of packages' dependencies.
+     *
+     * @return {@link PackageManifestCache}.
+     */
+    @Nonnull
+    public PackageManifestCache getManifests() {
+        return manifests;
+    }
+
+    /**
+     * Get fetcher of pub.dev metadata.
+     *
+     * @return {@link PubDevMetadataFetcher}, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public PubDevMetadataFetcher getMetadataFetcher() {
+        return metadataFetcher;
+    }
+
+    /**
+     * Get cache of pub.dev responses which uses by {@linkplain #getMetadataFetcher() fetcher}.
+     *
+     * @return {@link PubDevHttpCache}, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public PubDevHttpCache getPubDevCache() {
+        return metadataFetcher == null ? null : metadataFetcher.getCache();
+    }
+
+    /**
+     * Get indexer of pub cache.
+     *
+     * @return {@link PubCacheIndexer}, or <code>null</code> if disabled.
+     */
+    @Nullable
+    public PubCacheIndexer getPubCacheIndexer() {
+        return pubCacheIndexer;
+    }
+
+    /**
+     * Get latest index of pub cache, which is mapped from the index file of last launch if it is not refreshed yet.
+     *
+     * @return {@link PubCacheIndex}, or <code>null</code> if disabled or never indexed.
+     */
+    @Nullable
+    public synchronized PubCacheIndex getPubCacheIndex() {
+        if (!pubCacheIndexLoaded && pubCacheIndexer != null) {
+            pubCacheIndex = pubCacheIndexer.load();
+            pubCacheIndexLoaded = true;
+        }
+        return pubCacheIndex;
+    }
+
+    /**
+     * Scan pub cache again with opened projects, which unchanged packages are reused from current index.
+     * <br/>
+     * This method is blocking and should not be called in UI thread.
+     *
+     * @param projects All opened projects.
+     *
+     * @return Refreshed {@link PubCacheIndex}, or <code>null</code> if disabled.
+     *
+     * @throws IOException If unable to list pub cache.
+     * @throws InterruptedException If current thread is interrupted while scanning.
+     */
+    @Nullable
+    public PubCacheIndex refreshPubCacheIndex(@Nonnull Collection<DartProject> projects)
+            throws IOException, InterruptedException {
+        if (pubCacheIndexer == null) return null;
+
+        final PubCacheIndex refreshed = pubCacheIndexer.refresh(getPubCacheIndex(), projects);
+        synchronized (this) {
+            pubCacheIndex = refreshed;
+        }
+
+        return refreshed;
+    }
+
+    /**
+     * Close fetcher and indexer.
+     */
+    @Override
+    public void close() {
+        if (metadataFetcher != null) metadataFetcher.close();
+        if (pubCacheIndexer != null) pubCacheIndexer.close();
+    }
+}
@@ -0,0 +1,42 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A version constraint applied to a package and where it came from.
+ *
+ * @param dependant Name of package which declared the constraint, or <code>null</code> if it is declared in
+ *                  project's <code>pubspec.yaml</code>.
+ * @param dependantVersion Selected version of dependant, or <code>null</code> if it is declared by project.
+ * @param constraint Raw version constraint.
+ *
+ * @since 1.0.0
+ */
+public record ConstraintOrigin(@Nullable String dependant, @Nullable String dependantVersion,
+                               @Nonnull String constraint) {
+    /**
+     * Name of {@link #dependant()} when the constraint is SDK requirement of the package itself.
+     */
+    public static final String DART_SDK = "dart";
+
+    /**
+     * Name of {@link #dependant()} when the constraint is Flutter requirement of the package itself.
+     */
+    public static final String FLUTTER_SDK = "flutter";
+
+    /**
+     * Determine this constraint is declared by project.
+     *
+     * @return <code>true</code> if declared in project's <code>pubspec.yaml</code>.
+     */
+    public boolean isRoot() {
+        return dependant == null;
+    }
+
+    @Override
+    public String toString() {
+        return (dependant == null ? "project" : dependant + (dependantVersion == null ? "" : " " + dependantVersion))
+                + " requires " + constraint;
+    }
+}
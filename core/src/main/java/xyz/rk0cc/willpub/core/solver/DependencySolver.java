@@ -0,0 +1,662 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.core.intern.ConstraintPool;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolve versions of hosted packages from cached metadata without running <code>dart pub</code>.
+ * <br/>
+ * It is a conflict-directed backtracking solver in the spirit of PubGrub. The package with fewest remaining versions
+ * is decided first, and each version is tried in order of preferred (locked or previous solution), newest stable,
+ * then pre-release. When a package has no version left, the solver jumps back to the latest decision which
+ * restricted it instead of the previous decision, and learns the combination of decisions which caused it
+ * that the same combination is never tried again.
+ * <br/>
+ * Sets of versions allowed by each constraint and versions which can never be selected are memoized in this solver,
+ * and parsed constraints are shared in {@link ConstraintPool}, so solving the same project again after editing a
+ * constraint is much faster than the first solving. Use {@link #invalidate(String)} when metadata of package is
+ * refreshed.
+ *
+ * @since 1.0.0
+ */
+public final class DependencySolver {
+    /**
+     * Default limit of attempted versions before giving up.
+     */
+    public static final int DEFAULT_MAX_DECISIONS = 200_000;
+
+    /**
+     * Maximum decisions in a learned combination. Larger combination is rarely matched again and not worth to keep.
+     */
+    private static final int MAX_LEARNED_SIZE = 32;
+
+    private final SolverPackageSource source;
+    private final SemVer dartSdk;
+    private final SemVer flutterSdk;
+    private final int maxDecisions;
+
+    private final ConcurrentHashMap<String, PackageCandidates> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * Parser of constraints which shares canonical instances with every model, and returns <code>null</code> if the
+     * constraint is invalid.
+     */
+    private final Function<String, PubSemVerConstraint> constraintParser = ConstraintPool::parse;
+
+    /**
+     * Create solver with default limit of decisions.
+     *
+     * @param source {@link SolverPackageSource} of published versions.
+     * @param dartSdk Version of Dart SDK, or <code>null</code> to ignore SDK constraint.
+     * @param flutterSdk Version of Flutter SDK, or <code>null</code> to ignore Flutter constraint.
+     */
+    public DependencySolver(@Nonnull SolverPackageSource source, @Nullable SemVer dartSdk, @Nullable SemVer flutterSdk) {
+        this(source, dartSdk, flutterSdk, DEFAULT_MAX_DECISIONS);
+    }
+
+    /**
+     * Create solver.
+     *
+     * @param source {@link SolverPackageSource} of published versions.
+     * @param dartSdk Version of Dart SDK, or <code>null</code> to ignore SDK constraint.
+     * @param flutterSdk Version of Flutter SDK, or <code>null</code> to ignore Flutter constraint.
+     * @param maxDecisions Maximum attempted versions before giving up.
+     */
+    public DependencySolver(
+            @Nonnull SolverPackageSource source,
+            @Nullable SemVer dartSdk,
+            @Nullable SemVer flutterSdk,
+            int maxDecisions
+    ) {
+        if (maxDecisions < 1) throw new IllegalArgumentException("Maximum decisions must be positive");
+
+        this.source = Objects.requireNonNull(source);
+        this.dartSdk = dartSdk;
+        this.flutterSdk = flutterSdk;
+        this.maxDecisions = maxDecisions;
+    }
+
+    /**
+     * Get candidates of package, which loads metadata from {@link #source} if first seen.
+     *
+     * @param packageName Name of package.
+     *
+     * @return {@link PackageCandidates} of the package.
+     *
+     * @throws UncheckedIOException If unable to read metadata.
+     */
+    @Nonnull
+    private PackageCandidates candidatesOf(@Nonnull String packageName) {
+        PackageCandidates pc = candidates.get(packageName);
+        if (pc != null) return pc;
+
+        final PubPackageMetadata metadata;
+        try {
+            metadata = source.getMetadata(packageName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        pc = new PackageCandidates(packageName, metadata, dartSdk, flutterSdk, constraintParser);
+        final PackageCandidates raced = candidates.putIfAbsent(packageName, pc);
+        return raced == null ? pc : raced;
+    }
+
+    /**
+     * Remove memoized versions of a package, which should be called after its metadata is refreshed.
+     *
+     * @param packageName Name of package.
+     */
+    public void invalidate(@Nonnull String packageName) {
+        candidates.remove(packageName);
+    }
+
+    /**
+     * Remove all memoized data.
+     */
+    public void clear() {
+        candidates.clear();
+    }
+
+    /**
+     * Determine version is allowed by constraint in the same way of solving.
+     * <br/>
+     * Unlike {@link PubSemVerConstraint#isInRange(SemVer)}, exact constraint like <code>1.2.3</code> is matched and
+     * pre-release of exclusive upper bound is not allowed.
+     *
+     * @param constraint Version constraint.
+     * @param version Version.
+     *
+     * @return <code>true</code> if allowed.
+     */
+    public static boolean allows(@Nonnull PubSemVerConstraint constraint, @Nonnull SemVer version) {
+        return PackageCandidates.allows(constraint, version);
+    }
+
+    /**
+     * Solve request from scratch.
+     *
+     * @param request {@link SolveRequest} to solve.
+     *
+     * @return {@link SolveResult} of the request.
+     *
+     * @throws IOException If unable to read metadata from {@link SolverPackageSource}.
+     */
+    @Nonnull
+    public SolveResult solve(@Nonnull SolveRequest request) throws IOException {
+        return solve(request, null);
+    }
+
+    /**
+     * Solve request with previous solution preferred, which is expected to be the result before a constraint is
+     * edited. Only packages affected by the edit are likely to change.
+     *
+     * @param request {@link SolveRequest} to solve.
+     * @param previous Previous {@link SolveResult}, or <code>null</code> if none.
+     *
+     * @return {@link SolveResult} of the request.
+     *
+     * @throws IOException If unable to read metadata from {@link SolverPackageSource}.
+     */
+    @Nonnull
+    public SolveResult solve(@Nonnull SolveRequest request, @Nullable SolveResult previous) throws IOException {
+        final HashMap<String, String> preferred = new HashMap<>(request.getPreferred());
+        if (previous != null && previous.isSuccessful()) {
+            for (Map.Entry<String, PubPackageVersion> e : previous.getSelected().entrySet())
+                preferred.put(e.getKey(), e.getValue().getRawVersion());
+        }
+
+        try {
+            return new Search(request, preferred).run();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Find constraints which prevent upgrading a package to its newest stable version in the solution.
+     * <br/>
+     * If every constraint applied to the package allows the newest version, it solves again with the package
+     * required to be newest version and returns the conflict of that solving.
+     *
+     * @param result A successful {@link SolveResult}.
+     * @param packageName Name of package.
+     *
+     * @return An unmodifiable {@link List} of blocking {@link ConstraintOrigin}, which is empty if the package is
+     *         already newest or not blocked.
+     *
+     * @throws IOException If unable to read metadata from {@link SolverPackageSource}.
+     * @throws IllegalStateException If result is not successful.
+     */
+    @Nonnull
+    public List<ConstraintOrigin> findUpgradeBlockers(@Nonnull SolveResult result, @Nonnull String packageName)
+            throws IOException {
+        if (!result.isSuccessful()) throw new IllegalStateException("Result is not successful");
+
+        final PubPackageVersion selected = result.getSelected(packageName);
+        if (selected == null) return List.of();
+
+        final PackageCandidates pc;
+        try {
+            pc = candidatesOf(packageName);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        final int newest = pc.newestSelectable();
+        final int current = pc.indexOf(selected.getRawVersion());
+        if (newest < 0 || newest == current
+                || Objects.requireNonNull(pc.versions[newest].getVersion())
+                        .compareTo(Objects.requireNonNull(selected.getVersion())) <= 0) return List.of();
+
+        final ArrayList<ConstraintOrigin> blockers = new ArrayList<>();
+        for (ConstraintOrigin co : result.getConstraints(packageName)) {
+            if (!pc.allowedBy(co.constraint(), constraintParser).get(newest)) blockers.add(co);
+        }
+        if (!blockers.isEmpty()) return Collections.unmodifiableList(blockers);
+
+        // Directly allowed, find transitive conflict when it is forced to be newest
+        final SolveResult whatIf = solve(
+                result.getRequest().changeDependency(packageName, pc.versions[newest].getRawVersion()),
+                result
+        );
+        return whatIf.isSuccessful() ? List.of() : whatIf.getConflictConstraints();
+    }
+
+    /**
+     * Thrown when number of decisions exceeded limit.
+     */
+    private static final class DecisionLimitExceeded extends RuntimeException {
+        DecisionLimitExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Constraint applied to a package during search.
+     *
+     * @param info Public representation.
+     * @param level Decision level which applied this constraint, <code>0</code> for project.
+     * @param allowed Versions allowed by this constraint.
+     */
+    private record Origin(ConstraintOrigin info, int level, BitSet allowed) {}
+
+    /**
+     * Search state of a package.
+     */
+    private static final class Node {
+        final int id;
+        final String name;
+        final PackageCandidates candidates;
+        final ArrayList<Origin> origins = new ArrayList<>();
+        final int preferred;
+
+        /**
+         * Versions which can be selected before applying any constraint.
+         */
+        final BitSet base;
+        BitSet allowed;
+        boolean required = false;
+
+        /**
+         * Decision level which made this package required, <code>0</code> for project.
+         */
+        int requiredLevel = 0;
+        boolean overridden = false;
+        int chosen = -1;
+        int level = -1;
+
+        Node(int id, @Nonnull PackageCandidates candidates, int preferred) {
+            this.id = id;
+            this.name = candidates.name;
+            this.candidates = candidates;
+            this.preferred = preferred;
+            this.base = (BitSet) candidates.selectable.clone();
+            if (preferred >= 0 && !candidates.sdkIncompatible.get(preferred)) base.set(preferred);
+            this.allowed = base;
+        }
+    }
+
+    /**
+     * Record for undoing changes of {@link Node}.
+     */
+    private record Undo(
+            Node node,
+            BitSet allowed,
+            int originSize,
+            boolean required,
+            int requiredLevel,
+            int chosen,
+            int level
+    ) {
+        void restore() {
+            node.allowed = allowed;
+            while (node.origins.size() > originSize) node.origins.remove(node.origins.size() - 1);
+            node.required = required;
+            node.requiredLevel = requiredLevel;
+            node.chosen = chosen;
+            node.level = level;
+        }
+    }
+
+    /**
+     * State of solving a request.
+     */
+    private final class Search {
+        private final long startNanos = System.nanoTime();
+        private final SolveRequest request;
+        private final Map<String, String> preferred;
+        private final LinkedHashMap<String, Node> nodes = new LinkedHashMap<>();
+        private final ArrayList<Undo> trail = new ArrayList<>();
+        private final ArrayList<Node> nodeById = new ArrayList<>();
+
+        /**
+         * Decided packages, which index is decision level minus one.
+         */
+        private final ArrayList<Node> decided = new ArrayList<>();
+        private int decisions = 0;
+
+        /**
+         * Learned combinations of decisions which never lead to solution, indexed by each decision.
+         */
+        private final HashMap<Long, ArrayList<long[]>> learned = new HashMap<>();
+
+        private String conflictPackage = null;
+        private List<ConstraintOrigin> conflictConstraints = List.of();
+        private int conflictLevel = Integer.MAX_VALUE;
+        private boolean conflictFromDependency = false;
+
+        Search(@Nonnull SolveRequest request, @Nonnull Map<String, String> preferred) {
+            this.request = request;
+            this.preferred = preferred;
+        }
+
+        @Nonnull
+        private Node node(@Nonnull String name) {
+            Node n = nodes.get(name);
+            if (n == null) {
+                final PackageCandidates pc = candidatesOf(name);
+                n = new Node(nodeById.size(), pc, pc.indexOf(preferred.get(name)));
+                nodes.put(name, n);
+                nodeById.add(n);
+            }
+            return n;
+        }
+
+        private void save(@Nonnull Node n) {
+            trail.add(new Undo(n, n.allowed, n.origins.size(), n.required, n.requiredLevel, n.chosen, n.level));
+        }
+
+        private void undo(int mark) {
+            while (trail.size() > mark) trail.remove(trail.size() - 1).restore();
+        }
+
+        /**
+         * Apply constraint to package.
+         *
+         * @return <code>true</code> if the package still has allowed version.
+         */
+        private boolean restrict(@Nonnull Node n, @Nonnull ConstraintOrigin info, int level, boolean override) {
+            if (n.overridden && !override) {
+                // Constraint is replaced by override, but the package is still required
+                if (!n.required) {
+                    save(n);
+                    n.required = true;
+                    n.requiredLevel = level;
+                }
+                return true;
+            }
+
+            final BitSet set = n.candidates.allowedBy(info.constraint(), constraintParser);
+
+            save(n);
+            if (!n.required) {
+                n.required = true;
+                n.requiredLevel = level;
+            }
+            n.origins.add(new Origin(info, level, set));
+
+            if (n.chosen >= 0) return set.get(n.chosen);
+
+            final BitSet next = (BitSet) n.allowed.clone();
+            next.and(set);
+            n.allowed = next;
+            return !next.isEmpty();
+        }
+
+        /**
+         * Find decision levels which excluded versions of the package.
+         * <br/>
+         * Constraints are visited from project to latest decision, and only those which actually removed versions
+         * are included, that backjumping can skip decisions which are unrelated to the conflict. The level which
+         * made the package required is always included, since the conflict disappears if the package is no longer
+         * needed. It is also the only reason of skipping versions with unsatisfiable dependencies, which do not
+         * depend on any decision.
+         *
+         * @param n Package which has no allowed version.
+         * @param last Constraint which just failed to apply, or <code>null</code> if the package runs out of versions
+         *             after trying all of them.
+         *
+         * @return Decision levels which explain the conflict.
+         */
+        @Nonnull
+        private BitSet explain(@Nonnull Node n, @Nullable Origin last) {
+            final BitSet levels = new BitSet();
+            levels.set(n.requiredLevel);
+
+            if (last != null) {
+                levels.set(last.level());
+                if (n.chosen >= 0) {
+                    levels.set(n.level);
+                    return levels;
+                }
+            }
+
+            final BitSet remain = (BitSet) n.base.clone();
+            if (last != null) remain.and(last.allowed());
+
+            for (Origin o : n.origins) {
+                if (o == last) continue;
+
+                final BitSet removed = (BitSet) remain.clone();
+                removed.andNot(o.allowed());
+                if (removed.isEmpty()) continue;
+
+                levels.set(o.level());
+                remain.and(o.allowed());
+                if (remain.isEmpty()) break;
+            }
+
+            return levels;
+        }
+
+        /**
+         * Keep the conflict closest to project for reporting. Clash between dependencies is preferred to package
+         * which simply run out of versions, since it names the constraints that can not be satisfied together.
+         */
+        private void recordConflict(@Nonnull Node n, int level, boolean fromDependency) {
+            if (conflictFromDependency && !fromDependency) return;
+            if (conflictFromDependency == fromDependency && level > conflictLevel) return;
+
+            conflictLevel = level;
+            conflictFromDependency = fromDependency;
+            conflictPackage = n.name;
+            final ArrayList<ConstraintOrigin> infos = new ArrayList<>(n.origins.size());
+            for (Origin o : n.origins) infos.add(o.info());
+            conflictConstraints = infos;
+        }
+
+        private static long literal(int nodeId, int versionIndex) {
+            return ((long) nodeId << 32) | (versionIndex & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Remember decisions in given levels can not be selected together.
+         */
+        private void learn(@Nonnull BitSet levels) {
+            if (levels.cardinality() > MAX_LEARNED_SIZE) return;
+
+            final long[] combination = new long[levels.get(0) ? levels.cardinality() - 1 : levels.cardinality()];
+            int i = 0;
+            for (int l = levels.nextSetBit(1); l >= 0; l = levels.nextSetBit(l + 1)) {
+                final Node n = decided.get(l - 1);
+                combination[i++] = literal(n.id, n.chosen);
+            }
+            if (combination.length == 0) return;
+
+            for (long lit : combination) learned.computeIfAbsent(lit, k -> new ArrayList<>(2)).add(combination);
+        }
+
+        /**
+         * Find learned combination which completed by deciding the package.
+         *
+         * @return Decision levels of matched combination, or <code>null</code> if none.
+         */
+        @Nullable
+        private BitSet matchLearned(@Nonnull Node p) {
+            final ArrayList<long[]> combinations = learned.get(literal(p.id, p.chosen));
+            if (combinations == null) return null;
+
+            search:
+            for (long[] combination : combinations) {
+                final BitSet levels = new BitSet();
+                for (long lit : combination) {
+                    final Node n = nodeById.get((int) (lit >>> 32));
+                    if (n.chosen != (int) lit) continue search;
+                    levels.set(n.level);
+                }
+                return levels;
+            }
+
+            return null;
+        }
+
+        @Nullable
+        private Node pickNext() {
+            Node best = null;
+            int bestCardinality = Integer.MAX_VALUE;
+
+            for (Node n : nodes.values()) {
+                if (!n.required || n.chosen >= 0) continue;
+
+                final int cardinality = n.allowed.cardinality();
+                if (cardinality < bestCardinality) {
+                    best = n;
+                    bestCardinality = cardinality;
+                    if (cardinality <= 1) break;
+                }
+            }
+
+            return best;
+        }
+
+        /**
+         * Decide next package recursively.
+         *
+         * @return <code>null</code> if solved, or decision levels which caused failure.
+         */
+        @Nullable
+        private BitSet search(int level) {
+            final Node p = pickNext();
+            if (p == null) return null;
+
+            final int decisionLevel = level + 1;
+            final BitSet conflict = explain(p, null);
+            final PackageCandidates pc = p.candidates;
+
+            for (int attempt = -1; attempt < pc.versions.length; attempt++) {
+                // Preferred version first, then in preference order
+                final int idx = attempt < 0 ? p.preferred : attempt;
+                if (idx < 0 || (attempt >= 0 && idx == p.preferred) || !p.allowed.get(idx)) continue;
+                if (isPermanentlyBad(pc, idx)) continue;
+
+                if (++decisions > maxDecisions) throw new DecisionLimitExceeded();
+
+                final int mark = trail.size();
+                save(p);
+                p.chosen = idx;
+                p.level = decisionLevel;
+                decided.add(p);
+
+                final PubPackageVersion version = pc.versions[idx];
+                BitSet failure = matchLearned(p);
+                if (failure == null) for (Map.Entry<String, String> dep : version.getDependencies().entrySet()) {
+                    if (request.getExternal().contains(dep.getKey())) continue;
+
+                    final Node q = node(dep.getKey());
+                    final ConstraintOrigin info = new ConstraintOrigin(p.name, version.getRawVersion(), dep.getValue());
+                    if (!restrict(q, info, decisionLevel, false)) {
+                        recordConflict(q, decisionLevel, true);
+                        failure = explain(q, q.origins.get(q.origins.size() - 1));
+                        break;
+                    }
+                }
+
+                if (failure == null) {
+                    final BitSet sub = search(decisionLevel);
+                    if (sub == null) return null;
+
+                    if (!sub.get(decisionLevel)) {
+                        // This decision is not responsible, jump back further
+                        decided.remove(decided.size() - 1);
+                        undo(mark);
+                        return sub;
+                    }
+
+                    sub.clear(decisionLevel);
+                    conflict.or(sub);
+                } else {
+                    failure.clear(decisionLevel);
+                    conflict.or(failure);
+                }
+
+                decided.remove(decided.size() - 1);
+                undo(mark);
+            }
+
+            recordConflict(p, level, false);
+            learn(conflict);
+            return conflict;
+        }
+
+        private boolean isPermanentlyBad(@Nonnull PackageCandidates pc, int idx) {
+            for (String dep : pc.unsatisfiableDependencies(idx, DependencySolver.this::candidatesOf, constraintParser)) {
+                if (!request.getExternal().contains(dep) && !request.getOverrides().containsKey(dep)) return true;
+            }
+            return false;
+        }
+
+        @Nonnull
+        SolveResult run() {
+            String failure = null;
+
+            try {
+                for (Map.Entry<String, String> o : request.getOverrides().entrySet()) {
+                    if (request.getExternal().contains(o.getKey())) continue;
+
+                    final Node n = node(o.getKey());
+                    if (!restrict(n, new ConstraintOrigin(null, null, o.getValue()), 0, true)) {
+                        recordConflict(n, 0, true);
+                        failure = "No version of " + n.name + " satisfies override " + o.getValue();
+                    }
+                    n.required = request.getDependencies().containsKey(o.getKey());
+                    n.overridden = true;
+                }
+
+                if (failure == null) {
+                    for (Map.Entry<String, String> d : request.getDependencies().entrySet()) {
+                        if (request.getExternal().contains(d.getKey())) continue;
+
+                        final Node n = node(d.getKey());
+                        if (!restrict(n, new ConstraintOrigin(null, null, d.getValue()), 0, false)) {
+                            recordConflict(n, 0, true);
+                            failure = "No version of " + n.name + " satisfies " + d.getValue();
+                            break;
+                        }
+                    }
+                }
+
+                if (failure == null && search(0) != null) {
+                    failure = "Version solving failed on " + conflictPackage + ": " + conflictConstraints;
+                }
+            } catch (DecisionLimitExceeded e) {
+                failure = "Version solving exceeded " + maxDecisions + " decisions";
+            }
+
+            final LinkedHashMap<String, PubPackageVersion> selected = new LinkedHashMap<>();
+            final LinkedHashMap<String, List<ConstraintOrigin>> constraints = new LinkedHashMap<>();
+            if (failure == null) {
+                for (Node n : decided) {
+                    selected.put(n.name, n.candidates.versions[n.chosen]);
+
+                    final ArrayList<ConstraintOrigin> infos = new ArrayList<>(n.origins.size());
+                    for (Origin o : n.origins) infos.add(o.info());
+                    constraints.put(n.name, Collections.unmodifiableList(infos));
+                }
+            }
+
+            return new SolveResult(
+                    request,
+                    selected,
+                    constraints,
+                    failure == null ? null : conflictPackage,
+                    failure == null ? List.of() : conflictConstraints,
+                    failure,
+                    decisions,
+                    Duration.ofNanos(System.nanoTime() - startNanos)
+            );
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.SemVerRangeNode;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.core.intern.PackedVersion;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Published versions of a package in the order of preference, with memoized sets of versions allowed by each
+ * constraint.
+ * <br/>
+ * Versions are represented by index in {@link #versions} so that intersecting constraints is an {@link BitSet}
+ * operation.
+ *
+ * @since 1.0.0
+ */
+final class PackageCandidates {
+    private static final BitSet EMPTY = new BitSet();
+
+    final String name;
+
+    /**
+     * Stable versions from newest to oldest, then pre-release versions from newest to oldest.
+     */
+    final PubPackageVersion[] versions;
+
+    /**
+     * {@linkplain PackedVersion Packed} form of {@link #versions}, which is {@link PackedVersion#UNPACKABLE} for
+     * pre-release.
+     */
+    private final long[] packedVersions;
+
+    /**
+     * Versions which can be selected without preference, which excludes retracted and SDK incompatible versions.
+     */
+    final BitSet selectable;
+
+    /**
+     * Versions which SDK constraint is not satisfied.
+     */
+    final BitSet sdkIncompatible;
+
+    private final HashMap<String, Integer> indexOf;
+
+    /**
+     * Memoized intersection of raw constraint and {@link #versions}.
+     */
+    private final ConcurrentHashMap<String, BitSet> intersections = new ConcurrentHashMap<>();
+
+    /**
+     * Dependencies which no version can satisfy for each version, which <code>null</code> if not checked yet.
+     */
+    private final String[][] unsatisfiableDependencies;
+
+    PackageCandidates(
+            @Nonnull String name,
+            @Nullable PubPackageMetadata metadata,
+            @Nullable SemVer dartSdk,
+            @Nullable SemVer flutterSdk,
+            @Nonnull Function<String, PubSemVerConstraint> constraintPool
+    ) {
+        this.name = name;
+
+        final ArrayList<PubPackageVersion> stable = new ArrayList<>(), preRelease = new ArrayList<>();
+        if (metadata != null) {
+            for (PubPackageVersion ppv : metadata.getVersions()) {
+                final SemVer v = ppv.getVersion();
+                if (v == null) continue;
+                (v.isPreRelease() ? preRelease : stable).add(ppv);
+            }
+        }
+
+        final Comparator<PubPackageVersion> newestFirst = Comparator.comparing(
+                PubPackageVersion::getVersion,
+                Comparator.reverseOrder()
+        );
+        stable.sort(newestFirst);
+        preRelease.sort(newestFirst);
+
+        this.versions = new PubPackageVersion[stable.size() + preRelease.size()];
+        int i = 0;
+        for (PubPackageVersion ppv : stable) versions[i++] = ppv;
+        for (PubPackageVersion ppv : preRelease) versions[i++] = ppv;
+
+        this.packedVersions = new long[versions.length];
+        for (i = 0; i < versions.length; i++) packedVersions[i] = versions[i].getPackedVersion();
+
+        this.indexOf = new HashMap<>();
+        this.selectable = new BitSet(versions.length);
+        this.sdkIncompatible = new BitSet(versions.length);
+        for (i = 0; i < versions.length; i++) {
+            final PubPackageVersion ppv = versions[i];
+            indexOf.put(ppv.getRawVersion(), i);
+
+            if (!isSdkSatisfied(ppv.getSdkConstraint(), dartSdk, constraintPool)
+                    || !isSdkSatisfied(ppv.getFlutterConstraint(), flutterSdk, constraintPool)) {
+                sdkIncompatible.set(i);
+            } else if (!ppv.isRetracted()) {
+                selectable.set(i);
+            }
+        }
+
+        this.unsatisfiableDependencies = new String[versions.length][];
+    }
+
+    private static boolean isSdkSatisfied(
+            @Nullable String rawConstraint,
+            @Nullable SemVer sdk,
+            @Nonnull Function<String, PubSemVerConstraint> constraintPool
+    ) {
+        if (rawConstraint == null || sdk == null) return true;
+
+        final PubSemVerConstraint constraint = constraintPool.apply(rawConstraint);
+        return constraint == null || allows(constraint, sdk);
+    }
+
+    /**
+     * Find index of version.
+     *
+     * @param rawVersion Version string.
+     *
+     * @return Index in {@link #versions}, or <code>-1</code> if not published.
+     */
+    int indexOf(@Nullable String rawVersion) {
+        if (rawVersion == null) return -1;
+        final Integer i = indexOf.get(rawVersion);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Get index of newest stable version which can be selected.
+     *
+     * @return Index of newest version, or <code>-1</code> if none.
+     */
+    int newestSelectable() {
+        for (int i = selectable.nextSetBit(0); i >= 0; i = selectable.nextSetBit(i + 1)) {
+            if (!Objects.requireNonNull(versions[i].getVersion()).isPreRelease()) return i;
+        }
+        return selectable.nextSetBit(0);
+    }
+
+    /**
+     * Get versions allowed by constraint.
+     *
+     * @param rawConstraint Raw constraint.
+     * @param constraintPool Parser of constraint which returns <code>null</code> if invalid.
+     *
+     * @return Memoized {@link BitSet} of allowed indexes, which must not be modified.
+     */
+    @Nonnull
+    BitSet allowedBy(@Nonnull String rawConstraint, @Nonnull Function<String, PubSemVerConstraint> constraintPool) {
+        return intersections.computeIfAbsent(rawConstraint, rc -> {
+            final PubSemVerConstraint constraint = constraintPool.apply(rc);
+            if (constraint == null) return EMPTY;
+
+            final SemVerRangeNode start = constraint.start(), end = constraint.end();
+            final long lower = start == null ? PackedVersion.UNPACKABLE : PackedVersion.pack(start.semVer());
+            final long upper = end == null ? PackedVersion.UNPACKABLE : PackedVersion.pack(end.semVer());
+            // Bounds with pre-release or build metadata can only be compared as SemVer
+            final boolean packedBounds = (start == null || PackedVersion.isPacked(lower))
+                    && (end == null || PackedVersion.isPacked(upper));
+
+            final BitSet allowed = new BitSet(versions.length);
+            for (int i = 0; i < versions.length; i++) {
+                final long v = packedVersions[i];
+                final boolean allow;
+                if (packedBounds && PackedVersion.isPacked(v)) {
+                    allow = (start == null || v > lower || (v == lower && start.orEquals()))
+                            && (end == null || v < upper || (v == upper && end.orEquals()));
+                } else {
+                    allow = allows(constraint, Objects.requireNonNull(versions[i].getVersion()));
+                }
+
+                if (allow) allowed.set(i);
+            }
+            return allowed;
+        });
+    }
+
+    /**
+     * Get dependencies of a version which no selectable version can satisfy, regardless other packages.
+     *
+     * @param index Index of version.
+     * @param lookup Find {@link PackageCandidates} of dependency.
+     * @param constraintPool Parser of constraint.
+     *
+     * @return Names of unsatisfiable dependencies, which is empty for most of versions.
+     */
+    @Nonnull
+    String[] unsatisfiableDependencies(
+            int index,
+            @Nonnull Function<String, PackageCandidates> lookup,
+            @Nonnull Function<String, PubSemVerConstraint> constraintPool
+    ) {
+        String[] memo = unsatisfiableDependencies[index];
+        if (memo != null) return memo;
+
+        final ArrayList<String> unsatisfiable = new ArrayList<>(0);
+        for (Map.Entry<String, String> dep : versions[index].getDependencies().entrySet()) {
+            final PackageCandidates depCandidates = lookup.apply(dep.getKey());
+            if (depCandidates == null) continue;
+            if (!depCandidates.allowedBy(dep.getValue(), constraintPool).intersects(depCandidates.selectable))
+                unsatisfiable.add(dep.getKey());
+        }
+
+        memo = unsatisfiable.toArray(String[]::new);
+        unsatisfiableDependencies[index] = memo;
+        return memo;
+    }
+
+    /**
+     * Determine version is in range of constraint.
+     * <br/>
+     * Bounds are compared directly since exact constraint like <code>1.2.3</code> is not matched by
+     * {@link PubSemVerConstraint#isInRange(SemVer)}. Like pub, pre-release of exclusive upper bound is not allowed
+     * (<code>2.0.0-dev</code> is not in <code>^1.0.0</code>).
+     *
+     * @param constraint Version constraint.
+     * @param version Version.
+     *
+     * @return <code>true</code> if allowed.
+     */
+    static boolean allows(@Nonnull PubSemVerConstraint constraint, @Nonnull SemVer version) {
+        final SemVerRangeNode start = constraint.start(), end = constraint.end();
+
+        if (start != null) {
+            final int cmp = version.compareTo(start.semVer());
+            if (cmp < 0 || (cmp == 0 && !start.orEquals())) return false;
+        }
+
+        if (end != null) {
+            final SemVer upper = end.semVer();
+            final int cmp = version.compareTo(upper);
+            if (cmp > 0 || (cmp == 0 && !end.orEquals())) return false;
+
+            if (!end.orEquals() && version.isPreRelease() && !upper.isPreRelease()
+                    && version.major() == upper.major()
+                    && version.minor() == upper.minor()
+                    && version.patch() == upper.patch()) return false;
+        }
+
+        return true;
+    }
+}
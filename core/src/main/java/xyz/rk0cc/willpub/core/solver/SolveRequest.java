@@ -0,0 +1,175 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.DependenciesReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.DependencyReference;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.HostedReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Input of {@link DependencySolver}, which is immutable that every changes create a new request.
+ * <br/>
+ * Only hosted packages are solved. Packages from path, git or SDK are treated as external that constraints on them
+ * are ignored.
+ *
+ * @since 1.0.0
+ */
+public final class SolveRequest {
+    private final Map<String, String> dependencies;
+    private final Map<String, String> overrides;
+    private final Map<String, String> preferred;
+    private final Set<String> external;
+
+    /**
+     * Create request.
+     *
+     * @param dependencies Package name and raw constraint of project's hosted dependencies.
+     * @param overrides Package name and raw constraint of <code>dependency_overrides</code>, which replaces all
+     *                  constraints of the package.
+     * @param preferred Package name and version which should be selected first if allowed, usually from
+     *                  <code>pubspec.lock</code>.
+     * @param external Packages which are not hosted and will not be solved.
+     */
+    public SolveRequest(
+            @Nonnull Map<String, String> dependencies,
+            @Nonnull Map<String, String> overrides,
+            @Nonnull Map<String, String> preferred,
+            @Nonnull Set<String> external
+    ) {
+        this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<>(dependencies));
+        this.overrides = Collections.unmodifiableMap(new LinkedHashMap<>(overrides));
+        this.preferred = Collections.unmodifiableMap(new LinkedHashMap<>(preferred));
+        this.external = Collections.unmodifiableSet(new HashSet<>(external));
+    }
+
+    /**
+     * Create request from loaded project.
+     *
+     * @param project Loaded {@link DartProject}.
+     * @param upgrade <code>true</code> to ignore locked versions like <code>dart pub upgrade</code>, or
+     *                <code>false</code> to prefer locked versions like <code>dart pub get</code>.
+     *
+     * @return Request of the project.
+     */
+    @Nonnull
+    public static SolveRequest fromProject(@Nonnull DartProject project, boolean upgrade) {
+        final Pubspec pubspec = project.getPubspec();
+        final LinkedHashMap<String, String> dependencies = new LinkedHashMap<>(), overrides = new LinkedHashMap<>(),
+                preferred = new LinkedHashMap<>();
+        final HashSet<String> external = new HashSet<>();
+
+        collectHosted(pubspec.dependencies(), dependencies, external);
+        collectHosted(pubspec.devDependencies(), dependencies, external);
+        collectHosted(pubspec.dependencyOverrides(), overrides, external);
+
+        final PubspecLock lock = project.getLock();
+        if (lock != null) {
+            for (LockedPackage lp : lock.getPackages()) {
+                if (lp.getSource() != LockedPackage.Source.HOSTED) external.add(lp.getName());
+                else if (!upgrade) preferred.put(lp.getName(), lp.getRawVersion());
+            }
+        }
+
+        return new SolveRequest(dependencies, overrides, preferred, external);
+    }
+
+    private static void collectHosted(
+            @Nonnull DependenciesReferenceSet references,
+            @Nonnull Map<String, String> constraints,
+            @Nonnull Set<String> external
+    ) {
+        for (DependencyReference dr : references) {
+            if (dr instanceof HostedReference hr) {
+                final PubSemVerConstraint c = hr.versionConstraint();
+                constraints.put(hr.name(), c == null ? "any" : c.rawConstraint());
+            } else {
+                external.add(dr.name());
+            }
+        }
+    }
+
+    /**
+     * Get hosted dependencies of project.
+     *
+     * @return An unmodifiable {@link Map} of package name and raw constraint.
+     */
+    @Nonnull
+    public Map<String, String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Get dependency overrides of project.
+     *
+     * @return An unmodifiable {@link Map} of package name and raw constraint.
+     */
+    @Nonnull
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Get versions which should be selected first.
+     *
+     * @return An unmodifiable {@link Map} of package name and version.
+     */
+    @Nonnull
+    public Map<String, String> getPreferred() {
+        return preferred;
+    }
+
+    /**
+     * Get packages which will not be solved.
+     *
+     * @return An unmodifiable {@link Set} of package name.
+     */
+    @Nonnull
+    public Set<String> getExternal() {
+        return external;
+    }
+
+    /**
+     * Create a new request with a dependency's constraint changed.
+     *
+     * @param packageName Name of package.
+     * @param constraint New raw constraint, or <code>null</code> to remove the dependency.
+     *
+     * @return A new {@link SolveRequest}.
+     */
+    @Nonnull
+    public SolveRequest changeDependency(@Nonnull String packageName, @Nullable String constraint) {
+        final LinkedHashMap<String, String> changed = new LinkedHashMap<>(dependencies);
+        if (constraint == null) changed.remove(packageName);
+        else changed.put(packageName, constraint);
+
+        return new SolveRequest(changed, overrides, preferred, external);
+    }
+
+    /**
+     * Create a new request with different preferred versions.
+     *
+     * @param preferred Package name and version which should be selected first if allowed.
+     *
+     * @return A new {@link SolveRequest}.
+     */
+    @Nonnull
+    public SolveRequest changePreferred(@Nonnull Map<String, String> preferred) {
+        return new SolveRequest(dependencies, overrides, preferred, external);
+    }
+
+    @Override
+    public String toString() {
+        return "SolveRequest{" +
+                "dependencies=" + dependencies +
+                ", overrides=" + overrides +
+                ", external=" + external +
+                '}';
+    }
+}
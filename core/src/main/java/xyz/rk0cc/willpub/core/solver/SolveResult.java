@@ -0,0 +1,160 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import xyz.rk0cc.willpub.core.pubdev.PubPackageVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link DependencySolver}.
+ * <br/>
+ * For successful solving, it contains selected version of every hosted package and constraints applied on them.
+ * Otherwise, it contains the package which no version can satisfy all constraints.
+ *
+ * @since 1.0.0
+ */
+public final class SolveResult {
+    private final SolveRequest request;
+    private final Map<String, PubPackageVersion> selected;
+    private final Map<String, List<ConstraintOrigin>> constraints;
+    private final String conflictPackage;
+    private final List<ConstraintOrigin> conflictConstraints;
+    private final String failureMessage;
+    private final int decisions;
+    private final Duration elapsed;
+
+    SolveResult(
+            @Nonnull SolveRequest request,
+            @Nonnull Map<String, PubPackageVersion> selected,
+            @Nonnull Map<String, List<ConstraintOrigin>> constraints,
+            @Nullable String conflictPackage,
+            @Nonnull List<ConstraintOrigin> conflictConstraints,
+            @Nullable String failureMessage,
+            int decisions,
+            @Nonnull Duration elapsed
+    ) {
+        this.request = request;
+        this.selected = Collections.unmodifiableMap(selected);
+        this.constraints = Collections.unmodifiableMap(constraints);
+        this.conflictPackage = conflictPackage;
+        this.conflictConstraints = Collections.unmodifiableList(conflictConstraints);
+        this.failureMessage = failureMessage;
+        this.decisions = decisions;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Get request of this result.
+     *
+     * @return Solved {@link SolveRequest}.
+     */
+    @Nonnull
+    public SolveRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Determine all packages are resolved.
+     *
+     * @return <code>true</code> if solved.
+     */
+    public boolean isSuccessful() {
+        return failureMessage == null;
+    }
+
+    /**
+     * Get selected version of packages.
+     *
+     * @return An unmodifiable {@link Map} of package name and selected version, which is empty if failed.
+     */
+    @Nonnull
+    public Map<String, PubPackageVersion> getSelected() {
+        return selected;
+    }
+
+    /**
+     * Get selected version of a package.
+     *
+     * @param packageName Name of package.
+     *
+     * @return Selected {@link PubPackageVersion}, or <code>null</code> if it is not resolved.
+     */
+    @Nullable
+    public PubPackageVersion getSelected(@Nonnull String packageName) {
+        return selected.get(packageName);
+    }
+
+    /**
+     * Get constraints applied to a selected package.
+     *
+     * @param packageName Name of package.
+     *
+     * @return An unmodifiable {@link List} of {@link ConstraintOrigin}.
+     */
+    @Nonnull
+    public List<ConstraintOrigin> getConstraints(@Nonnull String packageName) {
+        return constraints.getOrDefault(packageName, List.of());
+    }
+
+    /**
+     * Get the package which causes failure.
+     *
+     * @return Name of conflicted package, or <code>null</code> if succeed.
+     */
+    @Nullable
+    public String getConflictPackage() {
+        return conflictPackage;
+    }
+
+    /**
+     * Get constraints of {@linkplain #getConflictPackage() conflicted package} which can not be satisfied together.
+     *
+     * @return An unmodifiable {@link List} of {@link ConstraintOrigin}, which is empty if succeed.
+     */
+    @Nonnull
+    public List<ConstraintOrigin> getConflictConstraints() {
+        return conflictConstraints;
+    }
+
+    /**
+     * Get reason of failure.
+     *
+     * @return Failure message, or <code>null</code> if succeed.
+     */
+    @Nullable
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * Get number of versions attempted during solving.
+     *
+     * @return Number of decisions.
+     */
+    public int getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Get time spent on solving.
+     *
+     * @return Elapsed time.
+     */
+    @Nonnull
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveResult{" +
+                (isSuccessful() ? "selected=" + selected.size() : "failure='" + failureMessage + '\'') +
+                ", decisions=" + decisions +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+}
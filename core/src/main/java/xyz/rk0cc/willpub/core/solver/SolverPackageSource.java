@@ -0,0 +1,54 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import xyz.rk0cc.willpub.core.pubdev.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Provide published versions of packages to {@link DependencySolver}.
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface SolverPackageSource {
+    /**
+     * Get metadata of a package.
+     *
+     * @param packageName Name of package.
+     *
+     * @return {@link PubPackageMetadata} of the package, or <code>null</code> if it is unavailable.
+     *
+     * @throws IOException If unable to read metadata.
+     */
+    @Nullable
+    PubPackageMetadata getMetadata(@Nonnull String packageName) throws IOException;
+
+    /**
+     * Use cached responses of pub.dev without sending any request.
+     *
+     * @param cache {@link PubDevHttpCache} which stores package responses.
+     *
+     * @return {@link SolverPackageSource} which only reads cache.
+     */
+    @Nonnull
+    static SolverPackageSource fromCache(@Nonnull PubDevHttpCache cache) {
+        return packageName -> {
+            final PubDevResponse response;
+            try {
+                response = cache.get("api/packages/" + packageName, PubDevCachePolicy.OFFLINE_ONLY);
+            } catch (IOException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading cache", e);
+            }
+
+            try (InputStream body = response.openBody()) {
+                return PubPackageMetadataReader.read(body);
+            }
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package xyz.rk0cc.willpub.core.workspace;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Result of {@link WorkspaceScanner}, which contains every package under a root directory and relations of path
+ * dependencies between them.
+ * <br/>
+ * It also remembers scanned directories that it can be given to next scan for skipping unchanged directories.
+ *
+ * @since 1.0.0
+ */
+public final class WorkspaceIndex {
+    private final Path root;
+    private final Map<Path, WorkspacePackage> packages;
+    private final Map<String, List<WorkspacePackage>> byName;
+    private final Map<Path, List<WorkspacePackage>> dependants;
+    private final Map<Path, IOException> failures;
+    private final Duration elapsed;
+    private final int reusedDirectories;
+
+    /**
+     * Scanned directories, which uses for next scan.
+     */
+    final Map<Path, DirectoryRecord> directories;
+
+    WorkspaceIndex(
+            @Nonnull Path root,
+            @Nonnull Map<Path, WorkspacePackage> packages,
+            @Nonnull Map<Path, DirectoryRecord> directories,
+            @Nonnull Map<Path, IOException> failures,
+            @Nonnull Duration elapsed,
+            int reusedDirectories
+    ) {
+        this.root = root;
+        this.packages = Collections.unmodifiableMap(new TreeMap<>(packages));
+        this.directories = Map.copyOf(directories);
+        this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+        this.elapsed = elapsed;
+        this.reusedDirectories = reusedDirectories;
+
+        final HashMap<String, List<WorkspacePackage>> byName = new HashMap<>();
+        final HashMap<Path, List<WorkspacePackage>> dependants = new HashMap<>();
+        for (WorkspacePackage wp : this.packages.values()) {
+            byName.computeIfAbsent(wp.getName(), k -> new ArrayList<>(1)).add(wp);
+            for (Path dep : wp.getPathDependencies().values())
+                dependants.computeIfAbsent(dep, k -> new ArrayList<>(2)).add(wp);
+        }
+        byName.replaceAll((k, v) -> List.copyOf(v));
+        dependants.replaceAll((k, v) -> List.copyOf(v));
+        this.byName = byName;
+        this.dependants = dependants;
+    }
+
+    /**
+     * Get scanned root directory.
+     *
+     * @return Absolute {@link Path} of root.
+     */
+    @Nonnull
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Get all found packages.
+     *
+     * @return An unmodifiable {@link Collection} of {@link WorkspacePackage} ordered by directory.
+     */
+    @Nonnull
+    public Collection<WorkspacePackage> getPackages() {
+        return packages.values();
+    }
+
+    /**
+     * Get package in given directory.
+     *
+     * @param directory Absolute path of package directory.
+     *
+     * @return {@link WorkspacePackage} in the directory, or <code>null</code> if not found.
+     */
+    @Nullable
+    public WorkspacePackage getPackage(@Nonnull Path directory) {
+        return packages.get(directory.normalize());
+    }
+
+    /**
+     * Find packages by name. Usually it returns only one package, but examples or forks may reuse the same name.
+     *
+     * @param name Name of package.
+     *
+     * @return An unmodifiable {@link List} of {@link WorkspacePackage} with given name.
+     */
+    @Nonnull
+    public List<WorkspacePackage> findByName(@Nonnull String name) {
+        return byName.getOrDefault(name, List.of());
+    }
+
+    /**
+     * Get packages which depend on given package by path.
+     *
+     * @param directory Absolute path of depended package directory.
+     *
+     * @return An unmodifiable {@link List} of dependants.
+     */
+    @Nonnull
+    public List<WorkspacePackage> getPathDependants(@Nonnull Path directory) {
+        return dependants.getOrDefault(directory.normalize(), List.of());
+    }
+
+    /**
+     * Get packages in this workspace which given package depends on by path.
+     *
+     * @param workspacePackage A package in this index.
+     *
+     * @return A {@link List} of depended packages which found in this workspace.
+     */
+    @Nonnull
+    public List<WorkspacePackage> getPathDependencies(@Nonnull WorkspacePackage workspacePackage) {
+        final ArrayList<WorkspacePackage> deps = new ArrayList<>(workspacePackage.getPathDependencies().size());
+        for (Path p : workspacePackage.getPathDependencies().values()) {
+            final WorkspacePackage dep = packages.get(p);
+            if (dep != null) deps.add(dep);
+        }
+        return deps;
+    }
+
+    /**
+     * Get directories which contains <code>pubspec.yaml</code> that can not be read.
+     *
+     * @return An unmodifiable {@link Map} of directory and cause.
+     */
+    @Nonnull
+    public Map<Path, IOException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get time spent on scanning.
+     *
+     * @return Elapsed time.
+     */
+    @Nonnull
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get number of directories which listing is reused from previous scan.
+     *
+     * @return Number of unchanged directories.
+     */
+    public int getReusedDirectories() {
+        return reusedDirectories;
+    }
+
+    /**
+     * Get number of scanned directories.
+     *
+     * @return Number of directories.
+     */
+    public int getScannedDirectories() {
+        return directories.size();
+    }
+
+    @Override
+    public String toString() {
+        return "WorkspaceIndex{" +
+                "root=" + root +
+                ", packages=" + packages.size() +
+                ", directories=" + directories.size() +
+                ", reusedDirectories=" + reusedDirectories +
+                ", failures=" + failures.size() +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+
+    /**
+     * Listing of a directory when it scanned.
+     *
+     * @param modified Last modified time of directory in milliseconds, which changes when entries added, removed or
+     *                 renamed.
+     * @param subdirectories Name of subdirectories which are not pruned.
+     * @param hasPubspec <code>true</code> if <code>pubspec.yaml</code> existed.
+     */
+    record DirectoryRecord(long modified, List<String> subdirectories, boolean hasPubspec) {}
+}
@@ -0,0 +1,120 @@
+package xyz.rk0cc.willpub.core.workspace;
+
+import xyz.rk0cc.willpub.core.intern.PackageNames;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.DependenciesReferenceSet;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.DependencyReference;
+import xyz.rk0cc.willpub.pubspec.data.dependencies.type.LocalReference;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A Dart package which found by {@link WorkspaceScanner}.
+ *
+ * @since 1.0.0
+ */
+public final class WorkspacePackage {
+    private final Path directory;
+    private final Pubspec pubspec;
+    private final Map<String, Path> pathDependencies;
+    private final long pubspecModified;
+    private final long pubspecSize;
+
+    /**
+     * Construct package from parsed <code>pubspec.yaml</code>.
+     *
+     * @param directory Absolute path of package directory.
+     * @param pubspec Parsed {@link Pubspec}.
+     * @param pubspecModified Last modified time of <code>pubspec.yaml</code> in milliseconds.
+     * @param pubspecSize Size of <code>pubspec.yaml</code>.
+     */
+    WorkspacePackage(@Nonnull Path directory, @Nonnull Pubspec pubspec, long pubspecModified, long pubspecSize) {
+        this.directory = Objects.requireNonNull(directory);
+        this.pubspec = Objects.requireNonNull(pubspec);
+        this.pubspecModified = pubspecModified;
+        this.pubspecSize = pubspecSize;
+
+        final LinkedHashMap<String, Path> pathDependencies = new LinkedHashMap<>();
+        collectPathDependencies(pubspec.dependencies(), pathDependencies);
+        collectPathDependencies(pubspec.devDependencies(), pathDependencies);
+        // Override replaces location of the same package
+        collectPathDependencies(pubspec.dependencyOverrides(), pathDependencies);
+        this.pathDependencies = Collections.unmodifiableMap(pathDependencies);
+    }
+
+    private void collectPathDependencies(
+            @Nonnull DependenciesReferenceSet references,
+            @Nonnull Map<String, Path> pathDependencies
+    ) {
+        for (DependencyReference dr : references) {
+            if (dr instanceof LocalReference lr)
+                pathDependencies.put(PackageNames.intern(lr.name()), directory.resolve(lr.path()).normalize());
+        }
+    }
+
+    /**
+     * Get name of package.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    public String getName() {
+        return pubspec.name();
+    }
+
+    /**
+     * Get directory of package.
+     *
+     * @return Absolute {@link Path} of package directory.
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get parsed <code>pubspec.yaml</code>.
+     *
+     * @return {@link Pubspec} of package.
+     */
+    @Nonnull
+    public Pubspec getPubspec() {
+        return pubspec;
+    }
+
+    /**
+     * Get dependencies which refer to local directory, including dev dependencies and overrides.
+     *
+     * @return An unmodifiable {@link Map} of package name and absolute normalized {@link Path}.
+     */
+    @Nonnull
+    public Map<String, Path> getPathDependencies() {
+        return pathDependencies;
+    }
+
+    /**
+     * Determine <code>pubspec.yaml</code> is the same file when this package scanned.
+     *
+     * @param modified Current last modified time in milliseconds.
+     * @param size Current size.
+     *
+     * @return <code>true</code> if unchanged.
+     */
+    boolean isPubspecUnchanged(long modified, long size) {
+        return pubspecModified == modified && pubspecSize == size;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkspacePackage{" +
+                "name='" + getName() + '\'' +
+                ", directory=" + directory +
+                ", pathDependencies=" + pathDependencies.keySet() +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package xyz.rk0cc.willpub.core.workspace;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Receive packages from {@link WorkspaceScanner} once they are found.
+ * <br/>
+ * All methods are called concurrently from scanner's worker threads, which should be forwarded to JavaFX application
+ * thread before touching any UI.
+ *
+ * @since 1.0.0
+ */
+public interface WorkspaceScanListener {
+    /**
+     * Called when a package is found, including unchanged package from previous scan.
+     *
+     * @param workspacePackage Found {@link WorkspacePackage}.
+     */
+    void onPackageFound(@Nonnull WorkspacePackage workspacePackage);
+
+    /**
+     * Called when <code>pubspec.yaml</code> can not be read or a directory can not be listed.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param path Path which causes failure.
+     * @param cause Cause of failure.
+     */
+    default void onFailed(@Nonnull Path path, @Nonnull IOException cause) {}
+
+    /**
+     * Called when scanning finished and not cancelled, which after all packages are delivered.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param index Complete {@link WorkspaceIndex}.
+     */
+    default void onCompleted(@Nonnull WorkspaceIndex index) {}
+}
@@ -0,0 +1,290 @@
+package xyz.rk0cc.willpub.core.workspace;
+
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.pubspec.PubspecManager;
+import xyz.rk0cc.willpub.pubspec.data.Pubspec;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walk a root directory in parallel and find every Dart package under it.
+ * <br/>
+ * Each directory is a {@link RecursiveAction} in {@link ForkJoinPool} that subdirectories are listed concurrently.
+ * Directories named in {@link #getPrunedNames()} are never entered, and symbolic links are not followed.
+ * <br/>
+ * When previous {@link WorkspaceIndex} is given, a directory which last modified time is unchanged reuses its listing
+ * instead of reading entries again, and <code>pubspec.yaml</code> which has the same modified time and size is not
+ * parsed again. Since modified time of directory only reflects its own entries, subdirectories are still visited.
+ *
+ * @since 1.0.0
+ */
+public final class WorkspaceScanner implements AutoCloseable {
+    /**
+     * Directories which never contain packages of the workspace, or too large to be walked.
+     */
+    public static final Set<String> DEFAULT_PRUNED_NAMES = Set.of(".dart_tool", "build", ".git", "node_modules");
+
+    private final ForkJoinPool pool;
+    private final Set<String> prunedNames;
+
+    /**
+     * Construct scanner.
+     *
+     * @param parallelism Number of directories listing in the same time.
+     * @param prunedNames Name of directories which will not be entered.
+     */
+    public WorkspaceScanner(int parallelism, @Nonnull Set<String> prunedNames) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.prunedNames = Set.copyOf(prunedNames);
+    }
+
+    /**
+     * Construct scanner with {@linkplain #DEFAULT_PRUNED_NAMES default pruned directories}, which uses double of
+     * available processors since most of the time is waiting file system.
+     */
+    public WorkspaceScanner() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() * 2), DEFAULT_PRUNED_NAMES);
+    }
+
+    /**
+     * Get name of directories which will not be entered.
+     *
+     * @return An unmodifiable {@link Set} of directory name.
+     */
+    @Nonnull
+    public Set<String> getPrunedNames() {
+        return prunedNames;
+    }
+
+    /**
+     * Scan given root directory in background.
+     *
+     * @param root Absolute path of root directory.
+     * @param previous Previous result of the same root for skipping unchanged directories, or <code>null</code> for
+     *                 full scan.
+     * @param listener {@link WorkspaceScanListener} which receives packages once found.
+     *
+     * @return A {@link Future} of {@link WorkspaceIndex}, which can be {@linkplain Future#cancel(boolean) cancelled}
+     *         to stop walking.
+     *
+     * @throws IllegalArgumentException If root is not absolute.
+     */
+    @Nonnull
+    public Future<WorkspaceIndex> scan(
+            @Nonnull Path root,
+            @Nullable WorkspaceIndex previous,
+            @Nonnull WorkspaceScanListener listener
+    ) {
+        if (!root.isAbsolute()) throw new IllegalArgumentException("Required absolute path of workspace root");
+
+        final Path normalizedRoot = root.normalize();
+        final Scan scan = new Scan(
+                normalizedRoot,
+                previous != null && previous.getRoot().equals(normalizedRoot) ? previous : null,
+                Objects.requireNonNull(listener)
+        );
+        final ForkJoinTask<WorkspaceIndex> task = pool.submit(scan::run);
+        scan.owner = task;
+
+        return task;
+    }
+
+    /**
+     * Scan given root directory and wait until finished.
+     *
+     * @param root Absolute path of root directory.
+     * @param previous Previous result of the same root, or <code>null</code> for full scan.
+     *
+     * @return {@link WorkspaceIndex} of root directory.
+     *
+     * @throws IOException If root is not a directory.
+     * @throws InterruptedException If current thread is interrupted while waiting.
+     */
+    @Nonnull
+    public WorkspaceIndex scanAndWait(@Nonnull Path root, @Nullable WorkspaceIndex previous)
+            throws IOException, InterruptedException {
+        try {
+            return scan(root, previous, workspacePackage -> {}).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) throw ioe;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * State of scanning a root directory.
+     */
+    private final class Scan {
+        private final long startNanos = System.nanoTime();
+        private final Path root;
+        private final WorkspaceIndex previous;
+        private final WorkspaceScanListener listener;
+        private final ConcurrentHashMap<Path, WorkspacePackage> packages = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Path, WorkspaceIndex.DirectoryRecord> directories = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Path, IOException> failures = new ConcurrentHashMap<>();
+        private final AtomicInteger reusedDirectories = new AtomicInteger();
+
+        /**
+         * Task returned to caller, which uses for checking cancellation.
+         */
+        private volatile Future<?> owner = null;
+
+        private Scan(@Nonnull Path root, @Nullable WorkspaceIndex previous, @Nonnull WorkspaceScanListener listener) {
+            this.root = root;
+            this.previous = previous;
+            this.listener = listener;
+        }
+
+        private boolean isCancelled() {
+            final Future<?> o = owner;
+            return o != null && o.isCancelled();
+        }
+
+        @Nonnull
+        WorkspaceIndex run() throws IOException {
+            if (!Files.isDirectory(root)) throw new NotDirectoryException(root.toString());
+
+            new DirectoryTask(this, root).invoke();
+            if (isCancelled()) throw new CancellationException();
+
+            final WorkspaceIndex index = new WorkspaceIndex(
+                    root,
+                    packages,
+                    directories,
+                    failures,
+                    Duration.ofNanos(System.nanoTime() - startNanos),
+                    reusedDirectories.get()
+            );
+            listener.onCompleted(index);
+
+            return index;
+        }
+
+        private void fail(@Nonnull Path path, @Nonnull IOException cause) {
+            failures.put(path, cause);
+            listener.onFailed(path, cause);
+        }
+    }
+
+    /**
+     * Visit a directory then fork subdirectories.
+     */
+    private final class DirectoryTask extends RecursiveAction {
+        private final Scan scan;
+        private final Path directory;
+
+        private DirectoryTask(@Nonnull Scan scan, @Nonnull Path directory) {
+            this.scan = scan;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            if (scan.isCancelled()) return;
+
+            final WorkspaceIndex.DirectoryRecord record;
+            try {
+                final BasicFileAttributes attrs = Files.readAttributes(
+                        directory,
+                        BasicFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS
+                );
+                if (!attrs.isDirectory()) return;
+
+                final long modified = attrs.lastModifiedTime().toMillis();
+                final WorkspaceIndex.DirectoryRecord cached = scan.previous == null
+                        ? null
+                        : scan.previous.directories.get(directory);
+
+                if (cached != null && cached.modified() == modified) {
+                    record = cached;
+                    scan.reusedDirectories.incrementAndGet();
+                } else {
+                    record = list(modified);
+                }
+            } catch (NoSuchFileException e) {
+                // Removed after parent listed
+                return;
+            } catch (IOException e) {
+                scan.fail(directory, e);
+                return;
+            }
+
+            scan.directories.put(directory, record);
+            if (record.hasPubspec()) visitPackage();
+
+            final ArrayList<DirectoryTask> subtasks = new ArrayList<>(record.subdirectories().size());
+            for (String name : record.subdirectories()) subtasks.add(new DirectoryTask(scan, directory.resolve(name)));
+            invokeAll(subtasks);
+        }
+
+        /**
+         * Read entries of {@link #directory}.
+         */
+        @Nonnull
+        private WorkspaceIndex.DirectoryRecord list(long modified) throws IOException {
+            final ArrayList<String> subdirectories = new ArrayList<>();
+            boolean hasPubspec = false;
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    final String name = entry.getFileName().toString();
+
+                    if (name.equals(ProjectFile.PUBSPEC_YAML.getFileName())) {
+                        hasPubspec = Files.isRegularFile(entry);
+                    } else if (!prunedNames.contains(name) && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        subdirectories.add(name);
+                    }
+                }
+            }
+
+            return new WorkspaceIndex.DirectoryRecord(modified, List.copyOf(subdirectories), hasPubspec);
+        }
+
+        /**
+         * Parse <code>pubspec.yaml</code> in {@link #directory}, or reuse previous one if unchanged.
+         */
+        private void visitPackage() {
+            final Path pubspecFile = ProjectFile.PUBSPEC_YAML.resolve(directory);
+
+            try {
+                final BasicFileAttributes attrs = Files.readAttributes(pubspecFile, BasicFileAttributes.class);
+                final long modified = attrs.lastModifiedTime().toMillis(), size = attrs.size();
+
+                WorkspacePackage wp = scan.previous == null ? null : scan.previous.getPackage(directory);
+                if (wp == null || !wp.isPubspecUnchanged(modified, size)) {
+                    final long start = WillPubMetrics.start();
+                    final Pubspec pubspec;
+                    try {
+                        pubspec = new PubspecManager(directory).loadPubspec();
+                    } finally {
+                        WillPubMetrics.stop(Metric.PUBSPEC_PARSE, start, directory);
+                    }
+                    wp = new WorkspacePackage(directory, pubspec, modified, size);
+                }
+
+                scan.packages.put(directory, wp);
+                scan.listener.onPackageFound(wp);
+            } catch (NoSuchFileException e) {
+                // Removed after listed
+            } catch (IOException e) {
+                scan.fail(pubspecFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package xyz.rk0cc.willpub.core.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test merging, ordering and cancelling of {@link PubCommandScheduler}.
+ * <br/>
+ * Launches are held by {@link HeldExecutor} and run one by one in test thread. Working directories are never created
+ * that every launched command finishes immediately as {@link PubCommandResult.Status#LAUNCH_FAILED}.
+ */
+final class PubCommandSchedulerTest {
+    /**
+     * Executor which keeps tasks until {@link #runNext()} is called.
+     */
+    private static final class HeldExecutor extends AbstractExecutorService {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutdown = false;
+
+        @Override
+        public void execute(@Nonnull Runnable command) {
+            tasks.add(command);
+        }
+
+        boolean runNext() {
+            final Runnable task = tasks.poll();
+            if (task == null) return false;
+
+            task.run();
+            return true;
+        }
+
+        void runAll() {
+            while (runNext()) ;
+        }
+
+        int held() {
+            return tasks.size();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Nonnull
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            final List<Runnable> remaining = List.copyOf(tasks);
+            tasks.clear();
+            return remaining;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+
+    /**
+     * Record finished commands in order.
+     */
+    private static final class RecordingListener implements PubCommandListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onStarted(@Nonnull PubCommandExecution execution) {
+            events.add("started " + describe(execution.getCommand()));
+        }
+
+        @Override
+        public void onFinished(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result) {
+            events.add(describe(result.getCommand()) + " " + result.getStatus());
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private final HeldExecutor executor = new HeldExecutor();
+    private final PubCommandRunner runner = new PubCommandRunner(executor, 100, Duration.ofMillis(16));
+
+    @AfterEach
+    void closeRunner() {
+        runner.close();
+    }
+
+    @Nonnull
+    private PubCommand command(@Nonnull String project, @Nonnull String action) {
+        return new PubCommand(tempDir.resolve(project), false, List.of(action), PubCommand.DEFAULT_TIMEOUT);
+    }
+
+    @Nonnull
+    private static String describe(@Nonnull PubCommand command) {
+        return command.getWorkingDirectory().getFileName() + " " + String.join(" ", command.getArguments());
+    }
+
+    @Test
+    void testSameProjectRunsSerially() throws Exception {
+        final PubCommandScheduler scheduler = new PubCommandScheduler(runner, 2);
+        final RecordingListener listener = new RecordingListener();
+
+        final ScheduledPubCommand getA
+                = scheduler.submit(command("a", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        final ScheduledPubCommand upgradeA
+                = scheduler.submit(command("a", "upgrade"), PubCommandScheduler.Priority.NORMAL, listener);
+        final ScheduledPubCommand getB
+                = scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+
+        // Project b runs beside a, but the second command of a waits
+        assertEquals(2, executor.held());
+        assertFalse(getA.isQueued());
+        assertTrue(upgradeA.isQueued());
+        assertFalse(getB.isQueued());
+        assertEquals(1, scheduler.getQueueDepth(tempDir.resolve("a")));
+        assertEquals(0, scheduler.getQueueDepth(tempDir.resolve("b")));
+
+        executor.runNext();
+        assertFalse(upgradeA.isQueued());
+        executor.runAll();
+
+        assertEquals(
+                List.of("a get LAUNCH_FAILED", "b get LAUNCH_FAILED", "a upgrade LAUNCH_FAILED"),
+                listener.events
+        );
+        final PubCommandSchedulerStatistics statistics = scheduler.getStatistics();
+        assertEquals(3L, statistics.submitted());
+        assertEquals(3L, statistics.completed());
+        assertEquals(0, statistics.running());
+        assertEquals(0, statistics.queued());
+    }
+
+    @Test
+    void testMergeIdenticalCommand() throws Exception {
+        final PubCommandScheduler scheduler = new PubCommandScheduler(runner, 1);
+        final RecordingListener first = new RecordingListener(), second = new RecordingListener();
+
+        scheduler.submit(command("a", "get"), PubCommandScheduler.Priority.NORMAL, first);
+        final ScheduledPubCommand queued
+                = scheduler.submit(command("a", "upgrade"), PubCommandScheduler.Priority.NORMAL, first);
+        // Timeout is ignored when comparing
+        final ScheduledPubCommand merged = scheduler.submit(
+                command("a", "upgrade").changeTimeout(null),
+                PubCommandScheduler.Priority.NORMAL,
+                second
+        );
+        assertSame(queued, merged);
+        assertEquals(1, scheduler.getQueueDepth(tempDir.resolve("a")));
+
+        // Different arguments or SDK are not merged
+        final ScheduledPubCommand flutter = scheduler.submit(
+                new PubCommand(tempDir.resolve("a"), true, List.of("upgrade"), null),
+                PubCommandScheduler.Priority.NORMAL,
+                second
+        );
+        assertNotSame(queued, flutter);
+        assertEquals(2, scheduler.getQueueDepth(tempDir.resolve("a")));
+
+        executor.runAll();
+        assertEquals(List.of("a get LAUNCH_FAILED", "a upgrade LAUNCH_FAILED"), first.events);
+        assertEquals(List.of("a upgrade LAUNCH_FAILED", "a upgrade LAUNCH_FAILED"), second.events);
+        assertEquals(PubCommandResult.Status.LAUNCH_FAILED, merged.getResult().get().getStatus());
+
+        final PubCommandSchedulerStatistics statistics = scheduler.getStatistics();
+        assertEquals(4L, statistics.submitted());
+        assertEquals(1L, statistics.merged());
+        assertEquals(3L, statistics.completed());
+    }
+
+    @Test
+    void testPriorityOrder() throws Exception {
+        final PubCommandScheduler scheduler = new PubCommandScheduler(runner, 1);
+        final RecordingListener listener = new RecordingListener();
+
+        scheduler.submit(command("a", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.BACKGROUND, listener);
+        final ScheduledPubCommand c
+                = scheduler.submit(command("c", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        final ScheduledPubCommand d
+                = scheduler.submit(command("d", "get"), PubCommandScheduler.Priority.BACKGROUND, listener);
+        scheduler.submit(command("d", "upgrade"), PubCommandScheduler.Priority.BACKGROUND, listener);
+        scheduler.submit(command("e", "get"), PubCommandScheduler.Priority.FOREGROUND, listener);
+
+        // Project d becomes foreground, which promotes both queued commands
+        assertEquals(2, scheduler.changePriority(tempDir.resolve("d"), PubCommandScheduler.Priority.FOREGROUND));
+        assertEquals(0, scheduler.changePriority(tempDir.resolve("d"), PubCommandScheduler.Priority.FOREGROUND));
+        assertEquals(PubCommandScheduler.Priority.FOREGROUND, d.getPriority());
+
+        // Merging raises priority of b to the same as c, which submitted earlier
+        final ScheduledPubCommand b
+                = scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        assertEquals(PubCommandScheduler.Priority.NORMAL, b.getPriority());
+        // But never lowers it
+        assertSame(c, scheduler.submit(command("c", "get"), PubCommandScheduler.Priority.BACKGROUND, listener));
+        assertEquals(PubCommandScheduler.Priority.NORMAL, c.getPriority());
+
+        executor.runAll();
+        assertEquals(
+                List.of("a get", "d get", "d upgrade", "e get", "b get", "b get", "c get", "c get"),
+                listener.events.stream().map(e -> e.substring(0, e.lastIndexOf(' '))).toList()
+        );
+    }
+
+    @Test
+    void testCancelQueued() throws Exception {
+        final PubCommandScheduler scheduler = new PubCommandScheduler(runner, 1);
+        final RecordingListener listener = new RecordingListener();
+
+        final ScheduledPubCommand running
+                = scheduler.submit(command("a", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        final ScheduledPubCommand queued
+                = scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        assertEquals(1, executor.held());
+
+        queued.cancel();
+        assertEquals(0, scheduler.getQueueDepth(tempDir.resolve("b")));
+        assertFalse(queued.isQueued());
+        assertEquals(Duration.ZERO, queued.getRunTime());
+
+        // Cancelled command does not occupy the only slot
+        executor.runAll();
+        assertEquals(PubCommandResult.Status.CANCELLED, queued.getResult().get().getStatus());
+        assertEquals(PubCommandResult.Status.LAUNCH_FAILED, running.getResult().get().getStatus());
+        assertEquals(Set.of("a get LAUNCH_FAILED", "b get CANCELLED"), Set.copyOf(listener.events));
+
+        // Cancelled command no longer accepts merging
+        final ScheduledPubCommand resubmitted
+                = scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        assertNotSame(queued, resubmitted);
+        executor.runAll();
+        assertEquals(PubCommandResult.Status.LAUNCH_FAILED, resubmitted.getResult().get().getStatus());
+
+        final PubCommandSchedulerStatistics statistics = scheduler.getStatistics();
+        assertEquals(1L, statistics.cancelled());
+        assertEquals(2L, statistics.completed());
+    }
+
+    @Test
+    void testClose() throws Exception {
+        final PubCommandScheduler scheduler = new PubCommandScheduler(runner, 1);
+        final RecordingListener listener = new RecordingListener();
+
+        final ScheduledPubCommand running
+                = scheduler.submit(command("a", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+        final ScheduledPubCommand queued
+                = scheduler.submit(command("b", "get"), PubCommandScheduler.Priority.NORMAL, listener);
+
+        scheduler.close();
+        assertThrows(
+                IllegalStateException.class,
+                () -> scheduler.submit(command("c", "get"), PubCommandScheduler.Priority.NORMAL, listener)
+        );
+
+        executor.runAll();
+        assertEquals(PubCommandResult.Status.CANCELLED, queued.getResult().get().getStatus());
+        // Running command is not cancelled by closing
+        assertEquals(PubCommandResult.Status.LAUNCH_FAILED, running.getResult().get().getStatus());
+        assertFalse(executor.isShutdown());
+        assertThrows(IllegalArgumentException.class, () -> new PubCommandScheduler(runner, 0));
+    }
+}
@@ -0,0 +1,188 @@
+package xyz.rk0cc.willpub.core.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test reachability of {@link DependencyGraph}, which project and packages are written inline.
+ * <br/>
+ * The project <code>app</code> depends on <code>a</code>, <code>b</code> and <code>d</code>, which resolves:
+ * <pre>
+ *     a -> c, h, meta (not locked)
+ *     b -> c, e
+ *     c -> e
+ *     e -> c
+ *     d -> f
+ *     g (locked, but nothing depends on it)
+ * </pre>
+ */
+final class DependencyGraphTest {
+    private static final String[][] PACKAGES = {
+            {"a", "c", "h", "meta"},
+            {"b", "c", "e"},
+            {"c", "e"},
+            {"d", "f"},
+            {"e", "c"},
+            {"f"},
+            {"g"},
+            {"h"}
+    };
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Write the project and its packages, and <code>package_config.json</code> if required.
+     */
+    @Nonnull
+    private DependencyGraph build(boolean withPackageConfig) throws IOException, InterruptedException {
+        final Path app = Files.createDirectories(tempDir.resolve("app"));
+        Files.writeString(ProjectFile.PUBSPEC_YAML.resolve(app), """
+                name: app
+                version: 1.0.0
+                environment:
+                  sdk: ">=2.17.0 <3.0.0"
+                dependencies:
+                  a: ^1.0.0
+                  b: ^1.0.0
+                  d: ^1.0.0
+                """, StandardCharsets.UTF_8);
+
+        final StringBuilder lock = new StringBuilder("packages:\n");
+        final StringBuilder config = new StringBuilder("{\"configVersion\":2,\"packages\":[");
+        for (String[] p : PACKAGES) {
+            final String name = p[0];
+            final String type = switch (name) {
+                case "a", "b", "d" -> "direct main";
+                default -> "transitive";
+            };
+            lock.append("  ").append(name).append(":\n")
+                    .append("    dependency: \"").append(type).append("\"\n")
+                    .append("    source: hosted\n")
+                    .append("    version: \"1.0.").append(name.charAt(0) - 'a').append("\"\n");
+
+            final StringBuilder pubspec = new StringBuilder("name: ").append(name).append('\n');
+            if (p.length > 1) pubspec.append("dependencies:\n");
+            for (int i = 1; i < p.length; i++) pubspec.append("  ").append(p[i]).append(": ^1.0.0\n");
+            final Path dir = Files.createDirectories(tempDir.resolve("packages").resolve(name));
+            Files.writeString(ProjectFile.PUBSPEC_YAML.resolve(dir), pubspec, StandardCharsets.UTF_8);
+
+            if (config.charAt(config.length() - 1) != '[') config.append(',');
+            config.append("{\"name\":\"").append(name).append("\",\"rootUri\":\"").append(dir.toUri())
+                    .append("\",\"packageUri\":\"lib/\"}");
+        }
+        config.append("]}");
+
+        Files.writeString(app.resolve("pubspec.lock"), lock, StandardCharsets.UTF_8);
+        if (withPackageConfig) {
+            final Path toolDir = Files.createDirectories(app.resolve(".dart_tool"));
+            Files.writeString(toolDir.resolve("package_config.json"), config, StandardCharsets.UTF_8);
+        }
+
+        return DependencyGraph.of(DartProjectLoader.loadProject(app.toFile()), new PackageManifestCache());
+    }
+
+    @Nonnull
+    private static Set<String> setOf(@Nonnull List<String> names) {
+        final Set<String> set = Set.copyOf(names);
+        assertEquals(names.size(), set.size(), () -> "Duplicated names: " + names);
+        return set;
+    }
+
+    @Test
+    void testEdges() throws Exception {
+        final DependencyGraph graph = build(true);
+        assertTrue(graph.isComplete());
+        assertEquals("app", graph.getRootName());
+        assertEquals(List.of("a", "b", "c", "d", "e", "f", "g", "h"), graph.getPackages());
+        assertEquals(8, graph.size());
+        // Edge to package which is not locked is dropped
+        assertEquals(10, graph.getEdgeCount());
+
+        assertEquals(Set.of("a", "b", "d"), setOf(graph.getDependencies("app")));
+        assertEquals(Set.of("c", "h"), setOf(graph.getDependencies("a")));
+        assertEquals(Set.of("a", "b", "e"), setOf(graph.getDependants("c")));
+        assertEquals(Set.of("app"), setOf(graph.getDependants("a")));
+        assertTrue(graph.getDependants("g").isEmpty());
+
+        assertTrue(graph.isDirectDependency("d"));
+        assertFalse(graph.isDirectDependency("c"));
+        assertFalse(graph.isDirectDependency("app"));
+        assertEquals("1.0.2", graph.getLockedVersion("c"));
+    }
+
+    @Test
+    void testTransitiveClosures() throws Exception {
+        final DependencyGraph graph = build(true);
+
+        assertEquals(Set.of("a", "b", "c", "d", "e", "f", "h"), setOf(graph.getTransitiveDependencies("app")));
+        assertEquals(Set.of("c", "e", "h"), setOf(graph.getTransitiveDependencies("a")));
+        // Members of a cycle reach themselves
+        assertEquals(Set.of("c", "e"), setOf(graph.getTransitiveDependencies("c")));
+        assertEquals(Set.of("c", "e"), setOf(graph.getTransitiveDependencies("e")));
+        assertTrue(graph.getTransitiveDependencies("f").isEmpty());
+
+        assertEquals(Set.of("app", "a", "b", "c", "e"), setOf(graph.getTransitiveDependants("c")));
+        assertEquals(Set.of("app", "d"), setOf(graph.getTransitiveDependants("f")));
+        assertTrue(graph.getTransitiveDependants("g").isEmpty());
+    }
+
+    @Test
+    void testWhyIncluded() throws Exception {
+        final DependencyGraph graph = build(true);
+
+        assertEquals(List.of("app"), graph.whyIncluded("app"));
+        assertEquals(List.of("app", "d", "f"), graph.whyIncluded("f"));
+        // Shortest chain instead of the one through a and c
+        assertEquals(List.of("app", "b", "e"), graph.whyIncluded("e"));
+        assertEquals(List.of(), graph.whyIncluded("g"));
+    }
+
+    @Test
+    void testRemovalImpact() throws Exception {
+        final DependencyGraph graph = build(true);
+
+        assertEquals(Set.of("a", "h"), setOf(graph.removalImpact("a")));
+        assertEquals(Set.of("d", "f"), setOf(graph.removalImpact("d")));
+        // Still reachable through b
+        assertEquals(Set.of("c"), setOf(graph.removalImpact("c")));
+        assertEquals(Set.of("h"), setOf(graph.removalImpact("h")));
+        assertTrue(graph.removalImpact("g").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> graph.removalImpact("app"));
+    }
+
+    @Test
+    void testUnknownPackage() throws Exception {
+        final DependencyGraph graph = build(true);
+
+        assertFalse(graph.contains("not_a_dependency"));
+        assertFalse(graph.contains("meta"));
+        assertThrows(NoSuchElementException.class, () -> graph.getDependencies("not_a_dependency"));
+        assertThrows(NoSuchElementException.class, () -> graph.whyIncluded("meta"));
+        assertThrows(NoSuchElementException.class, () -> graph.getLockedVersion("app"));
+    }
+
+    @Test
+    void testIncompleteWithoutPackageConfig() throws Exception {
+        final DependencyGraph graph = build(false);
+
+        assertFalse(graph.isComplete());
+        assertEquals(8, graph.size());
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(Set.of("a", "b", "d"), setOf(graph.getTransitiveDependencies("app")));
+        assertEquals(List.of(), graph.whyIncluded("c"));
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test {@link PackageConfigReader} with package configurations written inline.
+ */
+final class PackageConfigReaderTest {
+    private static final URI CONFIG_URI = URI.create("file:///home/dev/app/.dart_tool/package_config.json");
+
+    @TempDir
+    Path tempDir;
+
+    @Nonnull
+    private static PackageConfig read(@Nonnull String json) throws IOException {
+        return PackageConfigReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), CONFIG_URI);
+    }
+
+    @Test
+    void testReadEntries() throws Exception {
+        final PackageConfig config = read("""
+                {
+                  "configVersion": 2,
+                  "packages": [
+                    {
+                      "name": "http",
+                      "rootUri": "file:///home/dev/.pub-cache/hosted/pub.dartlang.org/http-0.13.4",
+                      "packageUri": "lib/",
+                      "languageVersion": "2.12"
+                    },
+                    {
+                      "name": "app",
+                      "rootUri": "../",
+                      "packageUri": "lib/",
+                      "languageVersion": "2.17",
+                      "extra": {"ignored": [1, 2]}
+                    },
+                    {
+                      "name": "lints",
+                      "rootUri": "../../lints"
+                    }
+                  ],
+                  "generated": "2022-03-01T00:00:00.000Z",
+                  "generator": "pub",
+                  "generatorVersion": "2.17.0"
+                }
+                """);
+
+        assertEquals(2, config.getConfigVersion());
+        assertEquals("2.17.0", config.getGeneratorVersion());
+        assertEquals(3, config.getPackages().size());
+
+        final PackageConfigEntry http = config.getPackage("http");
+        assertNotNull(http);
+        assertEquals(
+                URI.create("file:///home/dev/.pub-cache/hosted/pub.dartlang.org/http-0.13.4"),
+                http.getRootUri()
+        );
+        assertEquals("lib/", http.getPackageUri());
+        assertEquals("2.12", http.getLanguageVersion());
+
+        // Relative root is resolved from location of package_config.json
+        assertEquals(URI.create("file:///home/dev/app/"), config.getPackage("app").getRootUri());
+        assertEquals(URI.create("file:///home/dev/lints"), config.getPackage("lints").getRootUri());
+        assertNull(config.getPackage("lints").getPackageUri());
+        assertNull(config.getPackage("lints").getLanguageVersion());
+
+        assertNull(config.getPackage("meta"));
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IOException.class, () -> read("[]"));
+        assertThrows(IOException.class, () -> read("{\"packages\": [{\"name\": \"http\"}]}"));
+        assertThrows(IOException.class, () -> read("{\"packages\": [{\"rootUri\": \"../\"}]}"));
+        assertThrows(IOException.class, () -> read("{\"packages\": [{\"name\": \"a\", \"rootUri\": \"::\"}]}"));
+    }
+
+    @Test
+    void testNoPackages() throws Exception {
+        final PackageConfig config = read("{\"configVersion\": 2, \"packages\": \"none\"}");
+        assertEquals(2, config.getConfigVersion());
+        assertTrue(config.getPackages().isEmpty());
+        assertNull(config.getGeneratorVersion());
+    }
+
+    @Test
+    void testReadFile() throws Exception {
+        final Path toolDir = Files.createDirectories(tempDir.resolve("app").resolve(".dart_tool"));
+        final Path file = toolDir.resolve("package_config.json");
+        Files.writeString(
+                file,
+                "{\"configVersion\":2,\"packages\":[{\"name\":\"app\",\"rootUri\":\"../\",\"packageUri\":\"lib/\"}]}",
+                StandardCharsets.UTF_8
+        );
+
+        final PackageConfig config = PackageConfigReader.read(file);
+        assertEquals(1, config.getPackages().size());
+        assertEquals(tempDir.resolve("app").toUri(), config.getPackage("app").getRootUri());
+    }
+}
@@ -0,0 +1,174 @@
+package xyz.rk0cc.willpub.core.project.lock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test {@link PubspecLockReader} with lock files written inline.
+ */
+final class PubspecLockReaderTest {
+    private static final String LOCK = """
+            # Generated by pub
+            # See https://dart.dev/tools/pub/glossary#lockfile
+            packages:
+              http:
+                dependency: "direct main"
+                description:
+                  name: http
+                  url: "https://pub.dartlang.org"
+                source: hosted
+                version: "0.13.4"
+              lints:
+                dependency: "direct dev"
+                description:
+                  path: "../lints"
+                  relative: true
+                source: path
+                version: "2.0.0"
+              meta:
+                dependency: transitive
+                description:
+                  path: "."
+                  ref: main
+                  resolved-ref: "0123456789abcdef0123456789abcdef01234567"
+                  url: "https://github.com/dart-lang/sdk.git"
+                source: git
+                version: "1.8.0"
+              flutter:
+                dependency: "direct main"
+                description: flutter
+                source: sdk
+                version: "0.0.0"
+            sdks:
+              dart: ">=2.17.0 <3.0.0"
+              flutter: ">=3.0.0"
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Nonnull
+    private static PubspecLock read(@Nonnull String lock, @Nonnull Set<LockReadOption> options) throws IOException {
+        return PubspecLockReader.read(new ByteArrayInputStream(lock.getBytes(StandardCharsets.UTF_8)), options);
+    }
+
+    @Test
+    void testReadAll() throws Exception {
+        final PubspecLock lock = read(LOCK, LockReadOption.ALL);
+        assertEquals(4, lock.size());
+        assertEquals(Map.of("dart", ">=2.17.0 <3.0.0", "flutter", ">=3.0.0"), lock.getSdks());
+
+        final LockedPackage http = lock.getPackage("http");
+        assertNotNull(http);
+        assertEquals("0.13.4", http.getRawVersion());
+        assertNotNull(http.getVersion());
+        assertEquals(LockedPackage.Source.HOSTED, http.getSource());
+        assertEquals(LockedPackage.DependencyType.DIRECT_MAIN, http.getDependencyType());
+        assertEquals("https://pub.dartlang.org", http.getLocation());
+        assertTrue(http.isDirect());
+
+        final LockedPackage lints = lock.getPackage("lints");
+        assertNotNull(lints);
+        assertEquals(LockedPackage.Source.PATH, lints.getSource());
+        assertEquals(LockedPackage.DependencyType.DIRECT_DEV, lints.getDependencyType());
+        assertEquals("../lints", lints.getLocation());
+
+        final LockedPackage meta = lock.getPackage("meta");
+        assertNotNull(meta);
+        assertEquals(LockedPackage.Source.GIT, meta.getSource());
+        assertEquals(LockedPackage.DependencyType.TRANSITIVE, meta.getDependencyType());
+        assertEquals("https://github.com/dart-lang/sdk.git", meta.getLocation());
+        assertEquals("0123456789abcdef0123456789abcdef01234567", meta.getResolvedRef());
+        assertFalse(meta.isDirect());
+
+        final LockedPackage flutter = lock.getPackage("flutter");
+        assertNotNull(flutter);
+        assertEquals(LockedPackage.Source.SDK, flutter.getSource());
+        assertEquals("flutter", flutter.getLocation());
+
+        assertNull(lock.getPackage("path"));
+        assertSame(http, lock.getPackage(http.getNameId()));
+    }
+
+    @Test
+    void testSkipUnrequestedSections() throws Exception {
+        final PubspecLock packagesOnly = read(LOCK, LockReadOption.PACKAGES_ONLY);
+        assertEquals(4, packagesOnly.size());
+        assertTrue(packagesOnly.getSdks().isEmpty());
+        assertNull(packagesOnly.getPackage("http").getLocation());
+        assertNull(packagesOnly.getPackage("meta").getResolvedRef());
+        assertEquals(LockedPackage.Source.GIT, packagesOnly.getPackage("meta").getSource());
+
+        final PubspecLock sdksOnly = read(LOCK, Set.of(LockReadOption.SDKS));
+        assertEquals(0, sdksOnly.size());
+        assertEquals(2, sdksOnly.getSdks().size());
+    }
+
+    @Test
+    void testUnknownValues() throws Exception {
+        final PubspecLock lock = read("""
+                packages:
+                  custom:
+                    dependency: "direct future"
+                    source: somewhere
+                    version: "1.0.0"
+                    extra:
+                      - nested
+                  untyped:
+                    version: "2.0.0"
+                  invalid: "not a package"
+                sdks:
+                  dart:
+                  nested:
+                    min: "2.0.0"
+                unknown: true
+                """, LockReadOption.ALL);
+
+        assertEquals(2, lock.size());
+        assertEquals(LockedPackage.Source.UNKNOWN, lock.getPackage("custom").getSource());
+        assertEquals(LockedPackage.DependencyType.TRANSITIVE, lock.getPackage("custom").getDependencyType());
+        assertEquals(LockedPackage.Source.UNKNOWN, lock.getPackage("untyped").getSource());
+        assertTrue(lock.getSdks().isEmpty());
+    }
+
+    @Test
+    void testEmptyAndMalformed() throws Exception {
+        assertEquals(0, read("", LockReadOption.ALL).size());
+        assertThrows(IOException.class, () -> read("- packages", LockReadOption.ALL));
+        assertThrows(IOException.class, () -> read("packages:\n  http:\n    source: hosted\n", LockReadOption.ALL));
+    }
+
+    @Test
+    void testReadFileLargerThanBuffer() throws Exception {
+        // Exceed a single buffer of the file input
+        final StringBuilder lock = new StringBuilder("packages:\n");
+        for (int i = 0; i < 2000; i++) {
+            lock.append("  package_").append(i).append(":\n")
+                    .append("    dependency: transitive\n")
+                    .append("    description:\n")
+                    .append("      name: package_").append(i).append('\n')
+                    .append("      url: \"https://pub.dartlang.org\"\n")
+                    .append("    source: hosted\n")
+                    .append("    version: \"1.").append(i).append(".0\"\n");
+        }
+        final Path file = tempDir.resolve("pubspec.lock");
+        Files.writeString(file, lock, StandardCharsets.UTF_8);
+        assertTrue(Files.size(file) > 64 * 1024);
+
+        final PubspecLock read = PubspecLockReader.read(file);
+        assertEquals(2000, read.size());
+        assertEquals("1.1999.0", read.getPackage("package_1999").getRawVersion());
+        assertEquals(read, PubspecLockReader.read(file));
+    }
+}
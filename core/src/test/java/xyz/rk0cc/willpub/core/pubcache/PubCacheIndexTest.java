@@ -0,0 +1,156 @@
+package xyz.rk0cc.willpub.core.pubcache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.rk0cc.willpub.core.project.lock.LockReadOption;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLock;
+import xyz.rk0cc.willpub.core.project.lock.PubspecLockReader;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test binary encoding of {@link PubCacheIndex} and rejecting corrupted index.
+ */
+final class PubCacheIndexTest {
+    private static final Path PUB_CACHE = Path.of("/home/dev/.pub-cache");
+    private static final Path PROJECT_A = Path.of("/home/dev/app_a");
+    private static final Path PROJECT_B = Path.of("/home/dev/app_b");
+    private static final long CREATED = 1_646_092_800_000L;
+
+    private static final PubCacheEntry HTTP_OLD = new PubCacheEntry(
+            "pub.dev", "http", "0.13.3", 50L, 1000L, List.of()
+    );
+    private static final PubCacheEntry HTTP_LEGACY_HOST = new PubCacheEntry(
+            "pub.dartlang.org", "http", "0.13.4", 80L, 2000L, List.of(PROJECT_B)
+    );
+    private static final PubCacheEntry HTTP = new PubCacheEntry(
+            "pub.dev", "http", "0.13.4", 100L, 3000L, List.of(PROJECT_A)
+    );
+    private static final PubCacheEntry PATH = new PubCacheEntry(
+            "pub.dev", "path", "1.8.2", 20L, 4000L, List.of(PROJECT_A, PROJECT_B)
+    );
+
+    @TempDir
+    Path tempDir;
+
+    @Nonnull
+    private static byte[] encoded() {
+        return PubCacheIndex.encode(PUB_CACHE, List.of(PATH, HTTP, HTTP_OLD, HTTP_LEGACY_HOST), CREATED);
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        final PubCacheIndex index = PubCacheIndex.wrap(encoded());
+
+        assertEquals(4, index.size());
+        assertEquals(250L, index.getTotalSize());
+        assertEquals(Instant.ofEpochMilli(CREATED), index.getCreatedTime());
+        assertEquals(PUB_CACHE, index.getPubCacheDirectory());
+        assertEquals(2, index.getProjects().size());
+        assertEquals(Set.of(PROJECT_A, PROJECT_B), Set.copyOf(index.getProjects()));
+
+        // Sorted by name, version, then host
+        assertEquals(List.of(HTTP_OLD, HTTP_LEGACY_HOST, HTTP, PATH), index.getEntries());
+        assertEquals(PATH.getReferencingProjects(), index.getEntry(3).getReferencingProjects());
+        assertEquals(Instant.ofEpochMilli(4000L), index.getEntry(3).getLastModified());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.getEntry(4));
+    }
+
+    @Test
+    void testLookup() throws Exception {
+        final PubCacheIndex index = PubCacheIndex.wrap(encoded());
+
+        assertEquals(List.of(HTTP_OLD, HTTP_LEGACY_HOST, HTTP), index.getVersions("http"));
+        assertEquals(List.of(PATH), index.getVersions("path"));
+        for (String absent : List.of("async", "meta", "zzz")) assertTrue(index.getVersions(absent).isEmpty());
+
+        assertEquals(HTTP, index.find("pub.dev", "http", "0.13.4"));
+        assertEquals(HTTP_LEGACY_HOST, index.find(null, "http", "0.13.4"));
+        assertNull(index.find("pub.dartlang.org", "http", "0.13.3"));
+        assertNull(index.find(null, "http", "0.13.5"));
+
+        assertTrue(index.isCached("path", "1.8.2"));
+        assertFalse(index.isCached("path", "1.8.1"));
+        assertEquals(List.of(HTTP_OLD), index.getUnreferenced());
+    }
+
+    @Test
+    void testMissingFromLock() throws Exception {
+        final PubspecLock lock = PubspecLockReader.read(new ByteArrayInputStream("""
+                packages:
+                  http:
+                    source: hosted
+                    version: "0.13.4"
+                  path:
+                    source: hosted
+                    version: "1.8.1"
+                  local:
+                    source: path
+                    version: "1.0.0"
+                """.getBytes(StandardCharsets.UTF_8)), LockReadOption.PACKAGES_ONLY);
+
+        final List<LockedPackage> missing = PubCacheIndex.wrap(encoded()).getMissing(lock);
+        assertEquals(1, missing.size());
+        assertEquals("path", missing.get(0).getName());
+    }
+
+    @Test
+    void testEmptyAndMapped() throws Exception {
+        final PubCacheIndex empty = PubCacheIndex.wrap(PubCacheIndex.encode(PUB_CACHE, List.of(), CREATED));
+        assertEquals(0, empty.size());
+        assertEquals(0L, empty.getTotalSize());
+        assertTrue(empty.getProjects().isEmpty());
+        assertTrue(empty.getVersions("http").isEmpty());
+
+        final Path file = tempDir.resolve("pub-cache.idx");
+        Files.write(file, encoded());
+        final PubCacheIndex mapped = PubCacheIndex.map(file);
+        assertEquals(PubCacheIndex.wrap(encoded()).getEntries(), mapped.getEntries());
+        assertEquals(PUB_CACHE, mapped.getPubCacheDirectory());
+    }
+
+    @Test
+    void testCorruptedIsRejected() throws Exception {
+        final byte[] valid = encoded();
+        final int entries = 8, references = 16, root = 20;
+
+        final byte[] magic = valid.clone();
+        magic[0] ^= 0x7F;
+        final byte[] format = valid.clone();
+        ByteBuffer.wrap(format).putShort(4, (short) 2);
+        final byte[] negative = valid.clone();
+        ByteBuffer.wrap(negative).putInt(entries, -1);
+        final byte[] huge = valid.clone();
+        ByteBuffer.wrap(huge).putInt(references, 1 << 24);
+        final byte[] overflow = valid.clone();
+        ByteBuffer.wrap(overflow).putInt(entries, Integer.MAX_VALUE / 8);
+        // Offset of projects exceeds int range, which must not wrap to negative
+        final byte[] wrapped = valid.clone();
+        ByteBuffer.wrap(wrapped).putInt(entries, 1 << 26).putInt(12, 0).putInt(references, 0);
+        final byte[] rootOutside = valid.clone();
+        ByteBuffer.wrap(rootOutside).putInt(root, valid.length);
+        final byte[] truncated = Arrays.copyOf(valid, 60);
+
+        for (byte[] corrupted : List.of(magic, format, negative, huge, overflow, wrapped, rootOutside, truncated))
+            assertThrows(IOException.class, () -> PubCacheIndex.wrap(corrupted));
+
+        final Path file = tempDir.resolve("pub-cache.idx");
+        Files.write(file, Arrays.copyOf(valid, 39));
+        assertThrows(IOException.class, () -> PubCacheIndex.map(file));
+        Files.write(file, truncated);
+        assertThrows(IOException.class, () -> PubCacheIndex.map(file));
+    }
+}
@@ -0,0 +1,277 @@
+package xyz.rk0cc.willpub.core.pubdev;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test {@link PubDevHttpCache} against a local stub server of pub.dev API.
+ */
+final class PubDevHttpCacheTest {
+    private static final String PATH = "api/packages/http";
+    private static final String BODY = "{\"name\":\"http\",\"latest\":{\"version\":\"0.13.4\"}}";
+    private static final String ETAG = "\"http-0.13.4\"";
+    private static final String LAST_MODIFIED = "Tue, 01 Mar 2022 00:00:00 GMT";
+
+    private static final Duration LONG_TTL = Duration.ofHours(1);
+
+    /**
+     * Status code of stub server for each request, <code>200</code> or <code>304</code> is depended on conditional
+     * headers.
+     */
+    private final AtomicInteger forcedStatus = new AtomicInteger();
+
+    /**
+     * Number of received requests.
+     */
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * Value of <code>If-None-Match</code> and <code>If-Modified-Since</code> of each request.
+     */
+    private final List<String[]> conditions = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path diskDir;
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(@Nonnull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            final String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            conditions.add(new String[] {ifNoneMatch, ifModifiedSince});
+
+            if (!exchange.getRequestURI().getPath().equals("/" + PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            final int status = forcedStatus.get();
+            if (status != 0) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            final byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Nonnull
+    private PubDevHttpCache newCache(@Nonnull Duration ttl) throws IOException {
+        return new PubDevHttpCache(
+                HttpClient.newHttpClient(),
+                URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/"),
+                diskDir,
+                PubDevHttpCache.DEFAULT_DISK_MAX_BYTES,
+                PubDevHttpCache.DEFAULT_MEMORY_MAX_BYTES,
+                ttl
+        );
+    }
+
+    @Nonnull
+    private static String bodyOf(@Nonnull PubDevResponse response) throws IOException {
+        try (InputStream in = response.openBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testMemoryAndDiskHits() throws Exception {
+        final PubDevHttpCache cache = newCache(LONG_TTL);
+
+        final PubDevResponse downloaded = cache.get(PATH);
+        assertEquals(PubDevResponse.Source.NETWORK, downloaded.getSource());
+        assertEquals(BODY, bodyOf(downloaded));
+
+        final PubDevResponse memoryHit = cache.get(PATH);
+        assertEquals(PubDevResponse.Source.MEMORY, memoryHit.getSource());
+        assertEquals(BODY, bodyOf(memoryHit));
+        assertEquals(2L, cache.getStatistics().lookups());
+        assertEquals(1L, cache.getStatistics().memoryHits());
+        assertEquals(1L, cache.getStatistics().downloaded());
+
+        // New instance has nothing in memory, but shares the same disk directory
+        final PubDevHttpCache restarted = newCache(LONG_TTL);
+        final PubDevResponse diskHit = restarted.get(PATH);
+        assertEquals(PubDevResponse.Source.DISK, diskHit.getSource());
+        assertEquals(BODY, bodyOf(diskHit));
+        assertEquals(PubDevResponse.Source.MEMORY, restarted.get(PATH).getSource());
+
+        final PubDevCacheStatistics stats = restarted.getStatistics();
+        assertEquals(1L, stats.diskHits());
+        assertEquals(1L, stats.memoryHits());
+        assertEquals(0L, stats.downloaded());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testCorruptedDiskEntryIsMiss() throws Exception {
+        newCache(LONG_TTL).get(PATH);
+
+        final Path entry;
+        try (Stream<Path> files = Files.list(diskDir)) {
+            entry = files.filter(f -> f.toString().endsWith(".http")).findFirst().orElseThrow();
+        }
+        final byte[] valid = Files.readAllBytes(entry);
+        final int bodyLength = BODY.getBytes(StandardCharsets.UTF_8).length;
+
+        // Negative length, huge length and truncated body
+        final byte[] negative = valid.clone();
+        ByteBuffer.wrap(negative).putInt(valid.length - bodyLength - Integer.BYTES, -1);
+        final byte[] huge = valid.clone();
+        ByteBuffer.wrap(huge).putInt(valid.length - bodyLength - Integer.BYTES, Integer.MAX_VALUE);
+        final byte[] truncated = Arrays.copyOf(valid, valid.length - 1);
+
+        int expectedRequests = 1;
+        for (byte[] corrupted : new byte[][] {negative, huge, truncated}) {
+            Files.write(entry, corrupted);
+
+            final PubDevHttpCache restarted = newCache(LONG_TTL);
+            final PubDevResponse response = restarted.get(PATH);
+            assertEquals(PubDevResponse.Source.NETWORK, response.getSource());
+            assertEquals(BODY, bodyOf(response));
+            assertEquals(0L, restarted.getStatistics().diskHits());
+            assertEquals(++expectedRequests, requests.get());
+            assertEquals(valid.length, Files.readAllBytes(entry).length);
+        }
+    }
+
+    @Test
+    void testMissCountedAsFailure() throws Exception {
+        final PubDevHttpCache cache = newCache(LONG_TTL);
+
+        final PubDevHttpException e = assertThrows(PubDevHttpException.class, () -> cache.get("api/packages/none"));
+        assertTrue(e.isNotFound());
+        assertEquals(1L, cache.getStatistics().failures());
+        assertEquals(0L, cache.getStatistics().memoryHits() + cache.getStatistics().diskHits());
+    }
+
+    @Test
+    void testNotModifiedReusesCachedBody() throws Exception {
+        final PubDevHttpCache cache = newCache(LONG_TTL);
+        cache.get(PATH);
+
+        final PubDevResponse revalidated = cache.get(PATH, PubDevCachePolicy.REVALIDATE);
+        assertEquals(PubDevResponse.Source.REVALIDATED, revalidated.getSource());
+        assertEquals(BODY, bodyOf(revalidated));
+        assertArrayEquals(new String[] {ETAG, LAST_MODIFIED}, conditions.get(1));
+        assertEquals(1L, cache.getStatistics().revalidated());
+        assertEquals(1L, cache.getStatistics().downloaded());
+    }
+
+    @Test
+    void testExpiredAfterTTL() throws Exception {
+        final PubDevHttpCache cache = newCache(Duration.ofMillis(500L));
+
+        assertEquals(PubDevResponse.Source.NETWORK, cache.get(PATH).getSource());
+        assertEquals(PubDevResponse.Source.MEMORY, cache.get(PATH).getSource());
+        assertEquals(1, requests.get());
+
+        Thread.sleep(600L);
+
+        final PubDevResponse expired = cache.get(PATH);
+        assertEquals(PubDevResponse.Source.REVALIDATED, expired.getSource());
+        assertEquals(BODY, bodyOf(expired));
+        assertEquals(2, requests.get());
+
+        // Revalidation renews TTL
+        assertEquals(PubDevResponse.Source.MEMORY, cache.get(PATH).getSource());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testOfflineWhenServerStopped() throws Exception {
+        final PubDevHttpCache cache = newCache(Duration.ZERO);
+        cache.get(PATH);
+        server.stop(0);
+
+        final PubDevResponse offlineFirst = cache.get(PATH, PubDevCachePolicy.OFFLINE_FIRST);
+        assertEquals(PubDevResponse.Source.STALE, offlineFirst.getSource());
+        assertEquals(BODY, bodyOf(offlineFirst));
+
+        final PubDevResponse offlineOnly = cache.get(PATH, PubDevCachePolicy.OFFLINE_ONLY);
+        assertEquals(PubDevResponse.Source.STALE, offlineOnly.getSource());
+        assertEquals(BODY, bodyOf(offlineOnly));
+
+        // Unable to connect, serve stale one
+        assertEquals(PubDevResponse.Source.STALE, cache.get(PATH).getSource());
+
+        assertThrows(IOException.class, () -> cache.get("api/packages/path", PubDevCachePolicy.OFFLINE_ONLY));
+        assertThrows(IOException.class, () -> cache.get("api/packages/path", PubDevCachePolicy.OFFLINE_FIRST));
+
+        final PubDevCacheStatistics stats = cache.getStatistics();
+        assertEquals(3L, stats.staleServed());
+        assertEquals(2L, stats.failures());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testStaleWhenServerError() throws Exception {
+        final PubDevHttpCache cache = newCache(Duration.ZERO);
+        cache.get(PATH);
+        forcedStatus.set(503);
+
+        final PubDevResponse stale = cache.get(PATH);
+        assertEquals(PubDevResponse.Source.STALE, stale.getSource());
+        assertEquals(BODY, bodyOf(stale));
+        assertEquals(2, requests.get());
+        assertEquals(1L, cache.getStatistics().staleServed());
+
+        // Nothing can be served
+        cache.clear();
+        final PubDevHttpException e = assertThrows(PubDevHttpException.class, () -> cache.get(PATH));
+        assertEquals(503, e.getStatusCode());
+        assertTrue(e.isRetryable());
+        assertEquals(1L, cache.getStatistics().failures());
+    }
+}
@@ -0,0 +1,321 @@
+package xyz.rk0cc.willpub.core.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test {@link ProjectSessionController} without any UI toolkit, which test thread is the owner's thread and runs
+ * dispatched actions from a queue.
+ */
+final class ProjectSessionControllerTest {
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Actions dispatched to owner's thread.
+     */
+    private final LinkedBlockingQueue<Runnable> ownerQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * Reported changes in order, e.g. <code>applied app_a</code>.
+     */
+    private final List<String> events = new ArrayList<>();
+
+    private DartProjectLoader loader;
+    private ProjectSessionManager manager;
+    private ProjectSessionController controller;
+
+    /**
+     * Record every change except loading stages.
+     */
+    private final class RecordingListener implements ProjectSessionListener {
+        @Override
+        public void onRestored(
+                @Nonnull File directory,
+                @Nonnull DartProject project,
+                @Nonnull List<SessionSnapshot.PackageStatus> packages,
+                @Nonnull Map<String, String> uiStates
+        ) {
+            events.add("restored " + directory.getName() + " " + packages.size() + " " + uiStates);
+        }
+
+        @Override
+        public void onApplied(@Nonnull File directory, @Nonnull DartProject project) {
+            events.add("applied " + directory.getName());
+        }
+
+        @Override
+        public void onDiscovered(
+                @Nonnull File root,
+                @Nonnull List<WorkspacePackage> discovered,
+                @Nullable WorkspaceIndex index
+        ) {
+            if (index != null) events.add("scanned " + index.getPackages().size());
+        }
+
+        @Override
+        public void onFailed(@Nonnull String path, @Nullable Throwable throwable) {
+            events.add("failed " + new File(path).getName());
+        }
+
+        @Override
+        public void onReset() {
+            events.add("reset");
+        }
+    }
+
+    @BeforeEach
+    void createController() {
+        // Single loading thread that outdated loading always finishes before the next one
+        loader = new DartProjectLoader(WillPubExecutors.newBoundedExecutor("willpub-controller-test", 1));
+        relaunch();
+    }
+
+    /**
+     * Replace controller with a new one like next launch, which shares nothing except the loader.
+     */
+    private void relaunch() {
+        if (manager != null) manager.close();
+        manager = new ProjectSessionManager(ProjectSessionManager.DEFAULT_MEMORY_BUDGET, null);
+        controller = new ProjectSessionController(
+                loader,
+                manager,
+                (label, action) -> ownerQueue.add(action),
+                new RecordingListener()
+        );
+        events.clear();
+    }
+
+    @AfterEach
+    void closeController() {
+        manager.close();
+        loader.close();
+    }
+
+    /**
+     * Write a Dart project without dependencies, which package name is the last segment of the path.
+     */
+    @Nonnull
+    private File project(@Nonnull String path) throws IOException {
+        final Path dir = Files.createDirectories(tempDir.resolve(path));
+        Files.writeString(
+                ProjectFile.PUBSPEC_YAML.resolve(dir),
+                "name: " + dir.getFileName() + "\nversion: 1.0.0\nenvironment:\n  sdk: \">=2.17.0 <3.0.0\"\n",
+                StandardCharsets.UTF_8
+        );
+        return dir.toFile();
+    }
+
+    /**
+     * Run dispatched actions in test thread until condition is satisfied.
+     */
+    private void runUntil(@Nonnull BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            final Runnable action = ownerQueue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (action == null) fail("Timed out, reported " + events);
+            action.run();
+        }
+    }
+
+    private void runUntilReported(@Nonnull String event) throws InterruptedException {
+        runUntil(() -> events.contains(event));
+    }
+
+    @Test
+    void testOpenAndResetKeepsModel() throws Exception {
+        final File a = project("app_a");
+
+        controller.openDirectory(a);
+        assertTrue(controller.isLoading());
+        runUntilReported("applied app_a");
+
+        final DartProject loaded = controller.getCurrentProject();
+        final ProjectSession session = controller.getCurrentSession();
+        assertNotNull(loaded);
+        assertNotNull(session);
+        assertEquals(a, controller.getCurrentDirectory());
+        assertEquals(ProjectSession.State.ACTIVE, session.getState());
+        assertFalse(controller.isLoading());
+
+        controller.reset();
+        assertEquals(List.of("applied app_a", "reset"), events);
+        assertNull(controller.getCurrentProject());
+        assertNull(controller.getCurrentDirectory());
+        // Resources are released in background, but state is changed when it returns
+        assertEquals(ProjectSession.State.INACTIVE, session.getState());
+
+        // Unchanged files are applied from kept model
+        controller.openDirectory(a);
+        runUntil(() -> events.size() == 3);
+        assertEquals("applied app_a", events.get(2));
+        assertSame(loaded, controller.getCurrentProject());
+        assertSame(session, controller.getCurrentSession());
+    }
+
+    @Test
+    void testOpeningAnotherDiscardsPrevious() throws Exception {
+        final File a = project("app_a"), b = project("app_b");
+
+        controller.openDirectory(a);
+        controller.openDirectory(b);
+        runUntilReported("applied app_b");
+
+        assertEquals(List.of("applied app_b"), events);
+        assertEquals(b, controller.getCurrentDirectory());
+        assertEquals(1, manager.getOpenSessions().size());
+    }
+
+    @Test
+    void testFailedWhenNotProject() throws Exception {
+        final File empty = Files.createDirectories(tempDir.resolve("empty")).toFile();
+
+        controller.openDirectory(empty);
+        runUntilReported("failed empty");
+        assertNull(controller.getCurrentProject());
+        assertFalse(controller.isLoading());
+
+        controller.openWorkspace(new File("relative"));
+        assertEquals("failed relative", events.get(events.size() - 1));
+    }
+
+    @Test
+    void testCloseSessionKeepsOthersOpen() throws Exception {
+        final File a = project("app_a"), b = project("app_b");
+
+        controller.openDirectory(a);
+        runUntilReported("applied app_a");
+        final ProjectSession sessionA = controller.getCurrentSession();
+        controller.openDirectory(b);
+        runUntilReported("applied app_b");
+        assertEquals(2, manager.getOpenSessions().size());
+
+        // Not applied, only deactivated
+        controller.closeSession(sessionA);
+        assertEquals(ProjectSession.State.INACTIVE, sessionA.getState());
+        assertEquals(b, controller.getCurrentDirectory());
+        assertEquals(List.of("applied app_a", "applied app_b"), events);
+
+        // Applied one is the same as reset
+        controller.closeSession(controller.getCurrentSession());
+        assertEquals("reset", events.get(events.size() - 1));
+        assertTrue(manager.getOpenSessions().isEmpty());
+    }
+
+    @Test
+    void testOpenWorkspace() throws Exception {
+        project("packages/core_a");
+        project("packages/core_b");
+        final File root = tempDir.resolve("packages").toFile();
+
+        controller.openDirectory(project("app_a"));
+        runUntilReported("applied app_a");
+
+        controller.openWorkspace(root);
+        runUntilReported("scanned 2");
+        assertEquals(root, controller.getCurrentDirectory());
+        assertNull(controller.getCurrentProject());
+        assertNull(controller.getCurrentSession());
+        assertNotNull(controller.getCurrentWorkspace());
+    }
+
+    @Test
+    void testRestoreAppliedProject() throws Exception {
+        final File a = project("app_a"), b = project("app_b");
+        final Path snapshotFile = tempDir.resolve("session.bin");
+
+        controller.openDirectory(a);
+        runUntilReported("applied app_a");
+        controller.openDirectory(b);
+        runUntilReported("applied app_b");
+        controller.writeSnapshot(
+                snapshotFile,
+                List.of(new SessionSnapshot.PackageStatus("path", "1.8.2", false)),
+                Map.of("tab", "dependencies")
+        );
+
+        relaunch();
+        controller.restoreSnapshot(SessionSnapshot.read(snapshotFile), null);
+
+        // Reported before any file is read
+        assertEquals(List.of("restored app_b 1 {tab=dependencies}"), events);
+        assertEquals(b, controller.getCurrentDirectory());
+        assertNull(controller.getCurrentProject());
+
+        runUntilReported("applied app_b");
+        assertEquals(List.of("restored app_b 1 {tab=dependencies}", "applied app_b"), events);
+        assertEquals(b, controller.getCurrentSession().getDirectory().toFile());
+        assertEquals(2, manager.getOpenSessions().size());
+        assertNotNull(manager.get(a.toPath()));
+    }
+
+    @Test
+    void testRestoreWithoutAppliedProject() throws Exception {
+        final File a = project("app_a");
+        final Path snapshotFile = tempDir.resolve("session.bin");
+
+        controller.openDirectory(a);
+        runUntilReported("applied app_a");
+        SessionSnapshot.write(
+                snapshotFile,
+                List.of(SessionSnapshot.ProjectState.of(controller.getCurrentSession(), List.of())),
+                null,
+                Map.of()
+        );
+
+        relaunch();
+        controller.restoreSnapshot(SessionSnapshot.read(snapshotFile), null);
+        runUntilReported("reset");
+
+        assertEquals(List.of("reset"), events);
+        assertNull(controller.getCurrentDirectory());
+        assertNull(controller.getCurrentSession());
+        assertEquals(1, manager.getOpenSessions().size());
+    }
+
+    @Test
+    void testRestoreRemovedProject() throws Exception {
+        final File a = project("app_a");
+        final Path snapshotFile = tempDir.resolve("session.bin");
+
+        controller.openDirectory(a);
+        runUntilReported("applied app_a");
+        controller.writeSnapshot(snapshotFile, List.of(), Map.of());
+        Files.delete(ProjectFile.PUBSPEC_YAML.resolve(a.toPath()));
+
+        relaunch();
+        controller.restoreSnapshot(SessionSnapshot.read(snapshotFile), null);
+        assertEquals(a, controller.getCurrentDirectory());
+
+        runUntilReported("failed app_a");
+        assertNull(controller.getCurrentDirectory());
+        assertNull(controller.getCurrentProject());
+        assertTrue(manager.getOpenSessions().isEmpty());
+    }
+}
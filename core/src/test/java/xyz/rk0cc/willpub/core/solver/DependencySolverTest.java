@@ -0,0 +1,193 @@
+package xyz.rk0cc.willpub.core.solver;
+
+import org.junit.jupiter.api.Test;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadataReader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test {@link DependencySolver} with packages declared inline in each test.
+ */
+final class DependencySolverTest {
+    /**
+     * In-memory {@link SolverPackageSource} which packages are written as pub.dev responses.
+     */
+    private static final class InlineSource implements SolverPackageSource {
+        private final HashMap<String, StringBuilder> versions = new HashMap<>();
+
+        /**
+         * Publish a version of package.
+         *
+         * @param name Package name.
+         * @param version Version string.
+         * @param dependencies Name and constraint of dependencies, in pairs.
+         *
+         * @return This source.
+         */
+        @Nonnull
+        InlineSource add(@Nonnull String name, @Nonnull String version, @Nonnull String... dependencies) {
+            final StringBuilder deps = new StringBuilder();
+            for (int i = 0; i < dependencies.length; i += 2) {
+                if (i > 0) deps.append(',');
+                deps.append('"').append(dependencies[i]).append("\":\"").append(dependencies[i + 1]).append('"');
+            }
+
+            final StringBuilder json = versions.computeIfAbsent(name, k -> new StringBuilder());
+            if (json.length() > 0) json.append(',');
+            json.append("{\"version\":\"").append(version).append("\",\"pubspec\":{\"name\":\"").append(name)
+                    .append("\",\"dependencies\":{").append(deps).append("}}}");
+            return this;
+        }
+
+        @Override
+        public PubPackageMetadata getMetadata(@Nonnull String packageName) throws IOException {
+            final StringBuilder json = versions.get(packageName);
+            if (json == null) return null;
+
+            final String body = "{\"name\":\"" + packageName + "\",\"versions\":[" + json + "]}";
+            return PubPackageMetadataReader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Create request which dependencies are name and constraint in pairs, in the given order.
+     */
+    @Nonnull
+    private static SolveRequest request(@Nonnull String... dependencies) {
+        final LinkedHashMap<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < dependencies.length; i += 2) map.put(dependencies[i], dependencies[i + 1]);
+        return new SolveRequest(map, Map.of(), Map.of(), Set.of());
+    }
+
+    @Nullable
+    private static String selected(@Nonnull SolveResult result, @Nonnull String packageName) {
+        return result.getSelected(packageName) == null ? null : result.getSelected(packageName).getRawVersion();
+    }
+
+    @Test
+    void testSelectNewestAllowed() throws Exception {
+        final InlineSource source = new InlineSource()
+                .add("a", "1.0.0")
+                .add("a", "1.2.0", "b", "^2.0.0")
+                .add("a", "2.0.0")
+                .add("b", "1.0.0")
+                .add("b", "2.1.0");
+
+        final SolveResult result = new DependencySolver(source, null, null).solve(request("a", "^1.0.0"));
+        assertTrue(result.isSuccessful(), result::getFailureMessage);
+        assertEquals("1.2.0", selected(result, "a"));
+        assertEquals("2.1.0", selected(result, "b"));
+    }
+
+    @Test
+    void testBacktrackToDecisionWhichRequiredPackage() throws Exception {
+        // p has no other version, the conflict on q is solved only by leaving a@2.0.0 which requires p
+        final InlineSource source = new InlineSource()
+                .add("a", "1.0.0")
+                .add("a", "2.0.0", "p", "any")
+                .add("b", "1.0.0", "q", "^1.0.0")
+                .add("p", "1.0.0", "q", "^2.0.0")
+                .add("q", "1.0.0")
+                .add("q", "2.0.0");
+
+        final SolveResult result = new DependencySolver(source, null, null)
+                .solve(request("a", "any", "b", "any"));
+        assertTrue(result.isSuccessful(), result::getFailureMessage);
+        assertEquals("1.0.0", selected(result, "a"));
+        assertEquals("1.0.0", selected(result, "b"));
+        assertEquals("1.0.0", selected(result, "q"));
+        assertNull(result.getSelected("p"));
+    }
+
+    @Test
+    void testBackjumpOverUnrelatedDecision() throws Exception {
+        // u is decided before c, but no version of u helps the conflict of c on d
+        final InlineSource source = new InlineSource()
+                .add("a", "1.0.0", "c", "^1.0.0")
+                .add("a", "2.0.0", "u", "any", "c", "^2.0.0")
+                .add("c", "1.0.0")
+                .add("d", "1.0.0")
+                .add("b", "1.0.0");
+        for (int i = 0; i < 20; i++) source.add("u", "1." + i + ".0");
+        for (int i = 0; i < 30; i++) source.add("c", "2." + i + ".0", "d", "^9.0.0");
+
+        final SolveResult result = new DependencySolver(source, null, null).solve(request("a", "any", "b", "any"));
+        assertTrue(result.isSuccessful(), result::getFailureMessage);
+        assertEquals("1.0.0", selected(result, "a"));
+        assertEquals("1.0.0", selected(result, "c"));
+        assertNull(result.getSelected("u"));
+        assertTrue(result.getDecisions() < 2 * 30, () -> "Retried unrelated decision: " + result.getDecisions());
+    }
+
+    @Test
+    void testLearnedConflictIsNotRetried() throws Exception {
+        // Every version of w conflicts with k@2.0.0 on z, which is learned when j@2.0.0 is decided, then the same
+        // decisions under j@1.0.0 are rejected without trying versions of w again
+        final InlineSource source = new InlineSource()
+                .add("j", "1.0.0")
+                .add("j", "2.0.0", "e", "^1.0.0", "f", "^1.0.0")
+                .add("k", "1.0.0", "f", "^2.0.0")
+                .add("k", "2.0.0", "z", "^2.0.0")
+                .add("x", "2.0.0", "e", "^2.0.0")
+                .add("x", "3.0.0", "w", "any")
+                .add("e", "1.0.0")
+                .add("e", "2.0.0")
+                .add("f", "1.0.0")
+                .add("f", "2.0.0")
+                .add("z", "1.0.0")
+                .add("z", "2.0.0");
+        for (int i = 0; i < 50; i++) source.add("w", "1." + i + ".0", "z", "^1.0.0");
+
+        final SolveResult result = new DependencySolver(source, null, null)
+                .solve(request("j", "any", "k", "any", "x", "any"));
+        assertTrue(result.isSuccessful(), result::getFailureMessage);
+        assertEquals("1.0.0", selected(result, "j"));
+        assertEquals("2.0.0", selected(result, "k"));
+        assertEquals("2.0.0", selected(result, "x"));
+        assertEquals("2.0.0", selected(result, "e"));
+        assertNull(result.getSelected("w"));
+        assertTrue(result.getDecisions() < 2 * 50, () -> "Learned conflict is retried: " + result.getDecisions());
+    }
+
+    @Test
+    void testUnsatisfiableConflict() throws Exception {
+        final InlineSource source = new InlineSource()
+                .add("a", "1.0.0", "c", "^1.0.0")
+                .add("a", "1.1.0", "c", "^1.0.0")
+                .add("b", "1.0.0", "c", "^2.0.0")
+                .add("c", "1.0.0")
+                .add("c", "2.0.0");
+
+        final SolveResult result = new DependencySolver(source, null, null)
+                .solve(request("a", "any", "b", "any"));
+        assertFalse(result.isSuccessful());
+        assertEquals("c", result.getConflictPackage());
+        assertTrue(result.getSelected().isEmpty());
+        assertFalse(result.getConflictConstraints().isEmpty());
+        assertNotNull(result.getFailureMessage());
+    }
+
+    @Test
+    void testUnsatisfiableDependencyOfEveryVersion() throws Exception {
+        // Each version of a requires a version of c which does not exist
+        final InlineSource source = new InlineSource()
+                .add("a", "1.0.0", "c", "^3.0.0")
+                .add("a", "2.0.0", "c", "^4.0.0")
+                .add("c", "1.0.0");
+
+        final SolveResult result = new DependencySolver(source, null, null).solve(request("a", "any"));
+        assertFalse(result.isSuccessful());
+        assertEquals("a", result.getConflictPackage());
+    }
+}
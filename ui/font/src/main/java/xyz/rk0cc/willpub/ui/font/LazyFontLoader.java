@@ -0,0 +1,97 @@
+package xyz.rk0cc.willpub.ui.font;
+
+import javafx.scene.text.Font;
+
+import javax.annotation.Nonnull;
+import java.net.URL;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Register font files to JavaFX when they are requested at the first time.
+ * <br/>
+ * Loading a font file parses whole file, which is costly for icon fonts with thousands of glyphs. Instead of loading
+ * every font on startup, each file is loaded once when a node requests it, or
+ * {@linkplain #preload(Executor, URL...) preloaded} in background after the first frame.
+ * <br/>
+ * All methods are thread-safe.
+ *
+ * @since 1.0.0
+ */
+public final class LazyFontLoader {
+    /**
+     * Size uses for registering font, which does not affect size of requested font.
+     */
+    private static final double REGISTER_SIZE = 12d;
+
+    /**
+     * Family name of loaded font files, mapped by external form of {@link URL}.
+     */
+    private static final ConcurrentHashMap<String, String> FAMILIES = new ConcurrentHashMap<>();
+
+    private LazyFontLoader() {}
+
+    /**
+     * Register font file if it has not been loaded yet.
+     *
+     * @param resource Location of font file, usually from {@link Class#getResource(String)}.
+     *
+     * @return Family name of the font.
+     *
+     * @throws IllegalArgumentException If the file is not a valid font.
+     */
+    @Nonnull
+    public static String ensureLoaded(@Nonnull URL resource) {
+        return FAMILIES.computeIfAbsent(Objects.requireNonNull(resource).toExternalForm(), url -> {
+            final Font font = Font.loadFont(url, REGISTER_SIZE);
+            if (font == null) throw new IllegalArgumentException("Unable to load font from " + url);
+
+            return font.getFamily();
+        });
+    }
+
+    /**
+     * Get font from file with given size, which loads the file if required.
+     *
+     * @param resource Location of font file.
+     * @param size Size of font in points.
+     *
+     * @return Requested {@link Font}.
+     *
+     * @throws IllegalArgumentException If the file is not a valid font.
+     */
+    @Nonnull
+    public static Font getFont(@Nonnull URL resource, double size) {
+        return Font.font(ensureLoaded(resource), size);
+    }
+
+    /**
+     * Determine the font file has been loaded.
+     *
+     * @param resource Location of font file.
+     *
+     * @return <code>true</code> if it is loaded.
+     */
+    public static boolean isLoaded(@Nonnull URL resource) {
+        return FAMILIES.containsKey(resource.toExternalForm());
+    }
+
+    /**
+     * Load font files in background, which invalid files are ignored.
+     *
+     * @param executor {@link Executor} which loads fonts.
+     * @param resources Locations of font files.
+     */
+    public static void preload(@Nonnull Executor executor, @Nonnull URL... resources) {
+        for (URL r : resources) {
+            executor.execute(() -> {
+                try {
+                    ensureLoaded(r);
+                } catch (IllegalArgumentException ignored) {
+                    // Reported again when the font is requested
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package xyz.rk0cc.willpub.ui.concurrent;
+
+import javafx.application.Platform;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Collect updates from background threads and deliver them to JavaFX application thread in a single batch.
+ * <br/>
+ * Calling {@link Platform#runLater(Runnable)} for every update floods the event queue when hundreds of results
+ * arrive together, and each of them may trigger a separate layout. Instead, only the first {@link #offer(Object)}
+ * after a delivery schedules a {@link Platform#runLater(Runnable)}, and all updates offered before it runs are
+ * delivered at once that they are applied in the same pulse.
+ *
+ * @param <T> Type of update.
+ *
+ * @since 1.0.0
+ */
+public final class FXPulseBatcher<T> {
+    /**
+     * Updates which are not delivered yet.
+     */
+    private final ConcurrentLinkedQueue<T> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * <code>true</code> if delivery has been scheduled and not started yet.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /**
+     * Receiver of batched updates in JavaFX application thread.
+     */
+    private final Consumer<List<T>> receiver;
+    /**
+     * Name of delivery in {@link FXDiagnostics}.
+     */
+    private final String label;
+
+    /**
+     * Create batcher.
+     *
+     * @param label Name of delivery which displayed in {@linkplain FXDiagnostics diagnostics}.
+     * @param receiver Action which applies all updates of the batch, which always called in JavaFX application thread.
+     */
+    public FXPulseBatcher(@Nonnull String label, @Nonnull Consumer<List<T>> receiver) {
+        this.label = Objects.requireNonNull(label);
+        this.receiver = Objects.requireNonNull(receiver);
+    }
+
+    /**
+     * Create batcher.
+     *
+     * @param receiver Action which applies all updates of the batch, which always called in JavaFX application thread.
+     */
+    public FXPulseBatcher(@Nonnull Consumer<List<T>> receiver) {
+        this("FXPulseBatcher", receiver);
+    }
+
+    /**
+     * Add an update which will be delivered in next batch. It can be called from any thread.
+     *
+     * @param update An update.
+     */
+    public void offer(@Nonnull T update) {
+        pending.add(Objects.requireNonNull(update));
+        if (scheduled.compareAndSet(false, true)) Platform.runLater(FXDiagnostics.track(label, this::deliver));
+    }
+
+    /**
+     * Deliver all pending updates to {@link #receiver}.
+     */
+    private void deliver() {
+        // Reset before polling that updates offered during delivery are scheduled to next batch
+        scheduled.set(false);
+
+        final ArrayList<T> batch = new ArrayList<>();
+        T update;
+        while ((update = pending.poll()) != null) batch.add(update);
+
+        if (!batch.isEmpty()) receiver.accept(batch);
+    }
+
+    /**
+     * Discard all updates which are not delivered yet.
+     */
+    public void clear() {
+        pending.clear();
+    }
+}
@@ -0,0 +1,447 @@
+package xyz.rk0cc.willpub.ui.diagnostics;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.io.CacheFiles;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnostics of JavaFX application thread, which finds out whether UI thread is the bottleneck.
+ * <br/>
+ * It observes:
+ * <ul>
+ *     <li>CSS and layout time of every pulse and interval between pulses of {@linkplain #attach(Scene) attached}
+ *     scenes, as well as pulses which laid out the scene.</li>
+ *     <li>Tasks posted by {@link Platform#runLater(Runnable)} which wrapped by {@link #track(String, Runnable)}, that
+ *     queued tasks and long tasks are counted by their label.</li>
+ *     <li>Stalls found by a watchdog thread, which samples stack of JavaFX application thread when a probe task is not
+ *     run in time. The first frame from Will Pub in the stack becomes name of stall, that a stutter can be traced to
+ *     the handler or widget caused it.</li>
+ * </ul>
+ * Recent events are kept in a ring, which can be {@linkplain #dumpTrace(Path) dumped} into a trace file.
+ * <br/>
+ * Diagnostics is disabled by default, which can be enabled by {@link #setEnabled(boolean)} or system property
+ * <code>-Dwillpub.fx.diagnostics=true</code>. When disabled, {@link #track(String, Runnable)} returns given task
+ * as is, pulse listeners return immediately and watchdog thread is stopped, that the overhead is a volatile read.
+ *
+ * @since 1.0.0
+ */
+public final class FXDiagnostics {
+    /**
+     * System property of enabling diagnostics on startup.
+     */
+    public static final String ENABLED_PROPERTY = "willpub.fx.diagnostics";
+
+    /**
+     * Default threshold of long task and stall, which is a frame of 60 FPS.
+     */
+    public static final Duration DEFAULT_LONG_TASK_THRESHOLD = Duration.ofMillis(16);
+
+    /**
+     * Number of recent events kept.
+     */
+    public static final int TRACE_CAPACITY = 4096;
+
+    /**
+     * Interval between pulses longer than it is regarded as idle rather than a long frame.
+     */
+    private static final long IDLE_GAP_NANOS = TimeUnit.MILLISECONDS.toNanos(250L);
+
+    /**
+     * Interval of watchdog checking the probe.
+     */
+    private static final long WATCHDOG_INTERVAL_MILLIS = 5L;
+
+    /**
+     * Maximum frames of sampled stack kept in trace.
+     */
+    private static final int MAX_STACK_FRAMES = 24;
+
+    private static final String OWN_PACKAGE = "xyz.rk0cc.willpub.";
+    private static final String DIAGNOSTICS_PACKAGE = FXDiagnostics.class.getPackageName() + ".";
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static volatile long longTaskNanos = DEFAULT_LONG_TASK_THRESHOLD.toNanos();
+
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final FXTraceRecorder recorder = new FXTraceRecorder(TRACE_CAPACITY);
+
+    // Updated from any thread
+    private static final LongAdder pendingTasks = new LongAdder();
+    private static final LongAdder tasks = new LongAdder();
+    private static final LongAdder longTasks = new LongAdder();
+    private static final AtomicLong stalls = new AtomicLong();
+    private static final AtomicLong maxStallNanos = new AtomicLong();
+    private static volatile String lastStall = null;
+
+    // Updated in JavaFX application thread only
+    private static long pulses = 0L, layoutPasses = 0L, sceneNanos = 0L, maxSceneNanos = 0L;
+    private static long frames = 0L, frameNanos = 0L, maxFrameNanos = 0L;
+    private static final IdentityHashMap<Scene, SceneTracker> trackers = new IdentityHashMap<>();
+
+    private static Watchdog watchdog = null;
+
+    private FXDiagnostics() {}
+
+    /**
+     * Determine diagnostics is enabled.
+     *
+     * @return <code>true</code> if enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable diagnostics. Counters are kept when disabled.
+     *
+     * @param enabled <code>true</code> for enabling.
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        FXDiagnostics.enabled = enabled;
+        if (enabled) startWatchdog();
+        else stopWatchdog();
+    }
+
+    /**
+     * Get threshold of long task and stall.
+     *
+     * @return Threshold.
+     */
+    @Nonnull
+    public static Duration getLongTaskThreshold() {
+        return Duration.ofNanos(longTaskNanos);
+    }
+
+    /**
+     * Set threshold of long task and stall.
+     *
+     * @param threshold New threshold.
+     */
+    public static void setLongTaskThreshold(@Nonnull Duration threshold) {
+        if (threshold.isNegative() || threshold.isZero())
+            throw new IllegalArgumentException("Threshold must be positive");
+        longTaskNanos = threshold.toNanos();
+    }
+
+    /**
+     * Wrap a task which is going to be posted by {@link Platform#runLater(Runnable)}, which it can be called from
+     * any thread.
+     * <pre>
+     *     Platform.runLater(FXDiagnostics.track("DependencyTable.fetched", () -> ...));
+     * </pre>
+     *
+     * @param label Name of task in trace, which should point to the widget and handler.
+     * @param task Task posted to JavaFX application thread.
+     *
+     * @return Given task if diagnostics is disabled, otherwise a wrapped task which records queued and run time.
+     */
+    @Nonnull
+    public static Runnable track(@Nonnull String label, @Nonnull Runnable task) {
+        if (!enabled) return task;
+
+        final long posted = System.nanoTime();
+        pendingTasks.increment();
+        return () -> {
+            pendingTasks.decrement();
+            final long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                final long duration = System.nanoTime() - start;
+                tasks.increment();
+                if (duration >= longTaskNanos) longTasks.increment();
+                recorder.add(new FXTraceEvent(
+                        FXTraceEvent.Kind.TASK,
+                        label,
+                        start,
+                        duration,
+                        "queued " + (start - posted) / 1_000L + " us"
+                ));
+            }
+        };
+    }
+
+    /**
+     * Observe pulses of the scene. It does nothing if attached already.
+     * <br/>
+     * It must be called in JavaFX application thread.
+     *
+     * @param scene {@link Scene} going to be observed.
+     */
+    public static void attach(@Nonnull Scene scene) {
+        if (trackers.containsKey(Objects.requireNonNull(scene))) return;
+
+        final SceneTracker tracker = new SceneTracker(scene);
+        trackers.put(scene, tracker);
+        tracker.install();
+        if (enabled) startWatchdog();
+    }
+
+    /**
+     * Stop observing pulses of the scene.
+     * <br/>
+     * It must be called in JavaFX application thread.
+     *
+     * @param scene {@link Scene} which has been {@linkplain #attach(Scene) attached}.
+     */
+    public static void detach(@Nonnull Scene scene) {
+        final SceneTracker tracker = trackers.remove(scene);
+        if (tracker != null) tracker.uninstall();
+    }
+
+    /**
+     * Read counters, and reset maxima.
+     * <br/>
+     * It must be called in JavaFX application thread.
+     *
+     * @return Current {@link FXDiagnosticsSnapshot}.
+     */
+    @Nonnull
+    public static FXDiagnosticsSnapshot snapshot() {
+        final FXDiagnosticsSnapshot s = new FXDiagnosticsSnapshot(
+                pulses, layoutPasses, sceneNanos, maxSceneNanos,
+                frames, frameNanos, maxFrameNanos,
+                pendingTasks.sum(), tasks.sum(), longTasks.sum(),
+                stalls.get(), maxStallNanos.getAndSet(0L), lastStall
+        );
+        maxSceneNanos = 0L;
+        maxFrameNanos = 0L;
+
+        return s;
+    }
+
+    /**
+     * Get recent events.
+     *
+     * @return Events from the oldest to the latest.
+     */
+    @Nonnull
+    public static List<FXTraceEvent> getRecentEvents() {
+        return recorder.toList();
+    }
+
+    /**
+     * Write recent events in Trace Event Format, which can be opened by <code>chrome://tracing</code> or
+     * <a href="https://ui.perfetto.dev">Perfetto</a>. Timestamps are relative to loading this class.
+     *
+     * @param file Destination, which will be replaced.
+     *
+     * @throws IOException If unable to write.
+     */
+    public static void dumpTrace(@Nonnull Path file) throws IOException {
+        CacheFiles.writeAtomically(file.toAbsolutePath(), os -> recorder.writeTraceEvents(os, ORIGIN_NANOS));
+    }
+
+    /**
+     * Clear recorded events and counters. Pending tasks are still counted.
+     * <br/>
+     * It must be called in JavaFX application thread.
+     */
+    public static void reset() {
+        recorder.clear();
+        tasks.reset();
+        longTasks.reset();
+        stalls.set(0L);
+        maxStallNanos.set(0L);
+        lastStall = null;
+        pulses = layoutPasses = sceneNanos = maxSceneNanos = 0L;
+        frames = frameNanos = maxFrameNanos = 0L;
+    }
+
+    private static synchronized void startWatchdog() {
+        if (watchdog == null) watchdog = new Watchdog();
+    }
+
+    private static synchronized void stopWatchdog() {
+        if (watchdog != null) {
+            watchdog.running = false;
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Pulse listeners of a scene.
+     */
+    private static final class SceneTracker {
+        private final Scene scene;
+        private final Runnable preLayout = this::onPreLayout;
+        private final Runnable postLayout = this::onPostLayout;
+        private final ChangeListener<Boolean> needsLayoutListener = (observable, oldValue, needsLayout) -> {
+            if (needsLayout) layoutRequested = true;
+        };
+        private final ChangeListener<Parent> rootListener = (observable, oldRoot, newRoot) -> {
+            if (oldRoot != null) oldRoot.needsLayoutProperty().removeListener(this.needsLayoutListener);
+            if (newRoot != null) newRoot.needsLayoutProperty().addListener(this.needsLayoutListener);
+        };
+
+        private long pulseStart = 0L, lastPulseStart = 0L;
+        private boolean layoutRequested = false;
+
+        private SceneTracker(@Nonnull Scene scene) {
+            this.scene = scene;
+        }
+
+        private void install() {
+            scene.addPreLayoutPulseListener(preLayout);
+            scene.addPostLayoutPulseListener(postLayout);
+            scene.rootProperty().addListener(rootListener);
+            if (scene.getRoot() != null) {
+                scene.getRoot().needsLayoutProperty().addListener(needsLayoutListener);
+                layoutRequested = scene.getRoot().isNeedsLayout();
+            }
+        }
+
+        private void uninstall() {
+            scene.removePreLayoutPulseListener(preLayout);
+            scene.removePostLayoutPulseListener(postLayout);
+            scene.rootProperty().removeListener(rootListener);
+            if (scene.getRoot() != null) scene.getRoot().needsLayoutProperty().removeListener(needsLayoutListener);
+        }
+
+        private void onPreLayout() {
+            if (!enabled) return;
+
+            pulseStart = System.nanoTime();
+            if (lastPulseStart != 0L) {
+                final long interval = pulseStart - lastPulseStart;
+                if (interval < IDLE_GAP_NANOS) {
+                    frames++;
+                    frameNanos += interval;
+                    maxFrameNanos = Math.max(maxFrameNanos, interval);
+                }
+            }
+            lastPulseStart = pulseStart;
+        }
+
+        private void onPostLayout() {
+            if (!enabled || pulseStart == 0L) return;
+
+            final long duration = System.nanoTime() - pulseStart;
+            final boolean layout = layoutRequested;
+            layoutRequested = false;
+
+            pulses++;
+            if (layout) layoutPasses++;
+            sceneNanos += duration;
+            maxSceneNanos = Math.max(maxSceneNanos, duration);
+            recorder.add(new FXTraceEvent(
+                    FXTraceEvent.Kind.PULSE,
+                    layout ? "layout" : "pulse",
+                    pulseStart,
+                    duration,
+                    null
+            ));
+            pulseStart = 0L;
+        }
+    }
+
+    /**
+     * Thread which keeps posting a probe to JavaFX application thread, and samples its stack when the probe is late.
+     */
+    private static final class Watchdog implements Runnable {
+        private volatile boolean running = true;
+        private volatile Thread fxThread = null;
+        /**
+         * Time of posting current probe, or <code>0</code> if no probe is queued.
+         */
+        private volatile long probePosted = 0L;
+        private volatile StackTraceElement[] sample = null;
+
+        private final Runnable probe = this::onProbe;
+
+        private Watchdog() {
+            WillPubExecutors.newDaemonThreadFactory("willpub-fx-watchdog").newThread(this).start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    final long posted = probePosted, now = System.nanoTime();
+                    if (posted == 0L) {
+                        sample = null;
+                        probePosted = now;
+                        try {
+                            Platform.runLater(probe);
+                        } catch (IllegalStateException e) {
+                            // Toolkit is not started yet
+                            probePosted = 0L;
+                        }
+                    } else if (sample == null && now - posted >= longTaskNanos) {
+                        final Thread t = fxThread;
+                        if (t != null) sample = t.getStackTrace();
+                    }
+
+                    TimeUnit.MILLISECONDS.sleep(WATCHDOG_INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void onProbe() {
+            fxThread = Thread.currentThread();
+
+            final long posted = probePosted, delay = System.nanoTime() - posted;
+            final StackTraceElement[] stack = sample;
+            if (delay >= longTaskNanos && stack != null) {
+                final String culprit = culpritOf(stack);
+                stalls.incrementAndGet();
+                maxStallNanos.accumulateAndGet(delay, Math::max);
+                lastStall = culprit;
+                recorder.add(new FXTraceEvent(FXTraceEvent.Kind.STALL, culprit, posted, delay, format(stack)));
+            }
+
+            probePosted = 0L;
+        }
+    }
+
+    /**
+     * Find the first frame from Will Pub, or the top frame if there is none.
+     */
+    @Nonnull
+    private static String culpritOf(@Nonnull StackTraceElement[] stack) {
+        for (StackTraceElement e : stack) {
+            final String c = e.getClassName();
+            if (c.startsWith(OWN_PACKAGE) && !c.startsWith(DIAGNOSTICS_PACKAGE)) return frameName(e);
+        }
+
+        return stack.length == 0 ? "unknown" : frameName(stack[0]);
+    }
+
+    @Nonnull
+    private static String frameName(@Nonnull StackTraceElement e) {
+        final String c = e.getClassName();
+        return c.substring(c.lastIndexOf('.') + 1) + "." + e.getMethodName()
+                + (e.getLineNumber() > 0 ? ":" + e.getLineNumber() : "");
+    }
+
+    @Nullable
+    private static String format(@Nonnull StackTraceElement[] stack) {
+        if (stack.length == 0) return null;
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, MAX_STACK_FRAMES); i++) {
+            if (i > 0) sb.append('\n');
+            sb.append(stack[i]);
+        }
+        if (stack.length > MAX_STACK_FRAMES) sb.append("\n...");
+
+        return sb.toString();
+    }
+}
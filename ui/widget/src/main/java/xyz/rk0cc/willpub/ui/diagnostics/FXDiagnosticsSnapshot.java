@@ -0,0 +1,41 @@
+package xyz.rk0cc.willpub.ui.diagnostics;
+
+import javax.annotation.Nullable;
+
+/**
+ * Counters of {@link FXDiagnostics} at a moment.
+ * <br/>
+ * Counts and sums are accumulated since diagnostics enabled, which rate is the difference of two snapshots. Maxima
+ * are since previous {@link FXDiagnostics#snapshot()}.
+ *
+ * @param pulses Number of scene pulses observed.
+ * @param layoutPasses Number of pulses which laid out the scene.
+ * @param sceneNanos Sum of CSS and layout time of pulses.
+ * @param maxSceneNanos Longest CSS and layout time of a pulse.
+ * @param frames Number of intervals between consecutive pulses, which excludes idle gaps.
+ * @param frameNanos Sum of frame intervals.
+ * @param maxFrameNanos Longest frame interval.
+ * @param pendingTasks Tracked tasks which are queued but not run yet.
+ * @param tasks Tracked tasks which have run.
+ * @param longTasks Tracked tasks which ran longer than threshold.
+ * @param stalls Number of stalls detected by watchdog.
+ * @param maxStallNanos Longest stall.
+ * @param lastStall Name of the latest stall, or <code>null</code> if no stall happened.
+ *
+ * @since 1.0.0
+ */
+public record FXDiagnosticsSnapshot(
+        long pulses,
+        long layoutPasses,
+        long sceneNanos,
+        long maxSceneNanos,
+        long frames,
+        long frameNanos,
+        long maxFrameNanos,
+        long pendingTasks,
+        long tasks,
+        long longTasks,
+        long stalls,
+        long maxStallNanos,
+        @Nullable String lastStall
+) {}
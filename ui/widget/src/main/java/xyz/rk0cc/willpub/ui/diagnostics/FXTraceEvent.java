@@ -0,0 +1,59 @@
+package xyz.rk0cc.willpub.ui.diagnostics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * An event recorded by {@link FXDiagnostics}.
+ *
+ * @param kind Kind of event.
+ * @param name Name of event, which is the label of task or the frame caused stall.
+ * @param startNanos Value of {@link System#nanoTime()} when it started.
+ * @param durationNanos Duration in nanoseconds.
+ * @param detail Additional information, or <code>null</code> if none.
+ *
+ * @since 1.0.0
+ */
+public record FXTraceEvent(
+        @Nonnull Kind kind,
+        @Nonnull String name,
+        long startNanos,
+        long durationNanos,
+        @Nullable String detail
+) {
+    /**
+     * Kind of {@link FXTraceEvent}.
+     */
+    public enum Kind {
+        /**
+         * CSS and layout of a scene in a pulse.
+         */
+        PULSE,
+
+        /**
+         * A {@linkplain FXDiagnostics#track(String, Runnable) tracked task} which ran in JavaFX application thread.
+         */
+        TASK,
+
+        /**
+         * JavaFX application thread did not pick up queued task in time, which detail is the sampled stack.
+         */
+        STALL
+    }
+
+    /**
+     * Get duration.
+     *
+     * @return Duration of event.
+     */
+    @Nonnull
+    public Duration duration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + name + " (" + durationNanos / 1_000L + " us)";
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.rk0cc.willpub.ui.diagnostics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed size ring of recent {@link FXTraceEvent}, which the oldest event is overwritten when full.
+ *
+ * @since 1.0.0
+ */
+final class FXTraceRecorder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final FXTraceEvent[] events;
+    private long written = 0L;
+
+    FXTraceRecorder(int capacity) {
+        this.events = new FXTraceEvent[capacity];
+    }
+
+    synchronized void add(@Nonnull FXTraceEvent event) {
+        events[(int) (written++ % events.length)] = event;
+    }
+
+    /**
+     * Copy events from the oldest to the latest.
+     */
+    @Nonnull
+    synchronized List<FXTraceEvent> toList() {
+        final int size = (int) Math.min(written, events.length);
+        final ArrayList<FXTraceEvent> copy = new ArrayList<>(size);
+        for (long i = written - size; i < written; i++) copy.add(events[(int) (i % events.length)]);
+        return copy;
+    }
+
+    synchronized void clear() {
+        Arrays.fill(events, null);
+        written = 0L;
+    }
+
+    /**
+     * Write events in Trace Event Format, which can be opened by <code>chrome://tracing</code> or Perfetto.
+     *
+     * @param os Destination, which is not closed.
+     * @param originNanos Value of {@link System#nanoTime()} which becomes timestamp <code>0</code>.
+     */
+    void writeTraceEvents(@Nonnull OutputStream os, long originNanos) throws IOException {
+        try (JsonGenerator g = JSON_FACTORY.createGenerator(os, JsonEncoding.UTF8)) {
+            g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            g.writeStartObject();
+            g.writeStringField("displayTimeUnit", "ms");
+            g.writeArrayFieldStart("traceEvents");
+            for (FXTraceEvent e : toList()) {
+                g.writeStartObject();
+                g.writeStringField("name", e.name());
+                g.writeStringField("cat", e.kind().name().toLowerCase());
+                g.writeStringField("ph", "X");
+                g.writeNumberField("ts", (e.startNanos() - originNanos) / 1_000L);
+                g.writeNumberField("dur", Math.max(1L, e.durationNanos() / 1_000L));
+                g.writeNumberField("pid", 1);
+                // Stall is observed by watchdog, which is placed in a separated row
+                g.writeNumberField("tid", e.kind() == FXTraceEvent.Kind.STALL ? 2 : 1);
+                if (e.detail() != null) {
+                    g.writeObjectFieldStart("args");
+                    g.writeStringField("detail", e.detail());
+                    g.writeEndObject();
+                }
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+        }
+    }
+}
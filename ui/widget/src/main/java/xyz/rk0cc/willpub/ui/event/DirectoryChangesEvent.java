@@ -3,19 +3,29 @@ package xyz.rk0cc.willpub.ui.event;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.session.SessionSnapshot;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An {@link Event} that listening directory changes.
  * <br/>
- * This event has 3 subclasses: {@link DirectoryChangesAppliedEvent}, {@link DirectoryChangesFailedEvent} and
- * {@link DirectoryChangesResetEvent}. Which will be fired depending on given directory ({@link File} object) is valid
- * to applied. Therefore, call {@link DirectoryChangesEventHandler} that
- * {@linkplain javafx.scene.Node#addEventHandler(EventType, EventHandler) attached} in {@link javafx.scene.Node}
- * already.
+ * This event has 7 subclasses: {@link DirectoryChangesLoadingEvent}, {@link DirectoryChangesRestoredEvent},
+ * {@link DirectoryChangesAppliedEvent}, {@link DirectoryChangesModifiedEvent}, {@link DirectoryChangesDiscoveredEvent},
+ * {@link DirectoryChangesFailedEvent} and {@link DirectoryChangesResetEvent}.
+ * Which will be fired depending on given directory ({@link File} object) is valid to applied. Therefore, call
+ * {@link DirectoryChangesEventHandler} that {@linkplain javafx.scene.Node#addEventHandler(EventType, EventHandler)
+ * attached} in {@link javafx.scene.Node} already.
  *
  * @since 1.0.0
  */
@@ -26,10 +36,26 @@ public abstract sealed class DirectoryChangesEvent extends Event {
      * @since 1.0.0
      */
     public enum DirectoryChangesEventTypeName {
+        /**
+         * Enumerated value for {@link DirectoryChangesLoadingEvent}'s {@link EventType} name.
+         */
+        LOADING,
+        /**
+         * Enumerated value for {@link DirectoryChangesRestoredEvent}'s {@link EventType} name.
+         */
+        RESTORED,
         /**
          * Enumerated value for {@link DirectoryChangesAppliedEvent}'s {@link EventType} name.
          */
         APPLIED,
+        /**
+         * Enumerated value for {@link DirectoryChangesModifiedEvent}'s {@link EventType} name.
+         */
+        MODIFIED,
+        /**
+         * Enumerated value for {@link DirectoryChangesDiscoveredEvent}'s {@link EventType} name.
+         */
+        DISCOVERED,
         /**
          * Enumerated value for {@link DirectoryChangesFailedEvent}'s {@link EventType} name.
          */
@@ -82,6 +108,138 @@ public abstract sealed class DirectoryChangesEvent extends Event {
      */
     abstract void invokeHandler(@Nonnull DirectoryChangesEventHandler handler);
 
+    /**
+     * Subclass of {@link DirectoryChangesEvent} that the directory is loading in background.
+     * <br/>
+     * It will be fired once loading reached new {@linkplain DartProjectLoadStage stage}. And it ends with either
+     * {@link DirectoryChangesAppliedEvent} or {@link DirectoryChangesFailedEvent} unless it is cancelled by opening
+     * another directory or {@linkplain DirectoryChangesResetEvent reset}.
+     *
+     * @since 1.0.0
+     */
+    public static final class DirectoryChangesLoadingEvent extends DirectoryChangesEvent {
+        /**
+         * {@link EventType} uses for {@link DirectoryChangesLoadingEvent}.
+         */
+        public static final EventType<DirectoryChangesLoadingEvent> DIRECTORY_CHANGES_LOADING_EVENT_TYPE
+                = new EventType<>(DIRECTORY_CHANGES_EVENT_TYPE, DirectoryChangesEventTypeName.LOADING.getEventTypeName());
+
+        /**
+         * The {@link File} object that is loading.
+         */
+        private final File loadingDir;
+
+        /**
+         * Current stage of loading.
+         */
+        private final DartProjectLoadStage stage;
+
+        /**
+         * Construct an event that the directory is loading.
+         *
+         * @param loadingDir Loading directory's {@link File} object.
+         * @param stage Current {@link DartProjectLoadStage}.
+         */
+        public DirectoryChangesLoadingEvent(@Nonnull File loadingDir, @Nonnull DartProjectLoadStage stage) {
+            super(DIRECTORY_CHANGES_LOADING_EVENT_TYPE);
+            this.loadingDir = loadingDir;
+            this.stage = stage;
+        }
+
+        @Override
+        void invokeHandler(@Nonnull DirectoryChangesEventHandler handler) {
+            handler.onLoading(loadingDir, stage);
+        }
+
+        public File getLoadingDir() {
+            return loadingDir;
+        }
+
+        public DartProjectLoadStage getStage() {
+            return stage;
+        }
+    }
+
+    /**
+     * Subclass of {@link DirectoryChangesEvent} that the project applied in last launch is restored from
+     * {@link SessionSnapshot} when launching.
+     * <br/>
+     * Restored project may be outdated that it should be displayed as read only. It ends with
+     * {@link DirectoryChangesAppliedEvent} once project files and metadata of packages are verified, or
+     * {@link DirectoryChangesFailedEvent} if the directory can not be loaded anymore.
+     *
+     * @since 1.0.0
+     */
+    public static final class DirectoryChangesRestoredEvent extends DirectoryChangesEvent {
+        /**
+         * {@link EventType} uses for {@link DirectoryChangesRestoredEvent}.
+         */
+        public static final EventType<DirectoryChangesRestoredEvent> DIRECTORY_CHANGES_RESTORED_EVENT_TYPE
+                = new EventType<>(DIRECTORY_CHANGES_EVENT_TYPE, DirectoryChangesEventTypeName.RESTORED.getEventTypeName());
+
+        /**
+         * The {@link File} object of restored directory.
+         */
+        private final File restoredDir;
+
+        /**
+         * {@link DartProject} which decoded from snapshot.
+         */
+        private final DartProject project;
+
+        /**
+         * Last known metadata of packages.
+         */
+        private final List<SessionSnapshot.PackageStatus> packages;
+
+        /**
+         * State of UI when snapshot written.
+         */
+        private final Map<String, String> uiStates;
+
+        /**
+         * Construct an event that the directory is restored from snapshot.
+         *
+         * @param restoredDir Restored directory's {@link File} object.
+         * @param project {@link DartProject} from snapshot.
+         * @param packages Last known metadata of packages.
+         * @param uiStates State of UI when snapshot written.
+         */
+        public DirectoryChangesRestoredEvent(
+                @Nonnull File restoredDir,
+                @Nonnull DartProject project,
+                @Nonnull List<SessionSnapshot.PackageStatus> packages,
+                @Nonnull Map<String, String> uiStates
+        ) {
+            super(DIRECTORY_CHANGES_RESTORED_EVENT_TYPE);
+            this.restoredDir = restoredDir;
+            this.project = project;
+            this.packages = List.copyOf(packages);
+            this.uiStates = Map.copyOf(uiStates);
+        }
+
+        @Override
+        void invokeHandler(@Nonnull DirectoryChangesEventHandler handler) {
+            handler.onRestored(restoredDir, project, packages, uiStates);
+        }
+
+        public File getRestoredDir() {
+            return restoredDir;
+        }
+
+        public DartProject getProject() {
+            return project;
+        }
+
+        public List<SessionSnapshot.PackageStatus> getPackages() {
+            return packages;
+        }
+
+        public Map<String, String> getUiStates() {
+            return uiStates;
+        }
+    }
+
     /**
      * Subclass of {@link DirectoryChangesEvent} that the directory changes is applied and ready to read context.
      *
@@ -99,24 +257,187 @@ public abstract sealed class DirectoryChangesEvent extends Event {
          */
         private final File newDir;
 
+        /**
+         * {@link DartProject} which loaded from {@link #newDir}, or <code>null</code> if not provided.
+         */
+        private final DartProject project;
+
         /**
          * Construct an event that the directory is applied successfully.
          *
          * @param newDir New directory's {@link File} object.
          */
         public DirectoryChangesAppliedEvent(@Nonnull File newDir) {
+            this(newDir, null);
+        }
+
+        /**
+         * Construct an event that the directory is applied successfully with loaded project.
+         *
+         * @param newDir New directory's {@link File} object.
+         * @param project {@link DartProject} which loaded already, or <code>null</code> if not loaded.
+         */
+        public DirectoryChangesAppliedEvent(@Nonnull File newDir, @Nullable DartProject project) {
             super(DIRECTORY_CHANGES_APPLIED_EVENT_TYPE);
             this.newDir = newDir;
+            this.project = project;
         }
 
         @Override
         void invokeHandler(@Nonnull DirectoryChangesEventHandler handler) {
-            handler.onApplied(newDir);
+            if (project == null) handler.onApplied(newDir);
+            else handler.onApplied(newDir, project);
         }
 
         public File getNewDir() {
             return newDir;
         }
+
+        @Nullable
+        public DartProject getProject() {
+            return project;
+        }
+    }
+
+    /**
+     * Subclass of event that files in {@linkplain DirectoryChangesAppliedEvent applied} directory has been modified
+     * outside Will Pub.
+     * <br/>
+     * Bursts of writing will be coalesced into one event, and only changed files are parsed again.
+     *
+     * @since 1.0.0
+     */
+    public static final class DirectoryChangesModifiedEvent extends DirectoryChangesEvent {
+        /**
+         * {@link EventType} uses for {@link DirectoryChangesModifiedEvent}.
+         */
+        public static final EventType<DirectoryChangesModifiedEvent> DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE
+                = new EventType<>(DIRECTORY_CHANGES_EVENT_TYPE, DirectoryChangesEventTypeName.MODIFIED.getEventTypeName());
+
+        /**
+         * The {@link File} object of applied directory.
+         */
+        private final File currentDir;
+
+        /**
+         * {@link ProjectFile} which has been modified.
+         */
+        private final Set<ProjectFile> changedFiles;
+
+        /**
+         * Updated {@link DartProject} after changed files parsed.
+         */
+        private final DartProject project;
+
+        /**
+         * Construct an event that files in applied directory has been modified.
+         *
+         * @param currentDir Applied directory's {@link File} object.
+         * @param changedFiles {@link ProjectFile} which has been modified.
+         * @param project Updated {@link DartProject}.
+         */
+        public DirectoryChangesModifiedEvent(
+                @Nonnull File currentDir,
+                @Nonnull Set<ProjectFile> changedFiles,
+                @Nonnull DartProject project
+        ) {
+            super(DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE);
+            this.currentDir = currentDir;
+            this.changedFiles = Set.copyOf(changedFiles);
+            this.project = project;
+        }
+
+        @Override
+        void invokeHandler(@Nonnull DirectoryChangesEventHandler handler) {
+            handler.onModified(currentDir, changedFiles, project);
+        }
+
+        public File getCurrentDir() {
+            return currentDir;
+        }
+
+        public Set<ProjectFile> getChangedFiles() {
+            return changedFiles;
+        }
+
+        public DartProject getProject() {
+            return project;
+        }
+    }
+
+    /**
+     * Subclass of event that packages are found when scanning a workspace root directory.
+     * <br/>
+     * Found packages are delivered in batches during scanning, then it fires once more with
+     * {@linkplain #getIndex() complete index} when scanning finished.
+     *
+     * @since 1.0.0
+     */
+    public static final class DirectoryChangesDiscoveredEvent extends DirectoryChangesEvent {
+        /**
+         * {@link EventType} uses for {@link DirectoryChangesDiscoveredEvent}.
+         */
+        public static final EventType<DirectoryChangesDiscoveredEvent> DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE
+                = new EventType<>(DIRECTORY_CHANGES_EVENT_TYPE, DirectoryChangesEventTypeName.DISCOVERED.getEventTypeName());
+
+        /**
+         * The {@link File} object of workspace root.
+         */
+        private final File rootDir;
+
+        /**
+         * Packages found since last event.
+         */
+        private final List<WorkspacePackage> discovered;
+
+        /**
+         * Complete {@link WorkspaceIndex} when scanning finished, or <code>null</code> if still scanning.
+         */
+        private final WorkspaceIndex index;
+
+        /**
+         * Construct an event that packages are found in workspace.
+         *
+         * @param rootDir Workspace root's {@link File} object.
+         * @param discovered Packages found since last event.
+         * @param index Complete {@link WorkspaceIndex} if scanning finished.
+         */
+        public DirectoryChangesDiscoveredEvent(
+                @Nonnull File rootDir,
+                @Nonnull List<WorkspacePackage> discovered,
+                @Nullable WorkspaceIndex index
+        ) {
+            super(DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE);
+            this.rootDir = rootDir;
+            this.discovered = List.copyOf(discovered);
+            this.index = index;
+        }
+
+        @Override
+        void invokeHandler(@Nonnull DirectoryChangesEventHandler handler) {
+            handler.onDiscovered(rootDir, discovered, index);
+        }
+
+        public File getRootDir() {
+            return rootDir;
+        }
+
+        public List<WorkspacePackage> getDiscovered() {
+            return discovered;
+        }
+
+        public WorkspaceIndex getIndex() {
+            return index;
+        }
+
+        /**
+         * Determine scanning is finished.
+         *
+         * @return <code>true</code> if {@link #getIndex()} is available.
+         */
+        public boolean isCompleted() {
+            return index != null;
+        }
     }
 
     /**
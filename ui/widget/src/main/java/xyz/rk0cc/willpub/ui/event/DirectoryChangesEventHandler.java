@@ -1,10 +1,21 @@
 package xyz.rk0cc.willpub.ui.event;
 
 import javafx.event.EventHandler;
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.session.SessionSnapshot;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * An {@link EventHandler} that take actions when {@link DirectoryChangesEvent} is fired.
@@ -12,6 +23,34 @@ import java.io.File;
  * @since 1.0.0
  */
 public abstract class DirectoryChangesEventHandler implements EventHandler<DirectoryChangesEvent> {
+    /**
+     * Method that will be called when directory is loading in background.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param loadingDir Directory that is loading.
+     * @param stage Current stage of loading.
+     */
+    public void onLoading(@Nonnull File loadingDir, @Nonnull DartProjectLoadStage stage) {}
+
+    /**
+     * Method that will be called when the project of last launch is restored from snapshot, which may be outdated
+     * until {@link #onApplied(File, DartProject)} called.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param restoredDir Directory that restored.
+     * @param project {@link DartProject} which decoded from snapshot.
+     * @param packages Last known metadata of packages.
+     * @param uiStates State of UI when snapshot written.
+     */
+    public void onRestored(
+            @Nonnull File restoredDir,
+            @Nonnull DartProject project,
+            @Nonnull List<SessionSnapshot.PackageStatus> packages,
+            @Nonnull Map<String, String> uiStates
+    ) {}
+
     /**
      * Method that will be called when directory changes is applied.
      *
@@ -19,6 +58,49 @@ public abstract class DirectoryChangesEventHandler implements EventHandler<Direc
      */
     public abstract void onApplied(@Nonnull File newDir);
 
+    /**
+     * Method that will be called when directory changes is applied with the {@link DartProject} loaded already.
+     * <br/>
+     * By default, it calls {@link #onApplied(File)}. Override it if the handler uses loaded project instead of
+     * reading files again.
+     *
+     * @param newDir New directory that ready to read.
+     * @param project {@link DartProject} which has been loaded from new directory.
+     */
+    public void onApplied(@Nonnull File newDir, @Nonnull DartProject project) {
+        onApplied(newDir);
+    }
+
+    /**
+     * Method that will be called when files in applied directory has been modified outside Will Pub.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param currentDir Directory that applied currently.
+     * @param changedFiles {@link ProjectFile} which has been modified.
+     * @param project Updated {@link DartProject} which changed files are parsed again.
+     */
+    public void onModified(
+            @Nonnull File currentDir,
+            @Nonnull Set<ProjectFile> changedFiles,
+            @Nonnull DartProject project
+    ) {}
+
+    /**
+     * Method that will be called when packages are found during scanning workspace.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param rootDir Workspace root directory.
+     * @param discovered Packages found since last call.
+     * @param index Complete {@link WorkspaceIndex} when scanning finished, or <code>null</code> if still scanning.
+     */
+    public void onDiscovered(
+            @Nonnull File rootDir,
+            @Nonnull List<WorkspacePackage> discovered,
+            @Nullable WorkspaceIndex index
+    ) {}
+
     /**
      * Method that will be called when directory changes is failed.
      *
@@ -33,13 +115,20 @@ public abstract class DirectoryChangesEventHandler implements EventHandler<Direc
     public abstract void onReset();
 
     /**
-     * Implemented method from {@link EventHandler} that make a relay role to invoke {@link #onApplied(File)},
-     * {@link #onFailed(String, Throwable)} or {@link #onReset()}.
+     * Implemented method from {@link EventHandler} that make a relay role to invoke
+     * {@link #onLoading(File, DartProjectLoadStage)}, {@link #onRestored(File, DartProject, List, Map)},
+     * {@link #onApplied(File, DartProject)}, {@link #onModified(File, Set, DartProject)},
+     * {@link #onDiscovered(File, List, WorkspaceIndex)}, {@link #onFailed(String, Throwable)} or {@link #onReset()}.
+     * <br/>
+     * Duration of handling is recorded as {@link Metric#EVENT_DISPATCH}, and handler which is slower than
+     * {@linkplain WillPubMetrics#getSlowThreshold() threshold} is reported as slow operation.
      *
      * @param event Fired {@link DirectoryChangesEvent}.
      */
     @Override
     public final void handle(@Nonnull DirectoryChangesEvent event) {
+        final long start = WillPubMetrics.start();
         event.invokeHandler(this);
+        WillPubMetrics.stop(Metric.EVENT_DISPATCH, start, getClass());
     }
 }
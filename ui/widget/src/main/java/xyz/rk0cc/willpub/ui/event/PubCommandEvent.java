@@ -0,0 +1,218 @@
+package xyz.rk0cc.willpub.ui.event;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import xyz.rk0cc.willpub.core.command.PubCommand;
+import xyz.rk0cc.willpub.core.command.PubCommandExecution;
+import xyz.rk0cc.willpub.core.command.PubCommandResult;
+import xyz.rk0cc.willpub.core.command.PubOutputLine;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * An {@link Event} that listening progress of running {@link PubCommand}.
+ * <br/>
+ * This event has 3 subclasses: {@link PubCommandStartedEvent}, {@link PubCommandOutputEvent} and
+ * {@link PubCommandFinishedEvent}. They are fired by {@link PubCommandEventRelay} in JavaFX application thread, then
+ * call {@link PubCommandEventHandler} that
+ * {@linkplain javafx.scene.Node#addEventHandler(EventType, EventHandler) attached} in {@link javafx.scene.Node}
+ * already.
+ *
+ * @since 1.0.0
+ */
+public abstract sealed class PubCommandEvent extends Event {
+    /**
+     * Enumerated {@link PubCommandEvent}'s {@link EventType} name.
+     *
+     * @since 1.0.0
+     */
+    public enum PubCommandEventTypeName {
+        /**
+         * Enumerated value for {@link PubCommandStartedEvent}'s {@link EventType} name.
+         */
+        STARTED,
+        /**
+         * Enumerated value for {@link PubCommandOutputEvent}'s {@link EventType} name.
+         */
+        OUTPUT,
+        /**
+         * Enumerated value for {@link PubCommandFinishedEvent}'s {@link EventType} name.
+         */
+        FINISHED;
+
+        /**
+         * Non-enumerated field that uses to be {@linkplain PubCommandEvent the abstracted event}'s
+         * {@link EventType} name.
+         */
+        public static final String MASTER_NAME = "PUB_COMMAND";
+
+        /**
+         * A {@link String} uses for naming subclasses of {@link PubCommandEvent}'s {@link EventType} name.
+         *
+         * @return {@link EventType} name, which is <code>PUB_COMMAND_{@linkplain #name() (value's name)}</code>.
+         */
+        @Nonnull
+        public String getEventTypeName() {
+            return MASTER_NAME + "_" + name();
+        }
+    }
+
+    /**
+     * A master {@link EventType} that representing {@link PubCommandEvent}.
+     */
+    public static final EventType<PubCommandEvent> PUB_COMMAND_EVENT_TYPE
+            = new EventType<>(PubCommandEventTypeName.MASTER_NAME);
+
+    /**
+     * Execution which fired this event.
+     */
+    private final PubCommandExecution execution;
+
+    /**
+     * Constructor of {@link PubCommandEvent}, which only uses by subclasses.
+     *
+     * @param eventType {@link EventType} which come from subclasses.
+     * @param execution {@link PubCommandExecution} which fired this event.
+     */
+    private PubCommandEvent(EventType<? extends Event> eventType, @Nonnull PubCommandExecution execution) {
+        super(eventType);
+        this.execution = execution;
+    }
+
+    /**
+     * Get execution which fired this event.
+     *
+     * @return {@link PubCommandExecution} of running command.
+     */
+    @Nonnull
+    public PubCommandExecution getExecution() {
+        return execution;
+    }
+
+    /**
+     * Get command which fired this event.
+     *
+     * @return Running {@link PubCommand}.
+     */
+    @Nonnull
+    public PubCommand getCommand() {
+        return execution.getCommand();
+    }
+
+    /**
+     * Specify which method in the {@linkplain PubCommandEventHandler handler} will be called when invoking
+     * {@link PubCommandEventHandler#handle(PubCommandEvent)}.
+     *
+     * @param handler {@linkplain PubCommandEventHandler Handler} which request to handle.
+     */
+    abstract void invokeHandler(@Nonnull PubCommandEventHandler handler);
+
+    /**
+     * Subclass of {@link PubCommandEvent} that the process is started.
+     *
+     * @since 1.0.0
+     */
+    public static final class PubCommandStartedEvent extends PubCommandEvent {
+        /**
+         * {@link EventType} uses for {@link PubCommandStartedEvent}.
+         */
+        public static final EventType<PubCommandStartedEvent> PUB_COMMAND_STARTED_EVENT_TYPE
+                = new EventType<>(PUB_COMMAND_EVENT_TYPE, PubCommandEventTypeName.STARTED.getEventTypeName());
+
+        /**
+         * Construct an event that the process is started.
+         *
+         * @param execution Started {@link PubCommandExecution}.
+         */
+        public PubCommandStartedEvent(@Nonnull PubCommandExecution execution) {
+            super(PUB_COMMAND_STARTED_EVENT_TYPE, execution);
+        }
+
+        @Override
+        void invokeHandler(@Nonnull PubCommandEventHandler handler) {
+            handler.onStarted(getExecution());
+        }
+    }
+
+    /**
+     * Subclass of {@link PubCommandEvent} that the process printed lines.
+     * <br/>
+     * Lines are delivered in batches that at most one event is fired in each pulse.
+     *
+     * @since 1.0.0
+     */
+    public static final class PubCommandOutputEvent extends PubCommandEvent {
+        /**
+         * {@link EventType} uses for {@link PubCommandOutputEvent}.
+         */
+        public static final EventType<PubCommandOutputEvent> PUB_COMMAND_OUTPUT_EVENT_TYPE
+                = new EventType<>(PUB_COMMAND_EVENT_TYPE, PubCommandEventTypeName.OUTPUT.getEventTypeName());
+
+        /**
+         * Lines printed since last event.
+         */
+        private final List<PubOutputLine> lines;
+
+        /**
+         * Construct an event that the process printed lines.
+         *
+         * @param execution Running {@link PubCommandExecution}.
+         * @param lines Lines printed since last event.
+         */
+        public PubCommandOutputEvent(@Nonnull PubCommandExecution execution, @Nonnull List<PubOutputLine> lines) {
+            super(PUB_COMMAND_OUTPUT_EVENT_TYPE, execution);
+            this.lines = List.copyOf(lines);
+        }
+
+        @Override
+        void invokeHandler(@Nonnull PubCommandEventHandler handler) {
+            handler.onOutput(getExecution(), lines);
+        }
+
+        public List<PubOutputLine> getLines() {
+            return lines;
+        }
+    }
+
+    /**
+     * Subclass of {@link PubCommandEvent} that the process exited, cancelled, timed out or can not be started.
+     * <br/>
+     * It is always the last event of an execution.
+     *
+     * @since 1.0.0
+     */
+    public static final class PubCommandFinishedEvent extends PubCommandEvent {
+        /**
+         * {@link EventType} uses for {@link PubCommandFinishedEvent}.
+         */
+        public static final EventType<PubCommandFinishedEvent> PUB_COMMAND_FINISHED_EVENT_TYPE
+                = new EventType<>(PUB_COMMAND_EVENT_TYPE, PubCommandEventTypeName.FINISHED.getEventTypeName());
+
+        /**
+         * {@link PubCommandResult} of execution.
+         */
+        private final PubCommandResult result;
+
+        /**
+         * Construct an event that the command is finished.
+         *
+         * @param execution Finished {@link PubCommandExecution}.
+         * @param result {@link PubCommandResult} of execution.
+         */
+        public PubCommandFinishedEvent(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result) {
+            super(PUB_COMMAND_FINISHED_EVENT_TYPE, execution);
+            this.result = result;
+        }
+
+        @Override
+        void invokeHandler(@Nonnull PubCommandEventHandler handler) {
+            handler.onFinished(getExecution(), result);
+        }
+
+        public PubCommandResult getResult() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package xyz.rk0cc.willpub.ui.event;
+
+import javafx.event.EventHandler;
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+import xyz.rk0cc.willpub.core.command.PubCommandExecution;
+import xyz.rk0cc.willpub.core.command.PubCommandResult;
+import xyz.rk0cc.willpub.core.command.PubOutputLine;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * An {@link EventHandler} that take actions when {@link PubCommandEvent} is fired.
+ *
+ * @since 1.0.0
+ */
+public abstract class PubCommandEventHandler implements EventHandler<PubCommandEvent> {
+    /**
+     * Method that will be called when the process is started.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param execution Started {@link PubCommandExecution}.
+     */
+    public void onStarted(@Nonnull PubCommandExecution execution) {}
+
+    /**
+     * Method that will be called when the process printed lines.
+     * <br/>
+     * By default, it does nothing.
+     *
+     * @param execution Running {@link PubCommandExecution}.
+     * @param lines Lines printed since last call.
+     */
+    public void onOutput(@Nonnull PubCommandExecution execution, @Nonnull List<PubOutputLine> lines) {}
+
+    /**
+     * Method that will be called when the command is finished.
+     *
+     * @param execution Finished {@link PubCommandExecution}.
+     * @param result {@link PubCommandResult} of execution.
+     */
+    public abstract void onFinished(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result);
+
+    /**
+     * Implemented method from {@link EventHandler} that make a relay role to invoke
+     * {@link #onStarted(PubCommandExecution)}, {@link #onOutput(PubCommandExecution, List)} or
+     * {@link #onFinished(PubCommandExecution, PubCommandResult)}.
+     * <br/>
+     * Duration of handling is recorded as {@link Metric#EVENT_DISPATCH}, and handler which is slower than
+     * {@linkplain WillPubMetrics#getSlowThreshold() threshold} is reported as slow operation.
+     *
+     * @param event Fired {@link PubCommandEvent}.
+     */
+    @Override
+    public final void handle(@Nonnull PubCommandEvent event) {
+        final long start = WillPubMetrics.start();
+        event.invokeHandler(this);
+        WillPubMetrics.stop(Metric.EVENT_DISPATCH, start, getClass());
+    }
+}
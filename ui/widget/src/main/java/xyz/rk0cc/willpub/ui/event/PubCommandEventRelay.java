@@ -0,0 +1,79 @@
+package xyz.rk0cc.willpub.ui.event;
+
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventTarget;
+import xyz.rk0cc.willpub.core.command.PubCommandExecution;
+import xyz.rk0cc.willpub.core.command.PubCommandListener;
+import xyz.rk0cc.willpub.core.command.PubCommandResult;
+import xyz.rk0cc.willpub.core.command.PubOutputLine;
+import xyz.rk0cc.willpub.ui.concurrent.FXPulseBatcher;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static xyz.rk0cc.willpub.ui.event.PubCommandEvent.*;
+
+/**
+ * Relay {@link PubCommandListener} from runner's thread to {@link PubCommandEvent} in JavaFX application thread.
+ * <br/>
+ * Output batches which arrive before JavaFX application thread handles the previous one are merged, that a slow
+ * pulse receives one {@link PubCommandOutputEvent} instead of queueing many of them. Therefore, a relay should be
+ * created for each execution.
+ *
+ * @since 1.0.0
+ */
+public final class PubCommandEventRelay implements PubCommandListener {
+    /**
+     * Target which events fired to.
+     */
+    private final EventTarget target;
+    /**
+     * Merge output batches of the same execution.
+     */
+    private final FXPulseBatcher<List<PubOutputLine>> outputBatcher;
+    /**
+     * Execution which is relaying, which assigned when output arrived.
+     */
+    private volatile PubCommandExecution execution = null;
+
+    /**
+     * Create relay.
+     *
+     * @param target {@link EventTarget} (usually a {@link javafx.scene.Node}) which events fired to.
+     */
+    public PubCommandEventRelay(@Nonnull EventTarget target) {
+        this.target = Objects.requireNonNull(target);
+        this.outputBatcher = new FXPulseBatcher<>("PubCommandEventRelay.output", batches -> {
+            final ArrayList<PubOutputLine> lines = new ArrayList<>();
+            for (List<PubOutputLine> b : batches) lines.addAll(b);
+            Event.fireEvent(target, new PubCommandOutputEvent(execution, lines));
+        });
+    }
+
+    @Override
+    public void onStarted(@Nonnull PubCommandExecution execution) {
+        Platform.runLater(FXDiagnostics.track(
+                "PubCommandEventRelay.started",
+                () -> Event.fireEvent(target, new PubCommandStartedEvent(execution))
+        ));
+    }
+
+    @Override
+    public void onOutput(@Nonnull PubCommandExecution execution, @Nonnull List<PubOutputLine> lines) {
+        this.execution = execution;
+        outputBatcher.offer(lines);
+    }
+
+    @Override
+    public void onFinished(@Nonnull PubCommandExecution execution, @Nonnull PubCommandResult result) {
+        // Scheduled after pending output
+        Platform.runLater(FXDiagnostics.track(
+                "PubCommandEventRelay.finished",
+                () -> Event.fireEvent(target, new PubCommandFinishedEvent(execution, result))
+        ));
+    }
+}
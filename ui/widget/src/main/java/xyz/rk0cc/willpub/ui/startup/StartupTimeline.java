@@ -0,0 +1,138 @@
+package xyz.rk0cc.willpub.ui.startup;
+
+import javafx.scene.Scene;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records when each phase of startup finished, which makes regressions of time-to-first-frame visible.
+ * <br/>
+ * Phases are marked by {@link #mark(String)} with time since this class loaded, which should be as early as possible
+ * in <code>main</code>. {@link #markFirstFrame(Scene)} marks the first pulse of the main scene. When system property
+ * <code>-Dwillpub.startup.trace=true</code> is given, {@linkplain #report() report} is printed to standard error
+ * after the first frame.
+ *
+ * @since 1.0.0
+ */
+public final class StartupTimeline {
+    /**
+     * System property of printing report after the first frame.
+     */
+    public static final String TRACE_PROPERTY = "willpub.startup.trace";
+
+    /**
+     * Name of phase marked by {@link #markFirstFrame(Scene)}.
+     */
+    public static final String FIRST_FRAME = "first-frame";
+
+    /**
+     * A finished phase.
+     *
+     * @param phase Name of phase.
+     * @param nanos Time since {@link StartupTimeline} loaded in nanoseconds.
+     * @param thread Name of thread which marked the phase.
+     */
+    public record Mark(@Nonnull String phase, long nanos, @Nonnull String thread) {
+        /**
+         * Get time since origin.
+         *
+         * @return Elapsed time when phase marked.
+         */
+        @Nonnull
+        public Duration elapsed() {
+            return Duration.ofNanos(nanos);
+        }
+    }
+
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final Instant ORIGIN_INSTANT = Instant.now();
+    private static final ConcurrentLinkedQueue<Mark> MARKS = new ConcurrentLinkedQueue<>();
+
+    private static volatile boolean firstFrameMarked = false;
+
+    private StartupTimeline() {}
+
+    /**
+     * Mark a phase is finished now.
+     *
+     * @param phase Name of phase.
+     */
+    public static void mark(@Nonnull String phase) {
+        MARKS.add(new Mark(phase, System.nanoTime() - ORIGIN_NANOS, Thread.currentThread().getName()));
+    }
+
+    /**
+     * Mark {@link #FIRST_FRAME} when the scene has been laid out in the first pulse. It does nothing if first frame
+     * has been marked already.
+     * <br/>
+     * It must be called in JavaFX application thread before the stage shown.
+     *
+     * @param scene Main {@link Scene}.
+     */
+    public static void markFirstFrame(@Nonnull Scene scene) {
+        if (firstFrameMarked) return;
+
+        final Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            if (firstFrameMarked) return;
+
+            firstFrameMarked = true;
+            mark(FIRST_FRAME);
+            if (Boolean.getBoolean(TRACE_PROPERTY)) System.err.println(report());
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * Get time from JVM started to this class loaded, which covers class loading and static initializers before
+     * the first mark.
+     *
+     * @return An {@link Optional} of duration, or empty if operating system does not provide start time.
+     */
+    @Nonnull
+    public static Optional<Duration> getJvmStartOffset() {
+        return ProcessHandle.current().info().startInstant().map(start -> Duration.between(start, ORIGIN_INSTANT));
+    }
+
+    /**
+     * Get all marked phases.
+     *
+     * @return A {@link List} of {@link Mark} in marking order.
+     */
+    @Nonnull
+    public static List<Mark> getMarks() {
+        return List.copyOf(MARKS);
+    }
+
+    /**
+     * Get a readable report of marked phases with time between them.
+     *
+     * @return Multi-line report.
+     */
+    @Nonnull
+    public static String report() {
+        final StringBuilder sb = new StringBuilder("Will Pub startup timeline");
+        getJvmStartOffset().ifPresent(d -> sb.append(" (JVM started ").append(d.toMillis()).append(" ms earlier)"));
+        sb.append('\n');
+
+        long previous = 0L;
+        for (Mark m : MARKS) {
+            sb.append(String.format(
+                    "%8.1f ms  +%7.1f ms  %s [%s]%n",
+                    m.nanos() / 1e6d,
+                    (m.nanos() - previous) / 1e6d,
+                    m.phase(),
+                    m.thread()
+            ));
+            previous = m.nanos();
+        }
+
+        return sb.toString();
+    }
+}
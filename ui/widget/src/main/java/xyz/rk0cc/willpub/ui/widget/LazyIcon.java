@@ -0,0 +1,176 @@
+package xyz.rk0cc.willpub.ui.widget;
+
+import javafx.scene.text.Text;
+import org.kordamp.ikonli.AbstractIkonResolver;
+import org.kordamp.ikonli.Ikon;
+import org.kordamp.ikonli.IkonHandler;
+import xyz.rk0cc.willpub.ui.font.LazyFontLoader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Icon from Ikonli's icon pack which only loads the font of this icon's pack.
+ * <br/>
+ * Ikonli's <code>FontIcon</code> registers every font of all icon packs in classpath when the first icon created,
+ * which costs hundreds of milliseconds before the first frame. This icon finds the pack's handler by itself and
+ * loads its font file through {@link LazyFontLoader}, that unused packs are never loaded.
+ * <br/>
+ * Since it is a {@link Text}, the color is changed by <code>-fx-fill</code> instead of <code>-fx-icon-color</code>.
+ *
+ * @since 1.0.0
+ */
+public final class LazyIcon extends Text {
+    /**
+     * Style class of all {@link LazyIcon}.
+     */
+    public static final String STYLE_CLASS = "lazy-icon";
+
+    /**
+     * Handlers which found from service loader, loaded when an icon does not follow naming convention.
+     */
+    private static volatile List<IkonHandler> serviceHandlers = null;
+
+    /**
+     * Resolved handler of each icon enum.
+     */
+    private static final ConcurrentHashMap<Class<?>, IkonHandler> HANDLER_OF_PACK = new ConcurrentHashMap<>();
+
+    private Ikon ikon;
+    private int size;
+
+    /**
+     * Create icon with given size.
+     *
+     * @param ikon Icon from a pack, e.g. <code>Material2AL.CLOSE</code>.
+     * @param size Size in pixels.
+     */
+    public LazyIcon(@Nonnull Ikon ikon, int size) {
+        getStyleClass().add(STYLE_CLASS);
+        setIcon(ikon, size);
+    }
+
+    /**
+     * Find handler of the icon from all icon packs.
+     *
+     * @param ikon An icon.
+     *
+     * @return {@link IkonHandler} of icon's pack.
+     *
+     * @throws IllegalArgumentException If no pack provides this icon.
+     */
+    @Nonnull
+    private static IkonHandler handlerOf(@Nonnull Ikon ikon) {
+        final Class<?> pack = ikon instanceof Enum<?> e ? e.getDeclaringClass() : ikon.getClass();
+
+        return HANDLER_OF_PACK.computeIfAbsent(pack, p -> {
+            final String description = ikon.getDescription();
+
+            final IkonHandler conventional = conventionalHandler(p);
+            if (conventional != null && conventional.supports(description)) return conventional;
+
+            for (IkonHandler h : serviceHandlers())
+                if (h.supports(description)) return h;
+
+            throw new IllegalArgumentException("No icon pack provides " + description);
+        });
+    }
+
+    /**
+     * Create handler which named as <code>(icon enum)IkonHandler</code> in the same package, which is the convention
+     * of all Ikonli's packs. It avoids loading all handlers from service loader.
+     *
+     * @param pack Class of icon enum.
+     *
+     * @return {@link IkonHandler} of the pack, or <code>null</code> if it does not follow the convention.
+     */
+    @Nullable
+    private static IkonHandler conventionalHandler(@Nonnull Class<?> pack) {
+        try {
+            final Class<?> handlerClass = Class.forName(pack.getName() + "IkonHandler", true, pack.getClassLoader());
+            if (!IkonHandler.class.isAssignableFrom(handlerClass)) return null;
+
+            return (IkonHandler) handlerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Instantiate handlers without loading fonts.
+     */
+    @Nonnull
+    private static List<IkonHandler> serviceHandlers() {
+        List<IkonHandler> handlers = serviceHandlers;
+        if (handlers == null) {
+            synchronized (LazyIcon.class) {
+                handlers = serviceHandlers;
+                if (handlers == null) {
+                    final ArrayList<IkonHandler> found = new ArrayList<>();
+                    AbstractIkonResolver.resolveServiceLoader().forEach(found::add);
+                    serviceHandlers = handlers = List.copyOf(found);
+                }
+            }
+        }
+
+        return handlers;
+    }
+
+    /**
+     * Load fonts of given icons in background, which uses for icons that will be displayed soon.
+     *
+     * @param executor {@link Executor} which loads fonts.
+     * @param ikons Icons which their packs are required.
+     */
+    public static void preload(@Nonnull Executor executor, @Nonnull Ikon... ikons) {
+        for (Ikon i : ikons) {
+            executor.execute(() -> {
+                try {
+                    LazyFontLoader.ensureLoaded(handlerOf(i).getFontResource());
+                } catch (IllegalArgumentException ignored) {
+                    // Reported again when the icon is created
+                }
+            });
+        }
+    }
+
+    /**
+     * Change displayed icon.
+     *
+     * @param ikon Icon from a pack.
+     * @param size Size in pixels.
+     */
+    public void setIcon(@Nonnull Ikon ikon, int size) {
+        Objects.requireNonNull(ikon);
+        if (size <= 0) throw new IllegalArgumentException("Icon size must be positive");
+
+        setFont(LazyFontLoader.getFont(handlerOf(ikon).getFontResource(), size));
+        setText(new String(Character.toChars(ikon.getCode())));
+        this.ikon = ikon;
+        this.size = size;
+    }
+
+    /**
+     * Get displayed icon.
+     *
+     * @return Current {@link Ikon}.
+     */
+    @Nonnull
+    public Ikon getIkon() {
+        return ikon;
+    }
+
+    /**
+     * Get size of icon.
+     *
+     * @return Size in pixels.
+     */
+    public int getSize() {
+        return size;
+    }
+}
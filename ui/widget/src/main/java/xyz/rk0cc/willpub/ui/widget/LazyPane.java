@@ -0,0 +1,83 @@
+package xyz.rk0cc.willpub.ui.widget;
+
+import javafx.beans.InvalidationListener;
+import javafx.scene.Node;
+import javafx.scene.layout.StackPane;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A container which builds its content when it is displayed at the first time.
+ * <br/>
+ * Widgets which are not visible on launch (e.g. tabs, dialogs and side panels) can be wrapped in this pane, that
+ * constructing them does not delay the first frame. Content is built once when this pane is in a scene and visible,
+ * or {@link #getContent()} is called.
+ *
+ * @since 1.0.0
+ */
+public class LazyPane extends StackPane {
+    private Supplier<? extends Node> factory;
+    private Node content = null;
+
+    /**
+     * Rebuild when shown, which removed once content built.
+     */
+    private final InvalidationListener showingListener = observable -> buildIfShowing();
+
+    /**
+     * Create pane which builds content from factory later.
+     *
+     * @param factory Create content in JavaFX application thread.
+     */
+    public LazyPane(@Nonnull Supplier<? extends Node> factory) {
+        this.factory = Objects.requireNonNull(factory);
+
+        sceneProperty().addListener(showingListener);
+        visibleProperty().addListener(showingListener);
+    }
+
+    private void buildIfShowing() {
+        if (getScene() != null && isVisible()) getContent();
+    }
+
+    /**
+     * Get content, which builds immediately if it has not built yet.
+     *
+     * @return Content {@link Node}.
+     */
+    @Nonnull
+    public final Node getContent() {
+        if (content == null) {
+            sceneProperty().removeListener(showingListener);
+            visibleProperty().removeListener(showingListener);
+
+            content = Objects.requireNonNull(factory.get(), "Factory returned null content");
+            factory = null;
+            getChildren().setAll(content);
+        }
+
+        return content;
+    }
+
+    /**
+     * Get content if it has been built.
+     *
+     * @return Content {@link Node}, or <code>null</code> if not built.
+     */
+    @Nullable
+    public final Node getContentIfBuilt() {
+        return content;
+    }
+
+    /**
+     * Determine content has been built.
+     *
+     * @return <code>true</code> if built.
+     */
+    public final boolean isBuilt() {
+        return content != null;
+    }
+}
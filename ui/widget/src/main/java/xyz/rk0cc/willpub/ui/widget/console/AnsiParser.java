@@ -0,0 +1,163 @@
+package xyz.rk0cc.willpub.ui.widget.console;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Split a raw output line into plain text and {@link AnsiStyle} spans.
+ * <br/>
+ * Only SGR sequence (<code>ESC [ ... m</code>) affects style. Other control sequences, OSC and control characters
+ * except tab are removed. Carriage return without line feed, which uses by progress indicator, keeps the text
+ * after it only.
+ *
+ * @since 1.0.0
+ */
+final class AnsiParser {
+    private static final char ESC = '\u001B';
+    private static final char BEL = '\u0007';
+
+    /**
+     * Parsed line.
+     *
+     * @param text Text without escape sequence.
+     * @param spans Triples of start, end and style of styled ranges in <code>text</code>.
+     */
+    record Parsed(@Nonnull String text, @Nonnull int[] spans) {}
+
+    private static final int[] NO_SPANS = new int[0];
+
+    private AnsiParser() {}
+
+    @Nonnull
+    static Parsed parse(@Nonnull String raw) {
+        // Fast path for plain line
+        boolean plain = true;
+        for (int i = 0; i < raw.length() && plain; i++) {
+            final char c = raw.charAt(i);
+            plain = c >= 0x20 || c == '\t';
+        }
+        if (plain) return new Parsed(raw, NO_SPANS);
+
+        final String visible = afterCarriageReturn(raw);
+        final StringBuilder text = new StringBuilder(visible.length());
+        int[] spans = new int[12];
+        int spanCount = 0;
+        int style = AnsiStyle.DEFAULT, styleStart = 0;
+
+        int i = 0;
+        while (i < visible.length()) {
+            final char c = visible.charAt(i);
+            if (c != ESC) {
+                if (c >= 0x20 || c == '\t') text.append(c);
+                i++;
+                continue;
+            }
+
+            if (i + 1 >= visible.length()) break;
+            final char kind = visible.charAt(i + 1);
+            if (kind == '[') {
+                int end = i + 2;
+                while (end < visible.length() && (visible.charAt(end) < 0x40 || visible.charAt(end) > 0x7E)) end++;
+                if (end >= visible.length()) break;
+
+                if (visible.charAt(end) == 'm') {
+                    final int next = applySgr(style, visible.substring(i + 2, end));
+                    if (next != style) {
+                        if (style != AnsiStyle.DEFAULT && text.length() > styleStart) {
+                            if (spanCount * 3 + 3 > spans.length) spans = Arrays.copyOf(spans, spans.length * 2);
+                            spans[spanCount * 3] = styleStart;
+                            spans[spanCount * 3 + 1] = text.length();
+                            spans[spanCount * 3 + 2] = style;
+                            spanCount++;
+                        }
+                        style = next;
+                        styleStart = text.length();
+                    }
+                }
+                i = end + 1;
+            } else if (kind == ']') {
+                // OSC ends with BEL or ST
+                int end = i + 2;
+                while (end < visible.length() && visible.charAt(end) != BEL
+                        && !(visible.charAt(end) == ESC && end + 1 < visible.length()
+                        && visible.charAt(end + 1) == '\\')) end++;
+                i = end < visible.length() && visible.charAt(end) == ESC ? end + 2 : end + 1;
+            } else {
+                i += 2;
+            }
+        }
+
+        if (style != AnsiStyle.DEFAULT && text.length() > styleStart) {
+            if (spanCount * 3 + 3 > spans.length) spans = Arrays.copyOf(spans, spans.length + 3);
+            spans[spanCount * 3] = styleStart;
+            spans[spanCount * 3 + 1] = text.length();
+            spans[spanCount * 3 + 2] = style;
+            spanCount++;
+        }
+
+        return new Parsed(text.toString(), spanCount == 0 ? NO_SPANS : Arrays.copyOf(spans, spanCount * 3));
+    }
+
+    @Nonnull
+    private static String afterCarriageReturn(@Nonnull String raw) {
+        int end = raw.length();
+        while (end > 0 && raw.charAt(end - 1) == '\r') end--;
+        final int cr = raw.lastIndexOf('\r', end - 1);
+        return cr < 0 ? raw.substring(0, end) : raw.substring(cr + 1, end);
+    }
+
+    /**
+     * Apply parameters of SGR sequence.
+     */
+    private static int applySgr(int style, @Nonnull String parameters) {
+        if (parameters.isEmpty()) return AnsiStyle.DEFAULT;
+
+        final String[] p = parameters.split("[;:]", -1);
+        int s = style;
+        for (int k = 0; k < p.length; k++) {
+            final int code = toInt(p[k]);
+            if (code == 0) s = AnsiStyle.DEFAULT;
+            else if (code == 1) s = AnsiStyle.withBold(s, true);
+            else if (code == 3) s = AnsiStyle.withItalic(s, true);
+            else if (code == 4) s = AnsiStyle.withUnderline(s, true);
+            else if (code == 22) s = AnsiStyle.withBold(s, false);
+            else if (code == 23) s = AnsiStyle.withItalic(s, false);
+            else if (code == 24) s = AnsiStyle.withUnderline(s, false);
+            else if (code >= 30 && code <= 37) s = AnsiStyle.withForeground(s, code - 30);
+            else if (code >= 90 && code <= 97) s = AnsiStyle.withForeground(s, code - 90 + 8);
+            else if (code == 39) s = AnsiStyle.withForeground(s, AnsiStyle.NO_COLOR);
+            else if (code >= 40 && code <= 47) s = AnsiStyle.withBackground(s, code - 40);
+            else if (code >= 100 && code <= 107) s = AnsiStyle.withBackground(s, code - 100 + 8);
+            else if (code == 49) s = AnsiStyle.withBackground(s, AnsiStyle.NO_COLOR);
+            else if ((code == 38 || code == 48) && k + 1 < p.length) {
+                int color = AnsiStyle.NO_COLOR;
+                final int mode = toInt(p[k + 1]);
+                if (mode == 5 && k + 2 < p.length) {
+                    color = Math.max(0, Math.min(255, toInt(p[k + 2])));
+                    k += 2;
+                } else if (mode == 2 && k + 4 < p.length) {
+                    color = AnsiStyle.cubeIndex(toInt(p[k + 2]), toInt(p[k + 3]), toInt(p[k + 4]));
+                    k += 4;
+                } else {
+                    k += 1;
+                }
+                if (color != AnsiStyle.NO_COLOR)
+                    s = code == 38 ? AnsiStyle.withForeground(s, color) : AnsiStyle.withBackground(s, color);
+            }
+        }
+
+        return s;
+    }
+
+    private static int toInt(@Nonnull String s) {
+        if (s.isEmpty() || s.length() > 3) return 0;
+
+        int v = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+}
@@ -0,0 +1,150 @@
+package xyz.rk0cc.willpub.ui.widget.console;
+
+/**
+ * Style of text which set by ANSI SGR escape sequence, which is packed into an <code>int</code>.
+ * <br/>
+ * Colors are stored as index of xterm 256 colors palette, which 24-bit color is approximated to the nearest color
+ * in 6&times;6&times;6 cube. <code>0</code> is the default style.
+ *
+ * @since 1.0.0
+ */
+public final class AnsiStyle {
+    /**
+     * Default style, which is plain text.
+     */
+    public static final int DEFAULT = 0;
+
+    /**
+     * Value of {@link #foreground(int)} and {@link #background(int)} when no color applied.
+     */
+    public static final int NO_COLOR = -1;
+
+    private static final int COLOR_BITS = 9;
+    private static final int COLOR_MASK = (1 << COLOR_BITS) - 1;
+    private static final int BACKGROUND_SHIFT = COLOR_BITS;
+    private static final int BOLD = 1 << 18;
+    private static final int ITALIC = 1 << 19;
+    private static final int UNDERLINE = 1 << 20;
+
+    /**
+     * First 16 colors of palette, which are similar to VS Code's dark terminal.
+     */
+    private static final int[] BASE_COLORS = {
+            0x000000, 0xCD3131, 0x0DBC79, 0xE5E510, 0x2472C8, 0xBC3FBC, 0x11A8CD, 0xE5E5E5,
+            0x666666, 0xF14C4C, 0x23D18B, 0xF5F543, 0x3B8EEA, 0xD670D6, 0x29B8DB, 0xFFFFFF
+    };
+
+    private AnsiStyle() {}
+
+    /**
+     * Get foreground color.
+     *
+     * @param style Packed style.
+     *
+     * @return Index of palette, or {@link #NO_COLOR}.
+     */
+    public static int foreground(int style) {
+        return (style & COLOR_MASK) - 1;
+    }
+
+    /**
+     * Get background color.
+     *
+     * @param style Packed style.
+     *
+     * @return Index of palette, or {@link #NO_COLOR}.
+     */
+    public static int background(int style) {
+        return ((style >>> BACKGROUND_SHIFT) & COLOR_MASK) - 1;
+    }
+
+    /**
+     * Determine text is bold.
+     *
+     * @param style Packed style.
+     *
+     * @return <code>true</code> if bold.
+     */
+    public static boolean isBold(int style) {
+        return (style & BOLD) != 0;
+    }
+
+    /**
+     * Determine text is italic.
+     *
+     * @param style Packed style.
+     *
+     * @return <code>true</code> if italic.
+     */
+    public static boolean isItalic(int style) {
+        return (style & ITALIC) != 0;
+    }
+
+    /**
+     * Determine text is underlined.
+     *
+     * @param style Packed style.
+     *
+     * @return <code>true</code> if underlined.
+     */
+    public static boolean isUnderline(int style) {
+        return (style & UNDERLINE) != 0;
+    }
+
+    static int withForeground(int style, int color) {
+        return (style & ~COLOR_MASK) | (color + 1);
+    }
+
+    static int withBackground(int style, int color) {
+        return (style & ~(COLOR_MASK << BACKGROUND_SHIFT)) | ((color + 1) << BACKGROUND_SHIFT);
+    }
+
+    static int withBold(int style, boolean bold) {
+        return bold ? style | BOLD : style & ~BOLD;
+    }
+
+    static int withItalic(int style, boolean italic) {
+        return italic ? style | ITALIC : style & ~ITALIC;
+    }
+
+    static int withUnderline(int style, boolean underline) {
+        return underline ? style | UNDERLINE : style & ~UNDERLINE;
+    }
+
+    /**
+     * Approximate 24-bit color to index of 6&times;6&times;6 color cube.
+     */
+    static int cubeIndex(int r, int g, int b) {
+        return 16 + 36 * cubeLevel(r) + 6 * cubeLevel(g) + cubeLevel(b);
+    }
+
+    private static int cubeLevel(int v) {
+        final int c = Math.max(0, Math.min(255, v));
+        return c < 48 ? 0 : c < 115 ? 1 : (c - 35) / 40;
+    }
+
+    /**
+     * Convert palette index to RGB.
+     *
+     * @param index Index of xterm 256 colors palette.
+     *
+     * @return Color in <code>0xRRGGBB</code>.
+     */
+    public static int toRgb(int index) {
+        if (index < 0 || index > 255) throw new IllegalArgumentException("Palette index out of range: " + index);
+
+        if (index < 16) {
+            return BASE_COLORS[index];
+        } else if (index < 232) {
+            final int c = index - 16;
+            return (level(c / 36) << 16) | (level((c / 6) % 6) << 8) | level(c % 6);
+        }
+
+        final int grey = 8 + (index - 232) * 10;
+        return (grey << 16) | (grey << 8) | grey;
+    }
+
+    private static int level(int step) {
+        return step == 0 ? 0 : 55 + step * 40;
+    }
+}
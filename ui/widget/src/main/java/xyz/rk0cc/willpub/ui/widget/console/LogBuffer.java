@@ -0,0 +1,384 @@
+package xyz.rk0cc.willpub.ui.widget.console;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Bounded storage of output lines for {@link xyz.rk0cc.willpub.ui.widget.control.LogConsole}.
+ * <br/>
+ * Lines are encoded as UTF-8 records and packed one after another into chunks of {@value #CHUNK_SIZE} bytes, and
+ * each line only keeps a <code>long</code> reference of its chunk and offset. Escape sequences are parsed once when
+ * appending, that a record stores plain text and styled spans. Therefore, output with millions of lines costs about
+ * the same size of its text rather than millions of {@link String} objects.
+ * <br/>
+ * Once the number of lines or total size of chunks exceeds limit, the oldest lines are dropped, and a whole chunk is
+ * released after all of its lines are dropped. Line number is never reused, which stays valid for detecting a line
+ * has been dropped.
+ * <br/>
+ * This buffer is not thread-safe, which is expected to be accessed in JavaFX application thread only.
+ *
+ * @since 1.0.0
+ */
+public final class LogBuffer {
+    /**
+     * Default maximum lines kept.
+     */
+    public static final int DEFAULT_MAX_LINES = 500_000;
+
+    /**
+     * Default maximum size of chunks.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    /**
+     * Size of each chunk.
+     */
+    static final int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Longer line is truncated, which ensures a record always fits in a chunk.
+     */
+    public static final int MAX_LINE_LENGTH = 16 * 1024;
+
+    private static final int FLAG_ERROR = 1;
+
+    private final int maxLines;
+    private final long maxBytes;
+
+    /**
+     * Chunks which still have lines, which the first one is {@link #firstChunk}.
+     */
+    private final ArrayList<byte[]> chunks = new ArrayList<>();
+    private long firstChunk = 0L;
+    private long chunkBytes = 0L;
+    private byte[] tail = null;
+    private int tailFill = 0;
+
+    /**
+     * Ring of references to record, which is chunk sequence in high 32 bits and offset in low 32 bits.
+     */
+    private final long[] lineRefs;
+    private long firstLine = 0L;
+    private long nextLine = 0L;
+    private long clearedLines = 0L;
+
+    /**
+     * Reused buffer for encoding record.
+     */
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Create buffer.
+     *
+     * @param maxLines Maximum lines kept.
+     * @param maxBytes Maximum size of chunks, which should be larger than {@value #CHUNK_SIZE} bytes.
+     */
+    public LogBuffer(int maxLines, long maxBytes) {
+        if (maxLines < 1) throw new IllegalArgumentException("Maximum lines must be positive");
+        if (maxBytes < CHUNK_SIZE) throw new IllegalArgumentException("Maximum size must be at least a chunk");
+
+        this.maxLines = maxLines;
+        this.maxBytes = maxBytes;
+        this.lineRefs = new long[maxLines];
+    }
+
+    /**
+     * Create buffer with {@link #DEFAULT_MAX_LINES} and {@link #DEFAULT_MAX_BYTES}.
+     */
+    public LogBuffer() {
+        this(DEFAULT_MAX_LINES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Append a line.
+     *
+     * @param raw Line without line separator, which may contain ANSI escape sequences.
+     * @param error <code>true</code> if it is printed to standard error.
+     *
+     * @return Line number of appended line.
+     */
+    public long append(@Nonnull String raw, boolean error) {
+        final AnsiParser.Parsed parsed = AnsiParser.parse(
+                raw.length() > MAX_LINE_LENGTH * 2 ? raw.substring(0, MAX_LINE_LENGTH * 2) : raw
+        );
+        final String text = parsed.text().length() > MAX_LINE_LENGTH
+                ? parsed.text().substring(0, MAX_LINE_LENGTH)
+                : parsed.text();
+        final int length = encode(text, parsed.spans(), error);
+
+        if (tail == null || tailFill + length > CHUNK_SIZE) sealTail();
+        System.arraycopy(scratch, 0, tail, tailFill, length);
+
+        if (nextLine - firstLine == maxLines) firstLine++;
+        lineRefs[slotOf(nextLine)] = ((firstChunk + chunks.size() - 1) << 32) | tailFill;
+        tailFill += length;
+        chunkBytes += length;
+
+        final long lineNumber = nextLine++;
+        releaseChunks();
+
+        return lineNumber;
+    }
+
+    /**
+     * Encode record into {@link #scratch}.
+     *
+     * @return Length of record.
+     */
+    private int encode(@Nonnull String text, @Nonnull int[] spans, boolean error) {
+        final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        ensureScratch(1 + 5 + spans.length * 5 + 5 + utf8.length);
+
+        int p = 0;
+        scratch[p++] = (byte) (error ? FLAG_ERROR : 0);
+        p = putVarint(p, spans.length / 3);
+        for (int i = 0; i < spans.length; i += 3) {
+            final int start = Math.min(spans[i], text.length()), end = Math.min(spans[i + 1], text.length());
+            p = putVarint(p, start);
+            p = putVarint(p, end - start);
+            p = putVarint(p, spans[i + 2]);
+        }
+        p = putVarint(p, utf8.length);
+        System.arraycopy(utf8, 0, scratch, p, utf8.length);
+
+        return p + utf8.length;
+    }
+
+    private void ensureScratch(int size) {
+        if (scratch.length < size) scratch = new byte[Math.max(size, scratch.length * 2)];
+    }
+
+    private int putVarint(int p, int value) {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            scratch[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        scratch[p++] = (byte) v;
+        return p;
+    }
+
+    /**
+     * Trim filled chunk and start a new one.
+     */
+    private void sealTail() {
+        if (tail != null) {
+            // Release unused space of filled chunk
+            chunks.set(chunks.size() - 1, Arrays.copyOf(tail, tailFill));
+        }
+
+        tail = new byte[CHUNK_SIZE];
+        tailFill = 0;
+        chunks.add(tail);
+    }
+
+    /**
+     * Drop oldest lines when size exceeded, and release chunks which have no line.
+     */
+    private void releaseChunks() {
+        // The latest line is always kept in tail, which is never released here
+        while (chunks.size() > 1) {
+            if (lineRefs[slotOf(firstLine)] >>> 32 > firstChunk) {
+                chunkBytes -= chunks.remove(0).length;
+                firstChunk++;
+            } else if (chunkBytes > maxBytes) {
+                // Drop every line of the oldest chunk
+                while (lineRefs[slotOf(firstLine)] >>> 32 == firstChunk) firstLine++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private int slotOf(long lineNumber) {
+        return (int) (lineNumber % maxLines);
+    }
+
+    /**
+     * Get number of the oldest kept line.
+     *
+     * @return Line number, which equals to {@link #getNextLineNumber()} if empty.
+     */
+    public long getFirstLineNumber() {
+        return firstLine;
+    }
+
+    /**
+     * Get number of the next appended line.
+     *
+     * @return Line number.
+     */
+    public long getNextLineNumber() {
+        return nextLine;
+    }
+
+    /**
+     * Get number of kept lines.
+     *
+     * @return Number of lines.
+     */
+    public int size() {
+        return (int) (nextLine - firstLine);
+    }
+
+    /**
+     * Get number of lines which are dropped due to limit.
+     *
+     * @return Dropped lines.
+     */
+    public long getDroppedLines() {
+        return firstLine - clearedLines;
+    }
+
+    /**
+     * Get size of chunks in use.
+     *
+     * @return Size in bytes.
+     */
+    public long getByteSize() {
+        return chunkBytes;
+    }
+
+    /**
+     * Determine the line is still kept.
+     *
+     * @param lineNumber Number of line.
+     *
+     * @return <code>true</code> if the line is in buffer.
+     */
+    public boolean contains(long lineNumber) {
+        return lineNumber >= firstLine && lineNumber < nextLine;
+    }
+
+    @Nonnull
+    private byte[] chunkOf(long ref) {
+        return chunks.get((int) ((ref >>> 32) - firstChunk));
+    }
+
+    /**
+     * Decode a line.
+     *
+     * @param lineNumber Number of line.
+     *
+     * @return Decoded {@link LogLine}, or <code>null</code> if it is dropped or not appended yet.
+     */
+    @Nullable
+    public LogLine getLine(long lineNumber) {
+        if (!contains(lineNumber)) return null;
+
+        final long ref = lineRefs[slotOf(lineNumber)];
+        final byte[] chunk = chunkOf(ref);
+        final int[] cursor = {(int) ref};
+
+        final boolean error = (chunk[cursor[0]++] & FLAG_ERROR) != 0;
+        final int spanCount = getVarint(chunk, cursor);
+        final int[] spans = new int[spanCount * 3];
+        for (int i = 0; i < spanCount; i++) {
+            final int start = getVarint(chunk, cursor);
+            spans[i * 3] = start;
+            spans[i * 3 + 1] = start + getVarint(chunk, cursor);
+            spans[i * 3 + 2] = getVarint(chunk, cursor);
+        }
+        final int length = getVarint(chunk, cursor);
+
+        return new LogLine(
+                lineNumber,
+                new String(chunk, cursor[0], length, StandardCharsets.UTF_8),
+                error,
+                spans
+        );
+    }
+
+    private static int getVarint(@Nonnull byte[] chunk, @Nonnull int[] cursor) {
+        int value = 0, shift = 0;
+        byte b;
+        do {
+            b = chunk[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Find a line contains the query.
+     * <br/>
+     * Text is compared in UTF-8 directly without decoding lines. Ignoring case only applies to ASCII letters.
+     *
+     * @param query Text to find.
+     * @param fromLine Line number which starts finding, inclusive.
+     * @param forward <code>true</code> for finding newer lines, otherwise older lines.
+     * @param ignoreCase <code>true</code> if ASCII letters are compared case-insensitively.
+     *
+     * @return Line number of the first found line, or <code>-1</code> if not found.
+     */
+    public long find(@Nonnull String query, long fromLine, boolean forward, boolean ignoreCase) {
+        if (query.isEmpty() || firstLine == nextLine) return -1L;
+        if (forward ? fromLine >= nextLine : fromLine < firstLine) return -1L;
+
+        final byte[] q = query.getBytes(StandardCharsets.UTF_8);
+        if (ignoreCase) for (int i = 0; i < q.length; i++) q[i] = lowerAscii(q[i]);
+
+        long n = Math.max(firstLine, Math.min(nextLine - 1, fromLine));
+        final int[] cursor = new int[1];
+        while (n >= firstLine && n < nextLine) {
+            final long ref = lineRefs[slotOf(n)];
+            final byte[] chunk = chunkOf(ref);
+
+            // Skip flags and spans to text
+            cursor[0] = (int) ref + 1;
+            final int spanCount = getVarint(chunk, cursor);
+            for (int i = 0; i < spanCount * 3; i++) getVarint(chunk, cursor);
+            final int length = getVarint(chunk, cursor);
+
+            if (indexOf(chunk, cursor[0], length, q, ignoreCase) >= 0) return n;
+            n += forward ? 1 : -1;
+        }
+
+        return -1L;
+    }
+
+    private static int indexOf(@Nonnull byte[] data, int offset, int length, @Nonnull byte[] q, boolean ignoreCase) {
+        outer:
+        for (int i = 0; i <= length - q.length; i++) {
+            for (int j = 0; j < q.length; j++) {
+                final byte b = data[offset + i + j];
+                if ((ignoreCase ? lowerAscii(b) : b) != q[j]) continue outer;
+            }
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static byte lowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * Remove all lines. Line numbers continue from the last line.
+     */
+    public void clear() {
+        chunks.clear();
+        firstChunk = 0L;
+        chunkBytes = 0L;
+        tail = null;
+        tailFill = 0;
+        clearedLines += nextLine - firstLine;
+        firstLine = nextLine;
+    }
+
+    @Override
+    public String toString() {
+        return "LogBuffer{" +
+                "lines=" + size() +
+                ", dropped=" + getDroppedLines() +
+                ", chunks=" + chunks.size() +
+                ", bytes=" + chunkBytes +
+                '}';
+    }
+}
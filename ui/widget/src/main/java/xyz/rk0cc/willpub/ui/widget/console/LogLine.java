@@ -0,0 +1,101 @@
+package xyz.rk0cc.willpub.ui.widget.console;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * A line which decoded from {@link LogBuffer} for rendering.
+ * <br/>
+ * Styled ranges are listed in spans by ascending order, and the text which is not covered by any span uses
+ * {@linkplain AnsiStyle#DEFAULT default style}.
+ *
+ * @since 1.0.0
+ */
+public final class LogLine {
+    private final long lineNumber;
+    private final String text;
+    private final boolean error;
+    private final int[] spans;
+
+    LogLine(long lineNumber, @Nonnull String text, boolean error, @Nonnull int[] spans) {
+        this.lineNumber = lineNumber;
+        this.text = Objects.requireNonNull(text);
+        this.error = error;
+        this.spans = spans;
+    }
+
+    /**
+     * Get number of this line since buffer created, which is not changed when older lines are dropped.
+     *
+     * @return Line number starting from <code>0</code>.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Get text without escape sequence.
+     *
+     * @return Plain text of line.
+     */
+    @Nonnull
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Determine this line is printed to standard error.
+     *
+     * @return <code>true</code> if it is an error line.
+     */
+    public boolean isError() {
+        return error;
+    }
+
+    /**
+     * Get number of styled spans.
+     *
+     * @return Number of spans.
+     */
+    public int getSpanCount() {
+        return spans.length / 3;
+    }
+
+    /**
+     * Get start of span.
+     *
+     * @param index Index of span.
+     *
+     * @return Index of the first character in {@link #getText()}, inclusive.
+     */
+    public int getSpanStart(int index) {
+        return spans[Objects.checkIndex(index, getSpanCount()) * 3];
+    }
+
+    /**
+     * Get end of span.
+     *
+     * @param index Index of span.
+     *
+     * @return Index after the last character in {@link #getText()}, exclusive.
+     */
+    public int getSpanEnd(int index) {
+        return spans[Objects.checkIndex(index, getSpanCount()) * 3 + 1];
+    }
+
+    /**
+     * Get style of span.
+     *
+     * @param index Index of span.
+     *
+     * @return Packed {@link AnsiStyle}.
+     */
+    public int getSpanStyle(int index) {
+        return spans[Objects.checkIndex(index, getSpanCount()) * 3 + 2];
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -2,6 +2,7 @@ package xyz.rk0cc.willpub.ui.widget.control;
 
 import io.github.palexdev.materialfx.controls.MFXButton;
 import io.github.palexdev.materialfx.controls.MFXTextField;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
 import javafx.geometry.Insets;
@@ -10,21 +11,53 @@ import javafx.scene.control.Control;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.stage.DirectoryChooser;
-import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.material2.Material2AL;
 import org.kordamp.ikonli.material2.Material2OutlinedAL;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.DartProjectLoadStage;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+import xyz.rk0cc.willpub.core.session.ProjectSession;
+import xyz.rk0cc.willpub.core.session.ProjectSessionController;
+import xyz.rk0cc.willpub.core.session.ProjectSessionListener;
+import xyz.rk0cc.willpub.core.session.ProjectSessionManager;
+import xyz.rk0cc.willpub.core.session.SessionSnapshot;
+import xyz.rk0cc.willpub.core.session.SharedProjectServices;
+import xyz.rk0cc.willpub.core.workspace.WorkspaceIndex;
+import xyz.rk0cc.willpub.core.workspace.WorkspacePackage;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
 import xyz.rk0cc.willpub.ui.event.DirectoryChangesEventHandler;
+import xyz.rk0cc.willpub.ui.startup.StartupTimeline;
+import xyz.rk0cc.willpub.ui.widget.LazyIcon;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
-import java.nio.file.NotDirectoryException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import static xyz.rk0cc.willpub.ui.event.DirectoryChangesEvent.*;
 
 /**
  * Member of {@link Control} object that displaying a directory which currently opened.
+ * <br/>
+ * Opening, resetting, sessions of applied projects, workspace scanning and {@link SessionSnapshot} are coordinated by
+ * {@link ProjectSessionController} in JavaFX application thread. This control only displays the directory it applied
+ * and fires {@link xyz.rk0cc.willpub.ui.event.DirectoryChangesEvent} for every change it reports.
+ * <br/>
+ * Every applied project owns a {@link ProjectSession}. Applying another project keeps previous ones open in
+ * {@link ProjectSessionManager}, which are still watched and can be applied again without parsing (e.g. by
+ * {@link OpenProjectList}). Resetting only closes the applied one.
+ * <br/>
+ * Opened projects can be {@linkplain #writeSnapshot(Path, Collection, Map) written} into {@link SessionSnapshot} when
+ * exiting, and {@linkplain #restoreSnapshot(SessionSnapshot, PubDevMetadataFetcher) restored} in next launch.
  *
  * @since 1.0.0
  */
@@ -41,11 +74,55 @@ public final class CurrentDirectoryPath extends Control {
      * Button that reset to no project directory state.
      */
     private final MFXButton btnReset = new MFXButton();
+    /**
+     * Controller of applied directory, which reports changes to {@link EventRelay}.
+     */
+    private final ProjectSessionController controller;
 
     /**
      * Construct {@link CurrentDirectoryPath} controller and ready to added.
      */
     public CurrentDirectoryPath() {
+        this(new DartProjectLoader());
+    }
+
+    /**
+     * Construct {@link CurrentDirectoryPath} controller which uses caches of given {@link SharedProjectServices}, that
+     * every opened project shares the same caches.
+     *
+     * @param services Caches shared by all projects.
+     */
+    public CurrentDirectoryPath(@Nonnull SharedProjectServices services) {
+        this(new DartProjectLoader(services.getModelCache()), new ProjectSessionManager(services));
+    }
+
+    /**
+     * Construct {@link CurrentDirectoryPath} controller with given {@link DartProjectLoader}.
+     *
+     * @param projectLoader Loader for parsing selected directory.
+     */
+    public CurrentDirectoryPath(@Nonnull DartProjectLoader projectLoader) {
+        this(projectLoader, new ProjectSessionManager(projectLoader.getCache()));
+    }
+
+    /**
+     * Construct {@link CurrentDirectoryPath} controller with given {@link DartProjectLoader} and
+     * {@link ProjectSessionManager}.
+     *
+     * @param projectLoader Loader for parsing selected directory.
+     * @param sessionManager Manager of sessions of applied directories.
+     */
+    public CurrentDirectoryPath(
+            @Nonnull DartProjectLoader projectLoader,
+            @Nonnull ProjectSessionManager sessionManager
+    ) {
+        this.controller = new ProjectSessionController(
+                projectLoader,
+                sessionManager,
+                (label, action) -> Platform.runLater(FXDiagnostics.track(label, action)),
+                new EventRelay()
+        );
+
         // Set constant value of buttons
         final double BUTTON_HEIGHT = 45d;
         final int BUTTON_ICON_SIZE = 28;
@@ -64,12 +141,8 @@ public final class CurrentDirectoryPath extends Control {
         txfCurrentPath.setPadding(new Insets(7.5d));
 
         // Open directory button
-        // Open directory icon
-        FontIcon btnOpenDirIcon = new FontIcon();
-        btnOpenDirIcon.setIconCode(Material2OutlinedAL.FOLDER_OPEN);
-        btnOpenDirIcon.setIconSize(BUTTON_ICON_SIZE);
-        // Open directory button preference
-        btnOpenDir.setGraphic(btnOpenDirIcon);
+        // Open directory button preference, which icon only loads font of its pack
+        btnOpenDir.setGraphic(new LazyIcon(Material2OutlinedAL.FOLDER_OPEN, BUTTON_ICON_SIZE));
         btnOpenDir.setText("Open...");
         btnOpenDir.setGraphicTextGap(10d);
         btnOpenDir.setAccessibleText("Open directory");
@@ -89,49 +162,24 @@ public final class CurrentDirectoryPath extends Control {
 
             if (Objects.isNull(chooseDirectory)) {
                 // Same as cancel
-                return;
-            } else if (!chooseDirectory.isAbsolute()) {
-                // Not absolute path
-                CurrentDirectoryPath.super.fireEvent(new DirectoryChangesFailedEvent(
-                        chooseDirectory.getPath(),
-                        new IllegalArgumentException("Required absolute path when opening new Dart project directory")
-                ));
-
-                return;
-            } else if (!chooseDirectory.isDirectory()) {
-                // Not an existed directory
-                CurrentDirectoryPath.super.fireEvent(new DirectoryChangesFailedEvent(
-                        chooseDirectory.getPath(),
-                        new NotDirectoryException(chooseDirectory.getPath())
-                ));
-
                 return;
             }
 
-            // Is a directory
-            txfCurrentPath.setText(chooseDirectory.getPath());
-            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesAppliedEvent(chooseDirectory));
+            // Validate and parse in background
+            openDirectory(chooseDirectory);
         });
 
         // Reset button
-        // Reset button icon
-        FontIcon btnResetIcon = new FontIcon();
-        btnResetIcon.setIconCode(Material2AL.CLOSE);
-        btnResetIcon.setIconSize(BUTTON_ICON_SIZE);
         // Prefernce
-        btnReset.setGraphic(btnResetIcon);
+        btnReset.setGraphic(new LazyIcon(Material2AL.CLOSE, BUTTON_ICON_SIZE));
         btnReset.setPrefSize(BUTTON_HEIGHT, BUTTON_HEIGHT);
         btnReset.setMinSize(USE_PREF_SIZE, USE_PREF_SIZE);
         btnReset.setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
         btnReset.setAccessibleText("Reset");
         btnReset.setPadding(BUTTON_PADDING);
 
-        // Bind reset action
-        btnReset.setOnAction((event) -> {
-            // Clear current path and fire reset event
-            txfCurrentPath.clear();
-            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesResetEvent());
-        });
+        // Bind reset action, which fires reset event from relay
+        btnReset.setOnAction((event) -> controller.reset());
 
         // Wrap up
         container.getChildren().addAll(txfCurrentPath, btnOpenDir, btnReset);
@@ -158,6 +206,56 @@ public final class CurrentDirectoryPath extends Control {
         return new File(getCurrentPath());
     }
 
+    /**
+     * Get {@link ProjectSessionController} which coordinates applied directory of this control.
+     *
+     * @return {@link ProjectSessionController} of this control.
+     */
+    @Nonnull
+    public ProjectSessionController getController() {
+        return controller;
+    }
+
+    /**
+     * Get {@link DartProject} of the directory that currently applied.
+     *
+     * @return Loaded {@link DartProject}, or <code>null</code> if no directory applied.
+     */
+    @Nullable
+    public DartProject getCurrentProject() {
+        return controller.getCurrentProject();
+    }
+
+    /**
+     * Get {@link ProjectSession} of the directory that currently applied.
+     *
+     * @return Active {@link ProjectSession}, or <code>null</code> if no directory applied.
+     */
+    @Nullable
+    public ProjectSession getCurrentSession() {
+        return controller.getCurrentSession();
+    }
+
+    /**
+     * Get {@link ProjectSessionManager} which keeps sessions of applied directories.
+     *
+     * @return {@link ProjectSessionManager} of this controller.
+     */
+    @Nonnull
+    public ProjectSessionManager getSessionManager() {
+        return controller.getSessionManager();
+    }
+
+    /**
+     * Close an opened project. It is the same as {@linkplain #resetDirectory() resetting} if the session is applied
+     * currently.
+     *
+     * @param session {@link ProjectSession} from {@link #getSessionManager()}.
+     */
+    public void closeSession(@Nonnull ProjectSession session) {
+        controller.closeSession(session);
+    }
+
     /**
      * Programmatically click the open button to let user select another directory.
      *
@@ -167,6 +265,102 @@ public final class CurrentDirectoryPath extends Control {
         btnOpenDir.fire();
     }
 
+    /**
+     * Open given directory without selecting from {@link DirectoryChooser}.
+     * <br/>
+     * The directory will be validated and parsed in background. It fires {@link DirectoryChangesLoadingEvent} during
+     * loading, then fires either {@link DirectoryChangesAppliedEvent} or {@link DirectoryChangesFailedEvent} when
+     * finished. If there is another directory is loading, it will be cancelled and no further event fired from it.
+     *
+     * @param directory Directory that going to be opened.
+     *
+     * @see #openDirectory()
+     * @see ProjectSessionController#openDirectory(File)
+     */
+    public void openDirectory(@Nonnull File directory) {
+        controller.openDirectory(directory);
+    }
+
+    /**
+     * Restore projects which opened in last launch from {@link SessionSnapshot}.
+     * <br/>
+     * The applied project of last launch is fired by {@link DirectoryChangesRestoredEvent} immediately, then
+     * {@link DirectoryChangesAppliedEvent} is fired once it is verified, or {@link DirectoryChangesFailedEvent} if it
+     * can not be loaded anymore. If no project applied in last launch, {@link DirectoryChangesResetEvent} is fired
+     * once all projects reopened.
+     *
+     * @param snapshot {@linkplain SessionSnapshot#read(Path) Read} {@link SessionSnapshot}.
+     * @param fetcher Fetcher for verifying metadata of packages, or <code>null</code> if only files are verified.
+     *
+     * @see ProjectSessionController#restoreSnapshot(SessionSnapshot, PubDevMetadataFetcher)
+     */
+    public void restoreSnapshot(@Nonnull SessionSnapshot snapshot, @Nullable PubDevMetadataFetcher fetcher) {
+        controller.restoreSnapshot(snapshot, fetcher);
+    }
+
+    /**
+     * Write every opened project into {@link SessionSnapshot}, which should be called when exiting.
+     *
+     * @param snapshotFile Destination of snapshot, e.g. {@link SessionSnapshot#defaultFile()}.
+     * @param appliedPackages Last known metadata of packages in applied project, e.g.
+     *                        {@link DependencyTable#getPackageStatuses()}.
+     * @param uiStates State of UI which delivers to {@link DirectoryChangesRestoredEvent} in next launch.
+     *
+     * @throws IOException If unable to write.
+     *
+     * @see ProjectSessionController#writeSnapshot(Path, Collection, Map)
+     */
+    public void writeSnapshot(
+            @Nonnull Path snapshotFile,
+            @Nonnull Collection<SessionSnapshot.PackageStatus> appliedPackages,
+            @Nonnull Map<String, String> uiStates
+    ) throws IOException {
+        controller.writeSnapshot(snapshotFile, appliedPackages, uiStates);
+    }
+
+    /**
+     * Open given directory as workspace root, which finds every Dart package under it.
+     * <br/>
+     * The directory will be scanned in background. Found packages are delivered by
+     * {@link DirectoryChangesDiscoveredEvent} in batches, and the last event contains complete {@link WorkspaceIndex}.
+     *
+     * @param root Root directory of workspace.
+     *
+     * @see #rescanWorkspace()
+     * @see ProjectSessionController#openWorkspace(File)
+     */
+    public void openWorkspace(@Nonnull File root) {
+        controller.openWorkspace(root);
+    }
+
+    /**
+     * Scan applied workspace again.
+     *
+     * @see #openWorkspace(File)
+     */
+    public void rescanWorkspace() {
+        controller.rescanWorkspace();
+    }
+
+    /**
+     * Get {@link WorkspaceIndex} of the workspace that currently applied.
+     *
+     * @return Scanned {@link WorkspaceIndex}, or <code>null</code> if no workspace applied.
+     */
+    @Nullable
+    public WorkspaceIndex getCurrentWorkspace() {
+        return controller.getCurrentWorkspace();
+    }
+
+    /**
+     * Determine there is a directory loading in background.
+     *
+     * @return <code>true</code> if loading is not finished yet.
+     */
+    public boolean isLoading() {
+        return controller.isLoading();
+    }
+
     /**
      * Programmatically click the reset button to reset to no project state.
      *
@@ -186,7 +380,11 @@ public final class CurrentDirectoryPath extends Control {
      * @param handler Implemented handler when the event fired.
      *                
      * @see #addEventHandler(EventType, EventHandler)
+     * @see #addDirectoryChangesLoadingHandler(EventHandler)
+     * @see #addDirectoryChangesRestoredHandler(EventHandler)
      * @see #addDirectoryChangesAppliedHandler(EventHandler)
+     * @see #addDirectoryChangesModifiedHandler(EventHandler)
+     * @see #addDirectoryChangesDiscoveredHandler(EventHandler)
      * @see #addDirectoryChangesFailedHandler(EventHandler)
      * @see #addDirectoryChangesResetHandler(EventHandler)
      */
@@ -205,7 +403,11 @@ public final class CurrentDirectoryPath extends Control {
      *                {@linkplain #addDirectoryChangesHandler(DirectoryChangesEventHandler) added} already.
      *
      * @see #removeEventHandler(EventType, EventHandler)
+     * @see #removeDirectoryChangesLoadingHandler(EventHandler)
+     * @see #removeDirectoryChangesRestoredHandler(EventHandler)
      * @see #removeDirectoryChangesAppliedHandler(EventHandler)
+     * @see #removeDirectoryChangesModifiedHandler(EventHandler)
+     * @see #removeDirectoryChangesDiscoveredHandler(EventHandler)
      * @see #removeDirectoryChangesFailedHandler(EventHandler)
      * @see #removeDirectoryChangesResetHandler(EventHandler)
      */
@@ -213,6 +415,56 @@ public final class CurrentDirectoryPath extends Control {
         removeEventHandler(DIRECTORY_CHANGES_EVENT_TYPE, handler);
     }
 
+    /**
+     * Implement dedicated {@link EventHandler} when {@link DirectoryChangesLoadingEvent} fired.
+     *
+     * @param handler A handler when the directory is loading.
+     *
+     * @see #addEventHandler(EventType, EventHandler)
+     * @see #addDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesLoadingHandler(@Nonnull EventHandler<DirectoryChangesLoadingEvent> handler) {
+        addEventHandler(DirectoryChangesLoadingEvent.DIRECTORY_CHANGES_LOADING_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesLoadingHandler(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesLoadingEvent} fired.
+     *
+     * @param handler A handler when the directory is loading.
+     *
+     * @see #removeEventHandler(EventType, EventHandler)
+     * @see #removeDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesLoadingHandler(@Nonnull EventHandler<DirectoryChangesLoadingEvent> handler) {
+        removeEventHandler(DirectoryChangesLoadingEvent.DIRECTORY_CHANGES_LOADING_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Implement dedicated {@link EventHandler} when {@link DirectoryChangesRestoredEvent} fired.
+     *
+     * @param handler A handler when the project of last launch is restored.
+     *
+     * @see #addEventHandler(EventType, EventHandler)
+     * @see #addDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesRestoredHandler(@Nonnull EventHandler<DirectoryChangesRestoredEvent> handler) {
+        addEventHandler(DirectoryChangesRestoredEvent.DIRECTORY_CHANGES_RESTORED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesRestoredHandler(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesRestoredEvent} fired.
+     *
+     * @param handler A handler when the project of last launch is restored.
+     *
+     * @see #removeEventHandler(EventType, EventHandler)
+     * @see #removeDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesRestoredHandler(@Nonnull EventHandler<DirectoryChangesRestoredEvent> handler) {
+        removeEventHandler(DirectoryChangesRestoredEvent.DIRECTORY_CHANGES_RESTORED_EVENT_TYPE, handler);
+    }
+
     /**
      * Implement dedicated {@link EventHandler} when {@link DirectoryChangesAppliedEvent} fired.
      *
@@ -238,6 +490,58 @@ public final class CurrentDirectoryPath extends Control {
         removeEventHandler(DirectoryChangesAppliedEvent.DIRECTORY_CHANGES_APPLIED_EVENT_TYPE, handler);
     }
 
+    /**
+     * Implement dedicated {@link EventHandler} when {@link DirectoryChangesModifiedEvent} fired.
+     *
+     * @param handler A handler when files in applied directory has been modified.
+     *
+     * @see #addEventHandler(EventType, EventHandler)
+     * @see #addDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesModifiedHandler(@Nonnull EventHandler<DirectoryChangesModifiedEvent> handler) {
+        addEventHandler(DirectoryChangesModifiedEvent.DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesModifiedHandler(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesModifiedEvent} fired.
+     *
+     * @param handler A handler when files in applied directory has been modified.
+     *
+     * @see #removeEventHandler(EventType, EventHandler)
+     * @see #removeDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesModifiedHandler(@Nonnull EventHandler<DirectoryChangesModifiedEvent> handler) {
+        removeEventHandler(DirectoryChangesModifiedEvent.DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Implement dedicated {@link EventHandler} when {@link DirectoryChangesDiscoveredEvent} fired.
+     *
+     * @param handler A handler when packages are found in workspace.
+     *
+     * @see #addEventHandler(EventType, EventHandler)
+     * @see #addDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesDiscoveredHandler(@Nonnull EventHandler<DirectoryChangesDiscoveredEvent> handler) {
+        addEventHandler(DirectoryChangesDiscoveredEvent.DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesDiscoveredHandler(EventHandler) added} dedicated {@link EventHandler}
+     * when {@link DirectoryChangesDiscoveredEvent} fired.
+     *
+     * @param handler A handler when packages are found in workspace.
+     *
+     * @see #removeEventHandler(EventType, EventHandler)
+     * @see #removeDirectoryChangesHandler(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesDiscoveredHandler(
+            @Nonnull EventHandler<DirectoryChangesDiscoveredEvent> handler
+    ) {
+        removeEventHandler(DirectoryChangesDiscoveredEvent.DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE, handler);
+    }
+
     /**
      * Implement dedicated {@link EventHandler} when {@link DirectoryChangesFailedEvent} fired.
      *
@@ -298,7 +602,11 @@ public final class CurrentDirectoryPath extends Control {
      * @param handler Implemented filter when the event fired.
      *                
      * @see #addEventFilter(EventType, EventHandler)
+     * @see #addDirectoryChangesLoadingFilter(EventHandler)
+     * @see #addDirectoryChangesRestoredFilter(EventHandler)
      * @see #addDirectoryChangesAppliedFilter(EventHandler)
+     * @see #addDirectoryChangesModifiedFilter(EventHandler)
+     * @see #addDirectoryChangesDiscoveredFilter(EventHandler)
      * @see #addDirectoryChangesFailedFilter(EventHandler)
      * @see #addDirectoryChangesResetFilter(EventHandler)
      */
@@ -317,7 +625,11 @@ public final class CurrentDirectoryPath extends Control {
      *                {@linkplain #addDirectoryChangesFilter(DirectoryChangesEventHandler) added} already.
      *
      * @see #removeEventFilter(EventType, EventHandler)
+     * @see #removeDirectoryChangesLoadingFilter(EventHandler)
+     * @see #removeDirectoryChangesRestoredFilter(EventHandler)
      * @see #removeDirectoryChangesAppliedFilter(EventHandler)
+     * @see #removeDirectoryChangesModifiedFilter(EventHandler)
+     * @see #removeDirectoryChangesDiscoveredFilter(EventHandler)
      * @see #removeDirectoryChangesFailedFilter(EventHandler)
      * @see #removeDirectoryChangesResetFilter(EventHandler)
      */
@@ -325,6 +637,56 @@ public final class CurrentDirectoryPath extends Control {
         removeEventFilter(DIRECTORY_CHANGES_EVENT_TYPE, handler);
     }
 
+    /**
+     * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesLoadingEvent} fired.
+     *
+     * @param handler A filter when the directory is loading.
+     *
+     * @see #addEventFilter(EventType, EventHandler)
+     * @see #addDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesLoadingFilter(@Nonnull EventHandler<DirectoryChangesLoadingEvent> handler) {
+        addEventFilter(DirectoryChangesLoadingEvent.DIRECTORY_CHANGES_LOADING_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesLoadingFilter(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesLoadingEvent} fired.
+     *
+     * @param handler A filter when the directory is loading.
+     *
+     * @see #removeEventFilter(EventType, EventHandler)
+     * @see #removeDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesLoadingFilter(@Nonnull EventHandler<DirectoryChangesLoadingEvent> handler) {
+        removeEventFilter(DirectoryChangesLoadingEvent.DIRECTORY_CHANGES_LOADING_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesRestoredEvent} fired.
+     *
+     * @param handler A filter when the project of last launch is restored.
+     *
+     * @see #addEventFilter(EventType, EventHandler)
+     * @see #addDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesRestoredFilter(@Nonnull EventHandler<DirectoryChangesRestoredEvent> handler) {
+        addEventFilter(DirectoryChangesRestoredEvent.DIRECTORY_CHANGES_RESTORED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesRestoredFilter(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesRestoredEvent} fired.
+     *
+     * @param handler A filter when the project of last launch is restored.
+     *
+     * @see #removeEventFilter(EventType, EventHandler)
+     * @see #removeDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesRestoredFilter(@Nonnull EventHandler<DirectoryChangesRestoredEvent> handler) {
+        removeEventFilter(DirectoryChangesRestoredEvent.DIRECTORY_CHANGES_RESTORED_EVENT_TYPE, handler);
+    }
+
     /**
      * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesAppliedEvent} fired.
      *
@@ -350,6 +712,56 @@ public final class CurrentDirectoryPath extends Control {
         removeEventFilter(DirectoryChangesAppliedEvent.DIRECTORY_CHANGES_APPLIED_EVENT_TYPE, handler);
     }
 
+    /**
+     * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesModifiedEvent} fired.
+     *
+     * @param handler A filter when files in applied directory has been modified.
+     *
+     * @see #addEventFilter(EventType, EventHandler)
+     * @see #addDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesModifiedFilter(@Nonnull EventHandler<DirectoryChangesModifiedEvent> handler) {
+        addEventFilter(DirectoryChangesModifiedEvent.DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesModifiedFilter(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesModifiedEvent} fired.
+     *
+     * @param handler A filter when files in applied directory has been modified.
+     *
+     * @see #removeEventFilter(EventType, EventHandler)
+     * @see #removeDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesModifiedFilter(@Nonnull EventHandler<DirectoryChangesModifiedEvent> handler) {
+        removeEventFilter(DirectoryChangesModifiedEvent.DIRECTORY_CHANGES_MODIFIED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesDiscoveredEvent} fired.
+     *
+     * @param handler A filter when packages are found in workspace.
+     *
+     * @see #addEventFilter(EventType, EventHandler)
+     * @see #addDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void addDirectoryChangesDiscoveredFilter(@Nonnull EventHandler<DirectoryChangesDiscoveredEvent> handler) {
+        addEventFilter(DirectoryChangesDiscoveredEvent.DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE, handler);
+    }
+
+    /**
+     * Remove {@linkplain #addDirectoryChangesDiscoveredFilter(EventHandler) added} dedicated {@link EventHandler} when
+     * {@link DirectoryChangesDiscoveredEvent} fired.
+     *
+     * @param handler A filter when packages are found in workspace.
+     *
+     * @see #removeEventFilter(EventType, EventHandler)
+     * @see #removeDirectoryChangesFilter(DirectoryChangesEventHandler)
+     */
+    public void removeDirectoryChangesDiscoveredFilter(@Nonnull EventHandler<DirectoryChangesDiscoveredEvent> handler) {
+        removeEventFilter(DirectoryChangesDiscoveredEvent.DIRECTORY_CHANGES_DISCOVERED_EVENT_TYPE, handler);
+    }
+
     /**
      * Implement dedicated {@link EventHandler} as a filter when {@link DirectoryChangesFailedEvent} fired.
      *
@@ -399,4 +811,91 @@ public final class CurrentDirectoryPath extends Control {
     public void removeDirectoryChangesResetFilter(@Nonnull EventHandler<DirectoryChangesResetEvent> handler) {
         removeEventFilter(DirectoryChangesResetEvent.DIRECTORY_CHANGES_RESET_EVENT_TYPE, handler);
     }
+    /**
+     * Display directory of {@link #controller} and fire {@link xyz.rk0cc.willpub.ui.event.DirectoryChangesEvent} for
+     * every reported change.
+     */
+    private final class EventRelay implements ProjectSessionListener {
+        /**
+         * A restored project is waiting for verifying.
+         */
+        private boolean revalidating = false;
+
+        private void displayCurrentDirectory() {
+            final File current = controller.getCurrentDirectory();
+            if (current == null) txfCurrentPath.clear();
+            else txfCurrentPath.setText(current.getPath());
+        }
+
+        private void markRevalidated() {
+            if (!revalidating) return;
+
+            revalidating = false;
+            StartupTimeline.mark("session-revalidated");
+        }
+
+        @Override
+        public void onLoading(@Nonnull File directory, @Nonnull DartProjectLoadStage stage) {
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesLoadingEvent(directory, stage));
+        }
+
+        @Override
+        public void onRestored(
+                @Nonnull File directory,
+                @Nonnull DartProject project,
+                @Nonnull List<SessionSnapshot.PackageStatus> packages,
+                @Nonnull Map<String, String> uiStates
+        ) {
+            displayCurrentDirectory();
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesRestoredEvent(
+                    directory,
+                    project,
+                    packages,
+                    uiStates
+            ));
+            StartupTimeline.mark("session-restored");
+            revalidating = true;
+        }
+
+        @Override
+        public void onApplied(@Nonnull File directory, @Nonnull DartProject project) {
+            markRevalidated();
+            displayCurrentDirectory();
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesAppliedEvent(directory, project));
+        }
+
+        @Override
+        public void onModified(
+                @Nonnull File directory,
+                @Nonnull Set<ProjectFile> changedFiles,
+                @Nonnull DartProject project
+        ) {
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesModifiedEvent(directory, changedFiles, project));
+        }
+
+        @Override
+        public void onDiscovered(
+                @Nonnull File root,
+                @Nonnull List<WorkspacePackage> discovered,
+                @Nullable WorkspaceIndex index
+        ) {
+            if (index != null) displayCurrentDirectory();
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesDiscoveredEvent(root, discovered, index));
+        }
+
+        @Override
+        public void onFailed(@Nonnull String path, @Nullable Throwable throwable) {
+            markRevalidated();
+            // Restored path is cleared if it is no longer valid
+            displayCurrentDirectory();
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesFailedEvent(path, throwable));
+        }
+
+        @Override
+        public void onReset() {
+            revalidating = false;
+            displayCurrentDirectory();
+            CurrentDirectoryPath.super.fireEvent(new DirectoryChangesResetEvent());
+        }
+    }
 }
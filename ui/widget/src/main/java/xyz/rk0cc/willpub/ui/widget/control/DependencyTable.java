@@ -0,0 +1,536 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.control.*;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import xyz.rk0cc.josev.SemVer;
+import xyz.rk0cc.josev.SemVerRangeNode;
+import xyz.rk0cc.josev.constraint.pub.PubSemVerConstraint;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.intern.ConstraintPool;
+import xyz.rk0cc.willpub.core.intern.VersionPool;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.pubdev.PubDevFetchListener;
+import xyz.rk0cc.willpub.core.session.SessionSnapshot;
+import xyz.rk0cc.willpub.ui.concurrent.FXPulseBatcher;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Member of {@link Control} object that listing dependencies of a project.
+ * <br/>
+ * It is built on {@link TableView} that only visible rows have cells, and cells are reused when scrolling. Sorting
+ * and filtering are computed in background thread, then the result replaces displayed rows at once. Updates from
+ * background thread (e.g. {@linkplain #createFetchListener() fetching latest versions}) are collected and applied in
+ * a single pulse.
+ * <br/>
+ * Except {@link #postUpdate(DependencyTableEntry)} and {@link #createFetchListener()}, all methods must be called in
+ * JavaFX application thread.
+ *
+ * @since 1.0.0
+ */
+public final class DependencyTable extends Control {
+    /**
+     * Height of each row, which fixed that virtual flow does not measure every cell.
+     */
+    private static final double ROW_HEIGHT = 32d;
+
+    /**
+     * Applied to row which the package has newer version.
+     */
+    private static final PseudoClass OUTDATED = PseudoClass.getPseudoClass("outdated");
+    /**
+     * Applied to row which the package is discontinued.
+     */
+    private static final PseudoClass DISCONTINUED = PseudoClass.getPseudoClass("discontinued");
+
+    /**
+     * Displaying table.
+     */
+    private final TableView<DependencyTableEntry> tableView = new TableView<>();
+    /**
+     * All entries mapped by package name, including filtered entries.
+     */
+    private final LinkedHashMap<String, DependencyTableEntry> entries = new LinkedHashMap<>();
+    /**
+     * Text for filtering package name.
+     */
+    private final StringProperty filterText = new SimpleStringProperty(this, "filterText", "");
+    /**
+     * Collect updates from background thread.
+     */
+    private final FXPulseBatcher<PendingUpdate> updateBatcher = new FXPulseBatcher<>(
+            "DependencyTable.applyUpdates",
+            this::applyUpdates
+    );
+    /**
+     * Single thread for sorting and filtering that only the latest request is computed.
+     */
+    private final ExecutorService viewExecutor;
+    /**
+     * Increase when rows need to be recomputed, which uses for discarding outdated result.
+     */
+    private volatile long viewGeneration = 0L;
+    /**
+     * <code>true</code> when computed rows are applying, that sort policy does not request again.
+     */
+    private boolean applyingView = false;
+
+    /**
+     * Construct {@link DependencyTable} controller and ready to added.
+     */
+    public DependencyTable() {
+        this(WillPubExecutors.newBoundedExecutor("willpub-dependency-table", 1));
+    }
+
+    /**
+     * Construct {@link DependencyTable} with given {@link ExecutorService} for sorting and filtering.
+     *
+     * @param viewExecutor Executor for computing rows in background. A single thread executor is recommended.
+     */
+    public DependencyTable(@Nonnull ExecutorService viewExecutor) {
+        this.viewExecutor = Objects.requireNonNull(viewExecutor);
+
+        // Container
+        VBox container = new VBox();
+        container.setFillWidth(true);
+
+        // Table preference
+        VBox.setVgrow(tableView, Priority.ALWAYS);
+        tableView.setFixedCellSize(ROW_HEIGHT);
+        tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        tableView.setPlaceholder(new Label("No dependency"));
+        tableView.setRowFactory(tv -> new EntryRow());
+        // Sort in background instead of sorting items in place
+        tableView.setSortPolicy(tv -> {
+            if (!applyingView) refreshView();
+            return true;
+        });
+
+        // Columns
+        tableView.getColumns().setAll(List.of(
+                column("Package", DependencyTableEntry::getName,
+                        Comparator.comparing(DependencyTableEntry::getName)),
+                column("Type", DependencyTable::dependencyTypeLabel,
+                        Comparator.comparing(DependencyTableEntry::getDependencyType)),
+                column("Source", DependencyTable::sourceLabel,
+                        Comparator.comparing(DependencyTableEntry::getSource)),
+                column("Constraint", DependencyTableEntry::getConstraint,
+                        nullsLast(DependencyTableEntry::getConstraint, DependencyTable::compareConstraint)),
+                column("Resolved", DependencyTableEntry::getLockedVersion,
+                        nullsLast(DependencyTableEntry::getLockedVersion, DependencyTable::compareVersion)),
+                column("Latest", DependencyTableEntry::getLatestVersion,
+                        nullsLast(DependencyTableEntry::getLatestVersion, DependencyTable::compareVersion))
+        ));
+
+        // Filter when text changed
+        filterText.addListener((observable, oldValue, newValue) -> refreshView());
+
+        // Wrap up
+        container.getChildren().add(tableView);
+        this.getChildren().add(container);
+    }
+
+    @Nonnull
+    private static Comparator<DependencyTableEntry> nullsLast(
+            @Nonnull Function<DependencyTableEntry, String> key,
+            @Nonnull Comparator<String> order
+    ) {
+        return Comparator.comparing(key, Comparator.nullsLast(order));
+    }
+
+    /**
+     * Compare version strings in semantic versioning order. Version which can not be parsed is placed after all
+     * parsed versions and compared as string.
+     */
+    private static int compareVersion(@Nonnull String a, @Nonnull String b) {
+        final SemVer va = VersionPool.parse(a), vb = VersionPool.parse(b);
+        if (va == null || vb == null) return va != null ? -1 : vb != null ? 1 : a.compareTo(b);
+
+        final int c = va.compareTo(vb);
+        return c != 0 ? c : a.compareTo(b);
+    }
+
+    /**
+     * Compare constraints by the lowest allowed version, then the highest one. Constraint which can not be parsed is
+     * placed after all parsed constraints and compared as string.
+     */
+    private static int compareConstraint(@Nonnull String a, @Nonnull String b) {
+        final PubSemVerConstraint ca = ConstraintPool.parse(a), cb = ConstraintPool.parse(b);
+        if (ca == null || cb == null) return ca != null ? -1 : cb != null ? 1 : a.compareTo(b);
+
+        // No lower bound allows the lowest versions, and no upper bound allows the highest versions
+        int c = compareBound(ca.start(), cb.start(), -1);
+        if (c == 0) c = compareBound(ca.end(), cb.end(), 1);
+        return c != 0 ? c : a.compareTo(b);
+    }
+
+    /**
+     * Compare bounds of constraints, which excluded bound is nearer to the other side than included one.
+     *
+     * @param unbounded Result when only the first one is <code>null</code>.
+     */
+    private static int compareBound(@Nullable SemVerRangeNode a, @Nullable SemVerRangeNode b, int unbounded) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : unbounded) : -unbounded;
+
+        final int c = a.semVer().compareTo(b.semVer());
+        if (c != 0 || a.orEquals() == b.orEquals()) return c;
+        // ">=1.0.0" allows lower than ">1.0.0", and "<=2.0.0" allows higher than "<2.0.0"
+        return a.orEquals() ? unbounded : -unbounded;
+    }
+
+    /**
+     * Create a column which displaying text of entry.
+     *
+     * @param title Column header.
+     * @param textOf Get displayed text from entry, which should return existed {@link String} instead of creating one.
+     * @param comparator Ascending order of this column.
+     *
+     * @return A {@link TableColumn} for {@link #tableView}.
+     */
+    @Nonnull
+    private static TableColumn<DependencyTableEntry, DependencyTableEntry> column(
+            @Nonnull String title,
+            @Nonnull Function<DependencyTableEntry, String> textOf,
+            @Nonnull Comparator<DependencyTableEntry> comparator
+    ) {
+        TableColumn<DependencyTableEntry, DependencyTableEntry> column = new TableColumn<>(title);
+        column.setCellValueFactory(features -> features.getValue().asObservable());
+        column.setCellFactory(c -> new EntryCell(textOf));
+        column.setComparator(comparator);
+        return column;
+    }
+
+    @Nonnull
+    private static String dependencyTypeLabel(@Nonnull DependencyTableEntry entry) {
+        return switch (entry.getDependencyType()) {
+            case DIRECT_MAIN -> "dependency";
+            case DIRECT_DEV -> "dev";
+            case DIRECT_OVERRIDDEN -> "override";
+            case TRANSITIVE -> "transitive";
+        };
+    }
+
+    @Nonnull
+    private static String sourceLabel(@Nonnull DependencyTableEntry entry) {
+        return switch (entry.getSource()) {
+            case HOSTED -> "hosted";
+            case GIT -> "git";
+            case PATH -> "path";
+            case SDK -> "sdk";
+            case UNKNOWN -> "unknown";
+        };
+    }
+
+    /**
+     * Display packages of given project, or clear the table if <code>null</code> given.
+     *
+     * @param project {@link DartProject} which going to be displayed.
+     */
+    public void setProject(@Nullable DartProject project) {
+        setEntries(project == null ? List.of() : DependencyTableEntry.fromProject(project));
+    }
+
+    /**
+     * Display packages of given project with last known metadata, e.g. restoring from {@link SessionSnapshot} before
+     * fetching latest versions again.
+     *
+     * @param project {@link DartProject} which going to be displayed.
+     * @param packages Last known metadata of packages, which packages not in the project are ignored.
+     */
+    public void setProject(@Nonnull DartProject project, @Nonnull Collection<SessionSnapshot.PackageStatus> packages) {
+        final HashMap<String, SessionSnapshot.PackageStatus> known = new HashMap<>();
+        for (SessionSnapshot.PackageStatus ps : packages) known.put(ps.getName(), ps);
+
+        final List<DependencyTableEntry> projectEntries = DependencyTableEntry.fromProject(project);
+        final ArrayList<DependencyTableEntry> withStatus = new ArrayList<>(projectEntries.size());
+        for (DependencyTableEntry e : projectEntries) {
+            final SessionSnapshot.PackageStatus ps = known.get(e.getName());
+            withStatus.add(ps == null ? e : new DependencyTableEntry(
+                    e.getName(),
+                    e.getDependencyType(),
+                    e.getSource(),
+                    e.getConstraint(),
+                    e.getLockedVersion(),
+                    ps.getLatestVersion(),
+                    ps.isDiscontinued()
+            ));
+        }
+
+        setEntries(withStatus);
+    }
+
+    /**
+     * Get metadata of packages which fetched already, which can be written into {@link SessionSnapshot}.
+     *
+     * @return A {@link List} of {@link SessionSnapshot.PackageStatus} of packages which latest version is known or
+     *         discontinued.
+     */
+    @Nonnull
+    public List<SessionSnapshot.PackageStatus> getPackageStatuses() {
+        final ArrayList<SessionSnapshot.PackageStatus> statuses = new ArrayList<>();
+        for (DependencyTableEntry e : entries.values()) {
+            if (e.getLatestVersion() != null || e.isDiscontinued())
+                statuses.add(new SessionSnapshot.PackageStatus(e.getName(), e.getLatestVersion(), e.isDiscontinued()));
+        }
+        return statuses;
+    }
+
+    /**
+     * Replace all entries.
+     *
+     * @param entries New entries, which the latter one replace the former for the same package name.
+     */
+    public void setEntries(@Nonnull Collection<DependencyTableEntry> entries) {
+        updateBatcher.clear();
+        this.entries.clear();
+        for (DependencyTableEntry e : entries) this.entries.put(e.getName(), e);
+        refreshView();
+    }
+
+    /**
+     * Get entry of a package, including filtered entries.
+     *
+     * @param packageName Name of package.
+     *
+     * @return {@link DependencyTableEntry} of the package, or <code>null</code> if not displayed.
+     */
+    @Nullable
+    public DependencyTableEntry getEntry(@Nonnull String packageName) {
+        return entries.get(packageName);
+    }
+
+    /**
+     * Get rows which currently displayed.
+     *
+     * @return An unmodifiable {@link ObservableList} in displaying order.
+     */
+    @Nonnull
+    public ObservableList<DependencyTableEntry> getDisplayedEntries() {
+        return FXCollections.unmodifiableObservableList(tableView.getItems());
+    }
+
+    /**
+     * Get selection model of table.
+     *
+     * @return {@link TableView.TableViewSelectionModel} of displaying table.
+     */
+    @Nonnull
+    public TableView.TableViewSelectionModel<DependencyTableEntry> getSelectionModel() {
+        return tableView.getSelectionModel();
+    }
+
+    /**
+     * Get filter text property, which only displaying packages that the name contains the text.
+     *
+     * @return Filter text {@link StringProperty}.
+     */
+    @Nonnull
+    public StringProperty filterTextProperty() {
+        return filterText;
+    }
+
+    /**
+     * Get current filter text.
+     *
+     * @return Filter text.
+     */
+    public String getFilterText() {
+        return filterText.get();
+    }
+
+    /**
+     * Change filter text.
+     *
+     * @param filterText Filter text, which empty or <code>null</code> displaying all packages.
+     */
+    public void setFilterText(@Nullable String filterText) {
+        this.filterText.set(filterText);
+    }
+
+    /**
+     * Add or replace an entry. It can be called from any thread, and all updates posted before next pulse are
+     * applied together.
+     *
+     * @param entry Updated {@link DependencyTableEntry}.
+     */
+    public void postUpdate(@Nonnull DependencyTableEntry entry) {
+        Objects.requireNonNull(entry);
+        updateBatcher.offer(new PendingUpdate(entry.getName(), old -> entry));
+    }
+
+    /**
+     * Create a {@link PubDevFetchListener} which applies latest version of fetched package to existed entry.
+     *
+     * @return A {@link PubDevFetchListener} that can be passed to
+     *         {@link xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher#fetchAll(Collection, PubDevFetchListener)}.
+     */
+    @Nonnull
+    public PubDevFetchListener createFetchListener() {
+        return metadata -> updateBatcher.offer(new PendingUpdate(
+                metadata.getName(),
+                old -> old == null ? null : old.changeMetadata(metadata)
+        ));
+    }
+
+    /**
+     * Get names of hosted packages, which their latest versions can be fetched from pub.dev.
+     *
+     * @return A {@link List} of package names.
+     */
+    @Nonnull
+    public List<String> getHostedPackageNames() {
+        final ArrayList<String> names = new ArrayList<>();
+        for (DependencyTableEntry e : entries.values()) {
+            if (e.getSource() == LockedPackage.Source.HOSTED) names.add(e.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Apply batched updates then recompute rows once.
+     *
+     * @param updates Updates posted since last batch.
+     */
+    private void applyUpdates(@Nonnull List<PendingUpdate> updates) {
+        boolean changed = false;
+
+        for (PendingUpdate u : updates) {
+            final DependencyTableEntry old = entries.get(u.name());
+            final DependencyTableEntry updated = u.change().apply(old);
+            if (updated == null || updated.equals(old)) continue;
+
+            entries.put(u.name(), updated);
+            changed = true;
+        }
+
+        if (changed) refreshView();
+    }
+
+    /**
+     * Build {@link Comparator} from columns' sort order.
+     *
+     * @return {@link Comparator} of rows, or <code>null</code> if unsorted.
+     */
+    @Nullable
+    private Comparator<DependencyTableEntry> currentComparator() {
+        Comparator<DependencyTableEntry> comparator = null;
+
+        for (TableColumn<DependencyTableEntry, ?> column : tableView.getSortOrder()) {
+            @SuppressWarnings("unchecked")
+            Comparator<DependencyTableEntry> c = (Comparator<DependencyTableEntry>) column.getComparator();
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) c = c.reversed();
+            comparator = comparator == null ? c : comparator.thenComparing(c);
+        }
+
+        return comparator;
+    }
+
+    /**
+     * Compute displaying rows in background, then apply to {@link #tableView} if no newer request made.
+     */
+    private void refreshView() {
+        final long generation = ++viewGeneration;
+        final ArrayList<DependencyTableEntry> snapshot = new ArrayList<>(entries.values());
+        final String query = Objects.requireNonNullElse(filterText.get(), "").trim().toLowerCase(Locale.ROOT);
+        final Comparator<DependencyTableEntry> comparator = currentComparator();
+
+        viewExecutor.execute(() -> {
+            // Skip if another request made already
+            if (generation != viewGeneration) return;
+
+            final ArrayList<DependencyTableEntry> rows;
+            if (query.isEmpty()) {
+                rows = snapshot;
+            } else {
+                rows = new ArrayList<>();
+                for (DependencyTableEntry e : snapshot) {
+                    if (e.getName().toLowerCase(Locale.ROOT).contains(query)) rows.add(e);
+                }
+            }
+            if (comparator != null) rows.sort(comparator);
+
+            Platform.runLater(FXDiagnostics.track("DependencyTable.applyView", () -> {
+                if (generation == viewGeneration) applyView(rows);
+            }));
+        });
+    }
+
+    /**
+     * Replace displaying rows and keep selected package.
+     *
+     * @param rows Computed rows.
+     */
+    private void applyView(@Nonnull List<DependencyTableEntry> rows) {
+        final DependencyTableEntry selected = tableView.getSelectionModel().getSelectedItem();
+
+        applyingView = true;
+        try {
+            tableView.getItems().setAll(rows);
+        } finally {
+            applyingView = false;
+        }
+
+        if (selected == null) return;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getName().equals(selected.getName())) {
+                tableView.getSelectionModel().select(i);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Update of an entry from background thread.
+     *
+     * @param name Package name.
+     * @param change Create updated entry from existed entry (or <code>null</code> if not existed), or return
+     *               <code>null</code> to discard this update.
+     */
+    private record PendingUpdate(String name, UnaryOperator<DependencyTableEntry> change) {}
+
+    /**
+     * Cell which displaying a text of entry. It sets existed {@link String} directly that no object created when
+     * the cell is reused for another row.
+     */
+    private static final class EntryCell extends TableCell<DependencyTableEntry, DependencyTableEntry> {
+        private final Function<DependencyTableEntry, String> textOf;
+
+        private EntryCell(@Nonnull Function<DependencyTableEntry, String> textOf) {
+            this.textOf = textOf;
+        }
+
+        @Override
+        protected void updateItem(DependencyTableEntry item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty || item == null ? null : textOf.apply(item));
+        }
+    }
+
+    /**
+     * Row which marks outdated and discontinued packages with {@link PseudoClass} for styling.
+     */
+    private static final class EntryRow extends TableRow<DependencyTableEntry> {
+        @Override
+        protected void updateItem(DependencyTableEntry item, boolean empty) {
+            super.updateItem(item, empty);
+
+            final boolean hasItem = !empty && item != null;
+            pseudoClassStateChanged(OUTDATED, hasItem && item.isOutdated());
+            pseudoClassStateChanged(DISCONTINUED, hasItem && item.isDiscontinued());
+        }
+    }
+}
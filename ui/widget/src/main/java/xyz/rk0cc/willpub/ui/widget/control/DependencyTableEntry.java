@@ -0,0 +1,234 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.project.ProjectDependency;
+import xyz.rk0cc.willpub.core.project.lock.LockedPackage;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A row of {@link DependencyTable}, which is immutable that every changes create a new entry.
+ *
+ * @since 1.0.0
+ */
+public final class DependencyTableEntry {
+    private final String name;
+    private final LockedPackage.DependencyType dependencyType;
+    private final LockedPackage.Source source;
+    private final String constraint;
+    private final String lockedVersion;
+    private final String latestVersion;
+    private final boolean discontinued;
+
+    /**
+     * Value of this entry which uses by every column of {@link DependencyTable}, that scrolling does not allocate a
+     * new {@link ObservableValue} for each cell.
+     */
+    private final ObservableValue<DependencyTableEntry> observable = new ReadOnlyObjectWrapper<>(this);
+
+    /**
+     * Create entry.
+     *
+     * @param name Name of package.
+     * @param dependencyType How the package is depended.
+     * @param source Where the package come from.
+     * @param constraint Raw constraint in <code>pubspec.yaml</code>, or <code>null</code> for transitive package.
+     * @param lockedVersion Version in <code>pubspec.lock</code>, or <code>null</code> if not resolved.
+     * @param latestVersion Latest version on pub.dev, or <code>null</code> if unknown.
+     * @param discontinued <code>true</code> if the package is discontinued.
+     */
+    public DependencyTableEntry(
+            @Nonnull String name,
+            @Nonnull LockedPackage.DependencyType dependencyType,
+            @Nonnull LockedPackage.Source source,
+            @Nullable String constraint,
+            @Nullable String lockedVersion,
+            @Nullable String latestVersion,
+            boolean discontinued
+    ) {
+        this.name = Objects.requireNonNull(name);
+        this.dependencyType = Objects.requireNonNull(dependencyType);
+        this.source = Objects.requireNonNull(source);
+        this.constraint = constraint;
+        this.lockedVersion = lockedVersion;
+        this.latestVersion = latestVersion;
+        this.discontinued = discontinued;
+    }
+
+    /**
+     * Create entries of every package which listed in <code>pubspec.yaml</code> and <code>pubspec.lock</code>.
+     *
+     * @param project Loaded {@link DartProject}.
+     *
+     * @return A {@link List} of entries, which direct dependencies come first.
+     *
+     * @see ProjectDependency#listOf(DartProject)
+     */
+    @Nonnull
+    public static List<DependencyTableEntry> fromProject(@Nonnull DartProject project) {
+        final List<ProjectDependency> dependencies = ProjectDependency.listOf(project);
+        final ArrayList<DependencyTableEntry> entries = new ArrayList<>(dependencies.size());
+
+        for (ProjectDependency pd : dependencies) {
+            entries.add(new DependencyTableEntry(
+                    pd.getName(),
+                    pd.getDependencyType(),
+                    pd.getSource(),
+                    pd.getConstraint(),
+                    pd.getLockedVersion(),
+                    null,
+                    false
+            ));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Get name of package.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get how the package is depended.
+     *
+     * @return {@link LockedPackage.DependencyType} of the package.
+     */
+    @Nonnull
+    public LockedPackage.DependencyType getDependencyType() {
+        return dependencyType;
+    }
+
+    /**
+     * Get where the package come from.
+     *
+     * @return {@link LockedPackage.Source} of the package.
+     */
+    @Nonnull
+    public LockedPackage.Source getSource() {
+        return source;
+    }
+
+    /**
+     * Get constraint of the package.
+     *
+     * @return Raw constraint, or <code>null</code> if it is not versioned or transitive.
+     */
+    @Nullable
+    public String getConstraint() {
+        return constraint;
+    }
+
+    /**
+     * Get resolved version.
+     *
+     * @return Version in <code>pubspec.lock</code>, or <code>null</code> if not resolved.
+     */
+    @Nullable
+    public String getLockedVersion() {
+        return lockedVersion;
+    }
+
+    /**
+     * Get latest version on pub.dev.
+     *
+     * @return Latest version, or <code>null</code> if not fetched yet.
+     */
+    @Nullable
+    public String getLatestVersion() {
+        return latestVersion;
+    }
+
+    /**
+     * Determine the package is discontinued.
+     *
+     * @return <code>true</code> if discontinued.
+     */
+    public boolean isDiscontinued() {
+        return discontinued;
+    }
+
+    /**
+     * Determine resolved version is not the latest.
+     *
+     * @return <code>true</code> if both versions are known and different.
+     */
+    public boolean isOutdated() {
+        return ProjectDependency.isOutdated(lockedVersion, latestVersion);
+    }
+
+    /**
+     * Get {@link ObservableValue} of this entry for cell value factory.
+     *
+     * @return Shared {@link ObservableValue} of this entry.
+     */
+    @Nonnull
+    ObservableValue<DependencyTableEntry> asObservable() {
+        return observable;
+    }
+
+    /**
+     * Create a new entry with information from pub.dev.
+     *
+     * @param metadata Fetched {@link PubPackageMetadata} of this package.
+     *
+     * @return A new {@link DependencyTableEntry}.
+     */
+    @Nonnull
+    public DependencyTableEntry changeMetadata(@Nonnull PubPackageMetadata metadata) {
+        final PubPackageVersion latest = metadata.getLatest();
+
+        return new DependencyTableEntry(
+                name,
+                dependencyType,
+                source,
+                constraint,
+                lockedVersion,
+                latest == null ? null : latest.getRawVersion(),
+                metadata.isDiscontinued()
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DependencyTableEntry that = (DependencyTableEntry) o;
+        return discontinued == that.discontinued
+                && name.equals(that.name)
+                && dependencyType == that.dependencyType
+                && source == that.source
+                && Objects.equals(constraint, that.constraint)
+                && Objects.equals(lockedVersion, that.lockedVersion)
+                && Objects.equals(latestVersion, that.latestVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, dependencyType, source, constraint, lockedVersion, latestVersion, discontinued);
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyTableEntry{" +
+                "name='" + name + '\'' +
+                ", dependencyType=" + dependencyType +
+                ", source=" + source +
+                ", constraint='" + constraint + '\'' +
+                ", lockedVersion='" + lockedVersion + '\'' +
+                ", latestVersion='" + latestVersion + '\'' +
+                ", discontinued=" + discontinued +
+                '}';
+    }
+}
@@ -0,0 +1,150 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Control;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+import xyz.rk0cc.willpub.core.WillPubDirectories;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnosticsSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Member of {@link Control} object that displaying {@linkplain FXDiagnostics diagnostics of JavaFX application thread}
+ * in a single line, which is designed for {@link xyz.rk0cc.willpub.ui.widget.TopBar#getRightChildren()}.
+ * <br/>
+ * It shows pulse rate, frame and CSS with layout time, layout passes, queued and long tasks and stalls, which are
+ * refreshed twice a second while this overlay is in a scene. The name of the latest stall is shown as tooltip. The
+ * dump button writes recent trace into cache directory.
+ * <br/>
+ * The scene is only {@linkplain FXDiagnostics#attach(javafx.scene.Scene) attached} when diagnostics is enabled, that
+ * nothing is observed if this overlay is added while disabled. It is expected to be added only when enabled:
+ * <pre>
+ *     if (FXDiagnostics.isEnabled()) topBar.getRightChildren().add(new FXDiagnosticsOverlay());
+ * </pre>
+ *
+ * @since 1.0.0
+ */
+public final class FXDiagnosticsOverlay extends Control {
+    /**
+     * Interval of reading counters.
+     */
+    private static final javafx.util.Duration REFRESH_INTERVAL = javafx.util.Duration.millis(500d);
+
+    /**
+     * Name of cache subdirectory which trace dumped to.
+     */
+    public static final String TRACE_DIRECTORY = "diagnostics";
+
+    private static final DateTimeFormatter TRACE_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Label lblStats = new Label();
+    private final Tooltip stallTip = new Tooltip();
+    private final Tooltip dumpTip = new Tooltip("Dump recent trace");
+    private final Timeline refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+
+    /**
+     * Previous snapshot which rates are computed from.
+     */
+    private FXDiagnosticsSnapshot previous = null;
+    private long previousNanos = 0L;
+
+    /**
+     * Construct {@link FXDiagnosticsOverlay} controller and ready to added.
+     */
+    public FXDiagnosticsOverlay() {
+        // Container
+        HBox container = new HBox(5d);
+        container.setAlignment(Pos.CENTER_RIGHT);
+
+        lblStats.setFont(Font.font("monospace", 11d));
+        lblStats.setTooltip(stallTip);
+
+        final Button btnDump = new Button("Dump");
+        btnDump.setAccessibleText("Dump FX trace");
+        btnDump.setFocusTraversable(false);
+        btnDump.setTooltip(dumpTip);
+        btnDump.setOnAction(e -> dump());
+
+        refresher.setCycleCount(Animation.INDEFINITE);
+        // Only observe and refresh when it is displayed
+        sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null) FXDiagnostics.detach(oldScene);
+            refresher.stop();
+            previous = null;
+
+            if (newScene != null && FXDiagnostics.isEnabled()) {
+                FXDiagnostics.attach(newScene);
+                refresher.play();
+            }
+            refresh();
+        });
+
+        // Wrap up
+        container.getChildren().addAll(lblStats, btnDump);
+        this.getChildren().add(container);
+        refresh();
+    }
+
+    /**
+     * Read counters again immediately. It must be called in JavaFX application thread.
+     */
+    public void refresh() {
+        if (!FXDiagnostics.isEnabled()) {
+            lblStats.setText("FX diagnostics disabled");
+            return;
+        }
+
+        final FXDiagnosticsSnapshot s = FXDiagnostics.snapshot();
+        final long now = System.nanoTime();
+        if (previous != null) {
+            final double seconds = (now - previousNanos) / 1e9d;
+            final long frames = s.frames() - previous.frames(), pulses = s.pulses() - previous.pulses();
+            lblStats.setText(String.format(
+                    Locale.ROOT,
+                    "%3.0f fps | frame %5.1f/%5.1f ms | css+layout %4.1f/%5.1f ms | layout %d | queue %d | long %d"
+                            + " | stall %d",
+                    pulses / seconds,
+                    frames == 0 ? 0d : (s.frameNanos() - previous.frameNanos()) / 1e6d / frames,
+                    s.maxFrameNanos() / 1e6d,
+                    pulses == 0 ? 0d : (s.sceneNanos() - previous.sceneNanos()) / 1e6d / pulses,
+                    s.maxSceneNanos() / 1e6d,
+                    s.layoutPasses() - previous.layoutPasses(),
+                    s.pendingTasks(),
+                    s.longTasks() - previous.longTasks(),
+                    s.stalls() - previous.stalls()
+            ));
+        } else {
+            lblStats.setText("Collecting FX diagnostics...");
+        }
+        stallTip.setText(s.lastStall() == null ? "No stall" : "Last stall: " + s.lastStall());
+
+        previous = s;
+        previousNanos = now;
+    }
+
+    /**
+     * Write recent trace into {@value #TRACE_DIRECTORY} of cache directory.
+     */
+    private void dump() {
+        try {
+            final Path file = WillPubDirectories.createCacheSubdirectory(TRACE_DIRECTORY)
+                    .resolve("fx-trace-" + LocalDateTime.now().format(TRACE_FILE_TIME) + ".json");
+            FXDiagnostics.dumpTrace(file);
+            dumpTip.setText("Trace written to " + file);
+        } catch (IOException e) {
+            dumpTip.setText("Unable to write trace: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.collections.ObservableListBase;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import xyz.rk0cc.willpub.core.command.PubOutputLine;
+import xyz.rk0cc.willpub.ui.event.PubCommandEvent;
+import xyz.rk0cc.willpub.ui.widget.console.AnsiStyle;
+import xyz.rk0cc.willpub.ui.widget.console.LogBuffer;
+import xyz.rk0cc.willpub.ui.widget.console.LogLine;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Member of {@link Control} object that displaying output of pub and Flutter tool.
+ * <br/>
+ * Lines are kept in {@link LogBuffer} and displayed by a virtualized {@link ListView} which items are line numbers
+ * only, that only visible lines are decoded into {@link Text} nodes. ANSI colors and styles are rendered, except
+ * background color. Finding text scans the buffer directly without joining lines into a {@link String}.
+ * <br/>
+ * It receives {@link PubCommandEvent.PubCommandOutputEvent} which fired to itself, that it can be a target of
+ * {@link xyz.rk0cc.willpub.ui.event.PubCommandEventRelay} directly. All methods must be called in JavaFX application
+ * thread.
+ *
+ * @since 1.0.0
+ */
+public final class LogConsole extends Control {
+    /**
+     * Height of every line, which allows {@link ListView} skipping measurement of cells.
+     */
+    private static final double LINE_HEIGHT = 18d;
+
+    private static final Font FONT = Font.font("monospace", 12d);
+    private static final Color DEFAULT_COLOR = Color.web("#D4D4D4");
+    private static final Color ERROR_COLOR = colorOf(9);
+
+    private final LogBuffer buffer;
+    private final LineNumberList lineNumbers = new LineNumberList();
+    private final ListView<Long> lineView = new ListView<>(lineNumbers);
+    private final TextField txfFind = new TextField();
+    private final CheckBox chkFollow = new CheckBox("Follow");
+    private final Label lblStatus = new Label();
+    /**
+     * Line number of last found line, or <code>-1</code> if nothing found.
+     */
+    private long lastFound = -1L;
+
+    /**
+     * Construct {@link LogConsole} controller with given buffer.
+     *
+     * @param buffer {@link LogBuffer} which storing lines.
+     */
+    public LogConsole(@Nonnull LogBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+
+        // Container
+        VBox container = new VBox(5d);
+        container.setPadding(new Insets(5d));
+        container.setFillWidth(true);
+
+        // Toolbar
+        txfFind.setPromptText("Find");
+        txfFind.setOnAction(e -> find(txfFind.getText(), true));
+        txfFind.textProperty().addListener((observable, oldText, newText) -> lastFound = -1L);
+        HBox.setHgrow(txfFind, Priority.ALWAYS);
+        final Button btnPrevious = new Button("Previous");
+        btnPrevious.setOnAction(e -> find(txfFind.getText(), false));
+        final Button btnNext = new Button("Next");
+        btnNext.setOnAction(e -> find(txfFind.getText(), true));
+        final Button btnClear = new Button("Clear");
+        btnClear.setOnAction(e -> clear());
+        chkFollow.setSelected(true);
+        HBox toolbar = new HBox(10d, txfFind, btnPrevious, btnNext, chkFollow, btnClear, lblStatus);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+
+        // Lines
+        lineView.setFixedCellSize(LINE_HEIGHT);
+        lineView.setCellFactory(view -> new LogLineCell());
+        lineView.setPlaceholder(new Label("No output"));
+        VBox.setVgrow(lineView, Priority.ALWAYS);
+
+        addEventHandler(
+                PubCommandEvent.PubCommandOutputEvent.PUB_COMMAND_OUTPUT_EVENT_TYPE,
+                e -> appendAll(e.getLines())
+        );
+
+        // Wrap up
+        container.getChildren().addAll(toolbar, lineView);
+        this.getChildren().add(container);
+        updateStatus();
+    }
+
+    /**
+     * Construct {@link LogConsole} controller with {@linkplain LogBuffer#LogBuffer() default limits}.
+     */
+    public LogConsole() {
+        this(new LogBuffer());
+    }
+
+    /**
+     * Append a line.
+     *
+     * @param line Line without line separator, which may contain ANSI escape sequences.
+     * @param error <code>true</code> if it is printed to standard error.
+     */
+    public void append(@Nonnull String line, boolean error) {
+        final long oldFirst = buffer.getFirstLineNumber();
+        final int oldSize = buffer.size();
+        buffer.append(line, error);
+        applyAppended(oldFirst, oldSize);
+    }
+
+    /**
+     * Append output of pub command.
+     *
+     * @param lines Lines in printed order.
+     */
+    public void appendAll(@Nonnull List<PubOutputLine> lines) {
+        if (lines.isEmpty()) return;
+
+        final long oldFirst = buffer.getFirstLineNumber();
+        final int oldSize = buffer.size();
+        for (PubOutputLine l : lines) buffer.append(l.text(), l.isError());
+        applyAppended(oldFirst, oldSize);
+    }
+
+    private void applyAppended(long oldFirst, int oldSize) {
+        lineNumbers.fireAppended(oldFirst, oldSize);
+        if (chkFollow.isSelected() && buffer.size() > 0) lineView.scrollTo(buffer.size() - 1);
+        updateStatus();
+    }
+
+    /**
+     * Remove all lines.
+     */
+    public void clear() {
+        final long oldFirst = buffer.getFirstLineNumber();
+        final int oldSize = buffer.size();
+        buffer.clear();
+        lastFound = -1L;
+        lineNumbers.fireAppended(oldFirst, oldSize);
+        updateStatus();
+    }
+
+    /**
+     * Find next or previous line which contains the query, then select and scroll to it.
+     *
+     * @param query Text to find, which ignores case of ASCII letters.
+     * @param forward <code>true</code> for finding next line.
+     *
+     * @return Line number of found line, or <code>-1</code> if not found.
+     */
+    public long find(@Nonnull String query, boolean forward) {
+        final long from;
+        if (lastFound >= 0 && buffer.contains(lastFound)) from = forward ? lastFound + 1 : lastFound - 1;
+        else from = forward ? buffer.getFirstLineNumber() : buffer.getNextLineNumber() - 1;
+
+        final long found = buffer.find(query, from, forward, true);
+        if (found < 0) {
+            lblStatus.setText("Not found");
+            return -1L;
+        }
+
+        lastFound = found;
+        chkFollow.setSelected(false);
+        final int index = (int) (found - buffer.getFirstLineNumber());
+        lineView.getSelectionModel().clearAndSelect(index);
+        lineView.scrollTo(index);
+        updateStatus();
+
+        return found;
+    }
+
+    private void updateStatus() {
+        final long dropped = buffer.getDroppedLines();
+        lblStatus.setText(buffer.size() + " lines" + (dropped > 0 ? " (" + dropped + " dropped)" : ""));
+    }
+
+    /**
+     * Get {@link LogBuffer} of this console.
+     *
+     * @return Buffer of lines.
+     */
+    @Nonnull
+    public LogBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Nonnull
+    private static Color colorOf(int paletteIndex) {
+        final int rgb = AnsiStyle.toRgb(paletteIndex);
+        return Color.rgb((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
+
+    @Nonnull
+    private static Text textOf(@Nonnull String text, int style, @Nonnull Color defaultColor) {
+        Text t = new Text(text);
+        final int fg = AnsiStyle.foreground(style);
+        t.setFill(fg == AnsiStyle.NO_COLOR ? defaultColor : colorOf(fg));
+        t.setFont(style == AnsiStyle.DEFAULT ? FONT : Font.font(
+                FONT.getFamily(),
+                AnsiStyle.isBold(style) ? FontWeight.BOLD : FontWeight.NORMAL,
+                AnsiStyle.isItalic(style) ? FontPosture.ITALIC : FontPosture.REGULAR,
+                FONT.getSize()
+        ));
+        t.setUnderline(AnsiStyle.isUnderline(style));
+        return t;
+    }
+
+    /**
+     * Observable view of line numbers in buffer, which never copies them into a list.
+     */
+    private final class LineNumberList extends ObservableListBase<Long> {
+        @Override
+        public Long get(int index) {
+            Objects.checkIndex(index, size());
+            return buffer.getFirstLineNumber() + index;
+        }
+
+        @Override
+        public int size() {
+            return buffer.size();
+        }
+
+        /**
+         * Notify lines dropped from head and appended to tail.
+         */
+        void fireAppended(long oldFirst, int oldSize) {
+            final int removed = (int) Math.min(oldSize, buffer.getFirstLineNumber() - oldFirst);
+            final int added = buffer.size() - (oldSize - removed);
+            if (removed == 0 && added == 0) return;
+
+            beginChange();
+            if (removed > 0) nextRemove(0, new AbstractList<Long>() {
+                @Override
+                public Long get(int index) {
+                    return oldFirst + index;
+                }
+
+                @Override
+                public int size() {
+                    return removed;
+                }
+            });
+            if (added > 0) nextAdd(buffer.size() - added, buffer.size());
+            endChange();
+        }
+    }
+
+    /**
+     * Cell which renders a line with its ANSI styles.
+     */
+    private final class LogLineCell extends ListCell<Long> {
+        private final TextFlow flow = new TextFlow();
+
+        private LogLineCell() {
+            setPadding(Insets.EMPTY);
+            flow.setMaxHeight(LINE_HEIGHT);
+        }
+
+        @Override
+        protected void updateItem(Long item, boolean empty) {
+            super.updateItem(item, empty);
+
+            final LogLine line = empty || item == null ? null : buffer.getLine(item);
+            if (line == null) {
+                setGraphic(null);
+                return;
+            }
+
+            final Color defaultColor = line.isError() ? ERROR_COLOR : DEFAULT_COLOR;
+            final String text = line.getText();
+            int position = 0;
+            flow.getChildren().clear();
+            for (int i = 0; i < line.getSpanCount(); i++) {
+                final int start = line.getSpanStart(i), end = line.getSpanEnd(i);
+                if (start > position)
+                    flow.getChildren().add(textOf(text.substring(position, start), AnsiStyle.DEFAULT, defaultColor));
+                flow.getChildren().add(textOf(text.substring(start, end), line.getSpanStyle(i), defaultColor));
+                position = end;
+            }
+            if (position < text.length() || line.getSpanCount() == 0)
+                flow.getChildren().add(textOf(text.substring(position), AnsiStyle.DEFAULT, defaultColor));
+
+            setGraphic(flow);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import xyz.rk0cc.willpub.core.metrics.LatencySnapshot;
+import xyz.rk0cc.willpub.core.metrics.Metric;
+import xyz.rk0cc.willpub.core.metrics.SlowOperation;
+import xyz.rk0cc.willpub.core.metrics.WillPubMetrics;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Member of {@link Control} object that displaying {@linkplain WillPubMetrics instrumentation} of Will Pub.
+ * <br/>
+ * It lists latency of every {@link Metric} and recent slow operations, which refreshed every second while this panel
+ * is in a scene. Refreshing stops once it is removed from scene that a hidden panel costs nothing.
+ *
+ * @since 1.0.0
+ */
+public final class MetricsPanel extends Control {
+    /**
+     * Interval of reading histograms.
+     */
+    private static final javafx.util.Duration REFRESH_INTERVAL = javafx.util.Duration.seconds(1d);
+
+    /**
+     * Displayed values of a {@link Metric}.
+     */
+    private record Row(@Nonnull Metric metric, @Nonnull LatencySnapshot snapshot) {}
+
+    private final CheckBox enabledBox = new CheckBox("Enable instrumentation");
+    private final Label slowLabel = new Label();
+    private final TableView<Row> latencyTable = new TableView<>();
+    private final ListView<String> slowList = new ListView<>();
+    private final Timeline refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+
+    /**
+     * Construct {@link MetricsPanel} controller and ready to added.
+     */
+    public MetricsPanel() {
+        // Container
+        VBox container = new VBox(5d);
+        container.setPadding(new Insets(5d));
+        container.setFillWidth(true);
+
+        // Toolbar
+        final Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            WillPubMetrics.reset();
+            refresh();
+        });
+        enabledBox.setOnAction(e -> {
+            WillPubMetrics.setEnabled(enabledBox.isSelected());
+            refresh();
+        });
+        HBox toolbar = new HBox(10d, enabledBox, slowLabel, resetButton);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+
+        // Latency table preference
+        latencyTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        latencyTable.setPlaceholder(new Label("No metric"));
+        latencyTable.getColumns().setAll(List.of(
+                column("Operation", r -> r.metric().getDisplayName()),
+                column("Count", r -> Long.toString(r.snapshot().count())),
+                column("Mean", r -> format(r.snapshot().mean())),
+                column("p50", r -> format(r.snapshot().percentile(0.5d))),
+                column("p99", r -> format(r.snapshot().percentile(0.99d))),
+                column("Max", r -> format(r.snapshot().max()))
+        ));
+        VBox.setVgrow(latencyTable, Priority.ALWAYS);
+
+        // Slow operations
+        slowList.setPlaceholder(new Label("No slow operation"));
+        slowList.setPrefHeight(150d);
+
+        refresher.setCycleCount(Animation.INDEFINITE);
+        // Only refresh when it is displayed
+        sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene == null) {
+                refresher.stop();
+            } else {
+                refresh();
+                refresher.play();
+            }
+        });
+
+        // Wrap up
+        container.getChildren().addAll(toolbar, latencyTable, new Label("Slow operations"), slowList);
+        this.getChildren().add(container);
+        refresh();
+    }
+
+    @Nonnull
+    private static TableColumn<Row, String> column(@Nonnull String title, @Nonnull Function<Row, String> textOf) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(textOf.apply(features.getValue())));
+        column.setSortable(false);
+        return column;
+    }
+
+    /**
+     * Format duration in the most readable unit.
+     */
+    @Nonnull
+    private static String format(@Nonnull Duration duration) {
+        final long nanos = duration.toNanos();
+        if (nanos < 1_000L) return nanos + " ns";
+        else if (nanos < 1_000_000L) return String.format("%.1f us", nanos / 1e3d);
+        else if (nanos < 1_000_000_000L) return String.format("%.1f ms", nanos / 1e6d);
+
+        return String.format("%.2f s", nanos / 1e9d);
+    }
+
+    /**
+     * Read metrics again immediately. It must be called in JavaFX application thread.
+     */
+    public void refresh() {
+        enabledBox.setSelected(WillPubMetrics.isEnabled());
+        slowLabel.setText(
+                WillPubMetrics.getSlowOperationCount() + " slow (over " + WillPubMetrics.getSlowThreshold().toMillis()
+                        + " ms)"
+        );
+
+        final ArrayList<Row> rows = new ArrayList<>();
+        for (Map.Entry<Metric, LatencySnapshot> e : WillPubMetrics.snapshot().entrySet())
+            rows.add(new Row(e.getKey(), e.getValue()));
+        latencyTable.getItems().setAll(rows);
+
+        slowList.getItems().setAll(
+                WillPubMetrics.getRecentSlowOperations().stream().map(SlowOperation::toString).toList()
+        );
+    }
+}
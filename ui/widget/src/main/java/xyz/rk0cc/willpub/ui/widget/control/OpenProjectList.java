@@ -0,0 +1,152 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Control;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import org.kordamp.ikonli.material2.Material2AL;
+import xyz.rk0cc.willpub.core.project.DartProject;
+import xyz.rk0cc.willpub.core.session.ProjectSession;
+import xyz.rk0cc.willpub.ui.widget.LazyIcon;
+
+import javax.annotation.Nonnull;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Member of {@link Control} object that listing every opened project of {@link CurrentDirectoryPath} as tabs.
+ * <br/>
+ * Selecting a tab applies that project again, which comes from the model kept by its {@link ProjectSession} that no
+ * files are parsed if unchanged. Tabs are ordered by the time opened, and closing a tab
+ * {@linkplain CurrentDirectoryPath#closeSession(ProjectSession) closes} that project.
+ *
+ * @since 1.0.0
+ */
+public final class OpenProjectList extends Control {
+    /**
+     * Height of the list, which displays a single row of tabs.
+     */
+    private static final double LIST_HEIGHT = 36d;
+
+    private final CurrentDirectoryPath directoryPath;
+    private final ObservableList<ProjectSession> sessions = FXCollections.observableArrayList();
+    private final ListView<ProjectSession> lsvProjects = new ListView<>(sessions);
+
+    /**
+     * Selection is changing by {@link #refresh()} that it should not apply project again.
+     */
+    private boolean syncing = false;
+
+    /**
+     * Construct {@link OpenProjectList} controller of given {@link CurrentDirectoryPath}.
+     *
+     * @param directoryPath {@link CurrentDirectoryPath} which opens projects.
+     */
+    public OpenProjectList(@Nonnull CurrentDirectoryPath directoryPath) {
+        this.directoryPath = Objects.requireNonNull(directoryPath);
+
+        // List preference
+        lsvProjects.setOrientation(Orientation.HORIZONTAL);
+        lsvProjects.setPrefHeight(LIST_HEIGHT);
+        lsvProjects.setMinHeight(USE_PREF_SIZE);
+        lsvProjects.setMaxHeight(USE_PREF_SIZE);
+        lsvProjects.setPlaceholder(new Label("No project opened"));
+        lsvProjects.setCellFactory(lv -> new ProjectTab());
+        lsvProjects.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (syncing || newValue == null || newValue == directoryPath.getCurrentSession()) return;
+
+            directoryPath.openDirectory(newValue.getDirectory().toFile());
+        });
+
+        // Follow changes of opened projects
+        directoryPath.addDirectoryChangesAppliedHandler(e -> refresh());
+        directoryPath.addDirectoryChangesResetHandler(e -> refresh());
+        directoryPath.addDirectoryChangesDiscoveredHandler(e -> {
+            if (e.isCompleted()) refresh();
+        });
+
+        // Wrap up
+        this.getChildren().add(lsvProjects);
+        refresh();
+    }
+
+    /**
+     * Read opened projects again, which appends newly opened projects to the end and selects applied one. It must be
+     * called in JavaFX application thread.
+     */
+    public void refresh() {
+        final List<ProjectSession> opened = directoryPath.getSessionManager().getOpenSessions();
+
+        syncing = true;
+        try {
+            sessions.retainAll(opened);
+            final HashSet<ProjectSession> listed = new HashSet<>(sessions);
+            for (ProjectSession s : opened) if (listed.add(s)) sessions.add(s);
+
+            final ProjectSession current = directoryPath.getCurrentSession();
+            if (current == null) lsvProjects.getSelectionModel().clearSelection();
+            else lsvProjects.getSelectionModel().select(current);
+        } finally {
+            syncing = false;
+        }
+    }
+
+    /**
+     * Get opened projects which are listed.
+     *
+     * @return Unmodifiable list of {@link ProjectSession} in displayed order.
+     */
+    @Nonnull
+    public List<ProjectSession> getSessions() {
+        return List.copyOf(sessions);
+    }
+
+    /**
+     * Cell displaying name of project with close button.
+     */
+    private final class ProjectTab extends ListCell<ProjectSession> {
+        private final Label lblName = new Label();
+        private final Button btnClose = new Button();
+        private final HBox container = new HBox(5d, lblName, btnClose);
+        private final Tooltip pathTip = new Tooltip();
+
+        private ProjectTab() {
+            container.setAlignment(Pos.CENTER_LEFT);
+            btnClose.setGraphic(new LazyIcon(Material2AL.CLOSE, 14));
+            btnClose.setAccessibleText("Close project");
+            btnClose.setFocusTraversable(false);
+            btnClose.setOnAction(e -> {
+                final ProjectSession session = getItem();
+                if (session == null) return;
+
+                directoryPath.closeSession(session);
+                refresh();
+            });
+            lblName.setTooltip(pathTip);
+        }
+
+        @Override
+        protected void updateItem(ProjectSession item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+
+            final DartProject project = item.getProject();
+            lblName.setText(project != null ? project.getName() : String.valueOf(item.getDirectory().getFileName()));
+            pathTip.setText(item.getDirectory().toString());
+            setGraphic(container);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package xyz.rk0cc.willpub.ui.widget.control;
+
+import io.github.palexdev.materialfx.controls.MFXTextField;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Control;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import xyz.rk0cc.willpub.core.pubdev.PackageNameIndex;
+import xyz.rk0cc.willpub.core.pubdev.PackageNameIndexLoader;
+import xyz.rk0cc.willpub.core.pubdev.PubDevMetadataFetcher;
+import xyz.rk0cc.willpub.core.pubdev.PubPackageMetadata;
+import xyz.rk0cc.willpub.ui.diagnostics.FXDiagnostics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Member of {@link Control} object that completing package name on pub.dev while typing.
+ * <br/>
+ * Completions come from {@link PackageNameIndex} in JavaFX application thread directly that no request is sent for
+ * each keystroke. Metadata of the typed package is only fetched after typing paused for {@link #FETCH_DELAY}, and
+ * the fetching of previous text is cancelled, that only the last text reaches network.
+ *
+ * @since 1.0.0
+ */
+public final class PackageSearchField extends Control {
+    /**
+     * Duration of no typing before fetching metadata.
+     */
+    public static final javafx.util.Duration FETCH_DELAY = javafx.util.Duration.millis(300d);
+
+    /**
+     * Maximum completions displayed.
+     */
+    public static final int MAX_COMPLETIONS = 10;
+
+    /**
+     * Textfield that receiving package name.
+     */
+    private final MFXTextField txfPackageName = new MFXTextField();
+    /**
+     * Label that displaying latest version of typed package.
+     */
+    private final Label lblDetail = new Label();
+    /**
+     * Popup of completions.
+     */
+    private final ContextMenu completionMenu = new ContextMenu();
+    /**
+     * Timer which restarted on every keystroke.
+     */
+    private final PauseTransition fetchDelay = new PauseTransition(FETCH_DELAY);
+    private final PackageNameIndexLoader nameLoader;
+    private final PubDevMetadataFetcher fetcher;
+    private final ReadOnlyObjectWrapper<PubPackageMetadata> selectedPackage = new ReadOnlyObjectWrapper<>();
+    /**
+     * {@link CompletableFuture} of metadata which does not finished yet.
+     */
+    private CompletableFuture<PubPackageMetadata> pendingFetch = null;
+    /**
+     * Increase on every keystroke, which uses for discarding result of outdated text.
+     */
+    private long fetchGeneration = 0L;
+
+    /**
+     * Construct {@link PackageSearchField} controller and ready to added.
+     *
+     * @param nameLoader {@link PackageNameIndexLoader} which provides package names.
+     * @param fetcher {@link PubDevMetadataFetcher} for fetching metadata of typed package.
+     */
+    public PackageSearchField(@Nonnull PackageNameIndexLoader nameLoader, @Nonnull PubDevMetadataFetcher fetcher) {
+        this.nameLoader = Objects.requireNonNull(nameLoader);
+        this.fetcher = Objects.requireNonNull(fetcher);
+
+        // Container
+        HBox container = new HBox();
+        container.setMaxWidth(Double.MAX_VALUE);
+        container.setAlignment(Pos.CENTER);
+        container.setSpacing(10d);
+
+        // Package name widget, which looks the same as current path
+        HBox.setHgrow(txfPackageName, Priority.ALWAYS);
+        txfPackageName.setFloatingText("Package name:");
+        txfPackageName.setPadding(new Insets(7.5d));
+        txfPackageName.textProperty().addListener((observable, oldText, newText) -> onTextChanged(newText));
+        txfPackageName.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) completionMenu.hide();
+        });
+
+        lblDetail.setMinWidth(USE_PREF_SIZE);
+
+        fetchDelay.setOnFinished(e -> fetchMetadata(txfPackageName.getText()));
+
+        // Wrap up
+        container.getChildren().addAll(txfPackageName, lblDetail);
+        this.getChildren().add(container);
+    }
+
+    /**
+     * Update completions immediately and restart timer of fetching.
+     */
+    private void onTextChanged(@Nullable String text) {
+        fetchGeneration++;
+        cancelPendingFetch();
+        selectedPackage.set(null);
+        lblDetail.setText("");
+
+        final String typed = text == null ? "" : text.strip();
+        showCompletions(typed.isEmpty() ? List.of() : nameLoader.getIndex().complete(typed, MAX_COMPLETIONS), typed);
+
+        if (typed.isEmpty()) fetchDelay.stop();
+        else fetchDelay.playFromStart();
+    }
+
+    private void showCompletions(@Nonnull List<String> completions, @Nonnull String typed) {
+        if (completions.isEmpty() || (completions.size() == 1 && completions.get(0).equals(typed))) {
+            completionMenu.hide();
+            return;
+        }
+
+        final ArrayList<CustomMenuItem> items = new ArrayList<>(completions.size());
+        for (String name : completions) {
+            CustomMenuItem item = new CustomMenuItem(new Label(name), true);
+            item.setOnAction(e -> {
+                txfPackageName.setText(name);
+                txfPackageName.positionCaret(name.length());
+            });
+            items.add(item);
+        }
+        completionMenu.getItems().setAll(items);
+
+        if (!completionMenu.isShowing() && txfPackageName.getScene() != null)
+            completionMenu.show(txfPackageName, Side.BOTTOM, 0d, 0d);
+    }
+
+    /**
+     * Fetch metadata of the text if it is a known package name.
+     */
+    private void fetchMetadata(@Nullable String text) {
+        final String name = text == null ? "" : text.strip();
+        if (!nameLoader.getIndex().contains(name)) return;
+
+        final long generation = fetchGeneration;
+        lblDetail.setText("Loading...");
+
+        final CompletableFuture<PubPackageMetadata> fetching = fetcher.fetch(name);
+        pendingFetch = fetching;
+        final String task = "PackageSearchField.fetched";
+        fetching.whenComplete((metadata, error) -> Platform.runLater(FXDiagnostics.track(task, () -> {
+            // Text is changed already
+            if (generation != fetchGeneration || fetching.isCancelled()) return;
+
+            pendingFetch = null;
+            if (error != null) {
+                lblDetail.setText("Unavailable");
+                return;
+            }
+
+            selectedPackage.set(metadata);
+            if (metadata.isDiscontinued()) lblDetail.setText("Discontinued");
+            else if (metadata.getLatest() != null) lblDetail.setText(metadata.getLatest().getRawVersion());
+            else lblDetail.setText("");
+        })));
+    }
+
+    private void cancelPendingFetch() {
+        if (pendingFetch != null) {
+            pendingFetch.cancel(true);
+            pendingFetch = null;
+        }
+    }
+
+    /**
+     * Get typed package name.
+     *
+     * @return Text in field.
+     */
+    @Nonnull
+    public String getPackageName() {
+        return txfPackageName.getText();
+    }
+
+    /**
+     * Metadata of typed package, which is <code>null</code> when typing or the package is not found.
+     *
+     * @return Property of {@link PubPackageMetadata}.
+     */
+    @Nonnull
+    public ReadOnlyObjectProperty<PubPackageMetadata> selectedPackageProperty() {
+        return selectedPackage.getReadOnlyProperty();
+    }
+
+    @Nullable
+    public PubPackageMetadata getSelectedPackage() {
+        return selectedPackage.get();
+    }
+
+    /**
+     * Clear typed text and abort fetching.
+     */
+    public void clear() {
+        txfPackageName.clear();
+    }
+}
@@ -0,0 +1,174 @@
+package xyz.rk0cc.willpub.ui.widget;
+
+import xyz.rk0cc.willpub.core.project.ProjectFile;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generator of Dart project with given number of dependencies for UI tests, which writes the same files of
+ * <code>SyntheticProject</code> in benchmarks that measurements of both are comparable.
+ * <br/>
+ * Every direct dependency has one transitive dependency in <code>pubspec.lock</code> and
+ * <code>package_config.json</code>.
+ */
+final class SyntheticProject {
+    /**
+     * Seed of generating constraints and versions.
+     */
+    private static final long SEED = 0x5EEDL;
+
+    private SyntheticProject() {}
+
+    /**
+     * Name of generated direct dependency.
+     *
+     * @param index Index of dependency.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    private static String directName(int index) {
+        return "direct_package_" + index;
+    }
+
+    /**
+     * Name of generated transitive dependency.
+     *
+     * @param index Index of dependency.
+     *
+     * @return Package name.
+     */
+    @Nonnull
+    private static String transitiveName(int index) {
+        return "transitive_package_" + index;
+    }
+
+    /**
+     * Generate a version constraint in one of the common forms.
+     *
+     * @param random Source of randomness.
+     *
+     * @return Constraint in <code>pubspec.yaml</code>.
+     */
+    @Nonnull
+    private static String randomConstraint(@Nonnull Random random) {
+        final int major = random.nextInt(4), minor = random.nextInt(20), patch = random.nextInt(10);
+
+        return switch (random.nextInt(4)) {
+            case 0 -> "^" + major + "." + minor + "." + patch;
+            case 1 -> ">=" + major + "." + minor + "." + patch + " <" + (major + 1) + ".0.0";
+            case 2 -> major + "." + minor + "." + patch;
+            default -> ">=" + major + "." + minor + ".0";
+        };
+    }
+
+    /**
+     * Generate a version which may be a pre-release.
+     *
+     * @param random Source of randomness.
+     *
+     * @return Version string.
+     */
+    @Nonnull
+    private static String randomVersion(@Nonnull Random random) {
+        final String version = random.nextInt(4) + "." + random.nextInt(20) + "." + random.nextInt(10);
+
+        return random.nextInt(10) == 0 ? version + "-dev." + random.nextInt(5) : version;
+    }
+
+    /**
+     * Create a project in a new temporary directory.
+     *
+     * @param dependencies Number of direct dependencies, which one tenth of them are dev dependencies.
+     *
+     * @return Absolute {@link Path} of project directory.
+     *
+     * @throws IOException If unable to write files.
+     */
+    @Nonnull
+    static Path create(int dependencies) throws IOException {
+        final Path dir = Files.createTempDirectory("willpub-ui-test-" + dependencies + "-").toAbsolutePath();
+        final Random random = new Random(SEED + dependencies);
+
+        final StringBuilder pubspec = new StringBuilder()
+                .append("name: synthetic_").append(dependencies).append('\n')
+                .append("description: Generated project for UI test\n")
+                .append("version: 1.0.0\n")
+                .append("environment:\n")
+                .append("  sdk: \">=2.17.0 <3.0.0\"\n");
+        final StringBuilder lock = new StringBuilder("# Generated by pub\n")
+                .append("# See https://dart.dev/tools/pub/glossary#lockfile\n")
+                .append("packages:\n");
+        final StringBuilder config = new StringBuilder("{\n  \"configVersion\": 2,\n  \"packages\": [\n");
+
+        final int devFrom = dependencies - dependencies / 10;
+        pubspec.append("dependencies:\n");
+        for (int i = 0; i < dependencies; i++) {
+            if (i == devFrom) pubspec.append("dev_dependencies:\n");
+            pubspec.append("  ").append(directName(i)).append(": \"").append(randomConstraint(random)).append("\"\n");
+
+            appendLockEntry(lock, directName(i), i < devFrom ? "direct main" : "direct dev", random);
+            appendLockEntry(lock, transitiveName(i), "transitive", random);
+            appendConfigEntry(config, directName(i), i > 0);
+            appendConfigEntry(config, transitiveName(i), true);
+        }
+
+        lock.append("sdks:\n  dart: \">=2.17.0 <3.0.0\"\n");
+        config.append("\n  ],\n  \"generated\": \"2022-06-01T00:00:00.000000Z\",\n")
+                .append("  \"generator\": \"pub\",\n  \"generatorVersion\": \"2.17.0\"\n}\n");
+
+        Files.writeString(ProjectFile.PUBSPEC_YAML.resolve(dir), pubspec, StandardCharsets.UTF_8);
+        Files.writeString(ProjectFile.PUBSPEC_LOCK.resolve(dir), lock, StandardCharsets.UTF_8);
+        final Path configFile = ProjectFile.PACKAGE_CONFIG.resolve(dir);
+        Files.createDirectories(configFile.getParent());
+        Files.writeString(configFile, config, StandardCharsets.UTF_8);
+
+        return dir;
+    }
+
+    private static void appendLockEntry(
+            @Nonnull StringBuilder lock,
+            @Nonnull String name,
+            @Nonnull String dependency,
+            @Nonnull Random random
+    ) {
+        lock.append("  ").append(name).append(":\n")
+                .append("    dependency: \"").append(dependency).append("\"\n")
+                .append("    description:\n")
+                .append("      name: ").append(name).append('\n')
+                .append("      url: \"https://pub.dartlang.org\"\n")
+                .append("    source: hosted\n")
+                .append("    version: \"").append(randomVersion(random)).append("\"\n");
+    }
+
+    private static void appendConfigEntry(@Nonnull StringBuilder config, @Nonnull String name, boolean separator) {
+        if (separator) config.append(",\n");
+        config.append("    {\n")
+                .append("      \"name\": \"").append(name).append("\",\n")
+                .append("      \"rootUri\": \"file:///home/user/.pub-cache/hosted/pub.dartlang.org/")
+                .append(name).append("-1.0.0\",\n")
+                .append("      \"packageUri\": \"lib/\",\n")
+                .append("      \"languageVersion\": \"2.12\"\n")
+                .append("    }");
+    }
+
+    /**
+     * Delete generated project.
+     *
+     * @param dir Directory returned from {@link #create(int)}.
+     *
+     * @throws IOException If unable to delete.
+     */
+    static void delete(@Nonnull Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package xyz.rk0cc.willpub.ui.widget;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+import xyz.rk0cc.willpub.core.concurrent.WillPubExecutors;
+import xyz.rk0cc.willpub.core.project.DartProjectLoader;
+import xyz.rk0cc.willpub.core.session.ProjectSession;
+import xyz.rk0cc.willpub.ui.widget.control.CurrentDirectoryPath;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression test of UI responsiveness when opening and resetting projects, which compares with absolute budgets.
+ * <br/>
+ * It shows {@link CurrentDirectoryPath} inside {@link TopBar}, then opens {@linkplain SyntheticProject synthetic
+ * projects} of increasing size by {@link CurrentDirectoryPath#openDirectory(java.io.File)}, which is the same pipeline
+ * of choosing a directory, and resets by {@link CurrentDirectoryPath#resetDirectory()}. For each size it measures:
+ * <ul>
+ *     <li>Open-to-applied latency, which ends at the first layout pulse after the project applied.</li>
+ *     <li>FX thread stall, which is the longest delay of a probe posted by {@link Platform#runLater(Runnable)}.</li>
+ *     <li>Layout passes of {@link TopBar} for each open.</li>
+ * </ul>
+ * The loader has no project model cache, and every session is closed after resetting that every open parses files
+ * instead of applying kept model. Surefire runs it with headless Monocle and software rendering.
+ * <br/>
+ * Budgets of every metric are committed in <code>ui-budget.properties</code>, and the test fails if any metric exceeds
+ * its budget, or the budget is missing. Measured metrics can be written to a file for reviewing budgets by:
+ * <pre>
+ *     mvn -pl ui/widget test -Dtest=UiResponsivenessTest -Dwillpub.ui.record=target/ui-metrics.properties
+ * </pre>
+ */
+@ExtendWith(ApplicationExtension.class)
+final class UiResponsivenessTest {
+    /**
+     * Resource name of budgets.
+     */
+    private static final String BUDGET_RESOURCE = "/ui-budget.properties";
+
+    /**
+     * System property of file which measured metrics written to.
+     */
+    private static final String RECORD_PROPERTY = "willpub.ui.record";
+
+    private static final int[] SIZES = {10, 100, 1000, 5000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+    private static final long TIMEOUT_SECONDS = 60L;
+
+    /**
+     * Delay of FX thread which counts as a stall, which is a frame of 60 Hz.
+     */
+    private static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(16L);
+
+    /**
+     * Measured result of a project size.
+     *
+     * @param size Number of dependencies.
+     * @param openMedianMillis Median of open-to-applied latency.
+     * @param openMaxMillis Maximum of open-to-applied latency.
+     * @param stallMaxMillis Longest stall of FX thread.
+     * @param stallTotalMillis Sum of stalls which longer than a frame.
+     * @param layoutPasses Average layout passes of {@link TopBar} for each open.
+     */
+    private record Result(
+            int size,
+            double openMedianMillis,
+            double openMaxMillis,
+            double stallMaxMillis,
+            double stallTotalMillis,
+            double layoutPasses
+    ) {
+        @Nonnull
+        Map<String, Double> toMetrics() {
+            final LinkedHashMap<String, Double> metrics = new LinkedHashMap<>();
+            metrics.put(size + ".open.median.ms", openMedianMillis);
+            metrics.put(size + ".open.max.ms", openMaxMillis);
+            metrics.put(size + ".stall.max.ms", stallMaxMillis);
+            metrics.put(size + ".stall.total.ms", stallTotalMillis);
+            metrics.put(size + ".layout.passes", layoutPasses);
+            return metrics;
+        }
+    }
+
+    /**
+     * {@link TopBar} which counts invocation of layout.
+     */
+    private static final class LayoutCountingTopBar extends TopBar {
+        int layoutPasses = 0;
+
+        @Override
+        protected void layoutChildren() {
+            layoutPasses++;
+            super.layoutChildren();
+        }
+    }
+
+    private DartProjectLoader loader;
+
+    /**
+     * Widgets under measurement, which accessed in JavaFX application thread only unless mentioned.
+     */
+    private Scene scene;
+    private LayoutCountingTopBar topBar;
+    private CurrentDirectoryPath path;
+
+    /**
+     * Completed with time of the first layout pulse after applied.
+     */
+    private CompletableFuture<Long> applied = null;
+
+    /**
+     * Layout passes of the last open, which read after {@link #applied} completed.
+     */
+    private volatile int layoutPasses = 0;
+
+    @Start
+    void start(@Nonnull Stage stage) {
+        loader = new DartProjectLoader(WillPubExecutors.newIOExecutor("willpub-ui-test", 2));
+        topBar = new LayoutCountingTopBar();
+        path = new CurrentDirectoryPath(loader);
+        topBar.getChildren().add(path);
+        scene = new Scene(topBar, 800d, 60d);
+
+        path.addDirectoryChangesAppliedHandler(e -> {
+            final CompletableFuture<Long> target = applied;
+            if (target == null) return;
+
+            final Runnable[] listener = new Runnable[1];
+            listener[0] = () -> {
+                scene.removePostLayoutPulseListener(listener[0]);
+                layoutPasses = topBar.layoutPasses;
+                target.complete(System.nanoTime());
+            };
+            scene.addPostLayoutPulseListener(listener[0]);
+            Platform.requestNextPulse();
+        });
+        path.addDirectoryChangesFailedHandler(e -> {
+            final CompletableFuture<Long> target = applied;
+            if (target != null) target.completeExceptionally(new IllegalStateException(
+                    "Unable to open " + e.getInvalidDirPath(),
+                    e.getThrowable()
+            ));
+        });
+
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    @AfterEach
+    void closeLoader() {
+        if (loader != null) loader.close();
+    }
+
+    @Test
+    void testOpenAndResetWithinBudget() throws Exception {
+        final Properties budget = readBudget();
+        assertNotNull(budget, "Missing " + BUDGET_RESOURCE + " in test resources");
+
+        final LinkedHashMap<String, Double> metrics = new LinkedHashMap<>();
+        for (int size : SIZES) metrics.putAll(measure(size).toMetrics());
+
+        final String record = System.getProperty(RECORD_PROPERTY);
+        if (record != null && !record.isBlank()) writeMetrics(Path.of(record), metrics);
+
+        final List<String> regressions = compare(metrics, budget);
+        assertTrue(regressions.isEmpty(), () -> String.join("\n", regressions) + "\nMeasured: " + metrics);
+    }
+
+    @Nonnull
+    private Result measure(int size) throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        final Path dir = SyntheticProject.create(size);
+
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) openAndReset(dir);
+
+            final long[] latencies = new long[ROUNDS];
+            long layouts = 0L;
+            final FxStallProbe probe = new FxStallProbe();
+            probe.start();
+            try {
+                for (int i = 0; i < ROUNDS; i++) {
+                    latencies[i] = openAndReset(dir);
+                    layouts += layoutPasses;
+                }
+            } finally {
+                probe.stop();
+            }
+
+            Arrays.sort(latencies);
+            return new Result(
+                    size,
+                    toMillis(latencies[latencies.length / 2]),
+                    toMillis(latencies[latencies.length - 1]),
+                    toMillis(probe.maxDelay),
+                    toMillis(probe.totalStall),
+                    (double) layouts / ROUNDS
+            );
+        } finally {
+            SyntheticProject.delete(dir);
+        }
+    }
+
+    /**
+     * Open project, wait until applied, then reset. It must be called outside JavaFX application thread.
+     *
+     * @return Open-to-applied latency in nanoseconds.
+     */
+    private long openAndReset(@Nonnull Path dir) throws InterruptedException, ExecutionException, TimeoutException {
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+        final long start = WaitForAsyncUtils.asyncFx(() -> {
+            applied = done;
+            topBar.layoutPasses = 0;
+            final long t = System.nanoTime();
+            path.openDirectory(dir.toFile());
+            return t;
+        }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        final long end = done.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        WaitForAsyncUtils.asyncFx(() -> {
+            applied = null;
+            path.resetDirectory();
+            // Drop kept model that the next open parses files again
+            for (ProjectSession s : path.getSessionManager().getSessions()) s.close();
+        }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        return end - start;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    /**
+     * Probe which keeps posting a task to FX thread and records how long it waits.
+     */
+    private static final class FxStallProbe implements Runnable {
+        private final Thread thread = WillPubExecutors.newDaemonThreadFactory("willpub-fx-probe").newThread(this);
+        private volatile boolean running = false;
+
+        /**
+         * Written by probe thread only, read after {@link #stop()}.
+         */
+        long maxDelay = 0L, totalStall = 0L;
+
+        void start() {
+            running = true;
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    final CountDownLatch ran = new CountDownLatch(1);
+                    final long posted = System.nanoTime();
+                    Platform.runLater(ran::countDown);
+                    ran.await();
+
+                    final long delay = System.nanoTime() - posted;
+                    maxDelay = Math.max(maxDelay, delay);
+                    if (delay > STALL_THRESHOLD_NANOS) totalStall += delay;
+
+                    TimeUnit.MILLISECONDS.sleep(1L);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compare results with budgets.
+     *
+     * @return Description of every metric exceeds or has no budget.
+     */
+    @Nonnull
+    private static List<String> compare(@Nonnull Map<String, Double> metrics, @Nonnull Properties budget) {
+        final ArrayList<String> regressions = new ArrayList<>();
+
+        for (Map.Entry<String, Double> m : metrics.entrySet()) {
+            final String limit = budget.getProperty(m.getKey());
+            if (limit == null) {
+                regressions.add(m.getKey() + " has no budget");
+                continue;
+            }
+
+            if (m.getValue() > Double.parseDouble(limit)) regressions.add(String.format(
+                    Locale.ROOT,
+                    "%s is %.2f, which exceeds budget %s",
+                    m.getKey(), m.getValue(), limit
+            ));
+        }
+
+        return regressions;
+    }
+
+    @Nullable
+    private static Properties readBudget() throws IOException {
+        final Properties budget = new Properties();
+
+        try (InputStream is = UiResponsivenessTest.class.getResourceAsStream(BUDGET_RESOURCE)) {
+            if (is == null) return null;
+            budget.load(is);
+        }
+
+        return budget;
+    }
+
+    private static void writeMetrics(@Nonnull Path file, @Nonnull Map<String, Double> metrics) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("# Metrics of UiResponsivenessTest, measured on " + System.getProperty("os.name") + " "
+                    + System.getProperty("os.arch") + " with " + Runtime.getRuntime().availableProcessors()
+                    + " processors and " + System.getProperty("glass.platform", "default") + " glass platform");
+            w.newLine();
+            for (Map.Entry<String, Double> m : metrics.entrySet()) {
+                w.write(m.getKey() + "=" + String.format(Locale.ROOT, "%.2f", m.getValue()));
+                w.newLine();
+            }
+        }
+    }
+}
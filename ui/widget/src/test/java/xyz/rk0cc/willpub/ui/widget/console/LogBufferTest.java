@@ -0,0 +1,131 @@
+package xyz.rk0cc.willpub.ui.widget.console;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ring of line references and chunk releasing of {@link LogBuffer}, which does not require JavaFX.
+ */
+final class LogBufferTest {
+    @Nonnull
+    private static String textOf(@Nonnull LogBuffer buffer, long lineNumber) {
+        final LogLine line = buffer.getLine(lineNumber);
+        assertNotNull(line, () -> "Line " + lineNumber + " is dropped");
+        assertEquals(lineNumber, line.getLineNumber());
+        return line.getText();
+    }
+
+    @Test
+    void testAppendAndDecode() throws Exception {
+        final LogBuffer buffer = new LogBuffer(10, LogBuffer.CHUNK_SIZE);
+        assertEquals(0, buffer.size());
+        assertNull(buffer.getLine(0L));
+
+        assertEquals(0L, buffer.append("Resolving dependencies...", false));
+        assertEquals(1L, buffer.append("\u001B[31mError:\u001B[0m pubspec.yaml not found", true));
+        assertEquals(2L, buffer.append("Downloading 10%\rDownloading 100%", false));
+
+        assertEquals("Resolving dependencies...", textOf(buffer, 0L));
+        assertFalse(buffer.getLine(0L).isError());
+        assertEquals(0, buffer.getLine(0L).getSpanCount());
+
+        final LogLine error = buffer.getLine(1L);
+        assertNotNull(error);
+        assertEquals("Error: pubspec.yaml not found", error.getText());
+        assertTrue(error.isError());
+        assertEquals(1, error.getSpanCount());
+        assertEquals(0, error.getSpanStart(0));
+        assertEquals(6, error.getSpanEnd(0));
+        assertEquals(1, AnsiStyle.foreground(error.getSpanStyle(0)));
+
+        // Only text after carriage return is visible
+        assertEquals("Downloading 100%", textOf(buffer, 2L));
+        assertEquals(3, buffer.size());
+        assertNull(buffer.getLine(3L));
+        assertEquals(0L, buffer.getDroppedLines());
+    }
+
+    @Test
+    void testRingDropsOldestLines() throws Exception {
+        final LogBuffer buffer = new LogBuffer(3, LogBuffer.CHUNK_SIZE);
+        for (int i = 0; i < 8; i++) assertEquals(i, buffer.append("line " + i, false));
+
+        assertEquals(3, buffer.size());
+        assertEquals(5L, buffer.getFirstLineNumber());
+        assertEquals(8L, buffer.getNextLineNumber());
+        assertEquals(5L, buffer.getDroppedLines());
+
+        // Line number is never reused after the slot is overwritten
+        assertFalse(buffer.contains(4L));
+        assertNull(buffer.getLine(2L));
+        for (long n = 5L; n < 8L; n++) assertEquals("line " + n, textOf(buffer, n));
+    }
+
+    @Test
+    void testReleaseChunksBySize() throws Exception {
+        final long maxBytes = 2L * LogBuffer.CHUNK_SIZE;
+        final LogBuffer buffer = new LogBuffer(1_000_000, maxBytes);
+        final String padding = "x".repeat(1000);
+        for (int i = 0; i < 2000; i++) buffer.append(i + " " + padding, false);
+
+        assertTrue(buffer.getByteSize() <= maxBytes, buffer::toString);
+        assertTrue(buffer.getDroppedLines() > 0L, buffer::toString);
+        assertEquals(2000L, buffer.getFirstLineNumber() + buffer.size());
+        assertNull(buffer.getLine(0L));
+        for (long n = buffer.getFirstLineNumber(); n < 2000L; n++) assertEquals(n + " " + padding, textOf(buffer, n));
+    }
+
+    @Test
+    void testTruncateLongLine() throws Exception {
+        final LogBuffer buffer = new LogBuffer(10, LogBuffer.CHUNK_SIZE);
+        buffer.append("y".repeat(LogBuffer.MAX_LINE_LENGTH * 3), false);
+        buffer.append("after", false);
+
+        assertEquals(LogBuffer.MAX_LINE_LENGTH, textOf(buffer, 0L).length());
+        assertEquals("after", textOf(buffer, 1L));
+    }
+
+    @Test
+    void testFind() throws Exception {
+        final LogBuffer buffer = new LogBuffer(4, LogBuffer.CHUNK_SIZE);
+        for (String line : new String[] {"Got dependencies!", "+ http 0.13.4", "+ path 1.8.2", "+ HTTP_parser 1.0.0",
+                "Changed 3 dependencies!"}) buffer.append(line, false);
+
+        // The first line is dropped by ring
+        assertEquals(-1L, buffer.find("Got", 0L, true, false));
+        assertEquals(1L, buffer.find("http", 0L, true, false));
+        assertEquals(1L, buffer.find("http", 3L, false, false));
+        assertEquals(3L, buffer.find("http", 2L, true, true));
+        assertEquals(-1L, buffer.find("http", 2L, true, false));
+        assertEquals(4L, buffer.find("dependencies", 9L, false, false));
+        assertEquals(-1L, buffer.find("dependencies", 5L, true, false));
+        assertEquals(-1L, buffer.find("", 1L, true, false));
+    }
+
+    @Test
+    void testClear() throws Exception {
+        final LogBuffer buffer = new LogBuffer(2, LogBuffer.CHUNK_SIZE);
+        for (int i = 0; i < 3; i++) buffer.append("line " + i, false);
+        buffer.clear();
+
+        assertEquals(0, buffer.size());
+        assertEquals(0L, buffer.getByteSize());
+        assertEquals(1L, buffer.getDroppedLines());
+        assertNull(buffer.getLine(2L));
+        assertEquals(-1L, buffer.find("line", 0L, true, false));
+
+        // Line numbers continue from the cleared lines
+        assertEquals(3L, buffer.append("line 3", false));
+        assertEquals("line 3", textOf(buffer, 3L));
+        assertEquals(1L, buffer.getDroppedLines());
+    }
+
+    @Test
+    void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new LogBuffer(0, LogBuffer.CHUNK_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> new LogBuffer(10, LogBuffer.CHUNK_SIZE - 1L));
+    }
+}